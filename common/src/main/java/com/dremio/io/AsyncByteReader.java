@@ -22,6 +22,7 @@ import java.util.Objects;
 import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionException;
+import java.util.function.IntFunction;
 
 import com.dremio.io.file.Path;
 import com.google.common.collect.ImmutableList;
@@ -93,6 +94,22 @@ public interface AsyncByteReader extends AutoCloseable {
     }).whenComplete((a,b) -> buf.release());
   }
 
+  /**
+   * Reads several ranges of the file. Ranges separated by at most maxGap bytes are merged into a single read of at most
+   * maxMergedLength bytes, unless a single range is longer, and the merged reads are issued in parallel.
+   *
+   * @param ranges ranges to read
+   * @param maxGap maximum number of unused bytes read between two merged ranges
+   * @param maxMergedLength maximum length of a merged read
+   * @param allocator allocates the buffers that the merged reads are read into
+   * @return A CompletableFuture carrying a slice of the buffer of its merged read for each range, in the order of the
+   * ranges, once all the reads are completed. The slices must be released by the caller.
+   */
+  default CompletableFuture<List<ByteBuf>> readFullyVectored(List<FileRange> ranges, int maxGap, int maxMergedLength,
+                                                             IntFunction<ByteBuf> allocator) {
+    return VectoredReads.read(this, ranges, maxGap, maxMergedLength, allocator);
+  }
+
   @Override
   default void close() throws Exception {
   }
@@ -125,6 +142,32 @@ public interface AsyncByteReader extends AutoCloseable {
     public void setValue(double newValue) { value = newValue;}
   }
 
+  /**
+   * A range of bytes of the file or object.
+   */
+  final class FileRange {
+    private final long offset;
+    private final int length;
+
+    public FileRange(long offset, int length) {
+      this.offset = offset;
+      this.length = length;
+    }
+
+    public long getOffset() {
+      return offset;
+    }
+
+    public int getLength() {
+      return length;
+    }
+
+    @Override
+    public String toString() {
+      return "[" + offset + ", " + (offset + length) + ")";
+    }
+  }
+
   /**
    * Interface to exchange all properties associated with the file or object for which the async reader
    * is required.  The full path, version, and file type should completely qualify this file or object
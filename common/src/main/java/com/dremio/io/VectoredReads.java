@@ -0,0 +1,149 @@
+/*
+ * Copyright (C) 2017-2019 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.io;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.IntFunction;
+
+import com.dremio.io.AsyncByteReader.FileRange;
+import com.google.common.base.Preconditions;
+
+import io.netty.buffer.ByteBuf;
+
+/**
+ * Implementation of {@link AsyncByteReader#readFullyVectored}.
+ */
+final class VectoredReads {
+
+  private VectoredReads() {
+  }
+
+  static CompletableFuture<List<ByteBuf>> read(AsyncByteReader reader, List<FileRange> ranges, int maxGap,
+                                               int maxMergedLength, IntFunction<ByteBuf> allocator) {
+    final List<MergedRange> merged = merge(ranges, maxGap, maxMergedLength);
+    final ByteBuf[] results = new ByteBuf[ranges.size()];
+    final List<CompletableFuture<Void>> reads = new ArrayList<>(merged.size());
+    for (MergedRange range : merged) {
+      final ByteBuf buf;
+      try {
+        buf = allocator.apply(range.length);
+      } catch (RuntimeException e) {
+        return failed(reads, results, e);
+      }
+      reads.add(reader.readFully(range.offset, buf, 0, range.length)
+        .thenRun(() -> {
+          for (int i : range.indices) {
+            final FileRange r = ranges.get(i);
+            results[i] = buf.retainedSlice((int) (r.getOffset() - range.offset), r.getLength());
+          }
+        })
+        .whenComplete((v, e) -> buf.release()));
+    }
+
+    return CompletableFuture.allOf(reads.toArray(new CompletableFuture[0]))
+      .handle((v, e) -> {
+        if (e != null) {
+          release(results);
+          throw e instanceof RuntimeException ? (RuntimeException) e : new RuntimeException(e);
+        }
+        return Arrays.asList(results);
+      });
+  }
+
+  private static CompletableFuture<List<ByteBuf>> failed(List<CompletableFuture<Void>> reads, ByteBuf[] results,
+                                                         Throwable t) {
+    final CompletableFuture<List<ByteBuf>> failed = new CompletableFuture<>();
+    CompletableFuture.allOf(reads.toArray(new CompletableFuture[0]))
+      .whenComplete((v, e) -> {
+        release(results);
+        failed.completeExceptionally(t);
+      });
+    return failed;
+  }
+
+  private static void release(ByteBuf[] results) {
+    for (int i = 0; i < results.length; i++) {
+      if (results[i] != null) {
+        results[i].release();
+        results[i] = null;
+      }
+    }
+  }
+
+  /**
+   * Sorts the ranges by offset and merges the ranges separated by at most maxGap bytes, as long as the merged range is
+   * at most maxMergedLength bytes long. A range longer than maxMergedLength is read on its own.
+   */
+  static List<MergedRange> merge(List<FileRange> ranges, int maxGap, int maxMergedLength) {
+    Preconditions.checkArgument(maxGap >= 0, "maximum gap must not be negative");
+    final Integer[] order = new Integer[ranges.size()];
+    for (int i = 0; i < order.length; i++) {
+      Preconditions.checkArgument(ranges.get(i).getLength() >= 0 && ranges.get(i).getOffset() >= 0,
+        "invalid range %s", ranges.get(i));
+      order[i] = i;
+    }
+    Arrays.sort(order, Comparator.comparingLong(i -> ranges.get(i).getOffset()));
+
+    final List<MergedRange> merged = new ArrayList<>();
+    MergedRange current = null;
+    for (int i : order) {
+      final FileRange range = ranges.get(i);
+      final long end = range.getOffset() + range.getLength();
+      if (current != null
+          && range.getOffset() <= current.offset + current.length + maxGap
+          && Math.max(end, current.offset + current.length) - current.offset <= maxMergedLength) {
+        current.length = (int) (Math.max(end, current.offset + current.length) - current.offset);
+        current.indices.add(i);
+      } else {
+        current = new MergedRange(range.getOffset(), range.getLength());
+        current.indices.add(i);
+        merged.add(current);
+      }
+    }
+    return merged;
+  }
+
+  /**
+   * A read covering one or more of the requested ranges.
+   */
+  static final class MergedRange {
+    private final long offset;
+    private int length;
+    // indices of the requested ranges covered by this read
+    private final List<Integer> indices = new ArrayList<>();
+
+    MergedRange(long offset, int length) {
+      this.offset = offset;
+      this.length = length;
+    }
+
+    long getOffset() {
+      return offset;
+    }
+
+    int getLength() {
+      return length;
+    }
+
+    List<Integer> getIndices() {
+      return indices;
+    }
+  }
+}
@@ -16,15 +16,21 @@
 package com.dremio.io;
 
 import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.junit.Assert.assertEquals;
 import static org.mockito.Mockito.mock;
 
 import java.io.FileNotFoundException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionException;
+import java.util.stream.Collectors;
 
 import org.junit.Test;
 
 import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
 
 public class AsyncByteReaderTest {
   @Test
@@ -188,6 +194,87 @@ public class AsyncByteReaderTest {
     byteReader.versionedReadFully("1", 0, mock(ByteBuf.class), 100, 100).join();
   }
 
+  @Test
+  public void testReadFullyVectored_mergesNearbyRanges() {
+    final byte[] data = new byte[10_000];
+    for (int i = 0; i < data.length; i++) {
+      data[i] = (byte) i;
+    }
+    final List<Long> reads = new ArrayList<>();
+    AsyncByteReader byteReader = new ReusableAsyncByteReader() {
+      @Override
+      public CompletableFuture<Void> readFully(long offset, ByteBuf dst, int dstOffset, int len) {
+        synchronized (reads) {
+          reads.add(offset);
+        }
+        dst.setBytes(dstOffset, data, (int) offset, len);
+        return CompletableFuture.completedFuture(null);
+      }
+
+      @Override
+      public CompletableFuture<Void> checkVersion(String version) {
+        return CompletableFuture.completedFuture(null);
+      }
+    };
+
+    // the first two ranges are merged, even though they are not sorted, the third one is too far and the last one
+    // would make the merged read too long
+    final List<AsyncByteReader.FileRange> ranges = Arrays.asList(
+      new AsyncByteReader.FileRange(150, 100),
+      new AsyncByteReader.FileRange(0, 100),
+      new AsyncByteReader.FileRange(1000, 200),
+      new AsyncByteReader.FileRange(1250, 1000));
+    final List<ByteBuf> bufs = byteReader.readFullyVectored(ranges, 100, 1000, Unpooled::buffer).join();
+    try {
+      assertEquals(Arrays.asList(0L, 1000L, 1250L), reads.stream().sorted().collect(Collectors.toList()));
+      assertEquals(ranges.size(), bufs.size());
+      for (int i = 0; i < ranges.size(); i++) {
+        final AsyncByteReader.FileRange range = ranges.get(i);
+        assertEquals(range.getLength(), bufs.get(i).readableBytes());
+        for (int j = 0; j < range.getLength(); j++) {
+          assertEquals(data[(int) range.getOffset() + j], bufs.get(i).getByte(j));
+        }
+      }
+    } finally {
+      bufs.forEach(ByteBuf::release);
+    }
+  }
+
+  @Test
+  public void testReadFullyVectored_releasesBuffersOnFailure() {
+    final List<ByteBuf> allocated = new ArrayList<>();
+    AsyncByteReader byteReader = new ReusableAsyncByteReader() {
+      @Override
+      public CompletableFuture<Void> readFully(long offset, ByteBuf dst, int dstOffset, int len) {
+        if (offset > 0) {
+          CompletableFuture<Void> completableFuture = new CompletableFuture<>();
+          completableFuture.completeExceptionally(new RuntimeException("Something went wrong"));
+          return completableFuture;
+        }
+        return CompletableFuture.completedFuture(null);
+      }
+
+      @Override
+      public CompletableFuture<Void> checkVersion(String version) {
+        return CompletableFuture.completedFuture(null);
+      }
+    };
+
+    final List<AsyncByteReader.FileRange> ranges = Arrays.asList(
+      new AsyncByteReader.FileRange(0, 100),
+      new AsyncByteReader.FileRange(10_000, 100));
+    assertThatExceptionOfType(CompletionException.class)
+      .isThrownBy(() -> byteReader.readFullyVectored(ranges, 0, 1000, len -> {
+        final ByteBuf buf = Unpooled.buffer(len);
+        allocated.add(buf);
+        return buf;
+      }).join())
+      .havingCause()
+      .withMessage("Something went wrong");
+    assertEquals(2, allocated.size());
+    allocated.forEach(buf -> assertEquals(0, buf.refCnt()));
+  }
+
   private Runnable sleep() {
     return () -> {
       try {
@@ -238,7 +238,7 @@ public class TestMetadataProvider extends BaseTestQuery {
 
     assertEquals(RequestStatus.OK, resp.getStatus());
     List<TableMetadata> tables = resp.getTablesList();
-    assertEquals(31, tables.size());
+    assertEquals(32, tables.size());
 
     Iterator<TableMetadata> iterator = tables.iterator();
     verifyTable("INFORMATION_SCHEMA", "CATALOGS", iterator.next());
@@ -247,6 +247,7 @@ public class TestMetadataProvider extends BaseTestQuery {
     verifyTable("INFORMATION_SCHEMA", "TABLES", iterator.next());
     verifyTable("INFORMATION_SCHEMA", "VIEWS", iterator.next());
     verifyTable("sys", "boot", iterator.next());
+    verifyTable("sys", "code_cache", iterator.next());
     verifyTable("sys", "fragments", iterator.next());
     verifyTable("sys", "jobs", iterator.next());
     verifyTable("sys", "materializations", iterator.next());
@@ -295,7 +296,7 @@ public class TestMetadataProvider extends BaseTestQuery {
 
     assertEquals(RequestStatus.OK, resp.getStatus());
     List<TableMetadata> tables = resp.getTablesList();
-    assertEquals(30, tables.size());
+    assertEquals(31, tables.size());
 
     Iterator<TableMetadata> iterator = tables.iterator();
     verifyTable("INFORMATION_SCHEMA", "CATALOGS", iterator.next());
@@ -304,6 +305,7 @@ public class TestMetadataProvider extends BaseTestQuery {
     verifyTable("INFORMATION_SCHEMA", "TABLES", iterator.next());
     verifyTable("INFORMATION_SCHEMA", "VIEWS", iterator.next());
     verifyTable("sys", "boot", iterator.next());
+    verifyTable("sys", "code_cache", iterator.next());
     verifyTable("sys", "fragments", iterator.next());
     verifyTable("sys", "jobs", iterator.next());
     verifyTable("sys", "materializations", iterator.next());
@@ -339,13 +341,14 @@ public class TestMetadataProvider extends BaseTestQuery {
 
     assertEquals(RequestStatus.OK, resp.getStatus());
     List<TableMetadata> tables = resp.getTablesList();
-    assertEquals(19, tables.size());
+    assertEquals(20, tables.size());
 
     Iterator<TableMetadata> iterator = tables.iterator();
     verifyTable("INFORMATION_SCHEMA", "CATALOGS", iterator.next());
     verifyTable("INFORMATION_SCHEMA", "COLUMNS", iterator.next());
 
     verifyTable("sys", "boot", iterator.next());
+    verifyTable("sys", "code_cache", iterator.next());
     verifyTable("sys", "jobs", iterator.next());
     verifyTable("sys", "materializations", iterator.next());
     verifyTable("sys", "memory", iterator.next());
@@ -389,7 +392,7 @@ public class TestMetadataProvider extends BaseTestQuery {
     assertEquals(RequestStatus.OK, resp1.getStatus());
 
     final List<ColumnMetadata> columns1 = resp1.getColumnsList();
-    assertEquals(286, columns1.size());
+    assertEquals(296, columns1.size());
     assertTrue("incremental update column shouldn't be returned",
       columns1.stream().noneMatch(input -> input.getColumnName().equals(IncrementalUpdateUtils.UPDATE_COLUMN)));
   }
@@ -403,7 +406,7 @@ public class TestMetadataProvider extends BaseTestQuery {
 
     assertEquals(RequestStatus.OK, resp.getStatus());
     List<ColumnMetadata> columns = resp.getColumnsList();
-    assertEquals(23, columns.size());
+    assertEquals(24, columns.size());
 
     Iterator<ColumnMetadata> iterator = columns.iterator();
     verifyColumn("INFORMATION_SCHEMA", "COLUMNS", "ORDINAL_POSITION", iterator.next());
@@ -414,6 +417,7 @@ public class TestMetadataProvider extends BaseTestQuery {
 
     verifyColumn("cp", "tpch/customer.parquet", "c_phone", iterator.next());
 
+    verifyColumn("sys", "code_cache", "fabric_port", iterator.next());
     verifyColumn("sys", "fragments", "rows_processed", iterator.next());
     verifyColumn("sys", "jobs", "execution_planning_ts", iterator.next());
     verifyColumn("sys", "jobs", "execution_planning_epoch_millis", iterator.next());
@@ -129,6 +129,11 @@ public class TestSystemTable extends BaseTestQuery {
     test("select * from sys.memory");
   }
 
+  @Test
+  public void codeCacheTable() throws Exception {
+    test("select * from sys.code_cache");
+  }
+
   @Test
   public void fragmentsTable() throws Exception {
     test("select * from sys.fragments");
@@ -52,7 +52,7 @@ import com.dremio.exec.store.dfs.implicit.CompositeReaderConfig;
 import com.dremio.exec.store.dfs.implicit.ConstantColumnPopulators;
 import com.dremio.exec.store.dfs.implicit.NameValuePair;
 import com.dremio.exec.store.parquet.SplitReaderCreatorIterator;
-import com.dremio.exec.util.BloomFilter;
+import com.dremio.exec.util.BlockedBloomFilter;
 import com.dremio.options.OptionManager;
 import com.dremio.sabot.exec.context.OpProfileDef;
 import com.dremio.sabot.exec.context.OperatorContext;
@@ -315,9 +315,8 @@ public class TestHiveRecordReaderIterator {
     private RuntimeFilter prepareRuntimeFilter(String colName, int... value) throws Exception {
         try (AutoCloseables.RollbackCloseable rollbackCloseable = new AutoCloseables.RollbackCloseable();
              ArrowBuf keyBuf = testAllocator.buffer(5)) {
-            BloomFilter bloomFilter = new BloomFilter(testAllocator, TEST_NAME, 512);
+            BlockedBloomFilter bloomFilter = new BlockedBloomFilter(testAllocator, TEST_NAME, 64, 512);
             rollbackCloseable.add(bloomFilter);
-            bloomFilter.setup();
 
             keyBuf.setByte(0, 1);
             for (int v : value) {
@@ -0,0 +1,89 @@
+/*
+ * Copyright (C) 2017-2019 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.sabot.benchmarks;
+
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.memory.RootAllocatorFactory;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import com.dremio.common.AutoCloseables;
+import com.dremio.exec.physical.base.PhysicalOperator;
+import com.dremio.sabot.BaseTestOperator;
+import com.dremio.sabot.exec.context.OperatorContextImpl;
+import com.dremio.sabot.op.copier.FieldBufferCopierFactory;
+
+/**
+ * Base class for the benchmarks that need the operator environment: options, code compiler and function
+ * registry. The environment is the one used by the operator tests, created once per trial. Subclasses
+ * generate their data in {@link #setupTrial()}, so the environment outlives it.
+ */
+@State(Scope.Benchmark)
+public abstract class BaseOperatorBenchmark extends BaseTestOperator {
+
+  private BufferAllocator rootAllocator;
+
+  @Setup(Level.Trial)
+  public void setupEnvironment() throws Exception {
+    BaseTestOperator.setup();
+    rootAllocator = RootAllocatorFactory.newRoot(DEFAULT_SABOT_CONFIG);
+    setupTrial();
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDownEnvironment() throws Exception {
+    try {
+      tearDownTrial();
+    } finally {
+      AutoCloseables.close(rootAllocator);
+      BaseTestOperator.cleanupAfterClass();
+    }
+  }
+
+  /**
+   * Generates the benchmark data, once the environment is set up
+   */
+  protected abstract void setupTrial() throws Exception;
+
+  /**
+   * Releases the benchmark data, before the environment is closed
+   */
+  protected abstract void tearDownTrial() throws Exception;
+
+  /**
+   * @return the allocator for the benchmark data
+   */
+  protected BufferAllocator getAllocator() {
+    return rootAllocator;
+  }
+
+  /**
+   * Creates a context for the given operator, the caller is responsible for closing it
+   */
+  protected OperatorContextImpl newOperatorContext(PhysicalOperator pop, int targetBatchSize) throws Exception {
+    final BufferAllocator child = rootAllocator.newChildAllocator(pop.getClass().getSimpleName(),
+      pop.getProps().getMemReserve(),
+      pop.getProps().getMemLimit() == 0 ? Long.MAX_VALUE : pop.getProps().getMemLimit());
+    return testContext.getNewOperatorContext(child, pop, targetBatchSize);
+  }
+
+  protected FieldBufferCopierFactory newCopierFactory() {
+    return new FieldBufferCopierFactory(testContext.getOptions());
+  }
+}
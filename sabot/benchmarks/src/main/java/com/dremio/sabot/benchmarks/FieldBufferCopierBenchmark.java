@@ -0,0 +1,153 @@
+/*
+ * Copyright (C) 2017-2019 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.sabot.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.arrow.memory.ArrowBuf;
+import org.apache.arrow.vector.FieldVector;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.dremio.common.AutoCloseables;
+import com.dremio.exec.record.VectorContainer;
+import com.dremio.sabot.op.copier.FieldBufferCopier;
+import com.dremio.sabot.op.copier.FieldBufferCopierFactory;
+
+import io.netty.util.internal.PlatformDependent;
+
+/**
+ * Gathers records at random offsets with the {@link FieldBufferCopier}s, for each offset format:
+ * two byte offsets within a batch (sv2), four byte batch and record offsets (sv4) and the six byte
+ * batch and record offsets used by the hash join.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class FieldBufferCopierBenchmark extends BaseOperatorBenchmark {
+  private static final int NUM_BATCHES = 16;
+  private static final int BATCH_SIZE = 4096;
+  private static final int NUM_COPIES = 64;
+  private static final int COPY_SIZE = 4096;
+  private static final long SEED = 0xC0FFEEL;
+
+  /**
+   * Format of the offsets
+   */
+  public enum CopyMode {
+    TWO_BYTE(2),
+    FOUR_BYTE(4),
+    SIX_BYTE(6);
+
+    private final int width;
+
+    CopyMode(int width) {
+      this.width = width;
+    }
+  }
+
+  @Param({"TWO_BYTE", "FOUR_BYTE", "SIX_BYTE"})
+  private CopyMode mode;
+
+  @Param({"BIGINT", "VARCHAR_16", "VARCHAR_64"})
+  private SyntheticData.KeyType keyType;
+
+  @Param({"0", "0.1"})
+  private double nullDensity;
+
+  private SyntheticData data;
+  private VectorContainer output;
+  private ArrowBuf offsets;
+  private List<FieldBufferCopier> copiers;
+
+  @Override
+  protected void setupTrial() {
+    data = SyntheticData.generate(getAllocator(), "", keyType, NUM_BATCHES, BATCH_SIZE, 100_000, nullDensity);
+    output = VectorContainer.create(getAllocator(), data.getSchema());
+    offsets = getAllocator().buffer((long) mode.width * NUM_COPIES * COPY_SIZE);
+
+    final Random random = new Random(SEED);
+    final long address = offsets.memoryAddress();
+    for (int i = 0; i < NUM_COPIES * COPY_SIZE; i++) {
+      final int batch = random.nextInt(NUM_BATCHES);
+      final int record = random.nextInt(BATCH_SIZE);
+      final long offsetAddr = address + (long) i * mode.width;
+      switch (mode) {
+        case TWO_BYTE:
+          PlatformDependent.putShort(offsetAddr, (short) record);
+          break;
+        case FOUR_BYTE:
+          PlatformDependent.putInt(offsetAddr, (batch << 16) | record);
+          break;
+        case SIX_BYTE:
+          PlatformDependent.putInt(offsetAddr, batch);
+          PlatformDependent.putShort(offsetAddr + 4, (short) record);
+          break;
+        default:
+          throw new IllegalArgumentException("Unknown copy mode " + mode);
+      }
+    }
+
+    final FieldBufferCopierFactory factory = newCopierFactory();
+    final List<FieldVector> outputs = VectorContainer.getFieldVectors(output);
+    if (mode == CopyMode.TWO_BYTE) {
+      // two byte offsets only address the first batch
+      copiers = factory.getTwoByteCopiers(VectorContainer.getFieldVectors(data.getBatches().get(0)), outputs);
+    } else {
+      final List<FieldVector[]> inputs = new ArrayList<>();
+      for (int column = 0; column < outputs.size(); column++) {
+        final FieldVector[] vectors = new FieldVector[NUM_BATCHES];
+        for (int batch = 0; batch < NUM_BATCHES; batch++) {
+          vectors[batch] = VectorContainer.getFieldVectors(data.getBatches().get(batch)).get(column);
+        }
+        inputs.add(vectors);
+      }
+      copiers = mode == CopyMode.FOUR_BYTE
+        ? factory.getFourByteCopiers(inputs, outputs)
+        : factory.getSixByteCopiers(inputs, outputs);
+    }
+  }
+
+  @Override
+  protected void tearDownTrial() throws Exception {
+    AutoCloseables.close(offsets, output, data);
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(NUM_COPIES * COPY_SIZE)
+  public int copy() {
+    final long address = offsets.memoryAddress();
+    for (int i = 0; i < NUM_COPIES; i++) {
+      final long offsetAddr = address + (long) i * COPY_SIZE * mode.width;
+      for (FieldBufferCopier copier : copiers) {
+        copier.copy(offsetAddr, COPY_SIZE);
+      }
+    }
+    return output.setAllCount(COPY_SIZE);
+  }
+}
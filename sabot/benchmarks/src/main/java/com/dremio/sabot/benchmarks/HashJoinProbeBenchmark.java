@@ -0,0 +1,123 @@
+/*
+ * Copyright (C) 2017-2019 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.sabot.benchmarks;
+
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.calcite.rel.core.JoinRelType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.dremio.common.AutoCloseables;
+import com.dremio.common.logical.data.JoinCondition;
+import com.dremio.exec.physical.config.HashJoinPOP;
+import com.dremio.exec.record.VectorContainer;
+import com.dremio.sabot.exec.context.OperatorContextImpl;
+import com.dremio.sabot.op.join.vhash.VectorizedHashJoinOperator;
+import com.dremio.sabot.op.spi.DualInputOperator;
+
+/**
+ * Probes a hash table built from {@code cardinality} distinct keys with {@link VectorizedHashJoinOperator}.
+ * The build side is consumed before each invocation, so only the probe side, hash table lookups and
+ * projection of the matching records, is measured.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class HashJoinProbeBenchmark extends BaseOperatorBenchmark {
+  private static final int NUM_BATCHES = 256;
+  private static final int BATCH_SIZE = 4096;
+
+  @Param({"1000", "100000", "1000000"})
+  private int cardinality;
+
+  @Param({"BIGINT", "VARCHAR_16", "VARCHAR_64"})
+  private SyntheticData.KeyType keyType;
+
+  @Param({"0", "0.1"})
+  private double nullDensity;
+
+  private SyntheticData build;
+  private SyntheticData probe;
+
+  private OperatorContextImpl context;
+  private VectorContainer left;
+  private VectorContainer right;
+  private VectorizedHashJoinOperator operator;
+
+  @Override
+  protected void setupTrial() {
+    build = SyntheticData.generateDistinct(getAllocator(), "b_", keyType, BATCH_SIZE, cardinality);
+    probe = SyntheticData.generate(getAllocator(), "p_", keyType, NUM_BATCHES, BATCH_SIZE, cardinality, nullDensity);
+  }
+
+  @Override
+  protected void tearDownTrial() throws Exception {
+    AutoCloseables.close(build, probe);
+  }
+
+  @Setup(Level.Invocation)
+  public void buildSide() throws Exception {
+    final HashJoinPOP pop = new HashJoinPOP(PROPS, null, null,
+      Collections.singletonList(new JoinCondition("EQUALS", f("p_key"), f("b_key"))),
+      null, JoinRelType.INNER, true, null);
+    context = newOperatorContext(pop, BATCH_SIZE);
+    left = VectorContainer.create(getAllocator(), probe.getSchema());
+    right = VectorContainer.create(getAllocator(), build.getSchema());
+    operator = new VectorizedHashJoinOperator(context, pop);
+    operator.setup(left, right);
+    for (VectorContainer batch : build.getBatches()) {
+      SyntheticData.load(batch, right);
+      operator.consumeDataRight(batch.getRecordCount());
+    }
+    operator.noMoreToConsumeRight();
+  }
+
+  @TearDown(Level.Invocation)
+  public void closeOperator() throws Exception {
+    AutoCloseables.close(operator, left, right, context);
+    operator = null;
+    context = null;
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(NUM_BATCHES * BATCH_SIZE)
+  public long probe() throws Exception {
+    long outputRecords = 0;
+    for (VectorContainer batch : probe.getBatches()) {
+      SyntheticData.load(batch, left);
+      operator.consumeDataLeft(batch.getRecordCount());
+      while (operator.getState() == DualInputOperator.State.CAN_PRODUCE) {
+        outputRecords += operator.outputData();
+      }
+    }
+    operator.noMoreToConsumeLeft();
+    return outputRecords;
+  }
+}
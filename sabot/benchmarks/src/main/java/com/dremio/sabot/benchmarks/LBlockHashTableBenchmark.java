@@ -0,0 +1,171 @@
+/*
+ * Copyright (C) 2017-2019 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.sabot.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.arrow.memory.ArrowBuf;
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.memory.RootAllocatorFactory;
+import org.apache.arrow.vector.FieldVector;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.dremio.common.AutoCloseables;
+import com.dremio.exec.record.VectorContainer;
+import com.dremio.sabot.op.common.ht2.BlockChunk;
+import com.dremio.sabot.op.common.ht2.FieldVectorPair;
+import com.dremio.sabot.op.common.ht2.FixedBlockVector;
+import com.dremio.sabot.op.common.ht2.HashComputation;
+import com.dremio.sabot.op.common.ht2.LBlockHashTable;
+import com.dremio.sabot.op.common.ht2.PivotBuilder;
+import com.dremio.sabot.op.common.ht2.PivotDef;
+import com.dremio.sabot.op.common.ht2.Pivots;
+import com.dremio.sabot.op.common.ht2.VariableBlockVector;
+import com.dremio.test.DremioTest;
+import com.koloboke.collect.hash.HashConfig;
+
+/**
+ * Inserts into, and probes, a {@link LBlockHashTable} with pivoted keys. Pivoting and hashing are done
+ * once during setup, so only the hash table is measured.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class LBlockHashTableBenchmark {
+  private static final int NUM_BATCHES = 256;
+  private static final int BATCH_SIZE = 4096;
+  private static final int NUM_RECORDS = NUM_BATCHES * BATCH_SIZE;
+  private static final int HASH_TABLE_BATCH_SIZE = 3968;
+
+  @Param({"1000", "100000", "1000000"})
+  private int cardinality;
+
+  @Param({"BIGINT", "VARCHAR_16", "VARCHAR_64"})
+  private SyntheticData.KeyType keyType;
+
+  @Param({"0", "0.1"})
+  private double nullDensity;
+
+  private BufferAllocator allocator;
+  private SyntheticData data;
+  private PivotDef pivot;
+  private final List<PivotedBatch> pivotedBatches = new ArrayList<>();
+  private ArrowBuf ordinals;
+  private LBlockHashTable probeTable;
+
+  @Setup(Level.Trial)
+  public void setup() {
+    allocator = RootAllocatorFactory.newRoot(DremioTest.DEFAULT_SABOT_CONFIG);
+    data = SyntheticData.generate(allocator, "", keyType, NUM_BATCHES, BATCH_SIZE, cardinality, nullDensity);
+    for (VectorContainer batch : data.getBatches()) {
+      final FieldVector key = VectorContainer.getFieldVectors(batch).get(0);
+      final PivotDef batchPivot = PivotBuilder.getBlockDefinition(new FieldVectorPair(key, key));
+      pivotedBatches.add(new PivotedBatch(allocator, batchPivot, batch.getRecordCount()));
+      pivot = batchPivot;
+    }
+    ordinals = allocator.buffer(4L * BATCH_SIZE);
+
+    probeTable = newTable();
+    insertAll(probeTable);
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() throws Exception {
+    AutoCloseables.close(probeTable, ordinals);
+    AutoCloseables.close(pivotedBatches);
+    pivotedBatches.clear();
+    AutoCloseables.close(data, allocator);
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(NUM_RECORDS)
+  public int insert() throws Exception {
+    try (LBlockHashTable table = newTable()) {
+      insertAll(table);
+      return table.size();
+    }
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(NUM_RECORDS)
+  public int find() {
+    int found = 0;
+    for (PivotedBatch batch : pivotedBatches) {
+      probeTable.find(batch.records, batch.fixed.getMemoryAddress(), batch.variable.getMemoryAddress(),
+        batch.hashes.memoryAddress(), ordinals.memoryAddress());
+      found += ordinals.getInt(0);
+    }
+    return found;
+  }
+
+  private LBlockHashTable newTable() {
+    return new LBlockHashTable(HashConfig.getDefault(), pivot, allocator, 16_000, keyType.getWidth(), true,
+      HASH_TABLE_BATCH_SIZE);
+  }
+
+  private void insertAll(LBlockHashTable table) {
+    for (PivotedBatch batch : pivotedBatches) {
+      final int inserted = table.add(batch.records, batch.fixed.getMemoryAddress(), batch.variable.getMemoryAddress(),
+        batch.hashes.memoryAddress(), ordinals.memoryAddress());
+      if (inserted != batch.records) {
+        throw new IllegalStateException(String.format("Only %d of %d records inserted", inserted, batch.records));
+      }
+    }
+  }
+
+  /**
+   * Keys of a batch, pivoted and hashed
+   */
+  private static final class PivotedBatch implements AutoCloseable {
+    private final int records;
+    private final FixedBlockVector fixed;
+    private final VariableBlockVector variable;
+    private final ArrowBuf hashes;
+
+    private PivotedBatch(BufferAllocator allocator, PivotDef pivot, int records) {
+      this.records = records;
+      this.fixed = new FixedBlockVector(allocator, pivot.getBlockWidth());
+      this.variable = new VariableBlockVector(allocator, pivot.getVariableCount());
+      this.hashes = allocator.buffer(8L * records);
+      Pivots.pivot(pivot, records, fixed, variable);
+      HashComputation.computeHash(new BlockChunk(fixed.getMemoryAddress(), variable.getMemoryAddress(),
+        pivot.getVariableCount() == 0, pivot.getBlockWidth(), records, hashes.memoryAddress(), 0));
+    }
+
+    @Override
+    public void close() throws Exception {
+      AutoCloseables.close(fixed, variable, hashes);
+    }
+  }
+}
@@ -0,0 +1,141 @@
+/*
+ * Copyright (C) 2017-2019 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.sabot.benchmarks;
+
+import static org.apache.calcite.rel.RelFieldCollation.Direction.ASCENDING;
+import static org.apache.calcite.rel.RelFieldCollation.NullDirection.FIRST;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.arrow.memory.BufferAllocator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.dremio.common.AutoCloseables;
+import com.dremio.exec.expr.ClassProducer;
+import com.dremio.exec.physical.base.OpProps;
+import com.dremio.exec.physical.config.ExternalSort;
+import com.dremio.exec.record.RecordBatchData;
+import com.dremio.exec.record.VectorContainer;
+import com.dremio.exec.record.selection.SelectionVector4;
+import com.dremio.sabot.exec.context.BufferManagerImpl;
+import com.dremio.sabot.op.sort.external.QuickSorter;
+import com.dremio.sabot.op.sort.external.Sorter;
+import com.dremio.sabot.op.sort.external.SplaySorter;
+
+/**
+ * Sorts in memory the batches of a run, as the external sort does before spilling, with either the
+ * {@link QuickSorter} or the {@link SplaySorter}.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class SorterBenchmark extends BaseOperatorBenchmark {
+  private static final int NUM_BATCHES = 64;
+  private static final int BATCH_SIZE = 4096;
+
+  /**
+   * Sorter implementation
+   */
+  public enum SorterType {
+    QUICK,
+    NORMALIZED_KEYS,
+    SPLAY
+  }
+
+  @Param({"QUICK", "NORMALIZED_KEYS", "SPLAY"})
+  private SorterType sorter;
+
+  @Param({"1000", "1000000"})
+  private int cardinality;
+
+  @Param({"BIGINT", "VARCHAR_16", "VARCHAR_64"})
+  private SyntheticData.KeyType keyType;
+
+  @Param({"0", "0.1"})
+  private double nullDensity;
+
+  private SyntheticData data;
+  private ExternalSort sortConfig;
+  private ClassProducer classProducer;
+  private BufferManagerImpl bufferManager;
+
+  @Override
+  protected void setupTrial() {
+    data = SyntheticData.generate(getAllocator(), "", keyType, NUM_BATCHES, BATCH_SIZE, cardinality, nullDensity);
+    sortConfig = new ExternalSort(OpProps.prototype(), null,
+      Collections.singletonList(ordering("key", ASCENDING, FIRST)), false);
+    bufferManager = new BufferManagerImpl(getAllocator());
+    classProducer = testContext.newClassProducer(bufferManager);
+  }
+
+  @Override
+  protected void tearDownTrial() throws Exception {
+    AutoCloseables.close(bufferManager, data);
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(NUM_BATCHES * BATCH_SIZE)
+  public int sort() throws Exception {
+    final BufferAllocator allocator = getAllocator();
+    final List<RecordBatchData> batches = new ArrayList<>(NUM_BATCHES);
+    final Sorter sorter = newSorter(allocator);
+    try (VectorContainer incoming = VectorContainer.create(allocator, data.getSchema())) {
+      sorter.setup(incoming);
+      if (!sorter.expandMemoryIfNecessary(data.getNumRecords())) {
+        throw new IllegalStateException("Unable to allocate the sorter memory");
+      }
+      for (VectorContainer batch : data.getBatches()) {
+        SyntheticData.load(batch, incoming);
+        // takes ownership of the loaded buffers, as the external sort does
+        final RecordBatchData batchData = new RecordBatchData(incoming, allocator);
+        batches.add(batchData);
+        sorter.addBatch(batchData, allocator);
+      }
+      try (SelectionVector4 sv4 = sorter.getFinalSort(allocator, BATCH_SIZE)) {
+        return sv4.getTotalCount();
+      }
+    } finally {
+      AutoCloseables.close(batches);
+      sorter.close();
+    }
+  }
+
+  private Sorter newSorter(BufferAllocator allocator) {
+    switch (sorter) {
+      case QUICK:
+        return new QuickSorter(sortConfig, classProducer, data.getSchema(), allocator, false);
+      case NORMALIZED_KEYS:
+        return new QuickSorter(sortConfig, classProducer, data.getSchema(), allocator, true);
+      case SPLAY:
+        return new SplaySorter(sortConfig, classProducer, data.getSchema(), allocator);
+      default:
+        throw new IllegalArgumentException("Unknown sorter " + sorter);
+    }
+  }
+}
@@ -0,0 +1,201 @@
+/*
+ * Copyright (C) 2017-2019 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.sabot.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.function.LongToIntFunction;
+
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.vector.BigIntVector;
+import org.apache.arrow.vector.FieldVector;
+import org.apache.arrow.vector.VarCharVector;
+import org.apache.arrow.vector.util.TransferPair;
+
+import com.dremio.common.AutoCloseables;
+import com.dremio.common.expression.CompleteType;
+import com.dremio.exec.record.BatchSchema;
+import com.dremio.exec.record.VectorContainer;
+import com.google.common.base.Preconditions;
+
+/**
+ * Generates batches of synthetic data for the benchmarks.<br>
+ * <br>
+ * Each batch has a key column, of the given type, holding values uniformly distributed over
+ * {@code cardinality} distinct keys with the given fraction of nulls, and a non-null bigint measure column.
+ * The data is generated once, with a fixed seed, so that runs are comparable between releases.
+ */
+public final class SyntheticData implements AutoCloseable {
+
+  /**
+   * Type and width of the key column
+   */
+  public enum KeyType {
+    BIGINT(8),
+    VARCHAR_16(16),
+    VARCHAR_64(64);
+
+    private final int width;
+
+    KeyType(int width) {
+      this.width = width;
+    }
+
+    public int getWidth() {
+      return width;
+    }
+
+    public CompleteType getType() {
+      return this == BIGINT ? CompleteType.BIGINT : CompleteType.VARCHAR;
+    }
+  }
+
+  private static final long SEED = 0xDEADBEEFL;
+
+  private final BatchSchema schema;
+  private final List<VectorContainer> batches;
+
+  private SyntheticData(BatchSchema schema, List<VectorContainer> batches) {
+    this.schema = schema;
+    this.batches = batches;
+  }
+
+  /**
+   * Generates the batches
+   *
+   * @param allocator allocator for the batches
+   * @param prefix prefix of the column names, the columns are named {@code <prefix>key} and {@code <prefix>measure}
+   * @param keyType type of the key column
+   * @param numBatches number of batches
+   * @param batchSize number of records per batch
+   * @param cardinality number of distinct keys
+   * @param nullDensity fraction of null keys, between 0 and 1
+   * @return the generated data
+   */
+  public static SyntheticData generate(BufferAllocator allocator, String prefix, KeyType keyType, int numBatches,
+                                       int batchSize, int cardinality, double nullDensity) {
+    Preconditions.checkArgument(cardinality > 0, "cardinality must be positive");
+    Preconditions.checkArgument(nullDensity >= 0 && nullDensity <= 1, "null density must be between 0 and 1");
+    final Random random = new Random(SEED);
+    return generate(allocator, prefix, keyType, numBatches, batchSize, random,
+      record -> random.nextDouble() < nullDensity ? -1 : random.nextInt(cardinality));
+  }
+
+  /**
+   * Generates batches holding each key exactly once, with no nulls, as the build side of a join
+   *
+   * @param allocator allocator for the batches
+   * @param prefix prefix of the column names, the columns are named {@code <prefix>key} and {@code <prefix>measure}
+   * @param keyType type of the key column
+   * @param batchSize number of records per batch
+   * @param cardinality number of distinct keys, and of records
+   * @return the generated data
+   */
+  public static SyntheticData generateDistinct(BufferAllocator allocator, String prefix, KeyType keyType,
+                                               int batchSize, int cardinality) {
+    Preconditions.checkArgument(cardinality > 0, "cardinality must be positive");
+    final int numBatches = (cardinality + batchSize - 1) / batchSize;
+    return generate(allocator, prefix, keyType, numBatches, batchSize, new Random(SEED),
+      record -> record < cardinality ? (int) record : -1);
+  }
+
+  private static SyntheticData generate(BufferAllocator allocator, String prefix, KeyType keyType, int numBatches,
+                                        int batchSize, Random random, LongToIntFunction keys) {
+    final BatchSchema schema = BatchSchema.newBuilder()
+      .addField(keyType.getType().toField(prefix + "key"))
+      .addField(CompleteType.BIGINT.toField(prefix + "measure"))
+      .build();
+
+    final List<VectorContainer> batches = new ArrayList<>(numBatches);
+    long recordIndex = 0;
+    try {
+      for (int i = 0; i < numBatches; i++) {
+        final VectorContainer batch = VectorContainer.create(allocator, schema);
+        batches.add(batch);
+        final FieldVector key = batch.getValueAccessorById(FieldVector.class, 0).getValueVector();
+        final BigIntVector measure = batch.getValueAccessorById(BigIntVector.class, 1).getValueVector();
+        batch.allocateNew();
+        for (int record = 0; record < batchSize; record++, recordIndex++) {
+          measure.setSafe(record, random.nextInt(1000));
+          // negative values are nulls
+          final int value = keys.applyAsInt(recordIndex);
+          if (value < 0) {
+            continue;
+          }
+          if (keyType == KeyType.BIGINT) {
+            ((BigIntVector) key).setSafe(record, value);
+          } else {
+            ((VarCharVector) key).setSafe(record, toKey(value, keyType.getWidth()));
+          }
+        }
+        batch.setAllCount(batchSize);
+      }
+    } catch (RuntimeException e) {
+      AutoCloseables.closeNoChecked(AutoCloseables.all(batches));
+      throw e;
+    }
+    return new SyntheticData(schema, batches);
+  }
+
+  /**
+   * Loads a batch into the given container, without copying the data. The container must have the same
+   * schema as the batches
+   */
+  public static void load(VectorContainer source, VectorContainer target) {
+    final List<FieldVector> sourceVectors = VectorContainer.getFieldVectors(source);
+    final List<FieldVector> targetVectors = VectorContainer.getFieldVectors(target);
+    final int recordCount = source.getRecordCount();
+    for (int i = 0; i < sourceVectors.size(); i++) {
+      final TransferPair transferPair = sourceVectors.get(i).makeTransferPair(targetVectors.get(i));
+      // slices the source buffers, so the batch can be loaded again
+      transferPair.splitAndTransfer(0, recordCount);
+    }
+    target.setAllCount(recordCount);
+  }
+
+  public BatchSchema getSchema() {
+    return schema;
+  }
+
+  public List<VectorContainer> getBatches() {
+    return batches;
+  }
+
+  public int getNumRecords() {
+    int numRecords = 0;
+    for (VectorContainer batch : batches) {
+      numRecords += batch.getRecordCount();
+    }
+    return numRecords;
+  }
+
+  @Override
+  public void close() throws Exception {
+    AutoCloseables.close(batches);
+  }
+
+  private static byte[] toKey(int value, int width) {
+    final byte[] key = new byte[width];
+    int remaining = value;
+    // zero padded decimal representation, so all the keys have the same width
+    for (int i = width - 1; i >= 0; i--) {
+      key[i] = (byte) ('0' + remaining % 10);
+      remaining /= 10;
+    }
+    return key;
+  }
+}
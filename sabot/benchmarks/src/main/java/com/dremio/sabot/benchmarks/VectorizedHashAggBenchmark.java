@@ -0,0 +1,114 @@
+/*
+ * Copyright (C) 2017-2019 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.sabot.benchmarks;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.dremio.exec.physical.base.OpProps;
+import com.dremio.exec.physical.config.HashAggregate;
+import com.dremio.exec.record.VectorContainer;
+import com.dremio.sabot.exec.context.OperatorContextImpl;
+import com.dremio.sabot.op.aggregate.vectorized.VectorizedHashAggOperator;
+import com.dremio.sabot.op.spi.SingleInputOperator;
+
+/**
+ * Groups synthetic batches with {@link VectorizedHashAggOperator}, from setup to the last output batch,
+ * computing sum, min and max of a bigint measure per key.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class VectorizedHashAggBenchmark extends BaseOperatorBenchmark {
+  private static final int NUM_BATCHES = 256;
+  private static final int BATCH_SIZE = 4096;
+  private static final long MEMORY_LIMIT = 4L * 1024 * 1024 * 1024;
+
+  @Param({"1000", "100000", "1000000"})
+  private int cardinality;
+
+  @Param({"BIGINT", "VARCHAR_16", "VARCHAR_64"})
+  private SyntheticData.KeyType keyType;
+
+  @Param({"0", "0.1"})
+  private double nullDensity;
+
+  private SyntheticData data;
+
+  @Override
+  protected void setupTrial() {
+    data = SyntheticData.generate(getAllocator(), "", keyType, NUM_BATCHES, BATCH_SIZE, cardinality, nullDensity);
+  }
+
+  @Override
+  protected void tearDownTrial() throws Exception {
+    data.close();
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(NUM_BATCHES * BATCH_SIZE)
+  public long aggregate() throws Exception {
+    final OpProps props = PROPS.cloneWithNewReserve(1_000_000).cloneWithMemoryExpensive(true);
+    props.setMemLimit(MEMORY_LIMIT);
+    final HashAggregate pop = new HashAggregate(props, null,
+      Collections.singletonList(n("key")),
+      Arrays.asList(n("sum(measure)", "sum_measure"), n("min(measure)", "min_measure"), n("max(measure)", "max_measure")),
+      true, true, 1f);
+
+    try (OperatorContextImpl context = newOperatorContext(pop, BATCH_SIZE);
+         VectorContainer incoming = VectorContainer.create(getAllocator(), data.getSchema());
+         VectorizedHashAggOperator operator = new VectorizedHashAggOperator(pop, context)) {
+      operator.setup(incoming);
+      long outputRecords = 0;
+      for (VectorContainer batch : data.getBatches()) {
+        // the operator may produce while consuming, when it spills
+        outputRecords += produce(operator);
+        SyntheticData.load(batch, incoming);
+        operator.consumeData(batch.getRecordCount());
+      }
+      outputRecords += produce(operator);
+      operator.noMoreToConsume();
+      while (operator.getState() != SingleInputOperator.State.DONE) {
+        outputRecords += produce(operator);
+        if (operator.getState() == SingleInputOperator.State.CAN_CONSUME) {
+          operator.noMoreToConsume();
+        }
+      }
+      return outputRecords;
+    }
+  }
+
+  private static long produce(SingleInputOperator operator) throws Exception {
+    long records = 0;
+    while (operator.getState() == SingleInputOperator.State.CAN_PRODUCE) {
+      records += operator.outputData();
+    }
+    return records;
+  }
+}
@@ -68,6 +68,12 @@ public interface ExecConstants {
   DoubleValidator SPILL_DISK_SPACE_LIMIT_PERCENTAGE = new RangeDoubleValidator("dremio.exec.spill.limit.percentage", 0.0, 100.0, DefaultSpillServiceOptions.MIN_DISK_SPACE_PCT);
   PositiveLongValidator SPILL_SWEEP_INTERVAL = new PositiveLongValidator("dremio.exec.spill.sweep.interval", Long.MAX_VALUE, DefaultSpillServiceOptions.SPILL_SWEEP_INTERVAL);
   PositiveLongValidator SPILL_SWEEP_THRESHOLD = new PositiveLongValidator("dremio.exec.spill.sweep.threshold", Long.MAX_VALUE, DefaultSpillServiceOptions.SPILL_SWEEP_THRESHOLD);
+  RangeLongValidator SPILL_IO_THREADS = new RangeLongValidator("dremio.exec.spill.io.threads", 1, 64, DefaultSpillServiceOptions.IO_THREADS);
+
+  /* Asynchronous spill I/O: write-behind of spilled batches and read-ahead of spill files */
+  BooleanValidator SPILL_ASYNC_IO_ENABLED = new BooleanValidator("exec.spill.async_io.enabled", false);
+  RangeLongValidator SPILL_ASYNC_IO_BUFFER_SIZE = new RangeLongValidator("exec.spill.async_io.buffer_size", 4096, 16 * 1024 * 1024, 256 * 1024);
+  RangeLongValidator SPILL_ASYNC_IO_BUFFERS = new RangeLongValidator("exec.spill.async_io.buffers", 1, 16, 2);
 
   // Set this value to set the execution preference
   // Default value to use in the operators (for now, only projector and filter use this default)
@@ -193,6 +199,10 @@ public interface ExecConstants {
   String PARQUET_MAX_FOOTER_LEN = "store.parquet.max_footer_length";
   LongValidator PARQUET_MAX_FOOTER_LEN_VALIDATOR = new LongValidator(PARQUET_MAX_FOOTER_LEN, 16*1024*1024);
 
+  // node-wide cache of serialized parquet footers, stored off-heap
+  BooleanValidator PARQUET_FOOTER_CACHE_ENABLED = new BooleanValidator("store.parquet.footer_cache.enabled", true);
+  PositiveLongValidator PARQUET_FOOTER_CACHE_SIZE_BYTES = new PositiveLongValidator("store.parquet.footer_cache.size_bytes", Long.MAX_VALUE, 64*1024*1024);
+
   String PARQUET_MEMORY_THRESHOLD = "store.parquet.memory_threshold";
   LongValidator PARQUET_MEMORY_THRESHOLD_VALIDATOR = new LongValidator(PARQUET_MEMORY_THRESHOLD, 512*1024*1024);
 
@@ -239,6 +249,11 @@ public interface ExecConstants {
   BooleanValidator JSON_WRITER_UGLIFY = new BooleanValidator("store.json.writer.uglify", false);
   DoubleValidator TEXT_ESTIMATED_ROW_SIZE = new RangeDoubleValidator(
       "store.text.estimated_row_size_bytes", 1, Long.MAX_VALUE, 10.0);
+  // maximum size of the blocks uncompressed text files, and newline delimited JSON files, are split into, beyond the
+  // blocks reported by the file system. Quoted text values spanning lines are misread across the extra block boundaries.
+  PositiveLongValidator EASY_SPLIT_SIZE = new PositiveLongValidator("store.easy.split_size", Long.MAX_VALUE, Long.MAX_VALUE);
+  // split uncompressed JSON files into blocks, which requires each record to be on its own line
+  BooleanValidator JSON_SPLIT_NEWLINE_DELIMITED = new BooleanValidator("store.json.split_newline_delimited", false);
 
   /**
    * The column label (for directory levels) in results when querying files in a directory
@@ -374,6 +389,9 @@ public interface ExecConstants {
   String BOOTSTRAP_STORAGE_PLUGINS_FILE = "bootstrap-storage-plugins.json";
   String MAX_LOADING_CACHE_SIZE_CONFIG = "dremio.exec.compile.cache_max_size";
   String MAX_SPLIT_CACHE_SIZE_CONFIG = "dremio.exec.compile.split_cache_max_size";
+  String CODE_CACHE_ENABLED_CONFIG = "dremio.exec.compile.code_cache.enabled";
+  String CODE_CACHE_PATH_CONFIG = "dremio.exec.compile.code_cache.path";
+  String CODE_CACHE_MAX_SIZE_CONFIG = "dremio.exec.compile.code_cache.max_size";
 
   // enable EXTEND on SELECT
   BooleanValidator ENABLE_EXTEND_ON_SELECT = new BooleanValidator("debug.extend_on_select.enabled", false);
@@ -417,12 +435,26 @@ public interface ExecConstants {
    */
   DoubleValidator ASSIGNMENT_CREATOR_BALANCE_FACTOR = new DoubleValidator("exec.work.assignment.locality_factor", 1.5);
 
+  /**
+   * When enabled, the scan minor fragments of a phase on the same node pull their splits from a shared queue, instead
+   * of only reading the splits assigned to them, so that idle fragments take over the splits of the slow ones.
+   */
+  BooleanValidator SPLIT_DISPATCH_ENABLED = new BooleanValidator("exec.work.split_dispatch.enabled", false);
+  // number of splits a scan fragment takes from the shared queue at once
+  PositiveLongValidator SPLIT_DISPATCH_BATCH_SIZE = new PositiveLongValidator("exec.work.split_dispatch.batch_size", 1000, 2);
+
   PositiveLongValidator FRAGMENT_CACHE_EVICTION_DELAY_S = new PositiveLongValidator("fragments.cache.eviction.delay_seconds", Integer.MAX_VALUE, 600);
 
   BooleanValidator PARQUET_SINGLE_STREAM = new BooleanValidator("store.parquet.single_stream", false);
   LongValidator PARQUET_SINGLE_STREAM_COLUMN_THRESHOLD = new LongValidator("store.parquet.single_stream_column_threshold", 40);
   LongValidator PARQUET_MULTI_STREAM_SIZE_LIMIT = new LongValidator("store.parquet.multi_stream_limit", 1024*1024);
   BooleanValidator PARQUET_MULTI_STREAM_SIZE_LIMIT_ENABLE = new BooleanValidator("store.parquet.multi_stream_limit.enable", true);
+  // read the projected column chunks of a row group with a vectored read instead of a stream per column, on file
+  // systems supporting async reads
+  BooleanValidator PARQUET_VECTORED_READ_ENABLED = new BooleanValidator("store.parquet.vectored_read.enabled", false);
+  LongValidator PARQUET_VECTORED_READ_MAX_GAP = new RangeLongValidator("store.parquet.vectored_read.max_gap", 0, Integer.MAX_VALUE, 128 * 1024);
+  LongValidator PARQUET_VECTORED_READ_MAX_MERGED_SIZE = new RangeLongValidator("store.parquet.vectored_read.max_merged_size", 1, Integer.MAX_VALUE, 8 * 1024 * 1024);
+  LongValidator PARQUET_VECTORED_READ_MAX_BUFFERED_SIZE = new RangeLongValidator("store.parquet.vectored_read.max_buffered_size", 0, Integer.MAX_VALUE, 32 * 1024 * 1024);
   LongValidator PARQUET_FULL_FILE_READ_THRESHOLD = new RangeLongValidator("store.parquet.full_file_read.threshold", 0, Integer.MAX_VALUE, 0);
   DoubleValidator PARQUET_FULL_FILE_READ_COLUMN_RATIO = new RangeDoubleValidator("store.parquet.full_file_read.column_ratio", 0.0, 1.0, 0.25);
   BooleanValidator PARQUET_CACHED_ENTITY_SET_FILE_SIZE = new BooleanValidator("store.parquet.set_file_length",true);
@@ -452,11 +484,15 @@ public interface ExecConstants {
 
   BooleanValidator EXTERNAL_SORT_COMPRESS_SPILL_FILES = new BooleanValidator("exec.operator.sort.external.compress_spill_files", true);
   BooleanValidator EXTERNAL_SORT_ENABLE_SPLAY_SORT = new BooleanValidator("exec.operator.sort.external.enable_splay_sort", false);
+  // radix sort fixed width binary keys of the sort columns, instead of comparing rows with generated code
+  BooleanValidator EXTERNAL_SORT_NORMALIZED_KEYS = new BooleanValidator("exec.operator.sort.external.normalized_keys", false);
   BooleanValidator EXTERNAL_SORT_ENABLE_MICRO_SPILL = new BooleanValidator("exec.operator.sort.external.enable_micro_spill", true);
   PositiveLongValidator SORT_MAX_WRITE_BATCH = new PositiveLongValidator("exec.operator.sort.external.spill_batch_records", Character.MAX_VALUE, Character.MAX_VALUE);
   BooleanValidator EXTERNAL_SORT_ARROW_ENCODING = new BooleanValidator("exec.operator.sort.external.arrow_encoding", true);
   BooleanValidator EXTERNAL_SORT_DIRECT_WRITE = new BooleanValidator("exec.operator.sort.external.direct_write", true);
   BooleanValidator EXTERNAL_SORT_VECTOR_COPIER = new BooleanValidator("exec.operator.sort.external.vector_copier", true);
+  // compare binary prefixes of the first sort key before calling the generated comparator when merging sorted streams
+  BooleanValidator MERGE_USE_KEY_PREFIX = new BooleanValidator("exec.operator.merge.use_key_prefix", true);
   DoubleValidator EXTERNAL_SORT_SPILL_ALLOCATION_DENSITY = new RangeDoubleValidator("exec.operator.sort.external.spill.allocation_density", 0.0, Double.MAX_VALUE, 0.01);
 
   PositiveLongValidator EXTERNAL_SORT_BATCHSIZE_MULTIPLIER = new PositiveLongValidator("exec.operator.sort.external.batchsize_multiplier", Character.MAX_VALUE, 2);
@@ -530,6 +566,10 @@ public interface ExecConstants {
   BooleanValidator SLICING_THREAD_MONITOR = new BooleanValidator("dremio.sliced.enable_monitor", true);
   PositiveLongValidator SLICING_THREAD_MIGRATION_MULTIPLE = new com.dremio.options.TypeValidators.PositiveLongValidator("dremio.sliced.migration_multiple", Long.MAX_VALUE, 50);
   PositiveLongValidator SLICING_THREAD_SPINDOWN_MULTIPLE = new com.dremio.options.TypeValidators.PositiveLongValidator("dremio.sliced.spindown_multiple", Long.MAX_VALUE, 100);
+  // number of slicing threads used by the SlicingTaskPool, 0 means one per available core
+  RangeLongValidator SLICING_NUM_THREADS = new RangeLongValidator("dremio.sliced.num_threads", 0, 1024, 0);
+  // maximum time a task runs before the slicing thread switches to another runnable task
+  PositiveLongValidator SLICING_QUANTUM_MS = new PositiveLongValidator("dremio.sliced.quantum_ms", 10_000, 100);
 
   // warning threshold for spilling
   PositiveLongValidator SPILL_IO_WARN_MAX_RUNTIME_MS = new PositiveLongValidator("dremio.spill.warn_max_runtime", Long.MAX_VALUE, 3000);
@@ -564,6 +604,7 @@ public interface ExecConstants {
   RangeLongValidator RUNTIME_FILTER_VALUE_FILTER_MAX_SIZE = new RangeLongValidator("exec.non_partitioned_parquet.runtime_filter.max_size", 10, 1_000_000, 10000);
   RangeLongValidator RUNTIME_FILTER_KEY_MAX_SIZE = new RangeLongValidator("exec.runtime_filter.max_key_size", 32, 1_024, 128);
   BooleanValidator ENABLE_ROW_LEVEL_RUNTIME_FILTERING = new BooleanValidator("exec.row_level.runtime_filter.enable", true);
+  BooleanValidator ENABLE_ROW_GROUP_RUNTIME_FILTERING = new BooleanValidator("exec.row_group.runtime_filter.enable", true);
 
   String ENABLE_PARQUET_VECTORIZED_COMPLEX_READERS_KEY = "exec.parquet.enable_vectorized_complex";
   BooleanValidator ENABLE_PARQUET_VECTORIZED_COMPLEX_READERS = new BooleanValidator(ENABLE_PARQUET_VECTORIZED_COMPLEX_READERS_KEY, true);
@@ -582,6 +623,8 @@ public interface ExecConstants {
   String ICEBERG_CATALOG_TYPE_KEY = "iceberg.catalog_type";
   String ICEBERG_NAMESPACE_KEY = "iceberg.namespace";
   BooleanValidator HADOOP_BLOCK_CACHE_ENABLED = new BooleanValidator("hadoop_block_affinity_cache.enabled", true);
+  // cache blocks of the async reads of sources with caching enabled on the executor cache mount points
+  BooleanValidator BLOCK_CACHE_ENABLED = new BooleanValidator("store.block_cache.enabled", false);
 
   /**
    * Controls the 'compression' factor for the TDigest algorithm.
@@ -637,6 +680,16 @@ public interface ExecConstants {
 
   BooleanValidator ENABLE_IN_PROCESS_TUNNEL = new BooleanValidator("dremio.exec.inprocess.tunnel.enabled", true);
 
+  // LZ4 compression of record batch bodies sent over exchanges. Batches sent through in-process tunnels are never
+  // compressed; batches to remote receivers are only compressed while at least min_outstanding_batches sends to that
+  // receiver are unacknowledged. A batch that compresses worse than max_ratio disables compression for the next
+  // backoff_batches batches of the sender.
+  BooleanValidator EXCHANGE_COMPRESSION_ENABLED = new BooleanValidator("exec.exchange.compression.enabled", false);
+  RangeLongValidator EXCHANGE_COMPRESSION_MIN_BATCH_BYTES = new RangeLongValidator("exec.exchange.compression.min_batch_bytes", 0, Integer.MAX_VALUE, 16 * 1024);
+  RangeLongValidator EXCHANGE_COMPRESSION_MIN_OUTSTANDING_BATCHES = new RangeLongValidator("exec.exchange.compression.min_outstanding_batches", 0, 64, 1);
+  DoubleValidator EXCHANGE_COMPRESSION_MAX_RATIO = new RangeDoubleValidator("exec.exchange.compression.max_ratio", 0.0, 1.0, 0.9);
+  RangeLongValidator EXCHANGE_COMPRESSION_BACKOFF_BATCHES = new RangeLongValidator("exec.exchange.compression.backoff_batches", 0, 1024, 32);
+
   PositiveLongValidator ORPHANAGE_ENTRY_CLEAN_PERIOD_MINUTES  = new PositiveLongValidator("dremio.orphanage.entry_cleanup_period_minutes",  Long.MAX_VALUE, 5);
   RangeLongValidator ORPHANAGE_PROCESSING_THREAD_COUNT = new RangeLongValidator("dremio.orphanage.processing_thread_count", 1, 100000, 3);
 
@@ -32,9 +32,19 @@ public class ClassTransformer {
   private static final org.slf4j.Logger logger = org.slf4j.LoggerFactory.getLogger(ClassTransformer.class);
 
   private final OptionManager optionManager;
+  private final PersistentCodeCache codeCache;
 
   public ClassTransformer(final OptionManager optionManager) {
+    this(optionManager, null);
+  }
+
+  /**
+   * @param optionManager option manager
+   * @param codeCache disk cache of compiled classes, or null if disabled
+   */
+  public ClassTransformer(final OptionManager optionManager, final PersistentCodeCache codeCache) {
     this.optionManager = optionManager;
+    this.codeCache = codeCache;
   }
 
   public static class ClassSet {
@@ -181,6 +191,26 @@ public class ClassTransformer {
     try {
       final long t1 = System.nanoTime();
       final ClassSet set = new ClassSet(null, templateDefinition.getTemplateClassName(), materializedClassName);
+
+      final String cacheKey;
+      if (codeCache != null) {
+        cacheKey = PersistentCodeCache.getKey(templateDefinition.getTemplateClassName(), materializedClassName, entireClass);
+        final PersistentCodeCache.CachedClasses cached = codeCache.get(cacheKey);
+        if (cached != null) {
+          for (ClassBytes clazz : cached.getClasses()) {
+            classLoader.injectByteCode(clazz.getName(), clazz.getBytes());
+          }
+          final Class<?> c = classLoader.findClass(cached.getMainClassName());
+          if (templateDefinition.getExternalInterface().isAssignableFrom(c)) {
+            logger.debug("Loaded {} from code cache (time:{} millis).", c.getName(), (System.nanoTime() - t1) / 1000000);
+            return c;
+          }
+          throw new ClassTransformationException("The cached class did not implement the expected interface.");
+        }
+      } else {
+        cacheKey = null;
+      }
+
       final ClassBytes[] implementationClasses = classLoader.getClassByteCode(set.generated, entireClass);
 
       long totalBytecodeSize = 0;
@@ -194,6 +224,9 @@ public class ClassTransformer {
         if (logger.isDebugEnabled()) {
           logger.debug("Done compiling (bytecode size={}, time:{} millis).", DremioStringUtils.readable(totalBytecodeSize), (System.nanoTime() - t1) / 1000000);
         }
+        if (cacheKey != null) {
+          codeCache.put(cacheKey, set.generated.dot, implementationClasses);
+        }
         return c;
       }
 
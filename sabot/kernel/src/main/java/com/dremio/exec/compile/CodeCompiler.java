@@ -16,6 +16,7 @@
 package com.dremio.exec.compile;
 
 import java.io.IOException;
+import java.nio.file.Paths;
 import java.util.Collections;
 import java.util.List;
 import java.util.Objects;
@@ -39,13 +40,15 @@ import com.google.common.collect.Lists;
 public class CodeCompiler {
   private static final org.slf4j.Logger logger = org.slf4j.LoggerFactory.getLogger(CodeCompiler.class);
 
+  private final PersistentCodeCache codeCache;
   private final ClassTransformer transformer;
   private final ClassCompilerSelector selector;
   private final LoadingCache<CodeGenerator<?>, GeneratedClassEntry> generatedCodeToCompiledClazzCache;
   private final LoadingCache<ExpressionsHolder, GeneratedClassEntryWithFunctionErrorContextSizeInfo> expressionsToCompiledClazzCache;
 
   public CodeCompiler(final SabotConfig config, final OptionManager optionManager) {
-    transformer = new ClassTransformer(optionManager);
+    codeCache = newCodeCache(config);
+    transformer = new ClassTransformer(optionManager, codeCache);
     selector = new ClassCompilerSelector(config, optionManager);
     final int cacheMaxSize = config.getInt(ExecConstants.MAX_LOADING_CACHE_SIZE_CONFIG);
     generatedCodeToCompiledClazzCache = CacheBuilder.newBuilder()
@@ -58,6 +61,26 @@ public class CodeCompiler {
       .build(new ExpressionsToCompiledClazzCacheLoader());
   }
 
+  private static PersistentCodeCache newCodeCache(final SabotConfig config) {
+    if (!config.getBoolean(ExecConstants.CODE_CACHE_ENABLED_CONFIG)) {
+      return null;
+    }
+    try {
+      return new PersistentCodeCache(Paths.get(config.getString(ExecConstants.CODE_CACHE_PATH_CONFIG)),
+        config.getLong(ExecConstants.CODE_CACHE_MAX_SIZE_CONFIG));
+    } catch (IOException e) {
+      logger.warn("Failure creating code cache, compiled classes won't be persisted", e);
+      return null;
+    }
+  }
+
+  /**
+   * @return the disk cache of compiled classes, or null if disabled
+   */
+  public PersistentCodeCache getCodeCache() {
+    return codeCache;
+  }
+
   @SuppressWarnings("unchecked")
   public <T> T getImplementationClass(final CodeGenerator<?> cg) {
     return (T) getImplementationClass(cg, 1).get(0);
@@ -0,0 +1,307 @@
+/*
+ * Copyright (C) 2017-2019 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.exec.compile;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+
+import com.dremio.common.util.DremioVersionInfo;
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Preconditions;
+import com.google.common.hash.Hashing;
+
+/**
+ * Disk-backed cache of compiled generated classes, so that a restarted executor doesn't have to
+ * recompile the code of the queries it already ran.<br>
+ * <br>
+ * Entries are keyed by a hash of the Dremio version, the template class and the generated source,
+ * with the materialized class name, qualified or not, replaced by a generic one since it changes with every
+ * compilation.
+ * Each entry stores the bytecode of the generated class and of its inner classes, under the names they
+ * were compiled with: every compilation uses its own {@link QueryClassLoader}, so these names never clash.<br>
+ * <br>
+ * The cache is bounded by the total size of its files, evicting the least recently used ones first.
+ */
+public class PersistentCodeCache {
+  private static final org.slf4j.Logger logger = org.slf4j.LoggerFactory.getLogger(PersistentCodeCache.class);
+
+  private static final String GENERIC_CLASS_NAME = "GenericGenerated";
+  private static final String ENTRY_SUFFIX = ".class.bin";
+  private static final int MAGIC = 0x44434331;
+
+  private final Path directory;
+  private final long maxSizeBytes;
+  private final AtomicLong sizeBytes = new AtomicLong();
+  private final AtomicLong numEntries = new AtomicLong();
+  private final AtomicLong hits = new AtomicLong();
+  private final AtomicLong misses = new AtomicLong();
+  private final AtomicLong writes = new AtomicLong();
+  private final AtomicLong evictions = new AtomicLong();
+
+  public PersistentCodeCache(Path directory, long maxSizeBytes) throws IOException {
+    Preconditions.checkArgument(maxSizeBytes > 0, "code cache size must be positive");
+    this.directory = directory;
+    this.maxSizeBytes = maxSizeBytes;
+    Files.createDirectories(directory);
+    for (Entry entry : listEntries()) {
+      sizeBytes.addAndGet(entry.size);
+      numEntries.incrementAndGet();
+    }
+    logger.info("Using code cache in {}, {} entries of {} bytes found", directory, numEntries.get(), sizeBytes.get());
+  }
+
+  /**
+   * Computes the cache key of a generated class
+   *
+   * @param templateClassName name of the template the class is generated from
+   * @param materializedClassName name of the generated class
+   * @param entireClass generated source code
+   * @return cache key
+   */
+  public static String getKey(String templateClassName, String materializedClassName, String entireClass) {
+    // the source declares the class by its simple name, which ends with a number unique to each compilation
+    final String simpleClassName = materializedClassName.substring(materializedClassName.lastIndexOf('.') + 1);
+    final String generifiedCode = entireClass.replace(materializedClassName, GENERIC_CLASS_NAME)
+      .replaceAll("\\b" + Pattern.quote(simpleClassName) + "\\b", GENERIC_CLASS_NAME);
+    return Hashing.sha256().newHasher()
+      .putString(DremioVersionInfo.getVersion(), StandardCharsets.UTF_8)
+      .putByte((byte) 0)
+      .putString(templateClassName, StandardCharsets.UTF_8)
+      .putByte((byte) 0)
+      .putString(generifiedCode, StandardCharsets.UTF_8)
+      .hash()
+      .toString();
+  }
+
+  /**
+   * Looks up a compiled class
+   *
+   * @param key cache key
+   * @return the cached classes, or null if not found
+   */
+  public CachedClasses get(String key) {
+    final Path file = getFile(key);
+    try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+      if (in.readInt() != MAGIC) {
+        throw new IOException("Invalid code cache entry");
+      }
+      final String mainClassName = in.readUTF();
+      final ClassBytes[] classes = new ClassBytes[in.readInt()];
+      for (int i = 0; i < classes.length; i++) {
+        final String name = in.readUTF();
+        final byte[] bytes = new byte[in.readInt()];
+        in.readFully(bytes);
+        classes[i] = new ClassBytes(name, bytes);
+      }
+      // keep track of the recently used entries for eviction
+      Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis()));
+      hits.incrementAndGet();
+      return new CachedClasses(mainClassName, classes);
+    } catch (NoSuchFileException e) {
+      misses.incrementAndGet();
+      return null;
+    } catch (IOException e) {
+      logger.warn("Failure reading code cache entry {}, discarding it", file, e);
+      delete(file);
+      misses.incrementAndGet();
+      return null;
+    }
+  }
+
+  /**
+   * Stores compiled classes, evicting the least recently used entries if the cache is full
+   *
+   * @param key cache key
+   * @param mainClassName name of the generated class
+   * @param classes bytecode of the generated class and of its inner classes
+   */
+  public void put(String key, String mainClassName, ClassBytes[] classes) {
+    final Path file = getFile(key);
+    Path tmpFile = null;
+    try {
+      // write to a temporary file first, so that concurrent readers never see a partial entry
+      tmpFile = Files.createTempFile(directory, key, ".tmp");
+      try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmpFile)))) {
+        out.writeInt(MAGIC);
+        out.writeUTF(mainClassName);
+        out.writeInt(classes.length);
+        for (ClassBytes clazz : classes) {
+          out.writeUTF(clazz.getName());
+          out.writeInt(clazz.getBytes().length);
+          out.write(clazz.getBytes());
+        }
+      }
+      final long size = Files.size(tmpFile);
+      if (size > maxSizeBytes) {
+        delete(tmpFile);
+        return;
+      }
+      final boolean replaced = Files.exists(file);
+      Files.move(tmpFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+      if (!replaced) {
+        numEntries.incrementAndGet();
+        sizeBytes.addAndGet(size);
+      }
+      writes.incrementAndGet();
+    } catch (IOException e) {
+      logger.warn("Failure writing code cache entry {}", file, e);
+      if (tmpFile != null) {
+        delete(tmpFile);
+      }
+      return;
+    }
+
+    if (sizeBytes.get() > maxSizeBytes) {
+      evict();
+    }
+  }
+
+  public long getNumEntries() {
+    return numEntries.get();
+  }
+
+  public long getSizeBytes() {
+    return sizeBytes.get();
+  }
+
+  public long getMaxSizeBytes() {
+    return maxSizeBytes;
+  }
+
+  public long getHits() {
+    return hits.get();
+  }
+
+  public long getMisses() {
+    return misses.get();
+  }
+
+  public long getWrites() {
+    return writes.get();
+  }
+
+  public long getEvictions() {
+    return evictions.get();
+  }
+
+  private synchronized void evict() {
+    if (sizeBytes.get() <= maxSizeBytes) {
+      return;
+    }
+
+    final List<Entry> entries;
+    try {
+      entries = listEntries();
+    } catch (IOException e) {
+      logger.warn("Failure listing code cache entries in {}", directory, e);
+      return;
+    }
+    entries.sort(Comparator.comparingLong(entry -> entry.lastModified));
+
+    // recompute the size since other nodes may share the directory
+    long size = entries.stream().mapToLong(entry -> entry.size).sum();
+    int evicted = 0;
+    for (Entry entry : entries) {
+      if (size <= maxSizeBytes) {
+        break;
+      }
+      if (delete(entry.file)) {
+        size -= entry.size;
+        evicted++;
+      }
+    }
+    sizeBytes.set(size);
+    numEntries.set(entries.size() - evicted);
+    evictions.addAndGet(evicted);
+    logger.debug("Evicted {} code cache entries, {} bytes remaining", evicted, size);
+  }
+
+  private List<Entry> listEntries() throws IOException {
+    final List<Entry> entries = new ArrayList<>();
+    try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, "*" + ENTRY_SUFFIX)) {
+      for (Path file : stream) {
+        try {
+          entries.add(new Entry(file, Files.size(file), Files.getLastModifiedTime(file).toMillis()));
+        } catch (NoSuchFileException e) {
+          // concurrently evicted
+        }
+      }
+    }
+    return entries;
+  }
+
+  private Path getFile(String key) {
+    return directory.resolve(key + ENTRY_SUFFIX);
+  }
+
+  private static boolean delete(Path file) {
+    try {
+      return Files.deleteIfExists(file);
+    } catch (IOException e) {
+      logger.warn("Failure deleting code cache file {}", file, e);
+      return false;
+    }
+  }
+
+  /**
+   * Compiled classes found in the cache
+   */
+  public static final class CachedClasses {
+    private final String mainClassName;
+    private final ClassBytes[] classes;
+
+    @VisibleForTesting
+    CachedClasses(String mainClassName, ClassBytes[] classes) {
+      this.mainClassName = mainClassName;
+      this.classes = classes;
+    }
+
+    public String getMainClassName() {
+      return mainClassName;
+    }
+
+    public ClassBytes[] getClasses() {
+      return classes;
+    }
+  }
+
+  private static final class Entry {
+    private final Path file;
+    private final long size;
+    private final long lastModified;
+
+    private Entry(Path file, long size, long lastModified) {
+      this.file = file;
+      this.size = size;
+      this.lastModified = lastModified;
+    }
+  }
+}
@@ -47,8 +47,22 @@ public class HashJoinPOP extends AbstractBase {
   private final LogicalExpression extraCondition;
   private final JoinRelType joinType;
   private final boolean vectorize;
+  private final int radixPartitions;
   private RuntimeFilterInfo runtimeFilterInfo;
 
+  public HashJoinPOP(
+      OpProps props,
+      PhysicalOperator left,
+      PhysicalOperator right,
+      List<JoinCondition> conditions,
+      LogicalExpression extraCondition,
+      JoinRelType joinType,
+      boolean vectorize,
+      RuntimeFilterInfo runtimeFilterInfo
+      ) {
+    this(props, left, right, conditions, extraCondition, joinType, vectorize, 0, runtimeFilterInfo);
+  }
+
   @JsonCreator
   public HashJoinPOP(
       @JsonProperty("props") OpProps props,
@@ -58,6 +72,7 @@ public class HashJoinPOP extends AbstractBase {
       @JsonProperty("extraCondition") LogicalExpression extraCondition,
       @JsonProperty("joinType") JoinRelType joinType,
       @JsonProperty("vectorize") boolean vectorize,
+      @JsonProperty("radixPartitions") int radixPartitions,
       @JsonProperty("runtimeFilterInfo") RuntimeFilterInfo runtimeFilterInfo
       ) {
     super(props);
@@ -67,6 +82,7 @@ public class HashJoinPOP extends AbstractBase {
     this.extraCondition = extraCondition;
     this.joinType = joinType;
     this.vectorize = vectorize;
+    this.radixPartitions = radixPartitions;
     this.runtimeFilterInfo = runtimeFilterInfo;
   }
 
@@ -78,7 +94,7 @@ public class HashJoinPOP extends AbstractBase {
   @Override
   public PhysicalOperator getNewWithChildren(List<PhysicalOperator> children) {
       Preconditions.checkArgument(children.size() == 2);
-      return new HashJoinPOP(props, children.get(0), children.get(1), conditions, extraCondition, joinType, vectorize, runtimeFilterInfo);
+      return new HashJoinPOP(props, children.get(0), children.get(1), conditions, extraCondition, joinType, vectorize, radixPartitions, runtimeFilterInfo);
   }
 
   @Override
@@ -110,6 +126,13 @@ public class HashJoinPOP extends AbstractBase {
     return vectorize;
   }
 
+  /**
+   * @return number of partitions of the in-memory radix partitioned join, or 0 if the join is not radix partitioned
+   */
+  public int getRadixPartitions() {
+    return radixPartitions;
+  }
+
   @Override
   public int getOperatorType() {
     return CoreOperatorType.HASH_JOIN_VALUE;
@@ -26,23 +26,37 @@ public class CachedPlan {
   private AtomicInteger useCount;
   private final long creationTime;
   private CachedAccelDetails accelDetails;
+  private final PlanTemplate template;
 
-  private CachedPlan(String query, Prel prel, String textPlan, int useCount, int estimatedSize) {
+  private CachedPlan(String query, Prel prel, String textPlan, int useCount, int estimatedSize, PlanTemplate template) {
     this.queryText = query;
     this.prel = prel;
+    this.template = template;
     this.useCount = new AtomicInteger(useCount);
     this.estimatedSize = estimatedSize;
     this.creationTime = System.currentTimeMillis();
   }
 
   public static CachedPlan createCachedPlan(String query, Prel prel, String textPlan, int estimatedSize) {
-    return new CachedPlan(query, prel, textPlan, 0, estimatedSize);
+    return new CachedPlan(query, prel, textPlan, 0, estimatedSize, null);
+  }
+
+  public static CachedPlan createCachedTemplate(String query, PlanTemplate template, Prel prel, String textPlan,
+                                                int estimatedSize) {
+    return new CachedPlan(query, prel, textPlan, 0, estimatedSize, template);
   }
 
   public Prel getPrel() {
     return prel;
   }
 
+  /**
+   * @return the template of the plan if it is cached for queries with different literals, null otherwise
+   */
+  public PlanTemplate getTemplate() {
+    return template;
+  }
+
   public void setAccelDetails(CachedAccelDetails accelDetails) {
     this.accelDetails = accelDetails;
   }
@@ -56,6 +56,47 @@ public class PlanCache {
 
   public void createNewCachedPlan(Catalog catalog, long cachedKey, String sql,
                                   Prel prel, String textPlan, SqlHandlerConfig config) {
+    if (addToDatasetMap(catalog, cachedKey)) {
+      CachedPlan newCachedPlan = CachedPlan.createCachedPlan(sql, prel, textPlan, prel.getEstimatedSize());
+      config.getObserver().setCachedAccelDetails(newCachedPlan);
+      cachePlans.put(cachedKey, newCachedPlan);
+    }
+  }
+
+  /**
+   * Caches the given plan as the template of the queries only differing from it by the given parameters. If a
+   * template is already cached for them, it is validated against the plan instead.
+   */
+  public void createNewCachedTemplate(Catalog catalog, long templateKey, String sql, Prel prel, String textPlan,
+                                      PlanTemplate.Parameters parameters, SqlHandlerConfig config) {
+    final CachedPlan cached = cachePlans.getIfPresent(templateKey);
+    if (cached != null) {
+      if (cached.getTemplate() != null) {
+        cached.getTemplate().validate(prel, parameters);
+      }
+      return;
+    }
+
+    final PlanTemplate template = PlanTemplate.create(prel, parameters);
+    if (template != null && addToDatasetMap(catalog, templateKey)) {
+      CachedPlan newCachedPlan = CachedPlan.createCachedTemplate(sql, template, prel, textPlan, prel.getEstimatedSize());
+      config.getObserver().setCachedAccelDetails(newCachedPlan);
+      cachePlans.putIfAbsent(templateKey, newCachedPlan);
+    }
+  }
+
+  /**
+   * @return the plan of the template cached for the given parameters bound to their values, or null if there is no
+   * validated template for them
+   */
+  public Prel bindTemplate(CachedPlan cachedTemplate, PlanTemplate.Parameters parameters) {
+    if (cachedTemplate == null || cachedTemplate.getTemplate() == null) {
+      return null;
+    }
+    return cachedTemplate.getTemplate().bind(parameters);
+  }
+
+  private boolean addToDatasetMap(Catalog catalog, long cachedKey) {
     Preconditions.checkNotNull(catalog);
     boolean addedCacheToDatasetMap = false;
     Iterable<DremioTable> datasets = catalog.getAllRequestedTables();
@@ -80,11 +121,7 @@ public class PlanCache {
       }
       addedCacheToDatasetMap = true;
     }
-    if (addedCacheToDatasetMap) {
-      CachedPlan newCachedPlan = CachedPlan.createCachedPlan(sql, prel, textPlan, prel.getEstimatedSize());
-      config.getObserver().setCachedAccelDetails(newCachedPlan);
-      cachePlans.put(cachedKey, newCachedPlan);
-    }
+    return addedCacheToDatasetMap;
   }
 
   public static boolean supportPlanCache(PlanCache planCache, SqlHandlerConfig config, SqlNode sqlNode) {
@@ -95,6 +132,17 @@ public class PlanCache {
       && planCache != null && config.getContext().getPlannerSettings().isPlanCacheEnabled();
   }
 
+  /**
+   * @return the parameters of the query if its plan may be cached as a template, null otherwise
+   */
+  public static PlanTemplate.Parameters getTemplateParameters(PlanCache planCache, SqlHandlerConfig config, SqlNode sqlNode) {
+    if (!supportPlanCache(planCache, config, sqlNode)
+      || !config.getContext().getPlannerSettings().isPlanTemplateCacheEnabled()) {
+      return null;
+    }
+    return PlanTemplate.parameterize(sqlNode, config.getConverter().getTypeFactory());
+  }
+
   public static long generateCacheKey(String sql, QueryContext context) {
     long result = sql.concat(context.getWorkloadType().name())
       .concat(context.getContextInformation().getCurrentDefaultSchema())
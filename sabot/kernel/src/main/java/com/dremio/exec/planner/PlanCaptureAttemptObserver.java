@@ -207,6 +207,16 @@ public class PlanCaptureAttemptObserver extends AbstractAttemptObserver {
       .build());
   }
 
+  @Override
+  public void planMaterializationCandidates(int candidateCount, int prunedCount, long millisTaken) {
+    planPhases.add(PlanPhaseProfile.newBuilder()
+      .setPhaseName(PlannerPhase.PLAN_MATERIALIZATION_CANDIDATES)
+      .setDurationMillis(millisTaken)
+      .setPlan(String.format("%d materializations considered, %d pruned as they do not depend on any dataset of the query",
+        candidateCount, prunedCount))
+      .build());
+  }
+
   @Override
   public void planNormalized(long millisTaken, List<RelNode> normalizedQueryPlans) {
     normalizationMillis = millisTaken;
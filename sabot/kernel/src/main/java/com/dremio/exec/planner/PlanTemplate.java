@@ -0,0 +1,462 @@
+/*
+ * Copyright (C) 2017-2019 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.exec.planner;
+
+import static com.dremio.exec.store.parquet.ParquetFormatDatasetAccessor.ACCELERATOR_STORAGEPLUGIN_NAME;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+import org.apache.calcite.plan.RelOptUtil;
+import org.apache.calcite.rel.RelNode;
+import org.apache.calcite.rel.type.RelDataType;
+import org.apache.calcite.rel.type.RelDataTypeFactory;
+import org.apache.calcite.rex.RexBuilder;
+import org.apache.calcite.rex.RexLiteral;
+import org.apache.calcite.rex.RexNode;
+import org.apache.calcite.rex.RexShuttle;
+import org.apache.calcite.sql.SqlCall;
+import org.apache.calcite.sql.SqlDynamicParam;
+import org.apache.calcite.sql.SqlExplainLevel;
+import org.apache.calcite.sql.SqlKind;
+import org.apache.calcite.sql.SqlLiteral;
+import org.apache.calcite.sql.SqlNode;
+import org.apache.calcite.sql.SqlNodeList;
+import org.apache.calcite.sql.dialect.CalciteSqlDialect;
+import org.apache.calcite.sql.type.SqlTypeName;
+import org.apache.calcite.sql.util.SqlShuttle;
+import org.apache.calcite.util.DateString;
+import org.apache.calcite.util.NlsString;
+import org.apache.calcite.util.TimeString;
+import org.apache.calcite.util.TimestampString;
+
+import com.dremio.exec.planner.common.ScanRelBase;
+import com.dremio.exec.planner.physical.Prel;
+import com.dremio.exec.planner.physical.TableFunctionPrel;
+import com.dremio.exec.store.TableMetadata;
+import com.dremio.service.namespace.NamespaceException;
+import com.google.common.base.Preconditions;
+
+/**
+ * A physical plan cached for all the queries that only differ from the planned query by the literals they compare
+ * columns to, e.g. dashboard queries filtering on different dates.
+ *
+ * Only literals that are direct operands of comparisons, BETWEEN and IN are parameters of the template, and
+ * queries only share a template if their parameters have the same types. The template binds new values by replacing
+ * the literals of the parameters in the plan.
+ *
+ * As planning may depend on the values of the literals, a template is only used once it has been validated: the plan
+ * of a query with other values for all the parameters must be the same as the template bound to these values. The
+ * validation also records which literals of the plan are parameters: the literals whose values changed with the
+ * parameters. Other literals of the plan, like a limit, are never rebound, even if they are equal to a parameter.
+ * Plans depending on the values in ways the template can not reproduce, like partition pruning, reflections or
+ * pushdowns into sources, are never used as templates.
+ */
+public final class PlanTemplate {
+  private static final org.slf4j.Logger logger = org.slf4j.LoggerFactory.getLogger(PlanTemplate.class);
+
+  private static final Set<SqlKind> PARAMETERIZED_CALLS = EnumSet.of(SqlKind.EQUALS, SqlKind.NOT_EQUALS,
+    SqlKind.LESS_THAN, SqlKind.LESS_THAN_OR_EQUAL, SqlKind.GREATER_THAN, SqlKind.GREATER_THAN_OR_EQUAL,
+    SqlKind.BETWEEN, SqlKind.IN, SqlKind.NOT_IN);
+
+  private static final Set<SqlTypeName> PARAMETERIZED_TYPES = EnumSet.of(SqlTypeName.DECIMAL, SqlTypeName.DOUBLE,
+    SqlTypeName.CHAR, SqlTypeName.DATE, SqlTypeName.TIME, SqlTypeName.TIMESTAMP);
+
+  private final Prel prel;
+  private final List<Comparable> values;
+  // index of the parameter of each literal of the plan, in visiting order, or -1. Set before the template is validated.
+  private volatile int[] literalParameters;
+  private volatile boolean validated;
+  private volatile boolean rejected;
+
+  private PlanTemplate(Prel prel, List<Comparable> values) {
+    this.prel = prel;
+    this.values = values;
+  }
+
+  /**
+   * Literals of a query which are parameters of its plan template.
+   */
+  public static final class Parameters {
+    private final String templateSql;
+    private final List<Comparable> values;
+
+    private Parameters(String templateSql, List<Comparable> values) {
+      this.templateSql = templateSql;
+      this.values = values;
+    }
+
+    /**
+     * @return the query text with its parameters replaced by markers, followed by the types of the parameters
+     */
+    public String getTemplateSql() {
+      return templateSql;
+    }
+
+    List<Comparable> getValues() {
+      return values;
+    }
+  }
+
+  /**
+   * Extracts the parameters of the given query.
+   *
+   * @return the parameters, or null if the query has none or already has dynamic parameters
+   */
+  public static Parameters parameterize(SqlNode query, RelDataTypeFactory typeFactory) {
+    final ParameterExtractor extractor = new ParameterExtractor(typeFactory);
+    final SqlNode template = query.accept(extractor);
+    if (extractor.values.isEmpty() || extractor.hasDynamicParams) {
+      return null;
+    }
+    final String templateSql = template.toSqlString(CalciteSqlDialect.DEFAULT).getSql() + " /* " + extractor.types + " */";
+    return new Parameters(templateSql, extractor.values);
+  }
+
+  /**
+   * Creates the template of the given plan.
+   *
+   * @return the template, or null if the plan can not be rebound to other values
+   */
+  static PlanTemplate create(Prel prel, Parameters parameters) {
+    final List<Comparable> values = parameters.getValues();
+    for (int i = 0; i < values.size(); i++) {
+      for (int j = i + 1; j < values.size(); j++) {
+        if (sameValue(values.get(i), values.get(j))) {
+          // the literals of the plan could not be attributed to one parameter
+          return null;
+        }
+      }
+    }
+
+    final boolean[] found = new boolean[values.size()];
+    final boolean[] unsupported = new boolean[1];
+    for (RexLiteral literal : literals(prel, unsupported)) {
+      final int index = indexOf(values, literal);
+      if (index >= 0) {
+        found[index] = true;
+      }
+    }
+    if (unsupported[0]) {
+      logger.debug("Not caching a plan template as it scans pruned partitions or reflections");
+      return null;
+    }
+    for (boolean f : found) {
+      if (!f) {
+        // the literal was folded or pushed to a place the template can not rebind
+        return null;
+      }
+    }
+    return new PlanTemplate(prel, values);
+  }
+
+  /**
+   * @return true if the template is used to plan queries
+   */
+  boolean isValidated() {
+    return validated;
+  }
+
+  /**
+   * @return true if the template failed validation, and is never used
+   */
+  boolean isRejected() {
+    return rejected;
+  }
+
+  /**
+   * Validates or rejects this template by comparing it with the plan of a query with other values for all the
+   * parameters. Queries keeping the value of a parameter are ignored, as the literals of the plan equal to that value
+   * could not be told apart from the parameter.
+   */
+  synchronized void validate(Prel planned, Parameters parameters) {
+    final List<Comparable> newValues = parameters.getValues();
+    if (validated || rejected || newValues.size() != values.size()) {
+      return;
+    }
+    for (int i = 0; i < values.size(); i++) {
+      if (sameValue(values.get(i), newValues.get(i))) {
+        return;
+      }
+    }
+
+    final int[] parameterOfLiteral = parametersOfLiterals(planned, newValues);
+    final Prel bound = parameterOfLiteral == null ? null : rebind(newValues, parameterOfLiteral);
+    if (bound != null && RelOptUtil.toString(bound, SqlExplainLevel.DIGEST_ATTRIBUTES)
+        .equals(RelOptUtil.toString(planned, SqlExplainLevel.DIGEST_ATTRIBUTES))) {
+      literalParameters = parameterOfLiteral;
+      validated = true;
+    } else {
+      logger.debug("Plan template rejected as planning depends on its parameters");
+      rejected = true;
+    }
+  }
+
+  /**
+   * Attributes the literals of the template to the parameters, by comparing them with the literals at the same
+   * positions in the plan of a query with other values for all the parameters. Literals equal to a parameter in the
+   * template are the parameter if their value changed to the new value of the parameter, and constants of the plan
+   * if their value did not change.
+   *
+   * @return the index of the parameter of each literal of the template, or -1 if the literal is not a parameter, or
+   * null if the literals of the plans do not match
+   */
+  private int[] parametersOfLiterals(Prel planned, List<Comparable> newValues) {
+    final List<RexLiteral> templateLiterals = literals(prel, new boolean[1]);
+    final List<RexLiteral> plannedLiterals = literals(planned, new boolean[1]);
+    if (templateLiterals.size() != plannedLiterals.size()) {
+      return null;
+    }
+
+    final int[] parameterOfLiteral = new int[templateLiterals.size()];
+    final boolean[] found = new boolean[values.size()];
+    for (int i = 0; i < parameterOfLiteral.length; i++) {
+      parameterOfLiteral[i] = -1;
+      final int index = indexOf(values, templateLiterals.get(i));
+      if (index < 0) {
+        continue;
+      }
+      final RexLiteral plannedLiteral = plannedLiterals.get(i);
+      final Comparable plannedValue = plannedLiteral.isNull() ? null : valueOf(plannedLiteral);
+      if (sameValue(newValues.get(index), plannedValue)) {
+        parameterOfLiteral[i] = index;
+        found[index] = true;
+      } else if (!sameValue(values.get(index), plannedValue)) {
+        return null;
+      }
+    }
+    for (boolean f : found) {
+      if (!f) {
+        return null;
+      }
+    }
+    return parameterOfLiteral;
+  }
+
+  /**
+   * @return the template bound to the given parameters, or null if the template is not validated or can not be bound
+   * to them
+   */
+  Prel bind(Parameters parameters) {
+    if (!validated) {
+      return null;
+    }
+    return sameValues(parameters.getValues()) ? prel : rebind(parameters.getValues(), literalParameters);
+  }
+
+  private boolean sameValues(List<Comparable> other) {
+    if (other.size() != values.size()) {
+      return false;
+    }
+    for (int i = 0; i < values.size(); i++) {
+      if (!sameValue(values.get(i), other.get(i))) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private Prel rebind(List<Comparable> newValues, int[] parameterOfLiteral) {
+    Preconditions.checkArgument(newValues.size() == values.size(), "parameter count mismatch");
+    final RexBuilder rexBuilder = prel.getCluster().getRexBuilder();
+    final boolean[] failed = new boolean[1];
+    final RelNode bound = visit(prel, new RexShuttle() {
+      private int position;
+
+      @Override
+      public RexNode visitLiteral(RexLiteral literal) {
+        final int index = position < parameterOfLiteral.length ? parameterOfLiteral[position] : -1;
+        position++;
+        if (index < 0) {
+          return literal;
+        }
+        final RexLiteral rebound = makeLiteral(rexBuilder, newValues.get(index), literal.getType());
+        if (rebound == null) {
+          failed[0] = true;
+          return literal;
+        }
+        return rebound;
+      }
+    }, new boolean[1]);
+    return failed[0] ? null : (Prel) bound;
+  }
+
+  private static RexLiteral makeLiteral(RexBuilder rexBuilder, Comparable value, RelDataType type) {
+    try {
+      final Object literalValue = value instanceof NlsString ? ((NlsString) value).getValue() : value;
+      final RexNode literal = rexBuilder.makeLiteral(literalValue, type, false);
+      if (!(literal instanceof RexLiteral) || !literal.getType().equals(type)
+        || !sameValue(valueOf((RexLiteral) literal), value)) {
+        return null;
+      }
+      return (RexLiteral) literal;
+    } catch (RuntimeException e) {
+      logger.debug("Can not bind {} to a literal of type {}", value, type, e);
+      return null;
+    }
+  }
+
+  /**
+   * @return the literals of the plan, in the order {@link #visit} visits them
+   */
+  private static List<RexLiteral> literals(RelNode node, boolean[] unsupported) {
+    final List<RexLiteral> literals = new ArrayList<>();
+    visit(node, new RexShuttle() {
+      @Override
+      public RexNode visitLiteral(RexLiteral literal) {
+        literals.add(literal);
+        return literal;
+      }
+    }, unsupported);
+    return literals;
+  }
+
+  /**
+   * Applies the given shuttle to the expressions of the plan, bottom up.
+   */
+  private static RelNode visit(RelNode node, RexShuttle shuttle, boolean[] unsupported) {
+    if (isUnsupportedScan(node)) {
+      unsupported[0] = true;
+    }
+    final List<RelNode> inputs = new ArrayList<>(node.getInputs().size());
+    boolean changed = false;
+    for (RelNode input : node.getInputs()) {
+      final RelNode visited = visit(input, shuttle, unsupported);
+      changed |= visited != input;
+      inputs.add(visited);
+    }
+    final RelNode copy = changed ? node.copy(node.getTraitSet(), inputs) : node;
+    return copy.accept(shuttle);
+  }
+
+  /**
+   * @return true if the node scans pruned partitions, or a reflection, both of which may depend on the parameters
+   */
+  private static boolean isUnsupportedScan(RelNode node) {
+    final TableMetadata metadata;
+    if (node instanceof ScanRelBase) {
+      metadata = ((ScanRelBase) node).getTableMetadata();
+    } else if (node instanceof TableFunctionPrel) {
+      metadata = ((TableFunctionPrel) node).getTableMetadata();
+    } else {
+      return false;
+    }
+    if (metadata == null) {
+      return false;
+    }
+    try {
+      return ACCELERATOR_STORAGEPLUGIN_NAME.equals(metadata.getName().getRoot()) || metadata.getSplitRatio() < 1.0d;
+    } catch (NamespaceException e) {
+      return true;
+    }
+  }
+
+  /**
+   * @return the value of the literal, with the same class as the value of the SQL literal it was converted from
+   */
+  private static Comparable valueOf(RexLiteral literal) {
+    switch (literal.getTypeName()) {
+      case DATE:
+        return literal.getValueAs(DateString.class);
+      case TIME:
+        return literal.getValueAs(TimeString.class);
+      case TIMESTAMP:
+        return literal.getValueAs(TimestampString.class);
+      default:
+        return literal.getValue();
+    }
+  }
+
+  private static int indexOf(List<Comparable> values, RexLiteral literal) {
+    final Comparable value = literal.isNull() ? null : valueOf(literal);
+    if (value == null) {
+      return -1;
+    }
+    for (int i = 0; i < values.size(); i++) {
+      if (sameValue(values.get(i), value)) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  private static boolean sameValue(Comparable left, Comparable right) {
+    if (left instanceof BigDecimal && right instanceof BigDecimal) {
+      return ((BigDecimal) left).compareTo((BigDecimal) right) == 0;
+    }
+    if (left instanceof NlsString && right instanceof NlsString) {
+      return ((NlsString) left).getValue().equals(((NlsString) right).getValue());
+    }
+    return left != null && right != null && left.getClass() == right.getClass() && left.equals(right);
+  }
+
+  /**
+   * Replaces the parameters of a query with dynamic parameters, and records their values and types.
+   */
+  private static final class ParameterExtractor extends SqlShuttle {
+    private final RelDataTypeFactory typeFactory;
+    private final List<Comparable> values = new ArrayList<>();
+    private final List<String> types = new ArrayList<>();
+    private boolean hasDynamicParams;
+
+    private ParameterExtractor(RelDataTypeFactory typeFactory) {
+      this.typeFactory = typeFactory;
+    }
+
+    @Override
+    public SqlNode visit(SqlDynamicParam param) {
+      hasDynamicParams = true;
+      return param;
+    }
+
+    @Override
+    public SqlNode visit(SqlCall call) {
+      if (!PARAMETERIZED_CALLS.contains(call.getKind())) {
+        return super.visit(call);
+      }
+      final List<SqlNode> operands = new ArrayList<>(call.getOperandList().size());
+      for (SqlNode operand : call.getOperandList()) {
+        operands.add(parameterize(operand));
+      }
+      return call.getOperator().createCall(call.getFunctionQuantifier(), call.getParserPosition(),
+        operands.toArray(new SqlNode[0]));
+    }
+
+    private SqlNode parameterize(SqlNode operand) {
+      if (operand instanceof SqlLiteral) {
+        final SqlLiteral literal = (SqlLiteral) operand;
+        if (literal.getValue() instanceof Comparable && PARAMETERIZED_TYPES.contains(literal.getTypeName())) {
+          final RelDataType type = literal.createSqlType(typeFactory);
+          values.add((Comparable) literal.getValue());
+          types.add(type.getFullTypeString());
+          return new SqlDynamicParam(values.size() - 1, literal.getParserPosition());
+        }
+        return literal;
+      }
+      if (operand instanceof SqlNodeList) {
+        final SqlNodeList list = new SqlNodeList(operand.getParserPosition());
+        for (SqlNode node : (SqlNodeList) operand) {
+          list.add(parameterize(node));
+        }
+        return list;
+      }
+      return operand == null ? null : operand.accept(this);
+    }
+  }
+}
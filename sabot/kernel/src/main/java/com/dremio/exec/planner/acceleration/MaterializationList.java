@@ -19,10 +19,14 @@ import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.TimeUnit;
 
 import org.apache.calcite.plan.RelOptMaterialization;
+import org.apache.calcite.rel.RelNode;
 
 import com.dremio.exec.planner.acceleration.substitution.MaterializationProvider;
+import com.dremio.exec.planner.acceleration.substitution.SubstitutionUtils;
+import com.dremio.exec.planner.observer.AttemptObserver;
 import com.dremio.exec.planner.sql.SqlConverter;
 import com.dremio.exec.server.MaterializationDescriptorProvider;
 import com.dremio.sabot.rpc.user.UserSession;
@@ -30,9 +34,12 @@ import com.dremio.service.namespace.NamespaceKey;
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Optional;
 import com.google.common.base.Preconditions;
+import com.google.common.base.Predicates;
+import com.google.common.base.Stopwatch;
 import com.google.common.base.Supplier;
 import com.google.common.base.Suppliers;
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Iterables;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
 import com.google.common.collect.Sets;
@@ -45,6 +52,8 @@ public class MaterializationList implements MaterializationProvider {
   private static final org.slf4j.Logger logger = org.slf4j.LoggerFactory.getLogger(MaterializationList.class);
 
   private final Map<TablePath, MaterializationDescriptor> mapping = Maps.newHashMap();
+  // expanded materializations by materialization id, null if the materialization could not be expanded
+  private final Map<String, DremioMaterialization> expanded = Maps.newHashMap();
   private final Supplier<List<DremioMaterialization>> factory = Suppliers.memoize(new Supplier<List<DremioMaterialization>>() {
     @Override
     public List<DremioMaterialization> get() {
@@ -74,6 +83,34 @@ public class MaterializationList implements MaterializationProvider {
     return factory.get();
   }
 
+  /**
+   * Returns list of materializations applicable to the given query.
+   *
+   * Only the materializations depending on the datasets used by the query are requested from the provider, and
+   * converted to {@link RelOptMaterialization materializations} if they were not already.
+   */
+  @Override
+  public List<DremioMaterialization> getApplicableMaterializations(final RelNode query) {
+    final Stopwatch watch = Stopwatch.createStarted();
+    final MaterializationDescriptorProvider.Candidates candidates =
+      provider.getCandidates(SubstitutionUtils.findDatasets(query));
+    final List<DremioMaterialization> materializations = expand(candidates.getDescriptors());
+    final AttemptObserver observer = converter.getObserver();
+    if (observer != null) {
+      observer.planMaterializationCandidates(candidates.getDescriptors().size(), candidates.getPrunedCount(),
+        watch.elapsed(TimeUnit.MILLISECONDS));
+    }
+    return SubstitutionUtils.findApplicableMaterializations(query, materializations);
+  }
+
+  /**
+   * Returns the materializations converted so far, either by {@link #getMaterializations()} or by
+   * {@link #getApplicableMaterializations(RelNode)}. Materializations substituted in a plan are always part of them.
+   */
+  public List<DremioMaterialization> getExpandedMaterializations() {
+    return ImmutableList.copyOf(Iterables.filter(expanded.values(), Predicates.notNull()));
+  }
+
   @Override
   public java.util.Optional<DremioMaterialization> getDefaultRawMaterialization(NamespaceKey path, List<String> vdsFields) {
     return getDefaultRawMaterialization(provider, path, vdsFields);
@@ -96,11 +133,15 @@ public class MaterializationList implements MaterializationProvider {
    */
   @VisibleForTesting
   protected List<DremioMaterialization> build(final MaterializationDescriptorProvider provider) {
+    return expand(provider.get());
+  }
+
+  private List<DremioMaterialization> expand(final List<MaterializationDescriptor> descriptors) {
     final Set<String> exclusions = Sets.newHashSet(session.getSubstitutionSettings().getExclusions());
     final Set<String> inclusions = Sets.newHashSet(session.getSubstitutionSettings().getInclusions());
     final boolean hasInclusions = !inclusions.isEmpty();
     final List<DremioMaterialization> materializations = Lists.newArrayList();
-    for (final MaterializationDescriptor descriptor : provider.get()) {
+    for (final MaterializationDescriptor descriptor : descriptors) {
 
       if(
           (hasInclusions && !inclusions.contains(descriptor.getLayoutId()))
@@ -115,7 +156,13 @@ public class MaterializationList implements MaterializationProvider {
           continue;
         }
 
-        final DremioMaterialization materialization = descriptor.getMaterializationFor(converter);
+        final DremioMaterialization materialization;
+        if (expanded.containsKey(descriptor.getMaterializationId())) {
+          materialization = expanded.get(descriptor.getMaterializationId());
+        } else {
+          materialization = descriptor.getMaterializationFor(converter);
+          expanded.put(descriptor.getMaterializationId(), materialization);
+        }
         if (materialization == null) {
           continue;
         }
@@ -154,7 +201,9 @@ public class MaterializationList implements MaterializationProvider {
         )
       ) {
         try {
-          return java.util.Optional.of(descriptor.getMaterializationFor(converter));
+          final DremioMaterialization materialization = descriptor.getMaterializationFor(converter);
+          expanded.putIfAbsent(descriptor.getMaterializationId(), materialization);
+          return java.util.Optional.of(materialization);
         } catch (Throwable e) {
           logger.warn("Failed to expand materialization {}", descriptor.getMaterializationId(), e);
         }
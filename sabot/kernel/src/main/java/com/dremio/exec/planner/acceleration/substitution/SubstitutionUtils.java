@@ -23,6 +23,7 @@ import java.util.HashSet;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Objects;
+import java.util.Optional;
 import java.util.Set;
 import java.util.stream.Collectors;
 
@@ -216,6 +217,42 @@ public final class SubstitutionUtils {
     return materializations.stream().filter(materialization -> usesTableOrVds(queryTablesUsed, queryVdsUsed, externalQueries, materialization.getQueryRel())).collect(Collectors.toList());
   }
 
+  /**
+   * Returns the paths of the tables and views used by the given query, against which
+   * {@link #findApplicableMaterializations} matches materializations.
+   */
+  public static Set<List<String>> findDatasets(final RelNode query) {
+    final Set<List<String>> datasets = findTables(query);
+    datasets.addAll(findExpansionNodes(query));
+    return datasets;
+  }
+
+  /**
+   * Returns the paths of the tables and views the given materialization plan depends on.
+   * {@link #findApplicableMaterializations} only retains a materialization for queries using at least one of them.
+   *
+   * @return paths of the datasets, or empty if the plan also uses external queries, which are matched on their text
+   */
+  public static Optional<Set<List<String>>> findDatasetDependencies(final RelNode materializationQuery) {
+    final Set<List<String>> datasets = new LinkedHashSet<>();
+    final Pointer<Boolean> external = new Pointer<>(false);
+    final RelVisitor visitor = new RelVisitor() {
+      @Override
+      public void visit(final RelNode node, final int ordinal, final RelNode parent) {
+        if (node instanceof TableScan) {
+          datasets.add(node.getTable().getQualifiedName());
+        } else if (node instanceof ExpansionNode) {
+          datasets.add(((ExpansionNode) node).getPath().getPathComponents());
+        } else if (node instanceof ExternalQueryScanCrel) {
+          external.value = true;
+        }
+        super.visit(node, ordinal, parent);
+      }
+    };
+    visitor.go(materializationQuery);
+    return external.value ? Optional.empty() : Optional.of(datasets);
+  }
+
   /**
    * @return true if query plan matches the candidate plan, after removing the {@link ReplacementPointer} from the candidate plan
    */
@@ -185,6 +185,12 @@ public interface AttemptObserver {
    */
   void planFindMaterializations(long millisTaken);
 
+  /**
+   * Report the materializations considered for substitution, after pruning those that do not depend on any dataset
+   * used by the query
+   */
+  default void planMaterializationCandidates(int candidateCount, int prunedCount, long millisTaken) {};
+
   /**
    * Report normalization completion
    */
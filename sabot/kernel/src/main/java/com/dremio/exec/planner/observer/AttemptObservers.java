@@ -204,6 +204,13 @@ public class AttemptObservers implements AttemptObserver {
     }
   }
 
+  @Override
+  public void planMaterializationCandidates(int candidateCount, int prunedCount, long millisTaken) {
+    for (final AttemptObserver observer : observers) {
+      observer.planMaterializationCandidates(candidateCount, prunedCount, millisTaken);
+    }
+  }
+
   @Override
   public void planNormalized(long millisTaken, List<RelNode> normalizedQueryPlans) {
     for (final AttemptObserver observer : observers) {
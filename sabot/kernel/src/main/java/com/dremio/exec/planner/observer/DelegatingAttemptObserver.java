@@ -131,6 +131,11 @@ public class DelegatingAttemptObserver implements AttemptObserver {
     observer.planFindMaterializations(millisTaken);
   }
 
+  @Override
+  public void planMaterializationCandidates(int candidateCount, int prunedCount, long millisTaken) {
+    observer.planMaterializationCandidates(candidateCount, prunedCount, millisTaken);
+  }
+
   @Override
   public void planNormalized(long millisTaken, List<RelNode> normalizedQueryPlans) {
     observer.planNormalized(millisTaken, normalizedQueryPlans);
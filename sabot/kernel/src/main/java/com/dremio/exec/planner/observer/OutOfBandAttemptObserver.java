@@ -116,6 +116,11 @@ public class OutOfBandAttemptObserver implements AttemptObserver {
     execute(() -> innerObserver.planFindMaterializations(millisTaken));
   }
 
+  @Override
+  public void planMaterializationCandidates(final int candidateCount, final int prunedCount, final long millisTaken) {
+    execute(() -> innerObserver.planMaterializationCandidates(candidateCount, prunedCount, millisTaken));
+  }
+
   @Override
   public void planNormalized(final long millisTaken, final List<RelNode> normalizedQueryPlans) {
     execute(() -> innerObserver.planNormalized(millisTaken, normalizedQueryPlans));
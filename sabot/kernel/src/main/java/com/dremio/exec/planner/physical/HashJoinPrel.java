@@ -57,6 +57,7 @@ import com.dremio.options.TypeValidators.DoubleValidator;
 import com.dremio.options.TypeValidators.LongValidator;
 import com.dremio.options.TypeValidators.PositiveLongValidator;
 import com.dremio.options.TypeValidators.RangeDoubleValidator;
+import com.dremio.sabot.op.common.ht2.LBlockHashTable;
 import com.dremio.sabot.op.join.JoinUtils.JoinCategory;
 import com.dremio.sabot.op.join.hash.HashJoinOperator;
 import com.dremio.sabot.op.join.vhash.spill.VectorizedSpillingHashJoinOperator;
@@ -158,6 +159,12 @@ public class HashJoinPrel extends JoinPrel {
     final boolean vectorize = options.getOption(ExecConstants.ENABLE_VECTORIZED_HASHJOIN)
         && canVectorize(creator.getContext().getFunctionRegistry(), leftPop, rightPop, conditions);
     final boolean canSpill = vectorize && options.getOption(HashJoinOperator.ENABLE_SPILL);
+    final RuntimeFilterInfo runtimeFilterInfo = buildRuntimeFilterInfo(creator);
+    // the partitioned join doesn't produce runtime filters, keep them rather than partitioning the join
+    final int radixPartitions = vectorize && !canSpill && runtimeFilterInfo == null
+      && options.getOption(HashJoinOperator.ENABLE_RADIX_PARTITIONING)
+      ? getRadixPartitions(options, currentRight, currentRightKeys.size()) : 0;
+    final boolean isPartitioned = canSpill || radixPartitions > 0;
 
     final LogicalExpression extraJoinCondition = buildExtraJoinCondition(vectorize);
 
@@ -172,11 +179,12 @@ public class HashJoinPrel extends JoinPrel {
 
     long lowLimit = options.getOption(LOW_LIMIT);
     long reservation = options.getOption(RESERVE);
-    if (canSpill) {
+    if (isPartitioned) {
       // safety code in case users set very low values via support option. Cannot use PostiveRangeValidator since the
       // min values are different for spilling & non-spilling variants.
-      lowLimit = Long.max(lowLimit, VectorizedSpillingHashJoinOperator.MIN_RESERVE);
-      reservation = Long.max(reservation, VectorizedSpillingHashJoinOperator.MIN_RESERVE);
+      final long minReserve = VectorizedSpillingHashJoinOperator.getMinReserve(radixPartitions);
+      lowLimit = Long.max(lowLimit, minReserve);
+      reservation = Long.max(reservation, minReserve);
     }
     return new HashJoinPOP(
       creator
@@ -190,10 +198,28 @@ public class HashJoinPrel extends JoinPrel {
       extraJoinCondition,
       joinType,
       vectorize,
-      buildRuntimeFilterInfo(creator)
+      radixPartitions,
+      runtimeFilterInfo
     );
   }
 
+  /**
+   * Number of radix partitions for the hash table of the build side to fit the cache budget of each partition, or 0
+   * if the whole table fits.
+   */
+  private static int getRadixPartitions(OptionManager options, RelNode build, int keyCount) {
+    final double buildRows = build.getCluster().getMetadataQuery().getRowCount(build);
+    // control block and fixed width keys of the hash table entries, assuming 8 bytes per key
+    final double tableBytes = buildRows * (LBlockHashTable.CONTROL_WIDTH + 8.0 * keyCount);
+    final long cacheBytes = options.getOption(HashJoinOperator.RADIX_PARTITION_CACHE_BYTES);
+    final long maxPartitions = options.getOption(HashJoinOperator.RADIX_MAX_PARTITIONS);
+    int partitions = 1;
+    while (partitions < maxPartitions && tableBytes / partitions > cacheBytes) {
+      partitions <<= 1;
+    }
+    return partitions > 1 ? partitions : 0;
+  }
+
   private RuntimeFilterInfo buildRuntimeFilterInfo(PhysicalPlanCreator creator) {
     if(null == runtimeFilterId) {
       return null;
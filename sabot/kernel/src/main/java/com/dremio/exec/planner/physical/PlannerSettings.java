@@ -379,6 +379,8 @@ public class PlannerSettings implements Context{
    * Options to enable/disable plan cache and set plan cache policy
    */
   public static final BooleanValidator QUERY_PLAN_CACHE_ENABLED = new BooleanValidator("planner.query_plan_cache_enabled", true);
+  // reuses the plan of queries only differing by the literals they compare columns to
+  public static final BooleanValidator QUERY_PLAN_TEMPLATE_CACHE_ENABLED = new BooleanValidator("planner.query_plan_template_cache_enabled", true);
 
   public static final BooleanValidator REFLECTION_ROUTING_INHERITANCE_ENABLED = new BooleanValidator("planner.reflection_routing_inheritance_enabled", false);
 
@@ -597,6 +599,10 @@ public class PlannerSettings implements Context{
     return options.getOption(QUERY_PLAN_CACHE_ENABLED);
   }
 
+  public boolean isPlanTemplateCacheEnabled() {
+    return options.getOption(QUERY_PLAN_TEMPLATE_CACHE_ENABLED);
+  }
+
   public boolean isReflectionRoutingInheritanceEnabled() {
     return options.getOption(REFLECTION_ROUTING_INHERITANCE_ENABLED);
   }
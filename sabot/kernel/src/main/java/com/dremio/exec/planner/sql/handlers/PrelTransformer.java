@@ -620,8 +620,9 @@ public class PrelTransformer {
   }
 
   private static RelNode processBoostedMaterializations(SqlHandlerConfig config, RelNode relNode) {
+    // materializations substituted in the plan have all been expanded while planning
     final Set<List<String>> qualifiedNames = config.getMaterializations().isPresent() ?
-      config.getMaterializations().get().getMaterializations()
+      config.getMaterializations().get().getExpandedMaterializations()
         .stream()
         .filter(m -> m.getLayoutInfo().isArrowCachingEnabled())
         .map(DremioMaterialization::getTableRel)
@@ -188,6 +188,11 @@ public abstract class HandlerToPreparePlanBase<T> implements CommandRunner<T> {
       calls.add(observer -> observer.planFindMaterializations(millisTaken));
     }
 
+    @Override
+    public void planMaterializationCandidates(final int candidateCount, final int prunedCount, final long millisTaken) {
+      calls.add(observer -> observer.planMaterializationCandidates(candidateCount, prunedCount, millisTaken));
+    }
+
 
     @Override
     public void planNormalized(final long millisTaken, final List<RelNode> normalizedQueryPlans) {
@@ -35,6 +35,7 @@ import com.dremio.exec.planner.CachedAccelDetails;
 import com.dremio.exec.planner.CachedPlan;
 import com.dremio.exec.planner.DremioVolcanoPlanner;
 import com.dremio.exec.planner.PlanCache;
+import com.dremio.exec.planner.PlanTemplate;
 import com.dremio.exec.planner.logical.Rel;
 import com.dremio.exec.planner.physical.PlannerSettings;
 import com.dremio.exec.planner.physical.Prel;
@@ -64,6 +65,10 @@ public class NormalHandler implements SqlToPlanHandler {
       final long cachedKey = planCache.generateCacheKey(sqlNode.toSqlString(CalciteSqlDialect.DEFAULT).getSql(),
         config.getContext());
       config.getObserver().setCacheKey(cachedKey);
+      // parameterize before validation, which rewrites the query
+      final PlanTemplate.Parameters parameters = PlanCache.getTemplateParameters(planCache, config, sqlNode);
+      final long templateKey = parameters != null
+        ? PlanCache.generateCacheKey(parameters.getTemplateSql(), config.getContext()) : 0;
       final ConvertedRelNode convertedRelNode = PrelTransformer.validateAndConvert(config, sqlNode);
       final RelDataType validatedRowType = convertedRelNode.getValidatedRowType();
       final RelNode queryRelNode = convertedRelNode.getConvertedNode();
@@ -76,8 +81,14 @@ public class NormalHandler implements SqlToPlanHandler {
       final Catalog catalog = config.getContext().getCatalog();
       final CatalogService catalogService = config.getContext().getCatalogService();
       CachedPlan cachedPlan = (planCache != null) ? planCache.getIfPresentAndValid(catalog, catalogService, cachedKey) : null;
-      Prel prel;
-      if (!plannerSettings.isPlanCacheEnabled() || cachedPlan == null) {
+      Prel prel = null;
+      if (plannerSettings.isPlanCacheEnabled() && cachedPlan != null) {
+        prel = cachedPlan.getPrel();
+      } else if (parameters != null) {
+        cachedPlan = planCache.getIfPresentAndValid(catalog, catalogService, templateKey);
+        prel = planCache.bindTemplate(cachedPlan, parameters);
+      }
+      if (prel == null) {
         final Rel drel = PrelTransformer.convertToDrel(config, queryRelNode, validatedRowType);
 
         final Pair<Prel, String> convertToPrel = PrelTransformer.convertToPrel(config, drel);
@@ -87,10 +98,11 @@ public class NormalHandler implements SqlToPlanHandler {
         //after we generate a physical plan, save it in the plan cache if plan cache is present
         if (PlanCache.supportPlanCache(planCache, config, sqlNode)) {
           planCache.createNewCachedPlan(catalog, cachedKey, sql, prel, textPlan, config);
+          if (parameters != null) {
+            planCache.createNewCachedTemplate(catalog, templateKey, sql, prel, textPlan, parameters, config);
+          }
         }
       } else {
-        prel = cachedPlan.getPrel();
-
         // After the plan has been cached during planning, the job could be canceled during execution.
         // Reset the cancel flag in cached plan, otherwise the job will always be canceled.
         prel.getCluster().getPlanner().getContext().unwrap(org.apache.calcite.util.CancelFlag.class).clearCancel();
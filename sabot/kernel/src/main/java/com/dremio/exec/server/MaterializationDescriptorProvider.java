@@ -17,6 +17,7 @@ package com.dremio.exec.server;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import com.dremio.exec.planner.acceleration.MaterializationDescriptor;
 import com.dremio.service.namespace.NamespaceKey;
@@ -33,6 +34,17 @@ public interface MaterializationDescriptorProvider {
    */
   List<MaterializationDescriptor> get();
 
+  /**
+   * Provides the materializations that may be used to accelerate a query on the given datasets, i.e. those depending
+   * on at least one of them, and those whose dependencies are not known.
+   *
+   * @param datasetPaths paths of the tables and views used by the query
+   * @return the candidate materializations, along with the number of materializations that were pruned
+   */
+  default Candidates getCandidates(Set<List<String>> datasetPaths) {
+    return new Candidates(get(), 0);
+  }
+
   /**
    * Returns the default raw materialization that provider considers for substitution
    * for the VDS with the given path
@@ -40,6 +52,30 @@ public interface MaterializationDescriptorProvider {
    */
   Optional<MaterializationDescriptor> getDefaultRawMaterialization(NamespaceKey path, List<String> vdsFields);
 
+  /**
+   * Materializations provided for a query.
+   */
+  final class Candidates {
+    private final List<MaterializationDescriptor> descriptors;
+    private final int prunedCount;
+
+    public Candidates(List<MaterializationDescriptor> descriptors, int prunedCount) {
+      this.descriptors = descriptors;
+      this.prunedCount = prunedCount;
+    }
+
+    public List<MaterializationDescriptor> getDescriptors() {
+      return descriptors;
+    }
+
+    /**
+     * @return number of materializations not provided because they do not depend on any dataset of the query
+     */
+    public int getPrunedCount() {
+      return prunedCount;
+    }
+  }
+
   /**
    * Empty materialization provider.
    */
@@ -19,7 +19,7 @@ import java.util.List;
 
 import com.dremio.common.AutoCloseables;
 import com.dremio.exec.proto.ExecProtos;
-import com.dremio.exec.util.BloomFilter;
+import com.dremio.exec.util.BlockedBloomFilter;
 import com.dremio.exec.util.ValueListFilter;
 import com.google.common.base.Preconditions;
 
@@ -37,7 +37,7 @@ public class CompositeColumnFilter implements AutoCloseable {
 
   private RuntimeFilterType filterType;
   private List<String> columnsList;
-  private BloomFilter bloomFilter;
+  private BlockedBloomFilter bloomFilter;
   private ValueListFilter valueList;
 
   private CompositeColumnFilter() {}
@@ -46,7 +46,7 @@ public class CompositeColumnFilter implements AutoCloseable {
     return filterType;
   }
 
-  public BloomFilter getBloomFilter() {
+  public BlockedBloomFilter getBloomFilter() {
     return bloomFilter;
   }
 
@@ -82,7 +82,7 @@ public class CompositeColumnFilter implements AutoCloseable {
       return this;
     }
 
-    public Builder setBloomFilter(BloomFilter bloomFilter) {
+    public Builder setBloomFilter(BlockedBloomFilter bloomFilter) {
       compositeColumnFilter.bloomFilter = bloomFilter;
       return this;
     }
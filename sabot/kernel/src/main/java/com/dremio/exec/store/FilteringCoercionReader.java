@@ -209,6 +209,13 @@ public class FilteringCoercionReader extends CoercionReader {
     }
   }
 
+  @Override
+  public void setThresholdFilter(ThresholdFilter thresholdFilter) {
+    if (inner != null) {
+      inner.setThresholdFilter(thresholdFilter);
+    }
+  }
+
   private void resetReaderState() {
     setupCalledByFilteringReader = false;
     closeCalledByFilteringReader = false;
@@ -75,6 +75,11 @@ public abstract class FilteringFileCoercionReader extends AbstractRecordReader {
     inner.addRuntimeFilter(runtimeFilter);
   }
 
+  @Override
+  public void setThresholdFilter(ThresholdFilter thresholdFilter) {
+    inner.setThresholdFilter(thresholdFilter);
+  }
+
   @Override
   public void allocate(Map<String, ValueVector> vectorMap) throws OutOfMemoryException {
     // do not allocate if called by FilteringReader
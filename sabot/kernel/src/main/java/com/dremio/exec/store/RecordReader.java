@@ -83,6 +83,12 @@ public interface RecordReader extends AutoCloseable {
    */
   default void addRuntimeFilter(RuntimeFilter runtimeFilter) {}
 
+  /**
+   * Sets the sort threshold published by a downstream TopN, readers may skip the rows that sort after it
+   * @param thresholdFilter
+   */
+  default void setThresholdFilter(ThresholdFilter thresholdFilter) {}
+
   /**
    * @return The path of the file the reader is scanning.
    */
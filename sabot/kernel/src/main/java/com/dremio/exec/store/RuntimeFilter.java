@@ -34,7 +34,7 @@ import com.dremio.common.AutoCloseables;
 import com.dremio.exec.ExecConstants;
 import com.dremio.exec.proto.ExecProtos;
 import com.dremio.exec.proto.UserBitShared;
-import com.dremio.exec.util.BloomFilter;
+import com.dremio.exec.util.BlockedBloomFilter;
 import com.dremio.exec.util.ValueListFilter;
 import com.dremio.exec.util.ValueListFilterBuilder;
 import com.dremio.exec.util.ValueListWithBloomFilter;
@@ -97,7 +97,9 @@ public class RuntimeFilter implements AutoCloseable {
               "Buffer capacity is %s, expected filter size %s", msgBuf.capacity(), partitionColFilterProto.getSizeBytes());
       UserBitShared.RunTimeFilterDetailsInfoInScan.Builder runTimeFilterDetails = UserBitShared.RunTimeFilterDetailsInfoInScan.newBuilder();
       try {
-        final BloomFilter bloomFilter = BloomFilter.prepareFrom(msgBuf.slice(nextSliceStart, partitionColFilterProto.getSizeBytes()));
+        checkState(partitionColFilterProto.getFormatVersion() == BlockedBloomFilter.FORMAT_VERSION,
+                "Unsupported bloomfilter format version %s", partitionColFilterProto.getFormatVersion());
+        final BlockedBloomFilter bloomFilter = BlockedBloomFilter.prepareFrom(msgBuf.slice(nextSliceStart, partitionColFilterProto.getSizeBytes()));
         nextSliceStart += partitionColFilterProto.getSizeBytes();
         checkState(bloomFilter.getNumBitsSet()==partitionColFilterProto.getValueCount(),
                 "BloomFilter value count mismatched. Expected %s, Actual %s", partitionColFilterProto.getValueCount(), bloomFilter.getNumBitsSet());
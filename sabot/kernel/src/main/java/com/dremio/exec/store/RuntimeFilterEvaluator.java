@@ -34,7 +34,7 @@ import org.slf4j.LoggerFactory;
 import com.dremio.common.AutoCloseables;
 import com.dremio.exec.store.dfs.implicit.ConstantColumnPopulators;
 import com.dremio.exec.store.dfs.implicit.NameValuePair;
-import com.dremio.exec.util.BloomFilter;
+import com.dremio.exec.util.BlockedBloomFilter;
 import com.dremio.exec.util.KeyFairSliceCalculator;
 import com.dremio.options.OptionManager;
 import com.dremio.sabot.exec.context.OperatorStats;
@@ -89,7 +89,7 @@ public class RuntimeFilterEvaluator {
         }
 
         try (BloomFilterKeyBuilder keyBuilder = new BloomFilterKeyBuilder(partitionValuesToCheck, allocator, maxKeySize)) {
-            BloomFilter bloomFilter = partitionColumnFilter.getBloomFilter();
+            BlockedBloomFilter bloomFilter = partitionColumnFilter.getBloomFilter();
             if (!bloomFilter.mightContain(keyBuilder.getKey(), keyBuilder.getTotalSize())) {
                 stats.addLongStat(ScanOperator.Metric.NUM_PARTITIONS_PRUNED, 1);
                 logSkippedPartition(split, partitionColumnFilter.getColumnsList());
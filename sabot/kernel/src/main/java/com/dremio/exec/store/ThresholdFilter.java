@@ -0,0 +1,80 @@
+/*
+ * Copyright (C) 2017-2019 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.exec.store;
+
+import com.dremio.exec.proto.ExecProtos;
+
+/**
+ * A POJO helper class for the protobuf struct TopNThreshold.
+ *
+ * Rows whose value on the column sorts strictly after the threshold can not be part of the output of the TopN that
+ * published it. The threshold only ever tightens: the scan keeps a single instance and updates it as new
+ * thresholds are received, so record readers holding it always see the latest value.
+ */
+public class ThresholdFilter {
+  private final String column;
+  private final boolean descending;
+  private final boolean nullsHigh;
+  private long value;
+
+  public ThresholdFilter(ExecProtos.TopNThreshold threshold) {
+    this.column = threshold.getColumn();
+    this.descending = threshold.getDescending();
+    this.nullsHigh = threshold.getNullsHigh();
+    this.value = threshold.getValue();
+  }
+
+  /**
+   * Tightens this filter with a threshold received later from the same TopN.
+   *
+   * @return false if the given threshold is not on the same column and sort order as this filter
+   */
+  public boolean update(ExecProtos.TopNThreshold threshold) {
+    if (!column.equals(threshold.getColumn()) || descending != threshold.getDescending()
+      || nullsHigh != threshold.getNullsHigh()) {
+      return false;
+    }
+    value = descending ? Math.max(value, threshold.getValue()) : Math.min(value, threshold.getValue());
+    return true;
+  }
+
+  public String getColumn() {
+    return column;
+  }
+
+  /**
+   * @return true if null values sort after the threshold
+   */
+  public boolean canSkipNulls() {
+    // nulls sort last when they sort high in ascending order, or low in descending order
+    return nullsHigh != descending;
+  }
+
+  /**
+   * @return true if no value within [min, max] can be part of the TopN output
+   */
+  public boolean canSkip(long min, long max, boolean hasNulls) {
+    if (hasNulls && !canSkipNulls()) {
+      return false;
+    }
+    return descending ? max < value : min > value;
+  }
+
+  @Override
+  public String toString() {
+    return String.format("%s %s %d", column, descending ? ">=" : "<=", value);
+  }
+}
@@ -0,0 +1,678 @@
+/*
+ * Copyright (C) 2017-2019 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.exec.store.cache;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.FileStore;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+import org.rocksdb.ColumnFamilyDescriptor;
+import org.rocksdb.ColumnFamilyHandle;
+import org.rocksdb.ColumnFamilyOptions;
+import org.rocksdb.DBOptions;
+import org.rocksdb.RocksDB;
+import org.rocksdb.RocksDBException;
+import org.rocksdb.RocksIterator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.dremio.common.AutoCloseables;
+import com.dremio.common.VM;
+import com.dremio.common.utils.PathUtils;
+import com.dremio.config.DremioConfig;
+import com.dremio.exec.work.CacheManagerDatasetInfo;
+import com.dremio.exec.work.CacheManagerFilesInfo;
+import com.dremio.exec.work.CacheManagerMountPointInfo;
+import com.dremio.exec.work.CacheManagerStoragePluginInfo;
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Preconditions;
+import com.google.common.hash.Hashing;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+import io.netty.buffer.ByteBuf;
+
+/**
+ * Node-wide cache of fixed size blocks of remote files, stored on the local cache mount points.
+ *
+ * Blocks are keyed by source, path, file version and block offset, so that blocks of an older version of a file are
+ * never read once the file changes, and age out of the cache. The block index is kept in a RocksDB instance under the
+ * cache db path, so that blocks written before a restart are reused. Admission and eviction of the blocks of all the
+ * sources follow a single {@link TinyLfuPolicy}.
+ *
+ * Blocks are read and written on the cache threads. Writes are skipped, rather than queued, when too many bytes are
+ * waiting to be written.
+ */
+public class BlockCache implements AutoCloseable {
+  private static final Logger logger = LoggerFactory.getLogger(BlockCache.class);
+
+  static final int BLOCK_SIZE = 1024 * 1024;
+
+  private static final String DB_DIR_NAME = "block-cache-index";
+  private static final String BLOCKS_DIR_NAME = "block-cache";
+  private static final byte[] COLUMN_FAMILY_NAME = "blocks".getBytes(UTF_8);
+  private static final char SEPARATOR = '\0';
+  private static final int MAX_PENDING_WRITE_BYTES = 64 * BLOCK_SIZE;
+  private static final int STATS_BATCH_SIZE = 1000;
+
+  private final String hostname;
+  private final List<MountPoint> mountPoints;
+  private final RocksDB db;
+  private final ColumnFamilyHandle blocks;
+  private final List<ColumnFamilyHandle> columnFamilyHandles;
+  private final long capacity;
+  // guarded by itself
+  private final TinyLfuPolicy<BlockKey> policy;
+  private final Map<BlockKey, Entry> entries = new ConcurrentHashMap<>();
+  private final Map<BlockKey, Boolean> pendingWrites = new ConcurrentHashMap<>();
+  private final AtomicLong pendingWriteBytes = new AtomicLong();
+  private final Map<String, AtomicLong> pluginUsage = new ConcurrentHashMap<>();
+  private final ExecutorService readExecutor;
+  private final ExecutorService writeExecutor;
+
+  @VisibleForTesting
+  BlockCache(String hostname, Path dbDirectory, List<Path> mountPointPaths, List<Integer> quotaPcts,
+             List<Integer> freeSpacePcts) throws IOException, RocksDBException {
+    this.hostname = hostname;
+    final List<MountPoint> mountPoints = new ArrayList<>();
+    long capacity = 0;
+    for (int i = 0; i < mountPointPaths.size(); i++) {
+      final MountPoint mountPoint = new MountPoint(i, mountPointPaths.get(i), getOrLast(quotaPcts, i), getOrLast(freeSpacePcts, i));
+      mountPoints.add(mountPoint);
+      capacity += mountPoint.maxSpace;
+    }
+    Preconditions.checkArgument(capacity > 0, "no space available for the block cache on %s", mountPointPaths);
+    this.mountPoints = Collections.unmodifiableList(mountPoints);
+    this.capacity = capacity;
+    this.policy = new TinyLfuPolicy<>(capacity, capacity / BLOCK_SIZE);
+
+    Files.createDirectories(dbDirectory);
+    final DBOptions options = new DBOptions()
+      .setCreateIfMissing(true)
+      .setCreateMissingColumnFamilies(true);
+    this.columnFamilyHandles = new ArrayList<>();
+    this.db = RocksDB.open(options, dbDirectory.toString(), Arrays.asList(
+      new ColumnFamilyDescriptor(RocksDB.DEFAULT_COLUMN_FAMILY),
+      new ColumnFamilyDescriptor(COLUMN_FAMILY_NAME, new ColumnFamilyOptions().optimizeForSmallDb())),
+      columnFamilyHandles);
+    this.blocks = columnFamilyHandles.get(1);
+
+    this.readExecutor = Executors.newFixedThreadPool(VM.availableProcessors(), new ThreadFactoryBuilder()
+      .setDaemon(true)
+      .setNameFormat("block-cache-read-%d")
+      .build());
+    this.writeExecutor = Executors.newSingleThreadExecutor(new ThreadFactoryBuilder()
+      .setDaemon(true)
+      .setNameFormat("block-cache-write-%d")
+      .build());
+
+    load();
+  }
+
+  /**
+   * Creates the block cache on the cache mount points of this node.
+   */
+  static BlockCache newInstance(DremioConfig config, String hostname, int fabricPort) throws IOException, RocksDBException {
+    final boolean isYarnDeployment = config.getBoolean(DremioConfig.YARN_ENABLED_BOOL);
+    Path dbDirectory = Paths.get(config.getString(DremioConfig.CACHE_DB_PATH));
+    if (isYarnDeployment) {
+      dbDirectory = dbDirectory.resolve(Integer.toString(fabricPort));
+    }
+
+    final List<Path> mountPointPaths = new ArrayList<>();
+    for (String path : config.getStringList(DremioConfig.CACHE_FS_PATH_LIST)) {
+      Path mountPointPath = Paths.get(path);
+      if (isYarnDeployment) {
+        mountPointPath = mountPointPath.resolve(Integer.toString(fabricPort));
+      }
+      mountPointPaths.add(mountPointPath.resolve(BLOCKS_DIR_NAME));
+    }
+
+    return new BlockCache(hostname, dbDirectory.resolve(DB_DIR_NAME), mountPointPaths,
+      config.getIntList(DremioConfig.CACHE_FS_QUOTA_LIST), config.getIntList(DremioConfig.CACHE_FS_ENSURE_FREE_SPACE_LIST));
+  }
+
+  private static int getOrLast(List<Integer> values, int index) {
+    Preconditions.checkArgument(!values.isEmpty(), "missing cache mount point quota");
+    return values.get(Math.min(index, values.size() - 1));
+  }
+
+  /**
+   * Adds the blocks written before the cache was last closed, and drops the ones whose file is missing.
+   */
+  private void load() throws RocksDBException {
+    final List<byte[]> invalid = new ArrayList<>();
+    try (RocksIterator it = db.newIterator(blocks)) {
+      for (it.seekToFirst(); it.isValid(); it.next()) {
+        final Entry entry = Entry.deserialize(it.key(), it.value());
+        if (entry.mountPointId >= mountPoints.size()) {
+          invalid.add(it.key());
+          continue;
+        }
+        final MountPoint mountPoint = mountPoints.get(entry.mountPointId);
+        final Path file = mountPoint.fileOf(entry.key);
+        try {
+          if (!Files.isRegularFile(file) || Files.size(file) != entry.length) {
+            invalid.add(it.key());
+            Files.deleteIfExists(file);
+            continue;
+          }
+        } catch (IOException e) {
+          invalid.add(it.key());
+          continue;
+        }
+        entries.put(entry.key, entry);
+        mountPoint.add(entry.length);
+        addPluginUsage(entry.key.plugin, entry.length);
+        final List<BlockKey> evicted;
+        synchronized (policy) {
+          evicted = policy.add(entry.key, entry.length);
+        }
+        evict(evicted);
+      }
+    }
+    for (byte[] key : invalid) {
+      db.delete(blocks, key);
+    }
+    logger.info("Loaded {} blocks in the block cache, {} stale blocks dropped", entries.size(), invalid.size());
+  }
+
+  /**
+   * Reads a range of a cached block.
+   *
+   * @return a future completed with true once the range is copied to the buffer, or with false if the block is not
+   * cached
+   */
+  CompletableFuture<Boolean> read(BlockKey key, int blockOffset, ByteBuf dst, int dstOffset, int len) {
+    synchronized (policy) {
+      policy.access(key);
+    }
+    final Entry entry = entries.get(key);
+    if (entry == null || blockOffset + len > entry.length) {
+      return CompletableFuture.completedFuture(false);
+    }
+
+    entry.atime = System.currentTimeMillis();
+    final MountPoint mountPoint = mountPoints.get(entry.mountPointId);
+    return CompletableFuture.supplyAsync(() -> {
+      final long start = System.nanoTime();
+      try (FileChannel channel = FileChannel.open(mountPoint.fileOf(key), StandardOpenOption.READ)) {
+        final ByteBuffer buffer = dst.nioBuffer(dstOffset, len);
+        long position = blockOffset;
+        while (buffer.hasRemaining()) {
+          final int read = channel.read(buffer, position);
+          if (read < 0) {
+            throw new IOException("Unexpected end of cached block " + key);
+          }
+          position += read;
+        }
+        mountPoint.recordRead(System.nanoTime() - start);
+        return true;
+      } catch (IOException e) {
+        // the block was evicted while reading it, or its file is corrupt
+        logger.debug("Failed to read cached block {}", key, e);
+        return false;
+      }
+    }, readExecutor);
+  }
+
+  boolean contains(BlockKey key) {
+    return entries.containsKey(key);
+  }
+
+  /**
+   * Writes a block to the cache, unless it is already cached or too many writes are pending. The buffer is released
+   * once written.
+   *
+   * @param key block key
+   * @param dataset dataset the block belongs to, or null if unknown
+   * @param block buffer holding the block, from its reader index
+   * @param length length of the block
+   * @param maxSpacePct maximum percentage of the cache that the blocks of the source may use
+   */
+  void write(BlockKey key, List<String> dataset, ByteBuf block, int length, int maxSpacePct) {
+    if (entries.containsKey(key)
+        || getPluginUsage(key.plugin) + length > capacity * maxSpacePct / 100
+        || pendingWriteBytes.get() + length > MAX_PENDING_WRITE_BYTES
+        || pendingWrites.putIfAbsent(key, Boolean.TRUE) != null) {
+      block.release();
+      return;
+    }
+    pendingWriteBytes.addAndGet(length);
+
+    try {
+      writeExecutor.execute(() -> {
+        try {
+          doWrite(key, dataset, block, length);
+        } finally {
+          block.release();
+          pendingWrites.remove(key);
+          pendingWriteBytes.addAndGet(-length);
+        }
+      });
+    } catch (RuntimeException e) {
+      // rejected once closed
+      block.release();
+      pendingWrites.remove(key);
+      pendingWriteBytes.addAndGet(-length);
+    }
+  }
+
+  private void doWrite(BlockKey key, List<String> dataset, ByteBuf block, int length) {
+    final MountPoint mountPoint = chooseMountPoint(length);
+    if (mountPoint == null) {
+      return;
+    }
+
+    final long start = System.nanoTime();
+    final Path file = mountPoint.fileOf(key);
+    final Entry entry = new Entry(key, dataset == null ? "" : PathUtils.constructFullPath(dataset), mountPoint.id,
+      length, System.currentTimeMillis());
+    try {
+      Files.createDirectories(file.getParent());
+      final Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+      try (FileChannel channel = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+          StandardOpenOption.TRUNCATE_EXISTING)) {
+        final ByteBuffer buffer = block.nioBuffer(block.readerIndex(), length);
+        while (buffer.hasRemaining()) {
+          channel.write(buffer);
+        }
+      }
+      Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+      db.put(blocks, entry.serializeKey(), entry.serializeValue());
+    } catch (IOException | RocksDBException e) {
+      logger.debug("Failed to write block {} to the cache", key, e);
+      deleteQuietly(file);
+      return;
+    }
+    mountPoint.recordWrite(System.nanoTime() - start);
+
+    mountPoint.add(length);
+    addPluginUsage(key.plugin, length);
+    entries.put(key, entry);
+    final List<BlockKey> evicted;
+    synchronized (policy) {
+      evicted = policy.add(key, length);
+    }
+    evict(evicted);
+  }
+
+  /**
+   * @return the mount point with the most available space, or null if none has room for the block
+   */
+  private MountPoint chooseMountPoint(int length) {
+    MountPoint chosen = null;
+    for (MountPoint mountPoint : mountPoints) {
+      if (chosen == null || mountPoint.available() > chosen.available()) {
+        chosen = mountPoint;
+      }
+    }
+    // the policy only evicts blocks once the cache is over its capacity, so a full cache goes over by one block
+    return chosen != null && chosen.available() + BLOCK_SIZE >= length ? chosen : null;
+  }
+
+  private void evict(List<BlockKey> evicted) {
+    for (BlockKey key : evicted) {
+      final Entry entry = entries.remove(key);
+      if (entry == null) {
+        continue;
+      }
+      final MountPoint mountPoint = mountPoints.get(entry.mountPointId);
+      deleteQuietly(mountPoint.fileOf(key));
+      try {
+        db.delete(blocks, entry.serializeKey());
+      } catch (RocksDBException e) {
+        logger.debug("Failed to remove evicted block {} from the index", key, e);
+      }
+      mountPoint.remove(entry.length);
+      mountPoint.recordEviction(entry.length);
+      addPluginUsage(key.plugin, -entry.length);
+    }
+  }
+
+  private static void deleteQuietly(Path file) {
+    try {
+      Files.deleteIfExists(file);
+    } catch (IOException e) {
+      logger.debug("Failed to delete {}", file, e);
+    }
+  }
+
+  private long getPluginUsage(String plugin) {
+    final AtomicLong usage = pluginUsage.get(plugin);
+    return usage == null ? 0 : usage.get();
+  }
+
+  private void addPluginUsage(String plugin, long delta) {
+    pluginUsage.computeIfAbsent(plugin, p -> new AtomicLong()).addAndGet(delta);
+  }
+
+  long getCapacity() {
+    return capacity;
+  }
+
+  List<CacheManagerMountPointInfo> getMountPointStats() {
+    final List<CacheManagerMountPointInfo> stats = new ArrayList<>();
+    for (MountPoint mountPoint : mountPoints) {
+      stats.add(mountPoint.getStats(hostname));
+    }
+    return stats;
+  }
+
+  List<CacheManagerStoragePluginInfo> getStoragePluginStats(Map<String, Integer> maxSpacePcts) {
+    final Map<String, long[]> counts = new TreeMap<>();
+    for (Entry entry : entries.values()) {
+      final long[] count = counts.computeIfAbsent(entry.key.plugin, p -> new long[2]);
+      count[0]++;
+      count[1] += entry.length;
+    }
+    final List<CacheManagerStoragePluginInfo> stats = new ArrayList<>();
+    for (Map.Entry<String, long[]> count : counts.entrySet()) {
+      final int pct = maxSpacePcts.getOrDefault(count.getKey(), 100);
+      stats.add(new CacheManagerStoragePluginInfo(hostname, count.getKey(), count.getValue()[0], count.getValue()[1],
+        capacity * pct / 100));
+    }
+    return stats;
+  }
+
+  /**
+   * @return iterator over the index, ordered by source, dataset and path
+   */
+  RocksIterator newIterator() {
+    final RocksIterator it = db.newIterator(blocks);
+    it.seekToFirst();
+    return it;
+  }
+
+  /**
+   * Reads the next datasets from the index. Once the batch is full, the iterator is left on the first block of the
+   * next dataset.
+   */
+  List<CacheManagerDatasetInfo> getDatasetStats(RocksIterator it) {
+    final List<CacheManagerDatasetInfo> stats = new ArrayList<>();
+    while (it.isValid() && stats.size() < STATS_BATCH_SIZE) {
+      final Entry first = Entry.deserialize(it.key(), it.value());
+      final List<Entry> datasetEntries = new ArrayList<>();
+      for (; it.isValid(); it.next()) {
+        final Entry entry = Entry.deserialize(it.key(), it.value());
+        if (!entry.key.plugin.equals(first.key.plugin) || !entry.dataset.equals(first.dataset)) {
+          break;
+        }
+        datasetEntries.add(entry);
+      }
+      stats.add(toDatasetInfo(first, datasetEntries));
+    }
+    return stats;
+  }
+
+  /**
+   * Summarizes the cached blocks of a dataset. percent_data_N is the last access time of the least recently accessed
+   * block among the most recently accessed blocks holding N% of the cached data of the dataset.
+   */
+  private CacheManagerDatasetInfo toDatasetInfo(Entry first, List<Entry> datasetEntries) {
+    long totalBytes = 0;
+    final List<String> files = new ArrayList<>();
+    for (Entry entry : datasetEntries) {
+      final Entry current = entries.get(entry.key);
+      if (current != null) {
+        entry.atime = current.atime;
+      }
+      totalBytes += entry.length;
+      if (files.isEmpty() || !files.get(files.size() - 1).equals(entry.key.path)) {
+        files.add(entry.key.path);
+      }
+    }
+    datasetEntries.sort((e1, e2) -> Long.compare(e2.atime, e1.atime));
+    final Timestamp[] percentiles = new Timestamp[4];
+    long cumulated = 0;
+    int percentile = 0;
+    for (Entry entry : datasetEntries) {
+      cumulated += entry.length;
+      while (percentile < percentiles.length && cumulated * 4 >= totalBytes * (percentile + 1)) {
+        percentiles[percentile++] = new Timestamp(entry.atime);
+      }
+    }
+    return new CacheManagerDatasetInfo(hostname, first.dataset, first.key.plugin, files.size(),
+      percentiles[0], percentiles[1], percentiles[2], percentiles[3]);
+  }
+
+  /**
+   * Reads the next blocks from the index.
+   */
+  List<CacheManagerFilesInfo> getFilesStats(RocksIterator it) {
+    final List<CacheManagerFilesInfo> stats = new ArrayList<>();
+    for (; it.isValid() && stats.size() < STATS_BATCH_SIZE; it.next()) {
+      final Entry entry = Entry.deserialize(it.key(), it.value());
+      final Entry current = entries.get(entry.key);
+      final long atime = current != null ? current.atime : entry.atime;
+      stats.add(new CacheManagerFilesInfo(hostname, entry.key.plugin, entry.dataset, entry.key.path,
+        entry.key.version, entry.key.offset, new Timestamp(atime)));
+    }
+    return stats;
+  }
+
+  @Override
+  public void close() throws Exception {
+    readExecutor.shutdown();
+    writeExecutor.shutdown();
+    writeExecutor.awaitTermination(10, TimeUnit.SECONDS);
+    readExecutor.awaitTermination(10, TimeUnit.SECONDS);
+    // persist the access times, so that the cache can be summarized after a restart
+    for (Entry entry : entries.values()) {
+      db.put(blocks, entry.serializeKey(), entry.serializeValue());
+    }
+    AutoCloseables.close(columnFamilyHandles);
+    db.close();
+  }
+
+  /**
+   * Key of a cached block.
+   */
+  static final class BlockKey {
+    private final String plugin;
+    private final String path;
+    private final String version;
+    private final long offset;
+    private final int hash;
+
+    BlockKey(String plugin, String path, String version, long offset) {
+      this.plugin = plugin;
+      this.path = path;
+      this.version = version;
+      this.offset = offset;
+      this.hash = Objects.hash(plugin, path, version, offset);
+    }
+
+    long getOffset() {
+      return offset;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (!(o instanceof BlockKey)) {
+        return false;
+      }
+      final BlockKey that = (BlockKey) o;
+      return offset == that.offset && plugin.equals(that.plugin) && path.equals(that.path) && version.equals(that.version);
+    }
+
+    @Override
+    public int hashCode() {
+      return hash;
+    }
+
+    @Override
+    public String toString() {
+      return plugin + ":" + path + "@" + version + "+" + offset;
+    }
+  }
+
+  /**
+   * Cached block. Index keys are the source, dataset, path, version and offset of the block, separated by zeros, so
+   * that the blocks of each dataset are contiguous in the index.
+   */
+  private static final class Entry {
+    private final BlockKey key;
+    private final String dataset;
+    private final int mountPointId;
+    private final int length;
+    private volatile long atime;
+
+    Entry(BlockKey key, String dataset, int mountPointId, int length, long atime) {
+      this.key = key;
+      this.dataset = dataset;
+      this.mountPointId = mountPointId;
+      this.length = length;
+      this.atime = atime;
+    }
+
+    byte[] serializeKey() {
+      return (key.plugin + SEPARATOR + dataset + SEPARATOR + key.path + SEPARATOR + key.version + SEPARATOR
+        + String.format("%019d", key.offset)).getBytes(UTF_8);
+    }
+
+    byte[] serializeValue() {
+      return ByteBuffer.allocate(16)
+        .putInt(mountPointId)
+        .putInt(length)
+        .putLong(atime)
+        .array();
+    }
+
+    static Entry deserialize(byte[] key, byte[] value) {
+      final String[] parts = new String(key, UTF_8).split(String.valueOf(SEPARATOR), -1);
+      final ByteBuffer buffer = ByteBuffer.wrap(value);
+      return new Entry(new BlockKey(parts[0], parts[2], parts[3], Long.parseLong(parts[4])), parts[1],
+        buffer.getInt(), buffer.getInt(), buffer.getLong());
+    }
+  }
+
+  /**
+   * Local directory holding cached blocks, limited to a percentage of its file store.
+   */
+  private static final class MountPoint {
+    private final int id;
+    private final Path path;
+    private final FileStore store;
+    private final long maxSpace;
+    private final AtomicLong usedSpace = new AtomicLong();
+    private final AtomicLong fileCount = new AtomicLong();
+    private final AtomicLong readNanos = new AtomicLong();
+    private final AtomicLong reads = new AtomicLong();
+    private final AtomicLong writeNanos = new AtomicLong();
+    private final AtomicLong writes = new AtomicLong();
+    private volatile long latestEvictionTimestamp;
+    private volatile long latestEvictedBytes;
+
+    MountPoint(int id, Path path, int quotaPct, int freeSpacePct) throws IOException {
+      this.id = id;
+      this.path = path;
+      Files.createDirectories(path);
+      this.store = Files.getFileStore(path);
+      final long total = store.getTotalSpace();
+      // space already used by cached blocks is available to the cache
+      final long used = directorySize(path);
+      this.maxSpace = Math.max(0, Math.min(total * quotaPct / 100,
+        store.getUsableSpace() + used - total * freeSpacePct / 100));
+    }
+
+    private static long directorySize(Path path) throws IOException {
+      try (Stream<Path> files = Files.walk(path)) {
+        return files.filter(Files::isRegularFile).mapToLong(file -> file.toFile().length()).sum();
+      }
+    }
+
+    Path fileOf(BlockKey key) {
+      final String name = Hashing.murmur3_128()
+        .hashString(key.plugin + SEPARATOR + key.path + SEPARATOR + key.version + SEPARATOR + key.offset, UTF_8)
+        .toString();
+      return path.resolve(name.substring(0, 2)).resolve(name);
+    }
+
+    long available() {
+      return maxSpace - usedSpace.get();
+    }
+
+    void add(long length) {
+      usedSpace.addAndGet(length);
+      fileCount.incrementAndGet();
+    }
+
+    void remove(long length) {
+      usedSpace.addAndGet(-length);
+      fileCount.decrementAndGet();
+    }
+
+    void recordRead(long nanos) {
+      readNanos.addAndGet(nanos);
+      reads.incrementAndGet();
+    }
+
+    void recordWrite(long nanos) {
+      writeNanos.addAndGet(nanos);
+      writes.incrementAndGet();
+    }
+
+    void recordEviction(long bytes) {
+      latestEvictionTimestamp = System.currentTimeMillis();
+      latestEvictedBytes = bytes;
+    }
+
+    CacheManagerMountPointInfo getStats(String hostname) {
+      long subDirCount = 0;
+      long totalSpace = 0;
+      long freeSpace = 0;
+      try (Stream<Path> subDirs = Files.list(path)) {
+        subDirCount = subDirs.filter(Files::isDirectory).count();
+        totalSpace = store.getTotalSpace();
+        freeSpace = store.getUsableSpace();
+      } catch (IOException e) {
+        logger.debug("Failed to read the stats of {}", path, e);
+      }
+      final long readCount = reads.get();
+      final long writeCount = writes.get();
+      return new CacheManagerMountPointInfo(hostname, path.toString(), id, subDirCount, fileCount.get(), maxSpace,
+        usedSpace.get(), readCount == 0 ? 0 : readNanos.get() / readCount,
+        writeCount == 0 ? 0 : writeNanos.get() / writeCount, "ENABLED", available() > BLOCK_SIZE ? "AVAILABLE" : "FULL",
+        totalSpace, freeSpace, latestEvictionTimestamp, latestEvictedBytes);
+    }
+  }
+}
@@ -0,0 +1,177 @@
+/*
+ * Copyright (C) 2017-2019 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.exec.store.cache;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.rocksdb.RocksDBException;
+import org.rocksdb.RocksIterator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.dremio.common.AutoCloseables;
+import com.dremio.config.DremioConfig;
+import com.dremio.exec.ExecConstants;
+import com.dremio.exec.proto.CoordinationProtos.NodeEndpoint;
+import com.dremio.exec.store.dfs.AsyncStreamConf;
+import com.dremio.exec.store.dfs.CacheProperties;
+import com.dremio.exec.store.dfs.FileSystemWrapper;
+import com.dremio.exec.store.sys.CacheManagerStatsProvider;
+import com.dremio.exec.work.CacheManagerDatasetInfo;
+import com.dremio.exec.work.CacheManagerFilesInfo;
+import com.dremio.exec.work.CacheManagerMountPointInfo;
+import com.dremio.exec.work.CacheManagerStoragePluginInfo;
+import com.dremio.io.AsyncByteReader;
+import com.dremio.io.file.FileSystem;
+import com.dremio.io.file.FilterFileSystem;
+import com.dremio.options.OptionManager;
+import com.dremio.sabot.exec.context.OperatorContext;
+
+/**
+ * File system wrapper reading the async byte readers of the sources with caching enabled through the node
+ * {@link BlockCache}, when the executor cache is enabled in dremio.conf and by the store.block_cache.enabled option.
+ *
+ * The block cache is created on the first wrapped file system. It also provides the content of the
+ * sys."cache_manager_*" tables.
+ */
+public class BlockCacheFileSystemWrapper implements FileSystemWrapper, CacheManagerStatsProvider {
+  private static final Logger logger = LoggerFactory.getLogger(BlockCacheFileSystemWrapper.class);
+
+  private final DremioConfig dremioConfig;
+  private final OptionManager optionManager;
+  private final NodeEndpoint endpoint;
+  private final Map<String, Integer> maxSpacePcts = new ConcurrentHashMap<>();
+
+  private volatile BlockCache cache;
+  private volatile boolean failed;
+
+  public BlockCacheFileSystemWrapper(DremioConfig dremioConfig, OptionManager optionManager, NodeEndpoint endpoint) {
+    this.dremioConfig = dremioConfig;
+    this.optionManager = optionManager;
+    this.endpoint = endpoint;
+  }
+
+  @Override
+  public FileSystem wrap(FileSystem fs, String storageId, AsyncStreamConf conf, OperatorContext context,
+                         boolean enableAsync, boolean isMetadataRefresh) throws IOException {
+    final CacheProperties cacheProperties = conf.getCacheProperties();
+    if (!enableAsync || isMetadataRefresh
+        || !dremioConfig.getBoolean(DremioConfig.CACHE_ENABLED)
+        || !optionManager.getOption(ExecConstants.BLOCK_CACHE_ENABLED)
+        || !cacheProperties.isCachingEnabled(optionManager)) {
+      return fs;
+    }
+
+    final BlockCache blockCache = getCache();
+    if (blockCache == null) {
+      return fs;
+    }
+    maxSpacePcts.put(storageId, cacheProperties.cacheMaxSpaceLimitPct());
+    return new BlockCachingFileSystem(fs, blockCache, storageId, cacheProperties.cacheMaxSpaceLimitPct());
+  }
+
+  /**
+   * @return the block cache, or null if it could not be created
+   */
+  private BlockCache getCache() {
+    if (cache == null && !failed) {
+      synchronized (this) {
+        if (cache == null && !failed) {
+          try {
+            cache = BlockCache.newInstance(dremioConfig, endpoint.getAddress(), endpoint.getFabricPort());
+          } catch (IOException | RocksDBException | RuntimeException e) {
+            logger.warn("Failed to create the block cache, reads will not be cached", e);
+            failed = true;
+          }
+        }
+      }
+    }
+    return cache;
+  }
+
+  @Override
+  public List<CacheManagerMountPointInfo> getMountPointStats() {
+    final BlockCache blockCache = cache;
+    return blockCache == null ? Collections.emptyList() : blockCache.getMountPointStats();
+  }
+
+  @Override
+  public List<CacheManagerStoragePluginInfo> getStoragePluginStats() {
+    final BlockCache blockCache = cache;
+    return blockCache == null ? Collections.emptyList() : blockCache.getStoragePluginStats(maxSpacePcts);
+  }
+
+  @Override
+  public RocksIterator getDatasetIterator() {
+    final BlockCache blockCache = cache;
+    return blockCache == null ? null : blockCache.newIterator();
+  }
+
+  @Override
+  public List<CacheManagerDatasetInfo> getDatasetStats(RocksIterator dsIterator) {
+    final BlockCache blockCache = cache;
+    return blockCache == null || dsIterator == null ? Collections.emptyList() : blockCache.getDatasetStats(dsIterator);
+  }
+
+  @Override
+  public RocksIterator getCachedFilesIterator() {
+    final BlockCache blockCache = cache;
+    return blockCache == null ? null : blockCache.newIterator();
+  }
+
+  @Override
+  public List<CacheManagerFilesInfo> getCachedFilesStats(RocksIterator fileIterator) {
+    final BlockCache blockCache = cache;
+    return blockCache == null || fileIterator == null ? Collections.emptyList() : blockCache.getFilesStats(fileIterator);
+  }
+
+  @Override
+  public void close() throws IOException {
+    try {
+      AutoCloseables.close(cache);
+    } catch (IOException e) {
+      throw e;
+    } catch (Exception e) {
+      throw new IOException(e);
+    }
+  }
+
+  /**
+   * File system whose async byte readers go through the block cache.
+   */
+  private static final class BlockCachingFileSystem extends FilterFileSystem {
+    private final BlockCache cache;
+    private final String storageId;
+    private final int maxSpacePct;
+
+    BlockCachingFileSystem(FileSystem fs, BlockCache cache, String storageId, int maxSpacePct) {
+      super(fs);
+      this.cache = cache;
+      this.storageId = storageId;
+      this.maxSpacePct = maxSpacePct;
+    }
+
+    @Override
+    public AsyncByteReader getAsyncByteReader(AsyncByteReader.FileKey fileKey, Map<String, String> options) throws IOException {
+      return new CachingAsyncByteReader(super.getAsyncByteReader(fileKey, options), cache, storageId, fileKey,
+        maxSpacePct, () -> getFileAttributes(fileKey.getPath()).size());
+    }
+  }
+}
@@ -0,0 +1,185 @@
+/*
+ * Copyright (C) 2017-2019 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.exec.store.cache;
+
+import static com.dremio.exec.store.cache.BlockCache.BLOCK_SIZE;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.dremio.exec.store.cache.BlockCache.BlockKey;
+import com.dremio.io.AsyncByteReader;
+import com.dremio.io.ReusableAsyncByteReader;
+import com.google.common.base.Supplier;
+import com.google.common.base.Suppliers;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+
+/**
+ * Decorator over AsyncByteReader reading the blocks of the file from the node {@link BlockCache}.
+ *
+ * Blocks missing from the cache are read from the underlying reader, by runs of consecutive blocks, and written to the
+ * cache in the background. Misses are read with {@link AsyncByteReader#versionedReadFully}, so that blocks are only
+ * cached under the version of the file they were read from.
+ */
+class CachingAsyncByteReader extends ReusableAsyncByteReader {
+  // maximum number of consecutive missing blocks read from the underlying reader at once
+  private static final int MAX_BLOCKS_PER_READ = 8;
+
+  private final AsyncByteReader inner;
+  private final BlockCache cache;
+  private final String plugin;
+  private final FileKey fileKey;
+  private final int maxSpacePct;
+  // only needed when the last block of a read is partial
+  private final Supplier<Long> fileLength;
+  private final AtomicLong hits = new AtomicLong();
+  private final AtomicLong misses = new AtomicLong();
+
+  CachingAsyncByteReader(AsyncByteReader inner, BlockCache cache, String plugin, FileKey fileKey, int maxSpacePct,
+                         LengthProvider lengthProvider) {
+    this.inner = inner;
+    this.cache = cache;
+    this.plugin = plugin;
+    this.fileKey = fileKey;
+    this.maxSpacePct = maxSpacePct;
+    this.fileLength = Suppliers.memoize(() -> {
+      try {
+        return lengthProvider.getLength();
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
+    });
+  }
+
+  /**
+   * Provides the length of the file being read.
+   */
+  @FunctionalInterface
+  interface LengthProvider {
+    long getLength() throws IOException;
+  }
+
+  @Override
+  public CompletableFuture<Void> readFully(long offset, ByteBuf dst, int dstOffset, int len) {
+    return versionedReadFully(fileKey.getVersion(), offset, dst, dstOffset, len);
+  }
+
+  @Override
+  public CompletableFuture<Void> checkVersion(String version) {
+    return inner.checkVersion(version);
+  }
+
+  @Override
+  public CompletableFuture<Void> versionedReadFully(String version, long offset, ByteBuf dst, int dstOffset, int len) {
+    if (len == 0) {
+      return completedFuture;
+    }
+
+    final long firstBlock = offset / BLOCK_SIZE;
+    final long lastBlock = (offset + len - 1) / BLOCK_SIZE;
+    final List<CompletableFuture<Boolean>> cached = new ArrayList<>();
+    for (long block = firstBlock; block <= lastBlock; block++) {
+      final long start = Math.max(offset, block * BLOCK_SIZE);
+      final long end = Math.min(offset + len, (block + 1) * BLOCK_SIZE);
+      cached.add(cache.read(blockKey(version, block), (int) (start - block * BLOCK_SIZE), dst,
+        dstOffset + (int) (start - offset), (int) (end - start)));
+    }
+
+    return CompletableFuture.allOf(cached.toArray(new CompletableFuture[0]))
+      .thenCompose(v -> {
+        final List<CompletableFuture<Void>> reads = new ArrayList<>();
+        long runStart = -1;
+        for (long block = firstBlock; block <= lastBlock; block++) {
+          final boolean hit = cached.get((int) (block - firstBlock)).join();
+          if (hit) {
+            hits.incrementAndGet();
+          } else {
+            misses.incrementAndGet();
+            if (runStart < 0) {
+              runStart = block;
+            }
+          }
+          if (runStart >= 0 && (hit || block == lastBlock || block + 1 - runStart == MAX_BLOCKS_PER_READ)) {
+            final long runEnd = hit ? block : block + 1;
+            reads.add(readBlocks(version, runStart, runEnd, offset, dst, dstOffset, len));
+            runStart = -1;
+          }
+        }
+        return CompletableFuture.allOf(reads.toArray(new CompletableFuture[0]));
+      });
+  }
+
+  /**
+   * Reads the blocks [firstBlock, lastBlock) from the underlying reader, copies the requested range to the
+   * destination buffer and writes the blocks to the cache.
+   */
+  private CompletableFuture<Void> readBlocks(String version, long firstBlock, long lastBlock, long offset, ByteBuf dst,
+                                             int dstOffset, int len) {
+    final long start = firstBlock * BLOCK_SIZE;
+    long end = lastBlock * BLOCK_SIZE;
+    if (end > offset + len) {
+      // the last block may be the partial last block of the file
+      try {
+        end = Math.min(end, fileLength.get());
+      } catch (UncheckedIOException e) {
+        final CompletableFuture<Void> failed = new CompletableFuture<>();
+        failed.completeExceptionally(e.getCause());
+        return failed;
+      }
+    }
+
+    final int length = (int) (end - start);
+    final ByteBuf blocks = Unpooled.directBuffer(length);
+    return inner.versionedReadFully(version, start, blocks, 0, length)
+      .thenRun(() -> {
+        final long copyStart = Math.max(start, offset);
+        final long copyEnd = Math.min(start + length, offset + len);
+        blocks.getBytes((int) (copyStart - start), dst, dstOffset + (int) (copyStart - offset), (int) (copyEnd - copyStart));
+        for (long block = firstBlock; block < lastBlock; block++) {
+          final int blockStart = (int) ((block - firstBlock) * BLOCK_SIZE);
+          final int blockLength = Math.min(BLOCK_SIZE, length - blockStart);
+          if (blockLength > 0) {
+            cache.write(blockKey(version, block), fileKey.getDatasetKey(), blocks.retainedSlice(blockStart, blockLength),
+              blockLength, maxSpacePct);
+          }
+        }
+      })
+      .whenComplete((v, e) -> blocks.release());
+  }
+
+  private BlockKey blockKey(String version, long block) {
+    return new BlockKey(plugin, fileKey.getPath().toString(), version, block * BLOCK_SIZE);
+  }
+
+  @Override
+  protected void onClose() throws Exception {
+    inner.close();
+  }
+
+  @Override
+  public List<ReaderStat> getStats() {
+    final List<ReaderStat> stats = new ArrayList<>(inner.getStats());
+    stats.add(new ReaderStat("blockCacheHits", hits.get()));
+    stats.add(new ReaderStat("blockCacheMisses", misses.get()));
+    return stats;
+  }
+}
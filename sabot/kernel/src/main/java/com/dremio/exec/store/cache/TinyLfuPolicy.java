@@ -0,0 +1,244 @@
+/*
+ * Copyright (C) 2017-2019 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.exec.store.cache;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.google.common.base.Preconditions;
+
+/**
+ * Window TinyLFU admission and eviction policy over weighted keys.
+ *
+ * New keys enter a small LRU window. Keys evicted from the window are only admitted into the main segmented LRU
+ * if they were used more often than the main victim they would replace, as estimated by a frequency sketch of the
+ * recent accesses. Keys accessed again in the probation segment of the main LRU are promoted to its protected
+ * segment. One-off scans therefore go through the window without flushing the frequently used keys.
+ *
+ * This class is not thread safe.
+ *
+ * @param <K> key type
+ */
+class TinyLfuPolicy<K> {
+  private static final int WINDOW_PERCENT = 1;
+  private static final int PROTECTED_PERCENT = 80;
+
+  private final long maxWeight;
+  private final long maxWindowWeight;
+  private final long maxProtectedWeight;
+  private final FrequencySketch sketch;
+
+  // access ordered maps, from the least to the most recently used key
+  private final LinkedHashMap<K, Long> window = new LinkedHashMap<>(16, 0.75f, true);
+  private final LinkedHashMap<K, Long> probation = new LinkedHashMap<>(16, 0.75f, true);
+  private final LinkedHashMap<K, Long> protectedSegment = new LinkedHashMap<>(16, 0.75f, true);
+
+  private long windowWeight;
+  private long probationWeight;
+  private long protectedWeight;
+
+  /**
+   * @param maxWeight maximum total weight of the keys
+   * @param expectedKeys expected number of keys when the policy is full, used to size the frequency sketch
+   */
+  TinyLfuPolicy(long maxWeight, long expectedKeys) {
+    Preconditions.checkArgument(maxWeight > 0, "maximum weight must be positive");
+    this.maxWeight = maxWeight;
+    this.maxWindowWeight = Math.max(1, maxWeight * WINDOW_PERCENT / 100);
+    this.maxProtectedWeight = (maxWeight - maxWindowWeight) * PROTECTED_PERCENT / 100;
+    this.sketch = new FrequencySketch(expectedKeys);
+  }
+
+  /**
+   * Records an access to a key of the policy.
+   *
+   * @return true if the key is in the policy
+   */
+  boolean access(K key) {
+    sketch.increment(key.hashCode());
+    if (window.get(key) != null || protectedSegment.get(key) != null) {
+      return true;
+    }
+
+    final Long weight = probation.remove(key);
+    if (weight == null) {
+      return false;
+    }
+    probationWeight -= weight;
+    protectedSegment.put(key, weight);
+    protectedWeight += weight;
+    // demote the least recently used protected keys back to probation
+    final Iterator<Map.Entry<K, Long>> it = protectedSegment.entrySet().iterator();
+    while (protectedWeight > maxProtectedWeight && it.hasNext()) {
+      final Map.Entry<K, Long> demoted = it.next();
+      it.remove();
+      protectedWeight -= demoted.getValue();
+      probation.put(demoted.getKey(), demoted.getValue());
+      probationWeight += demoted.getValue();
+    }
+    return true;
+  }
+
+  /**
+   * Adds a key to the window of the policy, evicting keys if the policy is over its maximum weight.
+   *
+   * @return the evicted keys, which may include the added key if it was not admitted
+   */
+  List<K> add(K key, long weight) {
+    Preconditions.checkArgument(!contains(key), "key already in the policy");
+    sketch.increment(key.hashCode());
+    window.put(key, weight);
+    windowWeight += weight;
+
+    final List<K> evicted = new ArrayList<>();
+    while (windowWeight > maxWindowWeight && !window.isEmpty()) {
+      final Iterator<Map.Entry<K, Long>> it = window.entrySet().iterator();
+      final Map.Entry<K, Long> candidate = it.next();
+      it.remove();
+      windowWeight -= candidate.getValue();
+      if (admit(candidate.getKey(), candidate.getValue(), evicted)) {
+        probation.put(candidate.getKey(), candidate.getValue());
+        probationWeight += candidate.getValue();
+      } else {
+        evicted.add(candidate.getKey());
+      }
+    }
+    return evicted;
+  }
+
+  /**
+   * Makes room in the main segments for a candidate from the window, if it is used more often than the victims.
+   */
+  private boolean admit(K candidate, long weight, List<K> evicted) {
+    if (weight > maxWeight - maxWindowWeight) {
+      return false;
+    }
+    while (probationWeight + protectedWeight + weight > maxWeight - maxWindowWeight) {
+      final LinkedHashMap<K, Long> segment = probation.isEmpty() ? protectedSegment : probation;
+      final Map.Entry<K, Long> victim = segment.entrySet().iterator().next();
+      if (sketch.frequency(candidate.hashCode()) <= sketch.frequency(victim.getKey().hashCode())) {
+        return false;
+      }
+      remove(victim.getKey());
+      evicted.add(victim.getKey());
+    }
+    return true;
+  }
+
+  /**
+   * Removes a key from the policy.
+   *
+   * @return true if the key was in the policy
+   */
+  boolean remove(K key) {
+    Long weight = window.remove(key);
+    if (weight != null) {
+      windowWeight -= weight;
+      return true;
+    }
+    weight = probation.remove(key);
+    if (weight != null) {
+      probationWeight -= weight;
+      return true;
+    }
+    weight = protectedSegment.remove(key);
+    if (weight != null) {
+      protectedWeight -= weight;
+      return true;
+    }
+    return false;
+  }
+
+  boolean contains(K key) {
+    return window.containsKey(key) || probation.containsKey(key) || protectedSegment.containsKey(key);
+  }
+
+  long getWeight() {
+    return windowWeight + probationWeight + protectedWeight;
+  }
+
+  int size() {
+    return window.size() + probation.size() + protectedSegment.size();
+  }
+
+  /**
+   * Count-min sketch of 4 bits counters, estimating how often the keys were recently accessed. All the counters are
+   * halved once the number of increments reaches ten times the size of the table, so that old accesses fade out.
+   */
+  static final class FrequencySketch {
+    private static final long RESET_MASK = 0x7777777777777777L;
+    private static final int[] SEEDS = {0x97cb3127, 0xb15ec9f5, 0x8b6fb4a3, 0xc2b2ae35};
+
+    private final long[] table;
+    private final int tableMask;
+    private final int sampleSize;
+    private int additions;
+
+    FrequencySketch(long expectedKeys) {
+      // 16 counters per long
+      final int tableSize = Integer.highestOneBit((int) Math.max(1, Math.min(expectedKeys, 1 << 24)) * 2 - 1);
+      this.table = new long[tableSize];
+      this.tableMask = tableSize - 1;
+      this.sampleSize = 10 * tableSize;
+    }
+
+    int frequency(int hash) {
+      int frequency = Integer.MAX_VALUE;
+      for (int i = 0; i < SEEDS.length; i++) {
+        final int index = indexOf(hash, i);
+        final int shift = counterShift(hash, i);
+        frequency = Math.min(frequency, (int) ((table[index] >>> shift) & 0xfL));
+      }
+      return frequency;
+    }
+
+    void increment(int hash) {
+      boolean added = false;
+      for (int i = 0; i < SEEDS.length; i++) {
+        final int index = indexOf(hash, i);
+        final int shift = counterShift(hash, i);
+        if (((table[index] >>> shift) & 0xfL) < 0xfL) {
+          table[index] += 1L << shift;
+          added = true;
+        }
+      }
+      if (added && ++additions == sampleSize) {
+        reset();
+      }
+    }
+
+    private void reset() {
+      for (int i = 0; i < table.length; i++) {
+        table[i] = (table[i] >>> 1) & RESET_MASK;
+      }
+      additions /= 2;
+    }
+
+    private int indexOf(int hash, int i) {
+      int h = (hash ^ SEEDS[i]) * 0x9e3779b9;
+      h ^= h >>> 16;
+      return h & tableMask;
+    }
+
+    private static int counterShift(int hash, int i) {
+      // each hash function uses a different counter of the 16 in the long
+      return (((hash >>> (i << 3)) & 0x3) + (i << 2)) << 2;
+    }
+  }
+}
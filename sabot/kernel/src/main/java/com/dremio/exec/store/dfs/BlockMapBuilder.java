@@ -55,11 +55,23 @@ public class BlockMapBuilder {
   private final CompressionCodecFactory codecFactory;
   private final FileSystem fs;
   private final ImmutableMap<String,NodeEndpoint> endPointMap;
+  private final long maxSplitSize;
 
   public BlockMapBuilder(CompressionCodecFactory codecFactory, FileSystem fs, Collection<NodeEndpoint> endpoints) {
+    this(codecFactory, fs, endpoints, Long.MAX_VALUE);
+  }
+
+  /**
+   * @param maxSplitSize maximum size of the work of a splittable file. Blocks reported by the file system which are
+   *                     larger, such as the single block of a file in an object store, are split further.
+   */
+  public BlockMapBuilder(CompressionCodecFactory codecFactory, FileSystem fs, Collection<NodeEndpoint> endpoints,
+                         long maxSplitSize) {
+    Preconditions.checkArgument(maxSplitSize > 0, "maximum split size must be positive");
     this.codecFactory = codecFactory;
     this.fs = fs;
     this.endPointMap = buildEndpointMap(endpoints);
+    this.maxSplitSize = maxSplitSize;
   }
 
   private boolean compressed(FileAttributes fileAttributes) {
@@ -88,7 +100,7 @@ public class BlockMapBuilder {
     // This variable blockify indicates if a single file can be read by multiple threads
     // For examples, for CSV, it is set as true
     // because each row in a CSV file can be considered as an independent record;
-    // for json, it is set as false
+    // for json, it is only set as true for newline delimited files,
     // because each row in a json file cannot be determined as a record or not simply by that row alone
     final boolean blockify;
 
@@ -107,8 +119,14 @@ public class BlockMapBuilder {
         try {
           ImmutableRangeMap<Long, FileBlockLocation> rangeMap = getBlockMap(attributes);
           for (Entry<Range<Long>, FileBlockLocation> l : rangeMap.asMapOfRanges().entrySet()) {
-            work.add(new CompleteFileWork(getEndpointByteMap(new FileAttributesWork(attributes, l.getValue().getOffset(), l.getValue().getSize())),
-                    l.getValue().getOffset(), l.getValue().getSize(), attributes));
+            final long blockEnd = l.getValue().getOffset() + l.getValue().getSize();
+            long offset = l.getValue().getOffset();
+            while (offset < blockEnd) {
+              final long size = Math.min(maxSplitSize, blockEnd - offset);
+              work.add(new CompleteFileWork(getEndpointByteMap(new FileAttributesWork(attributes, offset, size)),
+                      offset, size, attributes));
+              offset += size;
+            }
           }
         } catch (IOException e) {
           logger.warn("failure while generating file work.", e);
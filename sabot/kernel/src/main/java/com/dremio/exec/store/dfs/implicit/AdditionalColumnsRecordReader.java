@@ -32,6 +32,7 @@ import com.dremio.exec.store.RecordReader;
 import com.dremio.exec.store.RuntimeFilter;
 import com.dremio.exec.store.RuntimeFilterEvaluator;
 import com.dremio.exec.store.SplitAndPartitionInfo;
+import com.dremio.exec.store.ThresholdFilter;
 import com.dremio.sabot.exec.context.OperatorContext;
 import com.dremio.sabot.op.scan.OutputMutator;
 import com.google.common.base.Joiner;
@@ -115,6 +116,11 @@ public class AdditionalColumnsRecordReader implements RecordReader {
     }
   }
 
+  @Override
+  public void setThresholdFilter(ThresholdFilter thresholdFilter) {
+    inner.setThresholdFilter(thresholdFilter);
+  }
+
   @Override
   public List<SchemaPath> getColumnsToBoost() {
     return inner.getColumnsToBoost();
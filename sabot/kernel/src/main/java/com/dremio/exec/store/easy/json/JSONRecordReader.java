@@ -52,6 +52,8 @@ public class JSONRecordReader extends AbstractRecordReader {
 
   // Data we're consuming
   private final Path fsPath;
+  private final long start;
+  private final long length;
   private final JsonNode embeddedContent;
 
   private final CompressionCodecFactory codecFactory;
@@ -79,7 +81,29 @@ public class JSONRecordReader extends AbstractRecordReader {
       final CompressionCodecFactory codecFactory,
       final FileSystem fileSystem,
       final List<SchemaPath> columns) throws OutOfMemoryException {
-    this(context, inputPath, null, codecFactory, fileSystem, columns);
+    this(context, inputPath, 0, Long.MAX_VALUE, null, codecFactory, fileSystem, columns);
+  }
+
+  /**
+   * Create a JSON Record Reader that reads the records of a block of a newline delimited file.
+   * @param context
+   * @param inputPath
+   * @param start  offset of the block in the file
+   * @param length  length of the block
+   * @param codecFactory
+   * @param fileSystem
+   * @param columns  pathnames of columns/subfields to read
+   * @throws OutOfMemoryException
+   */
+  public JSONRecordReader(
+      final OperatorContext context,
+      final String inputPath,
+      final long start,
+      final long length,
+      final CompressionCodecFactory codecFactory,
+      final FileSystem fileSystem,
+      final List<SchemaPath> columns) throws OutOfMemoryException {
+    this(context, inputPath, start, length, null, codecFactory, fileSystem, columns);
   }
 
   @Override
@@ -99,11 +123,13 @@ public class JSONRecordReader extends AbstractRecordReader {
   public JSONRecordReader(final OperatorContext context, final JsonNode embeddedContent,
       final CompressionCodecFactory codecFactory, final FileSystem fileSystem, final List<SchemaPath> columns)
       throws OutOfMemoryException {
-    this(context, null, embeddedContent, codecFactory, fileSystem, columns);
+    this(context, null, 0, Long.MAX_VALUE, embeddedContent, codecFactory, fileSystem, columns);
   }
 
   private JSONRecordReader(final OperatorContext operatorContext,
                            final String inputPath,
+                           final long start,
+                           final long length,
                            final JsonNode embeddedContent,
                            final CompressionCodecFactory codecFactory,
                            final FileSystem fileSystem,
@@ -123,6 +149,8 @@ public class JSONRecordReader extends AbstractRecordReader {
       this.embeddedContent = embeddedContent;
       this.fsPath = null;
     }
+    this.start = start;
+    this.length = length;
 
     this.codecFactory = codecFactory;
     this.fileSystem = fileSystem;
@@ -143,6 +171,8 @@ public class JSONRecordReader extends AbstractRecordReader {
   public String toString() {
     return super.toString()
         + "[hadoopPath = " + fsPath
+        + ", start = " + start
+        + ", length = " + length
         + ", recordCount = " + recordCount
         + ", runningRecordCount = " + runningRecordCount + ", ...]";
   }
@@ -151,7 +181,13 @@ public class JSONRecordReader extends AbstractRecordReader {
   public void setup(final OutputMutator output) throws ExecutionSetupException {
     try{
       if (fsPath != null) {
-        this.stream = FileSystemUtils.openPossiblyCompressedStream(codecFactory, fileSystem, fsPath);
+        // splits without a length cover the whole file
+        if (codecFactory.getCodec(fsPath) == null && (start > 0 || (length > 0 && length != Long.MAX_VALUE))) {
+          this.stream = new NewlineDelimitedSplitInputStream(fileSystem.open(fsPath), start, length);
+        } else {
+          Preconditions.checkArgument(start == 0, "Cannot use split on compressed stream.");
+          this.stream = FileSystemUtils.openPossiblyCompressedStream(codecFactory, fileSystem, fsPath);
+        }
       }
 
       this.writer = new VectorContainerWriter(output);
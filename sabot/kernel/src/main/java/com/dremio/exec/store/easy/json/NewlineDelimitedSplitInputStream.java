@@ -0,0 +1,131 @@
+/*
+ * Copyright (C) 2017-2019 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.exec.store.easy.json;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+import com.dremio.io.FSInputStream;
+
+/**
+ * Input stream over the records of a block of a newline delimited file.
+ *
+ * As for the splits of text files, a block [start, end) owns the records starting after the first line separator at
+ * or after start, or at the beginning of the file for the first block, up to the record ending with the first line
+ * separator at or after end. The records of a file are therefore read exactly once across its blocks.
+ */
+final class NewlineDelimitedSplitInputStream extends InputStream {
+  private static final int BUFFER_SIZE = 64 * 1024;
+
+  private final FSInputStream input;
+  private final long start;
+  private final long end;
+  private final byte[] buffer = new byte[BUFFER_SIZE];
+
+  // position in the file of the first byte of the buffer
+  private long bufferStart;
+  private int bufferPos;
+  private int bufferLength;
+  private boolean started;
+  private boolean finished;
+
+  NewlineDelimitedSplitInputStream(FSInputStream input, long start, long length) {
+    this.input = input;
+    this.start = start;
+    this.end = length == Long.MAX_VALUE ? Long.MAX_VALUE : start + length;
+  }
+
+  @Override
+  public int read() throws IOException {
+    final byte[] b = new byte[1];
+    final int read = read(b, 0, 1);
+    return read == -1 ? -1 : b[0] & 0xFF;
+  }
+
+  @Override
+  public int read(byte[] b, int off, int len) throws IOException {
+    if (!started) {
+      seekToFirstRecord();
+    }
+    if (len == 0) {
+      return 0;
+    }
+    if (finished || (bufferPos == bufferLength && !fill())) {
+      finished = true;
+      return -1;
+    }
+
+    int count = Math.min(len, bufferLength - bufferPos);
+    if (end - bufferStart < bufferPos + count) {
+      // the block ends with the first line separator at or after its end
+      for (int i = (int) Math.max(bufferPos, end - bufferStart); i < bufferPos + count; i++) {
+        if (buffer[i] == '\n') {
+          count = i - bufferPos + 1;
+          finished = true;
+          break;
+        }
+      }
+    }
+    System.arraycopy(buffer, bufferPos, b, off, count);
+    bufferPos += count;
+    return count;
+  }
+
+  /**
+   * Positions the stream after the first line separator at or after the start of the block, unless the block starts
+   * the file.
+   */
+  private void seekToFirstRecord() throws IOException {
+    started = true;
+    if (start == 0) {
+      return;
+    }
+
+    input.setPosition(start);
+    bufferStart = start;
+    while (true) {
+      if (bufferPos == bufferLength && !fill()) {
+        finished = true;
+        return;
+      }
+      if (buffer[bufferPos++] == '\n') {
+        // the block is empty if this line separator also ends the block, which then owns no record
+        finished = bufferStart + bufferPos > end;
+        return;
+      }
+    }
+  }
+
+  private boolean fill() throws IOException {
+    bufferStart += bufferLength;
+    bufferPos = 0;
+    bufferLength = 0;
+    int read;
+    do {
+      read = input.read(buffer, 0, buffer.length);
+    } while (read == 0);
+    if (read < 0) {
+      return false;
+    }
+    bufferLength = read;
+    return true;
+  }
+
+  @Override
+  public void close() throws IOException {
+    input.close();
+  }
+}
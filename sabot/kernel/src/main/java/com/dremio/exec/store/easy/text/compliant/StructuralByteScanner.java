@@ -0,0 +1,98 @@
+/*
+ * Copyright (C) 2017-2019 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.exec.store.easy.text.compliant;
+
+import java.nio.ByteOrder;
+
+import io.netty.util.internal.PlatformDependent;
+
+/**
+ * Finds the next structural byte (delimiter, quote, line separator...) in off-heap memory, 8 bytes at a time.
+ *
+ * Each word is compared against the searched bytes with SIMD within a register: a byte of the word is equal to a
+ * searched byte if the same byte of the word XOR the broadcast searched byte is zero. The check is exact for every
+ * byte, so the index of the first match is given by the lowest (little endian) or highest (big endian) matching byte
+ * of the word. Words are checked 64 bytes at a time, so that runs of plain bytes are skipped with few branches.
+ */
+final class StructuralByteScanner {
+  private static final long LOW_7_BITS = 0x7F7F7F7F7F7F7F7FL;
+  private static final long HIGH_BITS = 0x8080808080808080L;
+  private static final long ONES = 0x0101010101010101L;
+  private static final int STRIDE = 64;
+  private static final boolean LITTLE_ENDIAN = ByteOrder.nativeOrder() == ByteOrder.LITTLE_ENDIAN;
+
+  private StructuralByteScanner() {
+  }
+
+  /**
+   * @param address address of the first byte to scan
+   * @param length number of bytes to scan
+   * @return the index of the first byte equal to b1, b2 or b3, or length if there is none
+   */
+  static int indexOfAny(long address, int length, byte b1, byte b2, byte b3) {
+    final long p1 = broadcast(b1);
+    final long p2 = broadcast(b2);
+    final long p3 = broadcast(b3);
+
+    int i = 0;
+    for (; i + STRIDE <= length; i += STRIDE) {
+      long any = 0;
+      for (int j = 0; j < STRIDE; j += 8) {
+        any |= matches(PlatformDependent.getLong(address + i + j), p1, p2, p3);
+      }
+      if (any != 0) {
+        break;
+      }
+    }
+    for (; i + 8 <= length; i += 8) {
+      final long matches = matches(PlatformDependent.getLong(address + i), p1, p2, p3);
+      if (matches != 0) {
+        return i + firstMatchingByte(matches);
+      }
+    }
+    for (; i < length; i++) {
+      final byte b = PlatformDependent.getByte(address + i);
+      if (b == b1 || b == b2 || b == b3) {
+        return i;
+      }
+    }
+    return length;
+  }
+
+  private static long broadcast(byte b) {
+    return (b & 0xFFL) * ONES;
+  }
+
+  /**
+   * @return a word with the high bit of each byte set if the same byte of the word is equal to the same byte of one
+   * of the patterns
+   */
+  private static long matches(long word, long p1, long p2, long p3) {
+    return zeroBytes(word ^ p1) | zeroBytes(word ^ p2) | zeroBytes(word ^ p3);
+  }
+
+  /**
+   * @return a word with the high bit of each byte set if the same byte of x is zero
+   */
+  private static long zeroBytes(long x) {
+    // adding 0x7F to the low 7 bits sets the high bit unless they are all zero, without carrying to the next byte
+    return ~(((x & LOW_7_BITS) + LOW_7_BITS) | x) & HIGH_BITS;
+  }
+
+  private static int firstMatchingByte(long matches) {
+    return (LITTLE_ENDIAN ? Long.numberOfTrailingZeros(matches) : Long.numberOfLeadingZeros(matches)) >>> 3;
+  }
+}
@@ -149,6 +149,10 @@ final class TextInput {
         try {
           skipLines(1);
         } catch (StreamFinishedPseudoException sfpe) {
+          if (startPos > 0) {
+            // no line starts in this split, the line it ends in is read by the previous split
+            throw new IOException(sfpe);
+          }
           // just stop parsing - as end of the input reached
           throw new IllegalArgumentException("Only one data line detected. Please consider changing line delimiter.");
         }
@@ -350,6 +354,32 @@ final class TextInput {
     return byteChar;
   }
 
+  /**
+   * Appends to the output the next bytes of the buffer up to the first one equal to b1, b2 or b3, which is not
+   * consumed. The last byte of the buffer is never consumed, so that the following {@link #nextChar()} refills the
+   * buffer as usual. Line separators must be part of the stop bytes when reading with {@link #nextChar()}, as they are
+   * neither normalized nor counted here.
+   * @return number of bytes appended
+   */
+  public final int appendUntil(TextOutput output, byte b1, byte b2, byte b3) {
+    final int available = length - bufferPtr;
+    if (available <= 0) {
+      return 0;
+    }
+
+    if (BoundsChecking.BOUNDS_CHECKING_ENABLED) {
+      buffer.checkBytes(bufferPtr - 1, bufferPtr - 1 + available);
+    }
+
+    final long address = bStartMinus1 + bufferPtr;
+    final int count = StructuralByteScanner.indexOfAny(address, available, b1, b2, b3);
+    if (count > 0) {
+      output.append(address, count);
+      bufferPtr += count;
+    }
+    return count;
+  }
+
   /**
    * Number of lines read since the start of this split.
    * @return
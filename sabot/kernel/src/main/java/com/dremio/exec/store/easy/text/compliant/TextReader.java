@@ -73,6 +73,8 @@ final class TextReader implements AutoCloseable {
   private final byte quote;
   private final byte quoteEscape;
   private final byte newLine;
+  // first byte of the line separator of the input
+  private final byte lineSeparatorStart;
 
   /**
    * The CsvParser supports all settings provided by {@link CsvParserSettings}, and requires this configuration to be
@@ -102,6 +104,7 @@ final class TextReader implements AutoCloseable {
     this.output = output;
 
     final byte[] newLineDelimiter = settings.getNewLineDelimiter();
+    this.lineSeparatorStart = newLineDelimiter[0];
     isNormalLineDelimiter = newLineDelimiter.length == 1 && newLineDelimiter[0] == settings.getNormalizedNewLine();
   }
 
@@ -206,9 +209,13 @@ final class TextReader implements AutoCloseable {
     final TextOutput output = this.output;
     final TextInput input = this.input;
 
+    final byte lineSeparatorStart = this.lineSeparatorStart;
+
     byte ch = this.ch;
     while (ch != delimiter && ch != newLine) {
       output.append(ch);
+      // the plain bytes up to the next delimiter or line separator are appended at once
+      input.appendUntil(output, delimiter, newLine, lineSeparatorStart);
       ch = input.nextChar();
     }
     this.ch = ch;
@@ -260,6 +267,11 @@ final class TextReader implements AutoCloseable {
         }
         output.append(ch);
         prev = ch;
+        if (ch != quoteEscape) {
+          // the bytes up to the next quote or escape are appended at once. They all leave prev as a byte which is
+          // neither a quote nor an escape, as ch does.
+          input.appendUntil(output, quote, quoteEscape, quote);
+        }
       } else if (prev == quoteEscape) {
         output.append(quote);
         prev = NULL_BYTE;
@@ -0,0 +1,160 @@
+/*
+ * Copyright (C) 2017-2019 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.exec.store.parquet;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+import org.apache.parquet.io.SeekableInputStream;
+
+import io.netty.buffer.ByteBuf;
+
+/**
+ * A BulkInputStream over a buffer holding a range of a file. Positions are offsets in the file, so that readers can
+ * seek to the same positions as with a stream over the whole file.
+ *
+ * The stream owns the buffer and releases it when closed.
+ */
+class ByteBufBulkInputStream extends SeekableInputStream implements BulkInputStream {
+  private final long start;
+  private final long end;
+  private ByteBuf buffer;
+  private long pos;
+
+  /**
+   * @param start offset in the file of the first byte of the buffer
+   * @param buffer readable bytes of the file from start
+   */
+  ByteBufBulkInputStream(long start, ByteBuf buffer) {
+    this.start = start;
+    this.end = start + buffer.readableBytes();
+    this.buffer = buffer;
+    this.pos = start;
+  }
+
+  @Override
+  public void seek(long offset) throws IOException {
+    if (offset < start || offset > end) {
+      throw new EOFException(String.format("Cannot seek to %d, the stream only holds [%d, %d)", offset, start, end));
+    }
+    pos = offset;
+  }
+
+  @Override
+  public long getPos() {
+    return pos;
+  }
+
+  @Override
+  public long skip(long len) throws IOException {
+    final long skipped = Math.max(0, Math.min(len, end - pos));
+    pos += skipped;
+    return skipped;
+  }
+
+  private int index() {
+    return buffer.readerIndex() + (int) (pos - start);
+  }
+
+  private void checkRemaining(int length) throws EOFException {
+    if (end - pos < length) {
+      throw new EOFException(String.format("Cannot read %d bytes at %d, the stream only holds [%d, %d)", length, pos,
+        start, end));
+    }
+  }
+
+  @Override
+  public void readFully(ByteBuf dst, int length) throws IOException {
+    checkRemaining(length);
+    dst.writeBytes(buffer, index(), length);
+    pos += length;
+  }
+
+  @Override
+  public int read() {
+    if (pos >= end) {
+      return -1;
+    }
+    final int value = buffer.getByte(index()) & 0xff;
+    pos++;
+    return value;
+  }
+
+  @Override
+  public int read(byte[] b, int off, int len) {
+    if (len == 0) {
+      return 0;
+    }
+    if (pos >= end) {
+      return -1;
+    }
+    final int n = (int) Math.min(len, end - pos);
+    buffer.getBytes(index(), b, off, n);
+    pos += n;
+    return n;
+  }
+
+  @Override
+  public void readFully(byte[] b) throws IOException {
+    readFully(b, 0, b.length);
+  }
+
+  @Override
+  public void readFully(byte[] b, int off, int len) throws IOException {
+    checkRemaining(len);
+    buffer.getBytes(index(), b, off, len);
+    pos += len;
+  }
+
+  @Override
+  public int read(ByteBuffer buf) {
+    if (!buf.hasRemaining()) {
+      return 0;
+    }
+    if (pos >= end) {
+      return -1;
+    }
+    final int n = (int) Math.min(buf.remaining(), end - pos);
+    final int limit = buf.limit();
+    buf.limit(buf.position() + n);
+    buffer.getBytes(index(), buf);
+    buf.limit(limit);
+    pos += n;
+    return n;
+  }
+
+  @Override
+  public void readFully(ByteBuffer buf) throws IOException {
+    final int length = buf.remaining();
+    checkRemaining(length);
+    buffer.getBytes(index(), buf);
+    pos += length;
+  }
+
+  @Override
+  public SeekableInputStream asSeekableInputStream() {
+    return this;
+  }
+
+  @Override
+  public void close() {
+    if (buffer != null) {
+      buffer.release();
+      buffer = null;
+    }
+  }
+}
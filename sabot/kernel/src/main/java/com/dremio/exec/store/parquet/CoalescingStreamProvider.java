@@ -0,0 +1,146 @@
+/*
+ * Copyright (C) 2017-2019 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.exec.store.parquet;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.parquet.hadoop.metadata.ColumnChunkMetaData;
+
+import com.dremio.common.AutoCloseables;
+import com.dremio.io.AsyncByteReader;
+import com.dremio.io.AsyncByteReader.FileKey;
+import com.dremio.io.AsyncByteReader.FileRange;
+import com.dremio.io.file.FileSystem;
+import com.dremio.io.file.Path;
+import com.dremio.sabot.exec.context.OperatorContext;
+import com.google.common.base.Throwables;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.NettyArrowBuf;
+
+/**
+ * An InputStreamProvider that reads all the projected column chunks of a row group with a single vectored read
+ * through the {@link AsyncByteReader} of the file, and serves each column from its slice of the read buffers.
+ *
+ * Column chunks close to each other are fetched by the same request, so a row group costs a few large reads instead
+ * of one stream per column. Columns which were not prefetched, and the footer, are read with a stream per column.
+ */
+public class CoalescingStreamProvider extends StreamPerColumnProvider {
+  private final FileSystem fs;
+  private final Path path;
+  private final long mTime;
+  private final List<String> dataset;
+  private final BufferAllocator allocator;
+  private final int maxGap;
+  private final int maxMergedLength;
+  private final long maxBufferedBytes;
+
+  // prefetched column chunks, by starting position in the file
+  private final Map<Long, ByteBuf> prefetched = new HashMap<>();
+  private final List<BulkInputStream> streams = new ArrayList<>();
+  private AsyncByteReader reader;
+
+  public CoalescingStreamProvider(FileSystem fs, Path path, long length, long mTime, long maxFooterLen,
+                                  MutableParquetMetadata footer, OperatorContext context, boolean readColumnOffsetIndexes,
+                                  List<String> dataset, int maxGap, int maxMergedLength, long maxBufferedBytes) {
+    super(fs, path, length, mTime, maxFooterLen, footer, context, readColumnOffsetIndexes);
+    this.fs = fs;
+    this.path = path;
+    this.mTime = mTime;
+    this.dataset = dataset;
+    this.allocator = context.getAllocator();
+    this.maxGap = maxGap;
+    this.maxMergedLength = maxMergedLength;
+    this.maxBufferedBytes = maxBufferedBytes;
+  }
+
+  @Override
+  public void prefetchColumnChunks(List<ColumnChunkMetaData> columns) throws IOException {
+    final List<FileRange> ranges = new ArrayList<>(columns.size());
+    long totalBytes = 0;
+    for (ColumnChunkMetaData column : columns) {
+      if (prefetched.containsKey(column.getStartingPos())) {
+        continue;
+      }
+      totalBytes += column.getTotalSize();
+      ranges.add(new FileRange(column.getStartingPos(), (int) column.getTotalSize()));
+    }
+    if (ranges.isEmpty() || totalBytes > maxBufferedBytes) {
+      // too large to be buffered, the columns are read with a stream each
+      return;
+    }
+
+    final List<ByteBuf> buffers;
+    try {
+      buffers = getReader().readFullyVectored(ranges, maxGap, maxMergedLength,
+        len -> NettyArrowBuf.unwrapBuffer(allocator.buffer(len))).get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new InterruptedIOException("Interrupted while reading " + path);
+    } catch (ExecutionException e) {
+      Throwables.propagateIfPossible(e.getCause(), IOException.class);
+      throw new IOException("Failed to read column chunks of " + path, e.getCause());
+    }
+    for (int i = 0; i < ranges.size(); i++) {
+      prefetched.put(ranges.get(i).getOffset(), buffers.get(i));
+    }
+  }
+
+  @Override
+  public BulkInputStream getStream(ColumnChunkMetaData column) throws IOException {
+    final ByteBuf buffer = column == null ? null : prefetched.remove(column.getStartingPos());
+    if (buffer == null) {
+      return super.getStream(column);
+    }
+    final BulkInputStream stream = new ByteBufBulkInputStream(column.getStartingPos(), buffer);
+    streams.add(stream);
+    return stream;
+  }
+
+  private AsyncByteReader getReader() throws IOException {
+    if (reader == null) {
+      reader = fs.getAsyncByteReader(FileKey.of(path, Long.toString(mTime), FileKey.FileType.PARQUET, dataset),
+        Collections.emptyMap());
+    }
+    return reader;
+  }
+
+  @Override
+  public void close() throws IOException {
+    final List<AutoCloseable> closeables = new ArrayList<>(streams);
+    closeables.add(() -> {
+      prefetched.values().forEach(ByteBuf::release);
+      prefetched.clear();
+    });
+    closeables.add(reader);
+    closeables.add(super::close);
+    try {
+      AutoCloseables.close(closeables);
+    } catch (IOException | RuntimeException e) {
+      throw e;
+    } catch (Exception e) {
+      throw new IOException(e);
+    }
+  }
+}
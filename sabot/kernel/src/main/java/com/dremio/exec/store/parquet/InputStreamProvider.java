@@ -36,6 +36,13 @@ public interface InputStreamProvider extends AutoCloseable {
    */
   BulkInputStream getStream(ColumnChunkMetaData column) throws IOException;
 
+  /**
+   * Hints that streams for the given column chunks are about to be obtained, so that the provider may fetch them
+   * together. No-op by default.
+   */
+  default void prefetchColumnChunks(List<ColumnChunkMetaData> columns) throws IOException {
+  }
+
   /**
    * Returns the path corresponding to this stream
    * @return
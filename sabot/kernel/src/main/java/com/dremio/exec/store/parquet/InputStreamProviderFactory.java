@@ -56,9 +56,24 @@ public interface InputStreamProviderFactory {
               readFullFile;
 
       final long maxFooterLen = context.getOptions().getOption(ExecConstants.PARQUET_MAX_FOOTER_LEN_VALIDATOR);
-      return useSingleStream
-        ? new SingleStreamProvider(fs, path, fileLength, maxFooterLen, readFullFile, footerIfKnown, context, readColumnIndices)
-        : new StreamPerColumnProvider(fs, path, fileLength, maxFooterLen, footerIfKnown, context, readColumnIndices);
+      if (useSingleStream) {
+        return new SingleStreamProvider(fs, path, fileLength, mTime, maxFooterLen, readFullFile, footerIfKnown, context, readColumnIndices);
+      }
+
+      // the coalescing provider only replaces a stream per column: readers that do not prefetch column chunks
+      // get a stream per column from it
+      boolean useVectoredRead =
+        options.getOption(ExecConstants.PARQUET_VECTORED_READ_ENABLED) &&
+          // the version of the async reads is the modification time
+          mTime > 0 &&
+          fs.supportsAsync();
+      if (useVectoredRead) {
+        return new CoalescingStreamProvider(fs, path, fileLength, mTime, maxFooterLen, footerIfKnown, context, readColumnIndices,
+          dataset, (int) options.getOption(ExecConstants.PARQUET_VECTORED_READ_MAX_GAP),
+          (int) options.getOption(ExecConstants.PARQUET_VECTORED_READ_MAX_MERGED_SIZE),
+          options.getOption(ExecConstants.PARQUET_VECTORED_READ_MAX_BUFFERED_SIZE));
+      }
+      return new StreamPerColumnProvider(fs, path, fileLength, mTime, maxFooterLen, footerIfKnown, context, readColumnIndices);
     }
   };
 
@@ -0,0 +1,185 @@
+/*
+ * Copyright (C) 2017-2019 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.exec.store.parquet;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Objects;
+
+import org.apache.parquet.format.converter.ParquetMetadataConverter;
+import org.apache.parquet.hadoop.metadata.ParquetMetadata;
+
+import com.dremio.exec.ExecConstants;
+import com.dremio.io.file.FileSystem;
+import com.dremio.io.file.Path;
+import com.dremio.sabot.exec.context.OperatorContext;
+import com.dremio.sabot.op.scan.ScanOperator;
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+/**
+ * Node-wide cache of parquet footers, shared by all the readers running on this node.<br>
+ * <br>
+ * Entries are keyed by path, modification time and length, so a rewritten file is never served a stale
+ * footer. Footers are kept serialized in direct memory and parsed on each hit: this keeps the heap
+ * footprint low, and every reader gets its own {@link ParquetMetadata} that it is free to trim.
+ * The cache is bounded by the total size of the serialized footers, evicting the least recently used ones.
+ */
+public final class ParquetFooterCache {
+  private static final org.slf4j.Logger logger = org.slf4j.LoggerFactory.getLogger(ParquetFooterCache.class);
+
+  private static volatile ParquetFooterCache instance;
+
+  private final long maxSizeBytes;
+  private final Cache<FooterKey, ByteBuffer> footers;
+
+  @VisibleForTesting
+  ParquetFooterCache(long maxSizeBytes) {
+    this.maxSizeBytes = maxSizeBytes;
+    this.footers = CacheBuilder.newBuilder()
+      .maximumWeight(maxSizeBytes)
+      .weigher((FooterKey key, ByteBuffer footer) -> footer.capacity())
+      .build();
+  }
+
+  /**
+   * Reads the footer of the given file, from the cache if possible.
+   *
+   * @param context operator context, the cache is bypassed if null
+   * @param is stream used to read the footer on a cache miss
+   * @param path file path
+   * @param fileLength file length, or -1 if unknown
+   * @param mTime file modification time, or -1 if unknown. The cache is bypassed if unknown
+   * @param fs file system
+   * @param maxFooterLen maximum supported footer length
+   * @return the parquet footer
+   * @throws IOException if the footer cannot be read
+   */
+  public static ParquetMetadata getFooter(OperatorContext context, BulkInputStream is, Path path, long fileLength,
+                                          long mTime, FileSystem fs, long maxFooterLen) throws IOException {
+    if (context == null || fileLength < 0 || mTime <= 0
+      || !context.getOptions().getOption(ExecConstants.PARQUET_FOOTER_CACHE_ENABLED)) {
+      return SingletonParquetFooterCache.parseFooter(
+        SingletonParquetFooterCache.readFooterBytes(is, path.toString(), fileLength, fs, maxFooterLen),
+        ParquetMetadataConverter.NO_FILTER);
+    }
+
+    final ParquetFooterCache cache = getInstance(context.getOptions().getOption(ExecConstants.PARQUET_FOOTER_CACHE_SIZE_BYTES));
+    final FooterKey key = new FooterKey(path.toString(), mTime, fileLength);
+    final ByteBuffer cached = cache.footers.getIfPresent(key);
+    if (cached != null) {
+      if (context.getStats() != null) {
+        context.getStats().addLongStat(ScanOperator.Metric.NUM_FOOTER_CACHE_HITS, 1);
+      }
+      return SingletonParquetFooterCache.parseFooter(toBytes(cached), ParquetMetadataConverter.NO_FILTER);
+    }
+
+    if (context.getStats() != null) {
+      context.getStats().addLongStat(ScanOperator.Metric.NUM_FOOTER_CACHE_MISSES, 1);
+    }
+    final byte[] footerBytes = SingletonParquetFooterCache.readFooterBytes(is, path.toString(), fileLength, fs, maxFooterLen);
+    // parse before caching, so a corrupted footer is never cached
+    final ParquetMetadata footer = SingletonParquetFooterCache.parseFooter(footerBytes, ParquetMetadataConverter.NO_FILTER);
+    cache.put(key, footerBytes);
+    return footer;
+  }
+
+  /**
+   * Returns the node-wide cache, recreating it if the configured size changed
+   */
+  @VisibleForTesting
+  static ParquetFooterCache getInstance(long maxSizeBytes) {
+    ParquetFooterCache current = instance;
+    if (current == null || current.maxSizeBytes != maxSizeBytes) {
+      synchronized (ParquetFooterCache.class) {
+        current = instance;
+        if (current == null || current.maxSizeBytes != maxSizeBytes) {
+          logger.info("Creating parquet footer cache of {} bytes", maxSizeBytes);
+          current = new ParquetFooterCache(maxSizeBytes);
+          instance = current;
+        }
+      }
+    }
+    return current;
+  }
+
+  @VisibleForTesting
+  byte[] get(String path, long mTime, long fileLength) {
+    final ByteBuffer cached = footers.getIfPresent(new FooterKey(path, mTime, fileLength));
+    return cached != null ? toBytes(cached) : null;
+  }
+
+  @VisibleForTesting
+  void put(String path, long mTime, long fileLength, byte[] footerBytes) {
+    put(new FooterKey(path, mTime, fileLength), footerBytes);
+  }
+
+  @VisibleForTesting
+  long size() {
+    footers.cleanUp();
+    return footers.size();
+  }
+
+  private void put(FooterKey key, byte[] footerBytes) {
+    if (footerBytes.length > maxSizeBytes) {
+      return;
+    }
+    final ByteBuffer buffer = ByteBuffer.allocateDirect(footerBytes.length);
+    buffer.put(footerBytes);
+    buffer.flip();
+    footers.put(key, buffer);
+  }
+
+  private static byte[] toBytes(ByteBuffer buffer) {
+    final byte[] bytes = new byte[buffer.remaining()];
+    // duplicate so concurrent readers don't share the buffer position
+    buffer.duplicate().get(bytes);
+    return bytes;
+  }
+
+  /**
+   * Identifies a version of a file
+   */
+  private static final class FooterKey {
+    private final String path;
+    private final long mTime;
+    private final long fileLength;
+
+    private FooterKey(String path, long mTime, long fileLength) {
+      this.path = path;
+      this.mTime = mTime;
+      this.fileLength = fileLength;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (o == null || getClass() != o.getClass()) {
+        return false;
+      }
+      final FooterKey that = (FooterKey) o;
+      return mTime == that.mTime && fileLength == that.fileLength && path.equals(that.path);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(path, mTime, fileLength);
+    }
+  }
+}
@@ -93,6 +93,12 @@ public class ParquetScanTableFunction extends ScanTableFunction {
     return;
   }
 
+  @Override
+  protected boolean supportsSplitDispatch() {
+    // splits of data files with delete files are assigned with the delete files to apply
+    return !hasIcebergDeleteFiles();
+  }
+
   protected void setSplitReaderCreatorIterator() throws IOException, ExecutionSetupException {
     splitReaderCreatorIterator = new ParquetSplitReaderCreatorIterator(fec, context, props, functionConfig, false, false);
   }
@@ -0,0 +1,355 @@
+/*
+ * Copyright (C) 2017-2019 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.exec.store.parquet;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+
+import org.apache.arrow.vector.types.Types;
+import org.apache.parquet.bytes.BytesInput;
+import org.apache.parquet.column.ColumnDescriptor;
+import org.apache.parquet.column.Dictionary;
+import org.apache.parquet.column.EncodingStats;
+import org.apache.parquet.column.page.DictionaryPage;
+import org.apache.parquet.column.statistics.Statistics;
+import org.apache.parquet.compression.CompressionCodecFactory;
+import org.apache.parquet.format.PageHeader;
+import org.apache.parquet.format.PageType;
+import org.apache.parquet.format.Util;
+import org.apache.parquet.format.converter.ParquetMetadataConverter;
+import org.apache.parquet.hadoop.metadata.BlockMetaData;
+import org.apache.parquet.hadoop.metadata.ColumnChunkMetaData;
+import org.apache.parquet.internal.column.columnindex.ColumnIndex;
+import org.apache.parquet.io.SeekableInputStream;
+import org.apache.parquet.schema.LogicalTypeAnnotation;
+import org.apache.parquet.schema.MessageType;
+import org.apache.parquet.schema.PrimitiveType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.dremio.exec.store.CompositeColumnFilter;
+import com.dremio.exec.store.RuntimeFilter;
+import com.dremio.exec.store.ThresholdFilter;
+import com.dremio.exec.util.ValueListFilter;
+import com.dremio.io.file.FileSystem;
+import com.dremio.io.file.Path;
+
+/**
+ * Helper class for evaluating the non partition column runtime filters against the metadata of a row group.
+ * A row group is skipped if, for any INT or BIGINT value list filter, none of the values in the list can be
+ * present in the column chunk. This is decided, from the cheapest to the most expensive, using the column chunk
+ * statistics, the page level column index and the dictionary of a fully dictionary encoded chunk.
+ */
+public class RowGroupRuntimeFilterEvaluator {
+  private static final Logger logger = LoggerFactory.getLogger(RowGroupRuntimeFilterEvaluator.class);
+  private static final ParquetMetadataConverter CONVERTER = new ParquetMetadataConverter();
+
+  // dictionaries bigger than this are not worth reading only to prune a row group
+  static final int MAX_DICTIONARY_SIZE = 1024 * 1024;
+
+  /**
+   * Reads the dictionary of a column chunk. Returns null if the chunk has no usable dictionary.
+   */
+  @FunctionalInterface
+  public interface DictionaryReader {
+    Dictionary read(ColumnChunkMetaData column) throws IOException;
+  }
+
+  // parquet column name -> value list filters on that column
+  private final Map<String, List<ValueListFilter>> filters = new HashMap<>();
+
+  public RowGroupRuntimeFilterEvaluator(final List<RuntimeFilter> runtimeFilters,
+                                        final Function<String, String> toParquetColumnName) {
+    for (RuntimeFilter runtimeFilter : runtimeFilters) {
+      for (CompositeColumnFilter columnFilter : runtimeFilter.getNonPartitionColumnFilters()) {
+        final ValueListFilter valueList = columnFilter.getValueList();
+        if (valueList == null || columnFilter.getColumnsList().size() != 1 || !isSupported(valueList)) {
+          continue;
+        }
+        final String parquetColumn = toParquetColumnName.apply(columnFilter.getColumnsList().get(0));
+        if (parquetColumn != null) {
+          filters.computeIfAbsent(parquetColumn.toLowerCase(), c -> new ArrayList<>()).add(valueList);
+        }
+      }
+    }
+  }
+
+  public boolean hasApplicableFilters() {
+    return !filters.isEmpty();
+  }
+
+  /**
+   * Checks if no row of the row group can pass the runtime filters.
+   *
+   * @param block row group metadata
+   * @param columnIndexes provides the column indexes of the given columns, may return null
+   * @param dictionaryReader reads the dictionary of a column chunk
+   * @return true if the row group can be skipped
+   */
+  public boolean canBeSkipped(final BlockMetaData block,
+                              final Function<List<ColumnChunkMetaData>, ColumnIndexProvider> columnIndexes,
+                              final DictionaryReader dictionaryReader) {
+    final Map<ColumnChunkMetaData, List<ValueListFilter>> candidates = new HashMap<>();
+    for (ColumnChunkMetaData column : block.getColumns()) {
+      if (column.getPath().size() != 1 || !isSupported(column.getPrimitiveType())) {
+        continue;
+      }
+      final List<ValueListFilter> columnFilters = filters.get(column.getPath().toDotString().toLowerCase());
+      if (columnFilters == null) {
+        continue;
+      }
+      for (ValueListFilter filter : columnFilters) {
+        if (canBeSkippedByStats(filter, column)) {
+          logSkippedRowGroup("statistics", column);
+          return true;
+        }
+      }
+      candidates.put(column, columnFilters);
+    }
+    if (candidates.isEmpty()) {
+      return false;
+    }
+
+    try (ColumnIndexProvider provider = columnIndexes.apply(new ArrayList<>(candidates.keySet()))) {
+      if (provider != null) {
+        for (Map.Entry<ColumnChunkMetaData, List<ValueListFilter>> entry : candidates.entrySet()) {
+          final ColumnIndex columnIndex = provider.getColumnIndex(entry.getKey());
+          if (columnIndex == null) {
+            continue;
+          }
+          for (ValueListFilter filter : entry.getValue()) {
+            if (canBeSkippedByColumnIndex(filter, entry.getKey().getPrimitiveType(), columnIndex)) {
+              logSkippedRowGroup("column index", entry.getKey());
+              return true;
+            }
+          }
+        }
+      }
+    }
+
+    for (Map.Entry<ColumnChunkMetaData, List<ValueListFilter>> entry : candidates.entrySet()) {
+      final ColumnChunkMetaData column = entry.getKey();
+      if (!isFullyDictionaryEncoded(column)
+        || entry.getValue().stream().allMatch(f -> f.isContainsNull() && mayContainNulls(column))) {
+        continue;
+      }
+      final Dictionary dictionary;
+      try {
+        dictionary = dictionaryReader.read(column);
+      } catch (IOException | RuntimeException e) {
+        logger.debug("Failed to read dictionary of column {}, ignoring", column.getPath(), e);
+        continue;
+      }
+      if (dictionary == null) {
+        continue;
+      }
+      for (ValueListFilter filter : entry.getValue()) {
+        if (canBeSkippedByDictionary(filter, column, dictionary)) {
+          logSkippedRowGroup("dictionary", column);
+          return true;
+        }
+      }
+    }
+    return false;
+  }
+
+  static boolean canBeSkippedByStats(final ValueListFilter filter, final ColumnChunkMetaData column) {
+    final Statistics<?> stats = column.getStatistics();
+    if (stats == null || stats.isEmpty() || !stats.isNumNullsSet()) {
+      return false;
+    }
+    final boolean hasNulls = stats.getNumNulls() > 0;
+    if (hasNulls && filter.isContainsNull()) {
+      return false;
+    }
+    if (!stats.hasNonNullValue()) {
+      // only nulls in this chunk
+      return stats.getNumNulls() == column.getValueCount();
+    }
+    return !mightContainAnyInRange(filter, toLong(stats.genericGetMin()), toLong(stats.genericGetMax()));
+  }
+
+  /**
+   * Checks, using the column chunk statistics, if no row of the row group can sort before the threshold published
+   * by a downstream TopN.
+   *
+   * @param filter TopN threshold
+   * @param block row group metadata
+   * @param parquetColumn name of the threshold column in the file
+   * @return true if the row group can be skipped
+   */
+  public static boolean canBeSkippedByThreshold(final ThresholdFilter filter, final BlockMetaData block,
+                                                final String parquetColumn) {
+    for (ColumnChunkMetaData column : block.getColumns()) {
+      if (column.getPath().size() != 1 || !column.getPath().toDotString().equalsIgnoreCase(parquetColumn)) {
+        continue;
+      }
+      final Statistics<?> stats = column.getStatistics();
+      if (!isSupported(column.getPrimitiveType()) || stats == null || stats.isEmpty() || !stats.isNumNullsSet()) {
+        return false;
+      }
+      final boolean canBeSkipped = stats.hasNonNullValue()
+        ? filter.canSkip(toLong(stats.genericGetMin()), toLong(stats.genericGetMax()), stats.getNumNulls() > 0)
+        : filter.canSkipNulls() && stats.getNumNulls() == column.getValueCount();
+      if (canBeSkipped) {
+        logger.debug("Skipping row group, no value of column {} can sort before TopN threshold {}",
+          column.getPath(), filter);
+      }
+      return canBeSkipped;
+    }
+    return false;
+  }
+
+  static boolean canBeSkippedByColumnIndex(final ValueListFilter filter, final PrimitiveType type,
+                                           final ColumnIndex columnIndex) {
+    final List<Boolean> nullPages = columnIndex.getNullPages();
+    final List<ByteBuffer> minValues = columnIndex.getMinValues();
+    final List<ByteBuffer> maxValues = columnIndex.getMaxValues();
+    final List<Long> nullCounts = columnIndex.getNullCounts();
+    for (int page = 0; page < nullPages.size(); page++) {
+      if (filter.isContainsNull() && (nullCounts == null || nullCounts.get(page) > 0)) {
+        return false;
+      }
+      if (nullPages.get(page)) {
+        continue;
+      }
+      if (mightContainAnyInRange(filter, decode(type, minValues.get(page)), decode(type, maxValues.get(page)))) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  static boolean canBeSkippedByDictionary(final ValueListFilter filter, final ColumnChunkMetaData column,
+                                          final Dictionary dictionary) {
+    if (filter.isContainsNull() && mayContainNulls(column)) {
+      return false;
+    }
+    final boolean isInt32 = column.getPrimitiveType().getPrimitiveTypeName() == PrimitiveType.PrimitiveTypeName.INT32;
+    for (int id = 0; id <= dictionary.getMaxId(); id++) {
+      final long value = isInt32 ? dictionary.decodeToInt(id) : dictionary.decodeToLong(id);
+      if (mightContainAnyInRange(filter, value, value)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Reads the dictionary page of the given column chunk from the file.
+   */
+  public static DictionaryReader newDictionaryReader(final FileSystem fs, final Path path, final MessageType schema,
+                                                     final CompressionCodecFactory codecFactory) {
+    return column -> {
+      if (!column.hasDictionaryPage()) {
+        return null;
+      }
+      try (SeekableInputStream in = Streams.wrap(fs.open(path))) {
+        in.seek(column.getDictionaryPageOffset());
+        final PageHeader pageHeader = Util.readPageHeader(in);
+        if (pageHeader.getType() != PageType.DICTIONARY_PAGE
+          || pageHeader.getUncompressed_page_size() > MAX_DICTIONARY_SIZE) {
+          return null;
+        }
+        final byte[] data = new byte[pageHeader.getCompressed_page_size()];
+        in.readFully(data);
+        final DictionaryPage page = new DictionaryPage(
+          codecFactory.getDecompressor(column.getCodec()).decompress(BytesInput.from(data), pageHeader.getUncompressed_page_size()),
+          pageHeader.getDictionary_page_header().getNum_values(),
+          CONVERTER.getEncoding(pageHeader.getDictionary_page_header().getEncoding()));
+        final ColumnDescriptor descriptor = schema.getColumnDescription(column.getPath().toArray());
+        return page.getEncoding().initDictionary(descriptor, page);
+      }
+    };
+  }
+
+  private static boolean isSupported(final ValueListFilter filter) {
+    return filter.isFixedWidth()
+      && (filter.getFieldType() == Types.MinorType.INT || filter.getFieldType() == Types.MinorType.BIGINT);
+  }
+
+  private static boolean isSupported(final PrimitiveType type) {
+    final PrimitiveType.PrimitiveTypeName typeName = type.getPrimitiveTypeName();
+    if (typeName != PrimitiveType.PrimitiveTypeName.INT32 && typeName != PrimitiveType.PrimitiveTypeName.INT64) {
+      return false;
+    }
+    final LogicalTypeAnnotation annotation = type.getLogicalTypeAnnotation();
+    // value lists hold signed values, compare only plain and signed integer columns
+    return annotation == null
+      || (annotation instanceof LogicalTypeAnnotation.IntLogicalTypeAnnotation
+        && ((LogicalTypeAnnotation.IntLogicalTypeAnnotation) annotation).isSigned());
+  }
+
+  private static boolean isFullyDictionaryEncoded(final ColumnChunkMetaData column) {
+    final EncodingStats encodingStats = column.getEncodingStats();
+    return column.hasDictionaryPage()
+      && encodingStats != null
+      && encodingStats.hasDictionaryEncodedPages()
+      && !encodingStats.hasNonDictionaryEncodedPages();
+  }
+
+  private static boolean mayContainNulls(final ColumnChunkMetaData column) {
+    final Statistics<?> stats = column.getStatistics();
+    return stats == null || !stats.isNumNullsSet() || stats.getNumNulls() > 0;
+  }
+
+  /**
+   * Checks if the sorted value list has any value within [min, max].
+   */
+  static boolean mightContainAnyInRange(final ValueListFilter filter, final long min, final long max) {
+    int low = 0;
+    int high = filter.getValueCount() - 1;
+    // find the first value >= min
+    while (low <= high) {
+      final int mid = (low + high) >>> 1;
+      if (getValue(filter, mid) < min) {
+        low = mid + 1;
+      } else {
+        high = mid - 1;
+      }
+    }
+    return low < filter.getValueCount() && getValue(filter, low) <= max;
+  }
+
+  private static long getValue(final ValueListFilter filter, final int index) {
+    return filter.getBlockSize() == 4
+      ? filter.valOnlyBuf().getInt((long) index * 4)
+      : filter.valOnlyBuf().getLong((long) index * 8);
+  }
+
+  private static long decode(final PrimitiveType type, final ByteBuffer value) {
+    final ByteBuffer buffer = value.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+    return type.getPrimitiveTypeName() == PrimitiveType.PrimitiveTypeName.INT32
+      ? buffer.getInt(buffer.position())
+      : buffer.getLong(buffer.position());
+  }
+
+  private static long toLong(final Object value) {
+    return ((Number) Objects.requireNonNull(value)).longValue();
+  }
+
+  private static void logSkippedRowGroup(final String source, final ColumnChunkMetaData column) {
+    logger.debug("Skipping row group, no value of runtime filter on column {} can match according to {}",
+      column.getPath(), source);
+  }
+}
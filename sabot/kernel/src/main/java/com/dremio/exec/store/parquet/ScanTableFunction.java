@@ -35,6 +35,7 @@ import org.apache.arrow.vector.VarBinaryVector;
 import com.dremio.common.AutoCloseables;
 import com.dremio.common.exceptions.UserException;
 import com.dremio.common.expression.SchemaPath;
+import com.dremio.exec.ExecConstants;
 import com.dremio.exec.physical.base.OpProps;
 import com.dremio.exec.physical.config.TableFunctionConfig;
 import com.dremio.exec.proto.ExecProtos;
@@ -43,11 +44,13 @@ import com.dremio.exec.record.VectorAccessible;
 import com.dremio.exec.store.RecordReader;
 import com.dremio.exec.store.RuntimeFilter;
 import com.dremio.exec.store.SplitAndPartitionInfo;
+import com.dremio.exec.store.ThresholdFilter;
 import com.dremio.exec.store.dfs.AbstractTableFunction;
 import com.dremio.sabot.exec.context.OperatorContext;
 import com.dremio.sabot.exec.context.OperatorStats;
 import com.dremio.sabot.exec.fragment.FragmentExecutionContext;
 import com.dremio.sabot.exec.fragment.OutOfBandMessage;
+import com.dremio.sabot.exec.fragment.SplitDispatcher;
 import com.dremio.sabot.op.scan.MutatorSchemaChangeCallBack;
 import com.dremio.sabot.op.scan.ScanOperator;
 import com.dremio.service.namespace.DatasetHelper;
@@ -74,10 +77,13 @@ public abstract class ScanTableFunction extends AbstractTableFunction {
   private BatchSchema schema;
   private List<SchemaPath> selectedColumns;
   private List<RuntimeFilter> runtimeFilters = new ArrayList<>();
+  private ThresholdFilter thresholdFilter;
   private boolean isColIdMapSet = true;
   // This is set to true after we are done consuming from upstream and we want to produce the
   // remianing buffered splits if present.
   private boolean produceFromBufferedSplits = false;
+  // shared with the other minor fragments of the scan on this node, null if split dispatch is disabled
+  private SplitDispatcher splitDispatcher;
 
   public ScanTableFunction(FragmentExecutionContext fec,
                            OperatorContext context,
@@ -105,6 +111,9 @@ public abstract class ScanTableFunction extends AbstractTableFunction {
       isColIdMapSet = false;
     }
     createRecordReaderIterator();
+    if (context.getOptions().getOption(ExecConstants.SPLIT_DISPATCH_ENABLED) && supportsSplitDispatch()) {
+      splitDispatcher = fec.getSplitDispatcher();
+    }
     return outgoing;
   }
 
@@ -147,23 +156,64 @@ public abstract class ScanTableFunction extends AbstractTableFunction {
       }
     }
 
-    try {
-      addSplits(splits);
-    } catch (Exception e) {
-      ScanOperator.handleExceptionDuringScan(e, functionConfig.getFunctionContext().getReferencedTables(), logger);
+    if (splitDispatcher != null) {
+      // the splits are read by the first fragment of the scan on this node to run out of readers
+      splitDispatcher.offer(props.getOperatorId(), context.getFragmentHandle().getMinorFragmentId(), splits);
+    } else {
+      try {
+        addSplits(splits);
+      } catch (Exception e) {
+        ScanOperator.handleExceptionDuringScan(e, functionConfig.getFunctionContext().getReferencedTables(), logger);
+      }
     }
     setupNextReader();
   }
 
+  /**
+   * @return true if the record reader iterator has another reader, after taking splits from the split dispatcher if
+   * it ran out of readers
+   */
+  private boolean hasNextReader() throws Exception {
+    while (!getRecordReaderIterator().hasNext()) {
+      if (splitDispatcher == null) {
+        return false;
+      }
+      final List<SplitDispatcher.DispatchedSplit> dispatched = splitDispatcher.poll(props.getOperatorId(),
+        (int) context.getOptions().getOption(ExecConstants.SPLIT_DISPATCH_BATCH_SIZE));
+      if (dispatched.isEmpty()) {
+        return false;
+      }
+
+      final int minorFragmentId = context.getFragmentHandle().getMinorFragmentId();
+      final List<SplitAndPartitionInfo> splits = new ArrayList<>(dispatched.size());
+      for (SplitDispatcher.DispatchedSplit split : dispatched) {
+        splits.add(split.getSplit());
+        if (split.getMinorFragmentId() != minorFragmentId) {
+          context.getStats().addLongStat(ScanOperator.Metric.NUM_SPLITS_STOLEN, 1);
+        }
+      }
+      context.getStats().addLongStat(ScanOperator.Metric.NUM_SPLITS_DISPATCHED, splits.size());
+      try {
+        addSplits(splits);
+      } catch (Exception e) {
+        ScanOperator.handleExceptionDuringScan(e, functionConfig.getFunctionContext().getReferencedTables(), logger);
+      }
+    }
+    return true;
+  }
+
   void setupNextReader() throws Exception {
     OperatorStats stats = context.getStats();
-    if (!getRecordReaderIterator().hasNext()) {
+    if (!hasNextReader()) {
       return;
     }
     try {
       stats.startSetup();
       currentRecordReader = getRecordReaderIterator().next();
       this.runtimeFilters.forEach(currentRecordReader::addRuntimeFilter);
+      if (thresholdFilter != null) {
+        currentRecordReader.setThresholdFilter(thresholdFilter);
+      }
       checkNotNull(currentRecordReader).setup(mutator);
     } catch (Exception e) {
       ScanOperator.handleExceptionDuringScan(e, functionConfig.getFunctionContext().getReferencedTables(), logger);
@@ -187,7 +237,7 @@ public abstract class ScanTableFunction extends AbstractTableFunction {
       addBoostSplits();
       currentRecordReader.close();
       currentRecordReader = null;
-      if (!getRecordReaderIterator().hasNext()) {
+      if (!hasNextReader()) {
         return 0;
       }
 
@@ -223,16 +273,39 @@ public abstract class ScanTableFunction extends AbstractTableFunction {
     return;
   }
 
+  /**
+   * Whether the splits received by this table function may be read by any minor fragment of the scan on this node.
+   * False by default, as the splits may come with other columns of the incoming batch.
+   */
+  protected boolean supportsSplitDispatch() {
+    return false;
+  }
+
   public boolean hasBufferedRemaining() {
     produceFromBufferedSplits = true;
     getRecordReaderIterator().produceFromBuffered(true);
-    return getRecordReaderIterator().hasNext();
+    return getRecordReaderIterator().hasNext()
+      // queued splits are taken when producing from the row of the last incoming batch, if it is not empty
+      || (splitDispatcher != null && incoming.getRecordCount() > 0 && splitDispatcher.hasSplits(props.getOperatorId()));
   }
 
   protected void setIcebergColumnIds(byte[] extendedProperty) { }
 
   @Override
   public void workOnOOB(OutOfBandMessage message) {
+    if (ExecProtos.TopNThreshold.class.getName().equals(message.getPayload().getType())) {
+      // sort threshold published by a TopN of this fragment
+      final ExecProtos.TopNThreshold threshold = message.getPayload(ExecProtos.TopNThreshold.parser());
+      if (thresholdFilter == null) {
+        thresholdFilter = new ThresholdFilter(threshold);
+        Optional.ofNullable(currentRecordReader).ifPresent(c -> c.setThresholdFilter(thresholdFilter));
+      } else if (!thresholdFilter.update(threshold)) {
+        logger.debug("Ignoring TopN threshold on {}, a threshold on {} is already applied", threshold.getColumn(),
+          thresholdFilter.getColumn());
+      }
+      return;
+    }
+
     final String senderInfo = String.format("Frag %d, OpId %d", message.getSendingMajorFragmentId(), message.getSendingOperatorId());
     if (message.getBuffers()==null || message.getBuffers().length!=1) {
       logger.warn("Empty runtime filter received from {}", senderInfo);
@@ -32,7 +32,7 @@ import com.dremio.io.file.Path;
 import com.google.common.base.Preconditions;
 
 /**
- * Single object cache that holds the parquet footer for last file.
+ * Utilities to read parquet footers. Footers read by the readers are cached node-wide by {@link ParquetFooterCache}.
  */
 public class SingletonParquetFooterCache {
   private static final org.slf4j.Logger logger = org.slf4j.LoggerFactory.getLogger(SingletonParquetFooterCache.class);
@@ -43,21 +43,6 @@ public class SingletonParquetFooterCache {
   private static final int MAGIC_LENGTH = ParquetFileWriter.MAGIC.length;
   private static final int MIN_FILE_SIZE = ParquetFileWriter.MAGIC.length + FOOTER_METADATA_SIZE;
 
-  private ParquetMetadata footer;
-  private String lastFile;
-
-  public ParquetMetadata getFooter(BulkInputStream is, String path, long fileLength, FileSystem fs, long maxFooterLen) {
-    if (footer == null || !lastFile.equals(path)) {
-      try {
-        footer = readFooter(is, path, fileLength, fs, maxFooterLen);
-      } catch (IOException ioe) {
-        throw new RuntimeException("Failed to read parquet footer for file " + path, ioe);
-      }
-      lastFile = path;
-    }
-    return footer;
-  }
-
   private static void checkMagicBytes(String path, byte[] data, int offset) throws IOException {
     for(int i =0, v = offset; i < MAGIC_LENGTH; i++, v++){
       if(ParquetFileWriter.MAGIC[i] != data[v]){
@@ -90,12 +75,23 @@ public class SingletonParquetFooterCache {
     }
   }
 
-  private ParquetMetadata readFooter(BulkInputStream file, String path, long fileLength, FileSystem fs, long maxFooterLen) throws IOException {
-    return readFooter(file, path, fileLength, ParquetMetadataConverter.NO_FILTER, fs, maxFooterLen);
-  }
-
   private static ParquetMetadata readFooter(BulkInputStream file, String path, long fileLength, MetadataFilter filter, FileSystem fs,
                                             long maxFooterLen) throws IOException {
+    return parseFooter(readFooterBytes(file, path, fileLength, fs, maxFooterLen), filter);
+  }
+
+  /**
+   * Parses a footer previously read with {@link #readFooterBytes}
+   */
+  static ParquetMetadata parseFooter(byte[] footerBytes, MetadataFilter filter) throws IOException {
+    return ParquetFormatPlugin.parquetMetadataConverter.readParquetMetadata(new ByteArrayInputStream(footerBytes), filter);
+  }
+
+  /**
+   * Reads the serialized footer, without the trailing length and magic bytes
+   */
+  static byte[] readFooterBytes(BulkInputStream file, String path, long fileLength, FileSystem fs,
+                                long maxFooterLen) throws IOException {
     Preconditions.checkArgument(fileLength >= MIN_FILE_SIZE || fileLength == -1, "%s is not a Parquet file (too small)", path);
 
     if (fileLength == -1) {
@@ -129,6 +125,6 @@ public class SingletonParquetFooterCache {
       footerBytes = ArrayUtils.subarray(footerBytes, start, start + size);
     }
 
-    return ParquetFormatPlugin.parquetMetadataConverter.readParquetMetadata(new ByteArrayInputStream(footerBytes), filter);
+    return footerBytes;
   }
 }
@@ -37,6 +37,7 @@ import com.dremio.exec.planner.physical.visitor.GlobalDictionaryFieldInfo;
 import com.dremio.exec.record.BatchSchema;
 import com.dremio.exec.store.RecordReader;
 import com.dremio.exec.store.RuntimeFilter;
+import com.dremio.exec.store.ThresholdFilter;
 import com.dremio.io.file.FileSystem;
 import com.dremio.sabot.exec.context.OperatorContext;
 import com.dremio.sabot.exec.store.parquet.proto.ParquetProtobuf;
@@ -68,6 +69,7 @@ public abstract class TransactionalTableParquetReader implements RecordReader {
   protected final InputStreamProvider inputStreamProvider;
   protected UnifiedParquetReader currentReader;
   protected final List<RuntimeFilter> runtimeFilters = new ArrayList<>();
+  protected ThresholdFilter thresholdFilter;
 
   public TransactionalTableParquetReader(
     OperatorContext context,
@@ -213,6 +215,7 @@ public abstract class TransactionalTableParquetReader implements RecordReader {
             isConvertedIcebergDataset);
     currentReader.setIgnoreSchemaLearning(true);
     this.runtimeFilters.forEach(currentReader::addRuntimeFilter);
+    currentReader.setThresholdFilter(thresholdFilter);
     currentReader.setup(output);
   }
 
@@ -255,6 +258,14 @@ public abstract class TransactionalTableParquetReader implements RecordReader {
     }
   }
 
+  @Override
+  public void setThresholdFilter(ThresholdFilter thresholdFilter) {
+    this.thresholdFilter = thresholdFilter;
+    if (this.currentReader != null) {
+      this.currentReader.setThresholdFilter(thresholdFilter);
+    }
+  }
+
   @Override
   public void close() throws Exception {
     AutoCloseables.close(currentReader);
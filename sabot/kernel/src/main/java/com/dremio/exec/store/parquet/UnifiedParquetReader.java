@@ -64,6 +64,7 @@ import com.dremio.exec.store.AbstractRecordReader;
 import com.dremio.exec.store.CompositeColumnFilter;
 import com.dremio.exec.store.RecordReader;
 import com.dremio.exec.store.RuntimeFilter;
+import com.dremio.exec.store.ThresholdFilter;
 import com.dremio.exec.store.dfs.implicit.AdditionalColumnsRecordReader;
 import com.dremio.exec.store.dfs.implicit.ConstantColumnPopulators;
 import com.dremio.exec.store.iceberg.deletes.PositionalDeleteFilter;
@@ -118,6 +119,7 @@ public class UnifiedParquetReader implements RecordReader {
   private InputStreamProvider inputStreamProvider;
   private boolean ignoreSchemaLearning;
   private List<RuntimeFilter> runtimeFilters;
+  private ThresholdFilter thresholdFilter;
 
   private OutputMutator outputMutator;
   private ArrowBuf validityBuf;
@@ -954,6 +956,9 @@ public class UnifiedParquetReader implements RecordReader {
     if ((globalDictionaryFieldInfoMap != null && !globalDictionaryFieldInfoMap.isEmpty())) {
       return ExecutionPath.DEPRECATED_VECTORIZED;
     }
+    if (isRowGroupExcludedByRuntimeFilters() || isRowGroupExcludedByThresholdFilter()) {
+      return ExecutionPath.SKIP_ALL;
+    }
     if (!vectorize || !determineFilterConditions(nonVectorizableReaderColumns)) {
       return ExecutionPath.ROWWISE;
     }
@@ -966,6 +971,45 @@ public class UnifiedParquetReader implements RecordReader {
     return ExecutionPath.VECTORIZED;
   }
 
+  private boolean isRowGroupExcludedByRuntimeFilters() {
+    if (runtimeFilters.isEmpty() || !context.getOptions().getOption(ExecConstants.ENABLE_ROW_GROUP_RUNTIME_FILTERING)) {
+      return false;
+    }
+    final RowGroupRuntimeFilterEvaluator evaluator =
+      new RowGroupRuntimeFilterEvaluator(runtimeFilters, columnResolver::getParquetColumnName);
+    final List<BlockMetaData> blocks = footer.getBlocks();
+    final int rowGroupIdx = readEntry.getRowGroupIndex();
+    if (!evaluator.hasApplicableFilters() || blocks.size() <= rowGroupIdx || blocks.get(rowGroupIdx) == null) {
+      return false;
+    }
+    final boolean canBeSkipped = evaluator.canBeSkipped(blocks.get(rowGroupIdx),
+      inputStreamProvider::getColumnIndexProvider,
+      RowGroupRuntimeFilterEvaluator.newDictionaryReader(fs, inputStreamProvider.getStreamPath(),
+        footer.getFileMetaData().getSchema(), codecFactory));
+    if (canBeSkipped) {
+      context.getStats().addLongStat(Metric.NUM_ROW_GROUPS_PRUNED_BY_RUNTIME_FILTER, 1);
+    }
+    return canBeSkipped;
+  }
+
+  private boolean isRowGroupExcludedByThresholdFilter() {
+    if (thresholdFilter == null) {
+      return false;
+    }
+    final List<BlockMetaData> blocks = footer.getBlocks();
+    final int rowGroupIdx = readEntry.getRowGroupIndex();
+    final String parquetColumn = columnResolver.getParquetColumnName(thresholdFilter.getColumn());
+    if (parquetColumn == null || blocks.size() <= rowGroupIdx || blocks.get(rowGroupIdx) == null) {
+      return false;
+    }
+    final boolean canBeSkipped =
+      RowGroupRuntimeFilterEvaluator.canBeSkippedByThreshold(thresholdFilter, blocks.get(rowGroupIdx), parquetColumn);
+    if (canBeSkipped) {
+      context.getStats().addLongStat(Metric.NUM_ROW_GROUPS_PRUNED_BY_TOPN_THRESHOLD, 1);
+    }
+    return canBeSkipped;
+  }
+
   private boolean filterCanContainNull() {
     return !filters.hasPushdownFilters()
             && runtimeFilters
@@ -989,6 +1033,11 @@ public class UnifiedParquetReader implements RecordReader {
     }
   }
 
+  @Override
+  public void setThresholdFilter(ThresholdFilter thresholdFilter) {
+    this.thresholdFilter = thresholdFilter;
+  }
+
   /**
    * A simple RecordReader which applies positional deletes from a PositionalDeleteFilter to a delta vector.  This
    * is intended to be used as a reader executed prior to ParquetRowwiseReader in the ROWWISE execution path.
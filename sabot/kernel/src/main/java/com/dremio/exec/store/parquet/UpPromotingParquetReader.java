@@ -33,6 +33,7 @@ import com.dremio.exec.planner.physical.visitor.GlobalDictionaryFieldInfo;
 import com.dremio.exec.record.BatchSchema;
 import com.dremio.exec.store.RecordReader;
 import com.dremio.exec.store.RuntimeFilter;
+import com.dremio.exec.store.ThresholdFilter;
 import com.dremio.io.file.FileSystem;
 import com.dremio.sabot.exec.context.OperatorContext;
 import com.dremio.sabot.exec.store.parquet.proto.ParquetProtobuf.ParquetDatasetSplitScanXAttr;
@@ -69,6 +70,7 @@ public class UpPromotingParquetReader implements RecordReader {
   private List<Field> updatedColumns = Collections.emptyList();
 
   private List<RuntimeFilter> runtimeFilters = new ArrayList<>();
+  private ThresholdFilter thresholdFilter;
 
   public UpPromotingParquetReader(OperatorContext context, ParquetReaderFactory readerFactory,
                                   BatchSchema tableSchema, ParquetScanProjectedColumns projectedColumns,
@@ -140,6 +142,7 @@ public class UpPromotingParquetReader implements RecordReader {
       inputStreamProvider,
       new ArrayList<>());
     runtimeFilters.forEach(currentReader::addRuntimeFilter);
+    currentReader.setThresholdFilter(thresholdFilter);
     currentReader.setup(output);
   }
 
@@ -168,6 +171,14 @@ public class UpPromotingParquetReader implements RecordReader {
     }
   }
 
+  @Override
+  public void setThresholdFilter(ThresholdFilter thresholdFilter) {
+    this.thresholdFilter = thresholdFilter;
+    if (this.currentReader != null) {
+      this.currentReader.setThresholdFilter(thresholdFilter);
+    }
+  }
+
   @Override
   public void close() throws Exception {
     if (currentReader != null) {
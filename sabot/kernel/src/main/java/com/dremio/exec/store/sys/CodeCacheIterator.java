@@ -0,0 +1,84 @@
+/*
+ * Copyright (C) 2017-2019 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.exec.store.sys;
+
+import java.util.Iterator;
+
+import com.dremio.exec.compile.PersistentCodeCache;
+import com.dremio.exec.proto.CoordinationProtos.NodeEndpoint;
+import com.dremio.exec.server.SabotContext;
+
+/**
+ * Iterator over the statistics of the disk cache of compiled classes, one record per node
+ */
+public class CodeCacheIterator implements Iterator<Object> {
+
+  private boolean beforeFirst = true;
+  private final SabotContext dbContext;
+
+  public CodeCacheIterator(final SabotContext dbContext) {
+    this.dbContext = dbContext;
+  }
+
+  @Override
+  public boolean hasNext() {
+    return beforeFirst;
+  }
+
+  @Override
+  public Object next() {
+    if (!beforeFirst) {
+      throw new IllegalStateException();
+    }
+    beforeFirst = false;
+    final CodeCacheInfo info = new CodeCacheInfo();
+
+    final NodeEndpoint endpoint = dbContext.getEndpoint();
+    info.hostname = endpoint.getAddress();
+    info.fabric_port = endpoint.getFabricPort();
+
+    final PersistentCodeCache codeCache = dbContext.getCompiler().getCodeCache();
+    info.enabled = codeCache != null;
+    if (codeCache != null) {
+      info.entries = codeCache.getNumEntries();
+      info.size_bytes = codeCache.getSizeBytes();
+      info.max_size_bytes = codeCache.getMaxSizeBytes();
+      info.hits = codeCache.getHits();
+      info.misses = codeCache.getMisses();
+      info.writes = codeCache.getWrites();
+      info.evictions = codeCache.getEvictions();
+    }
+    return info;
+  }
+
+  @Override
+  public void remove() {
+    throw new UnsupportedOperationException();
+  }
+
+  public static class CodeCacheInfo {
+    public String hostname;
+    public long fabric_port;
+    public boolean enabled;
+    public long entries;
+    public long size_bytes;
+    public long max_size_bytes;
+    public long hits;
+    public long misses;
+    public long writes;
+    public long evictions;
+  }
+}
@@ -103,6 +103,13 @@ public enum SystemTable implements DatasetHandle, DatasetMetadata, PartitionChun
     }
   },
 
+  CODE_CACHE(true, CodeCacheIterator.CodeCacheInfo.class, "code_cache") {
+    @Override
+    public Iterator<?> getIterator(final SabotContext sContext, final OperatorContext context) {
+      return new CodeCacheIterator(sContext);
+    }
+  },
+
   THREADS(true, ThreadsIterator.ThreadSummary.class, "threads") {
     @Override
     public Iterator<?> getIterator(final SabotContext sContext, final OperatorContext context) {
@@ -0,0 +1,475 @@
+/*
+ * Copyright (C) 2017-2019 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.exec.util;
+
+import static org.apache.arrow.util.Preconditions.checkArgument;
+import static org.apache.arrow.util.Preconditions.checkNotNull;
+
+import java.nio.charset.StandardCharsets;
+import java.util.function.IntPredicate;
+import java.util.function.IntToLongFunction;
+
+import javax.annotation.concurrent.NotThreadSafe;
+
+import org.apache.arrow.memory.ArrowBuf;
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.vector.BaseFixedWidthVector;
+import org.apache.arrow.vector.BaseVariableWidthVector;
+import org.apache.arrow.vector.FieldVector;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.dremio.common.AutoCloseables;
+import com.dremio.common.expression.fn.impl.MurmurHash3;
+import com.google.common.annotations.VisibleForTesting;
+
+import io.netty.util.internal.PlatformDependent;
+
+/**
+ * Split block Bloom filter, used for the partition column runtime filters, and for the bloom section of
+ * {@link ValueListWithBloomFilter}.
+ * <b>The class is not thread safe while adding or checking memberships.</b>
+ * <p>
+ * The filter is an array of 32 byte blocks, each made of eight 32 bit words. A key is mapped to a single
+ * block using the upper half of its 64 bit hash, and sets one bit in each word of that block, derived from the
+ * lower half of the hash multiplied by a different odd constant per word. Checking a key therefore touches
+ * a single cache line, whatever the number of bits per key, and the eight word tests are independent of each
+ * other so they can be evaluated without branches.
+ * <p>
+ * The filter is sized from the number of distinct keys expected on the build side, rounded up to a power of two
+ * blocks. A key of a filter with n blocks is then in block (i >> k) of a filter with n >> k blocks, if it is in
+ * block i of the larger one, so filters built by different fragments can be merged whatever their sizes. The
+ * blocks are followed by 32 meta bytes (24 bytes for the name and 8 bytes for the number of bits set), and the
+ * buffer is sent across fragments as is. Its layout is {@link #FORMAT_VERSION}.
+ */
+@NotThreadSafe
+public class BlockedBloomFilter implements AutoCloseable {
+  private static final Logger logger = LoggerFactory.getLogger(BlockedBloomFilter.class);
+
+  /**
+   * Version of the serialized layout, sent along with the filter so that a receiver doesn't misread the bits of
+   * another layout.
+   */
+  public static final int FORMAT_VERSION = 1;
+
+  static final int BLOCK_BYTES = 32;
+  private static final int WORDS_PER_BLOCK = 8;
+  private static final int META_BYTES_CNT = 32;
+  private static final int NAME_BYTES_CNT = 24;
+  // bits per distinct key giving a false positive probability of about 1% with eight bits set per key
+  private static final int BITS_PER_KEY = 12;
+  private static final double MAX_FPP = 0.05;
+  private static final int SEED = 0;
+  private static final int[] SALT = {
+    0x47b6137b, 0x44974d91, 0x8824ad5b, 0xa2b7289d, 0x705495c7, 0x2df1424b, 0x9efc4947, 0x5c6bfb31};
+
+  private final String name;
+  private final ArrowBuf dataBuffer;
+  private final int numBlocks;
+  private final long numBitsSetLoc;
+
+  /**
+   * Allocates an empty filter, sized for the expected number of distinct keys
+   *
+   * @param allocator allocator for the filter buffer
+   * @param name name of the filter, only the last 24 bytes are kept
+   * @param expectedInsertions number of distinct keys expected
+   * @param maxSizeBytes maximum size of the filter, including the meta bytes
+   */
+  public BlockedBloomFilter(BufferAllocator allocator, String name, long expectedInsertions, long maxSizeBytes) {
+    checkNotNull(allocator);
+    checkArgument(maxSizeBytes >= BLOCK_BYTES + META_BYTES_CNT, "Invalid max size %s", maxSizeBytes);
+    this.numBlocks = Math.toIntExact(Math.min(getOptimalNumBlocks(Math.max(1, expectedInsertions)),
+      Long.highestOneBit((maxSizeBytes - META_BYTES_CNT) / BLOCK_BYTES)));
+    this.dataBuffer = allocator.buffer(getDataSize(numBlocks) + META_BYTES_CNT);
+    dataBuffer.setZero(0, dataBuffer.capacity());
+
+    final byte[] nameBytes = new byte[NAME_BYTES_CNT];
+    final byte[] nameBytesAll = name.getBytes(StandardCharsets.UTF_8);
+    System.arraycopy(nameBytesAll, Math.max(0, nameBytesAll.length - NAME_BYTES_CNT), nameBytes, 0,
+      Math.min(NAME_BYTES_CNT, nameBytesAll.length));
+    dataBuffer.setBytes(getDataSize(numBlocks), nameBytes);
+    this.name = new String(nameBytes, StandardCharsets.UTF_8);
+    this.numBitsSetLoc = dataBuffer.memoryAddress() + getDataSize(numBlocks) + NAME_BYTES_CNT;
+    logger.debug("Blocked bloomfilter {} set up with {} blocks.", this.name, numBlocks);
+  }
+
+  private BlockedBloomFilter(ArrowBuf dataBuffer) {
+    checkNotNull(dataBuffer);
+    final long dataSize = dataBuffer.capacity() - META_BYTES_CNT;
+    checkArgument(dataSize > 0 && dataSize % BLOCK_BYTES == 0 && Long.bitCount(dataSize / BLOCK_BYTES) == 1,
+      "Invalid blocked bloomfilter size %s", dataBuffer.capacity());
+    this.dataBuffer = dataBuffer;
+    this.numBlocks = Math.toIntExact(dataSize / BLOCK_BYTES);
+
+    final byte[] nameBytes = new byte[NAME_BYTES_CNT];
+    dataBuffer.getBytes(dataSize, nameBytes);
+    this.name = new String(nameBytes, StandardCharsets.UTF_8);
+    this.numBitsSetLoc = dataBuffer.memoryAddress() + dataSize + NAME_BYTES_CNT;
+  }
+
+  /**
+   * Deserialization helper, that prepares the filter from a buffer received from another fragment.
+   * The filter takes ownership of the buffer.
+   *
+   * @param dataBuffer buffer containing the filter blocks followed by the meta bytes
+   * @return the filter
+   */
+  public static BlockedBloomFilter prepareFrom(ArrowBuf dataBuffer) {
+    return new BlockedBloomFilter(dataBuffer);
+  }
+
+  /**
+   * Returns the size of the filter for "n" distinct keys, including the meta bytes
+   *
+   * @param expectedInsertions number of expected distinct keys
+   * @return size in bytes
+   */
+  public static long getOptimalSize(long expectedInsertions) {
+    return getOptimalNumBlocks(expectedInsertions) * BLOCK_BYTES + META_BYTES_CNT;
+  }
+
+  /**
+   * Returns the number of blocks needed for "n" distinct keys, rounded up to a power of two
+   */
+  static long getOptimalNumBlocks(long expectedInsertions) {
+    final long numBlocks = getMinNumBlocks(expectedInsertions);
+    return numBlocks == 1 ? 1 : Long.highestOneBit(numBlocks - 1) << 1;
+  }
+
+  /**
+   * Returns the smallest number of blocks giving the target false positive probability for "n" distinct keys
+   */
+  static long getMinNumBlocks(long expectedInsertions) {
+    checkArgument(expectedInsertions > 0);
+    return (expectedInsertions * BITS_PER_KEY + BLOCK_BYTES * 8 - 1) / (BLOCK_BYTES * 8);
+  }
+
+  public String getName() {
+    return name;
+  }
+
+  public long getSizeInBytes() {
+    return dataBuffer.capacity();
+  }
+
+  public int getNumBlocks() {
+    return numBlocks;
+  }
+
+  /**
+   * Number of bits set per key, reported as the number of hash functions of the filter.
+   */
+  public int getNumHashFunctions() {
+    return WORDS_PER_BLOCK;
+  }
+
+  /**
+   * Returns the data buffer, which has the filter bits set. The buffer is released when the filter is closed.
+   */
+  public ArrowBuf getDataBuffer() {
+    dataBuffer.readerIndex(0);
+    dataBuffer.writerIndex(dataBuffer.capacity());
+    return dataBuffer;
+  }
+
+  /**
+   * Adds the key to the filter.
+   *
+   * @param bloomFilterKey buffer containing the key, starting at index zero
+   * @param length length of the key
+   * @return true if it caused a change in the state, in which case the key is inserted for the first time
+   */
+  public boolean put(ArrowBuf bloomFilterKey, int length) {
+    return putHash(MurmurHash3.murmur3_128(0, length, bloomFilterKey, SEED).getHash1());
+  }
+
+  /**
+   * Checks if a key is currently present in the filter. false result indicates key is not present.
+   *
+   * @param bloomFilterKey buffer containing the key, starting at index zero
+   * @param length length of the key
+   */
+  public boolean mightContain(ArrowBuf bloomFilterKey, int length) {
+    return mightContainHash(MurmurHash3.murmur3_128(0, length, bloomFilterKey, SEED).getHash1());
+  }
+
+  /**
+   * Adds a key, given its 64 bit hash
+   *
+   * @return true if it caused a change in the state
+   */
+  public boolean putHash(long hash) {
+    final int newBits = insert(dataBuffer.memoryAddress(), numBlocks, hash);
+    if (newBits == 0) {
+      return false;
+    }
+    setNumBitsSet(getNumBitsSet() + newBits);
+    return true;
+  }
+
+  /**
+   * Checks a key, given its 64 bit hash
+   */
+  public boolean mightContainHash(long hash) {
+    return contains(dataBuffer.memoryAddress(), numBlocks, hash);
+  }
+
+  /**
+   * Adds the non null values of a vector to the filter. Values are hashed the same way as in
+   * {@link #mightContain(FieldVector, int, ArrowBuf)}, which is not the same as the keys given as a buffer.
+   *
+   * @param vector fixed width or variable width vector
+   * @param recordCount number of records to add
+   */
+  public void put(FieldVector vector, int recordCount) {
+    final IntToLongFunction hasher = newHasher(vector);
+    final long blocksAddr = dataBuffer.memoryAddress();
+    final long validityAddr = vector.getValidityBufferAddress();
+    long numBitsSet = getNumBitsSet();
+    for (int i = 0; i < recordCount; i++) {
+      if (isSet(validityAddr, i)) {
+        numBitsSet += insert(blocksAddr, numBlocks, hasher.applyAsLong(i));
+      }
+    }
+    setNumBitsSet(numBitsSet);
+  }
+
+  /**
+   * Checks a batch of values against the filter. Null values never match.
+   *
+   * @param vector fixed width or variable width vector
+   * @param recordCount number of records to check
+   * @param matches bitmap of at least (recordCount + 7) / 8 bytes, where bit i is set if record i might be present
+   * @return number of records that might be present
+   */
+  public int mightContain(FieldVector vector, int recordCount, ArrowBuf matches) {
+    final IntToLongFunction hasher = newHasher(vector);
+    final long blocksAddr = dataBuffer.memoryAddress();
+    final int numBlocks = this.numBlocks;
+    return probe(vector, recordCount, matches, i -> contains(blocksAddr, numBlocks, hasher.applyAsLong(i)));
+  }
+
+  /**
+   * Merges the bits from another filter into this one. The filters may have different sizes: blocks of a larger
+   * filter are folded into the block they map to in this one, and blocks of a smaller filter are copied to all the
+   * blocks of this one mapping to them. Either way, keys of both filters are present in the merged one.
+   * <p>
+   * The filter passed in the parameter will be accessed in read only mode.
+   */
+  public void merge(BlockedBloomFilter that) {
+    checkArgument(this != that, "Can't merge with the same BlockedBloomFilter object.");
+
+    final long thisMemPos = this.dataBuffer.memoryAddress();
+    final long thatMemPos = that.dataBuffer.memoryAddress();
+    long numBitsSet = getNumBitsSet();
+    if (that.numBlocks >= this.numBlocks) {
+      final int shift = Integer.numberOfTrailingZeros(that.numBlocks / this.numBlocks);
+      for (int i = 0; i < that.numBlocks; i++) {
+        numBitsSet += mergeBlock(thisMemPos + getDataSize(i >>> shift), thatMemPos + getDataSize(i));
+      }
+    } else {
+      final int shift = Integer.numberOfTrailingZeros(this.numBlocks / that.numBlocks);
+      for (int i = 0; i < this.numBlocks; i++) {
+        numBitsSet += mergeBlock(thisMemPos + getDataSize(i), thatMemPos + getDataSize(i >>> shift));
+      }
+    }
+    setNumBitsSet(numBitsSet);
+  }
+
+  /**
+   * Returns the probability that {@linkplain #mightContain(ArrowBuf, int)} will erroneously return {@code true}
+   * for a key that has not actually been put in the filter, assuming the keys are evenly spread over the blocks.
+   */
+  public double getExpectedFPP() {
+    return Math.pow((double) getNumBitsSet() / (getDataSize(numBlocks) * 8), WORDS_PER_BLOCK);
+  }
+
+  /**
+   * Returns true if expected FPP is greater than five times the target FPP (0.01)
+   */
+  public boolean isCrossingMaxFPP() {
+    return getExpectedFPP() > MAX_FPP;
+  }
+
+  /**
+   * Maximum distinct keys that can be inserted to stay around the target false positive probability.
+   */
+  public long getOptimalInsertions() {
+    return getDataSize(numBlocks) * 8 / BITS_PER_KEY;
+  }
+
+  @VisibleForTesting
+  public long getNumBitsSet() {
+    return PlatformDependent.getLong(numBitsSetLoc);
+  }
+
+  private void setNumBitsSet(long newVal) {
+    PlatformDependent.putLong(numBitsSetLoc, newVal);
+  }
+
+  public BlockedBloomFilter createCopy(BufferAllocator allocator) {
+    try (AutoCloseables.RollbackCloseable rollbackCloseable = new AutoCloseables.RollbackCloseable()) {
+      final ArrowBuf copy = rollbackCloseable.add(allocator.buffer(dataBuffer.capacity()));
+      PlatformDependent.copyMemory(dataBuffer.memoryAddress(), copy.memoryAddress(), dataBuffer.capacity());
+      final BlockedBloomFilter copyFilter = BlockedBloomFilter.prepareFrom(copy);
+      rollbackCloseable.commit();
+      return copyFilter;
+    } catch (Exception e) {
+      logger.error("Error while creating a copy of the blocked bloom filter " + this.name, e);
+      throw new RuntimeException(e);
+    }
+  }
+
+  @Override
+  public String toString() {
+    return "BlockedBloomFilter{" +
+      "name='" + name + '\'' +
+      ", numBlocks=" + numBlocks +
+      ", numBitsSet=" + getNumBitsSet() +
+      ", expectedFpp=" + getExpectedFPP() +
+      '}';
+  }
+
+  @Override
+  public void close() {
+    logger.debug("Closing blocked bloomfilter {}'s data buffer. RefCount {}", this.name, dataBuffer.refCnt());
+    try {
+      dataBuffer.close();
+    } catch (Exception e) {
+      logger.error("Error while closing blocked bloomfilter " + this.name, e);
+    }
+  }
+
+  /**
+   * Hash of a fixed width value of up to 8 bytes, as used by the vector based methods
+   */
+  static long hashLong(long value) {
+    return MurmurHash3.fmix64(value);
+  }
+
+  /**
+   * Sets the bits of a key in the blocks starting at the given address
+   *
+   * @return number of bits newly set
+   */
+  static int insert(long blocksAddr, int numBlocks, long hash) {
+    final long blockAddr = getBlockAddress(blocksAddr, numBlocks, hash);
+    final int key = (int) hash;
+    int newBits = 0;
+    for (int i = 0; i < WORDS_PER_BLOCK; i++) {
+      final long wordAddr = blockAddr + i * 4;
+      final int word = PlatformDependent.getInt(wordAddr);
+      final int mask = 1 << ((key * SALT[i]) >>> 27);
+      newBits += Integer.bitCount(mask & ~word);
+      PlatformDependent.putInt(wordAddr, word | mask);
+    }
+    return newBits;
+  }
+
+  /**
+   * Checks the bits of a key in the blocks starting at the given address
+   */
+  static boolean contains(long blocksAddr, int numBlocks, long hash) {
+    final long blockAddr = getBlockAddress(blocksAddr, numBlocks, hash);
+    final int key = (int) hash;
+    int missing = 0;
+    // no early exit, so that the word tests don't depend on each other
+    for (int i = 0; i < WORDS_PER_BLOCK; i++) {
+      missing |= ~PlatformDependent.getInt(blockAddr + i * 4) & (1 << ((key * SALT[i]) >>> 27));
+    }
+    return missing == 0;
+  }
+
+  /**
+   * Checks the non null records of a vector, eight at a time so that the matches are written a byte at a time.
+   *
+   * @return number of records that might be present
+   */
+  static int probe(FieldVector vector, int recordCount, ArrowBuf matches, IntPredicate mightContain) {
+    checkArgument(matches.capacity() >= (recordCount + 7) / 8, "Match bitmap too small for %s records", recordCount);
+    final long validityAddr = vector.getValidityBufferAddress();
+    final long matchesAddr = matches.memoryAddress();
+    int matchCount = 0;
+    for (int start = 0; start < recordCount; start += 8) {
+      final int end = Math.min(start + 8, recordCount);
+      final int validity = PlatformDependent.getByte(validityAddr + (start >>> 3)) & 0xFF;
+      int matchByte = 0;
+      for (int i = start; i < end; i++) {
+        final int bit = i & 7;
+        if (((validity >>> bit) & 1) != 0 && mightContain.test(i)) {
+          matchByte |= 1 << bit;
+        }
+      }
+      PlatformDependent.putByte(matchesAddr + (start >>> 3), (byte) matchByte);
+      matchCount += Integer.bitCount(matchByte);
+    }
+    return matchCount;
+  }
+
+  private static long getBlockAddress(long blocksAddr, int numBlocks, long hash) {
+    // multiply and shift instead of a modulo; with a power of two block count, this takes the upper bits of the hash
+    final long blockIndex = ((hash >>> 32) * numBlocks) >>> 32;
+    return blocksAddr + blockIndex * BLOCK_BYTES;
+  }
+
+  /**
+   * ORs a block into another one
+   *
+   * @return number of bits newly set
+   */
+  private static int mergeBlock(long thisBlockAddr, long thatBlockAddr) {
+    int newBits = 0;
+    for (int pos = 0; pos < BLOCK_BYTES; pos += 8) {
+      final long thisBits = PlatformDependent.getLong(thisBlockAddr + pos);
+      final long mergedBits = thisBits | PlatformDependent.getLong(thatBlockAddr + pos);
+      PlatformDependent.putLong(thisBlockAddr + pos, mergedBits);
+      newBits += Long.bitCount(mergedBits) - Long.bitCount(thisBits);
+    }
+    return newBits;
+  }
+
+  private static long getDataSize(int numBlocks) {
+    return (long) numBlocks * BLOCK_BYTES;
+  }
+
+  private static boolean isSet(long validityAddr, int index) {
+    return ((PlatformDependent.getByte(validityAddr + (index >>> 3)) >>> (index & 7)) & 1) != 0;
+  }
+
+  private static IntToLongFunction newHasher(FieldVector vector) {
+    if (vector instanceof BaseVariableWidthVector) {
+      final ArrowBuf data = vector.getDataBuffer();
+      final long offsetAddr = vector.getOffsetBufferAddress();
+      return i -> MurmurHash3.murmur3_128(PlatformDependent.getInt(offsetAddr + 4L * i),
+        PlatformDependent.getInt(offsetAddr + 4L * (i + 1)), data, SEED).getHash1();
+    }
+
+    checkArgument(vector instanceof BaseFixedWidthVector && ((BaseFixedWidthVector) vector).getTypeWidth() > 0,
+      "Unsupported vector type %s", vector.getMinorType());
+    final int width = ((BaseFixedWidthVector) vector).getTypeWidth();
+    final long dataAddr = vector.getDataBufferAddress();
+    switch (width) {
+      case 4:
+        return i -> hashLong(PlatformDependent.getInt(dataAddr + 4L * i));
+      case 8:
+        return i -> hashLong(PlatformDependent.getLong(dataAddr + 8L * i));
+      default:
+        final ArrowBuf data = vector.getDataBuffer();
+        return i -> MurmurHash3.murmur3_128((long) width * i, (long) width * (i + 1), data, SEED).getHash1();
+    }
+  }
+}
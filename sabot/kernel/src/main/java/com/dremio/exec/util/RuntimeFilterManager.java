@@ -66,14 +66,14 @@ public class RuntimeFilterManager implements AutoCloseable {
      * @param partitionColFilter
      * @throws Exception
      */
-    public RuntimeFilterManagerEntry coalesce(RuntimeFilter filter, Optional<BloomFilter> partitionColFilter,
+    public RuntimeFilterManagerEntry coalesce(RuntimeFilter filter, Optional<BlockedBloomFilter> partitionColFilter,
                                               List<ValueListFilter> nonPartitionColFilters, int minorFragmentId) {
         Optional<RuntimeFilterManagerEntry> filterEntry = filterEntries.stream().filter(f -> f.isTargetedToSameScan(filter)).findAny();
         if (filterEntry.isPresent()) {
             return merge(filter, partitionColFilter, nonPartitionColFilters, filterEntry.get(), minorFragmentId);
         } else {
             // Make a copy and refer it as base to merge into.
-            final Optional<BloomFilter> partitionColFilterCopy = partitionColFilter.map(f -> f.createCopy(allocator));
+            final Optional<BlockedBloomFilter> partitionColFilterCopy = partitionColFilter.map(f -> f.createCopy(allocator));
             final List<ValueListFilter> nonPartitionColFiltersCopy = nonPartitionColFilters.stream()
                     .map(v -> v.createCopy(allocator)).collect(Collectors.toList());
             final RuntimeFilterManagerEntry newEntry = new RuntimeFilterManagerEntry(filter, allMinorFragments,
@@ -94,7 +94,7 @@ public class RuntimeFilterManager implements AutoCloseable {
      * @param minorFragmentId
      */
     private RuntimeFilterManagerEntry merge(RuntimeFilter filterPiece,
-                                            Optional<BloomFilter> partitionColFilter,
+                                            Optional<BlockedBloomFilter> partitionColFilter,
                                             List<ValueListFilter> nonPartitionColFilters,
                                             RuntimeFilterManagerEntry baseEntry,
                                             int minorFragmentId) {
@@ -177,12 +177,12 @@ public class RuntimeFilterManager implements AutoCloseable {
     public class RuntimeFilterManagerEntry implements AutoCloseable {
         private RuntimeFilter compositeFilter;
         private Set<Integer> remainingMinorFragments = new HashSet<>();
-        private BloomFilter partitionColFilter;
+        private BlockedBloomFilter partitionColFilter;
         private Map<String, ValueListFilter> nonPartitionColFilters;
         private boolean isDroppedFromProcessing = false;
 
         private RuntimeFilterManagerEntry(RuntimeFilter compositeFilter, Set<Integer> remainingMinorFragments,
-                                          Optional<BloomFilter> partitionColFilter, List<ValueListFilter> nonPartitionColFilters) {
+                                          Optional<BlockedBloomFilter> partitionColFilter, List<ValueListFilter> nonPartitionColFilters) {
             this.compositeFilter = compositeFilter;
             this.remainingMinorFragments.addAll(remainingMinorFragments);
             this.partitionColFilter = partitionColFilter.orElse(null);
@@ -198,7 +198,7 @@ public class RuntimeFilterManager implements AutoCloseable {
             return remainingMinorFragments;
         }
 
-        public BloomFilter getPartitionColFilter() {
+        public BlockedBloomFilter getPartitionColFilter() {
             return partitionColFilter;
         }
 
@@ -240,7 +240,7 @@ public class RuntimeFilterManager implements AutoCloseable {
                     && this.compositeFilter.getProbeScanOperatorId()==that.getProbeScanOperatorId();
         }
 
-        public void merge(Optional<BloomFilter> incomingFilter) {
+        public void merge(Optional<BlockedBloomFilter> incomingFilter) {
             if (this.partitionColFilter==null) {
                 return;
             }
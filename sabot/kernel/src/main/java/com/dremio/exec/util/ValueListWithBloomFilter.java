@@ -19,10 +19,18 @@ package com.dremio.exec.util;
 import static org.apache.arrow.util.Preconditions.checkArgument;
 
 import org.apache.arrow.memory.ArrowBuf;
+import org.apache.arrow.vector.BaseFixedWidthVector;
+import org.apache.arrow.vector.FieldVector;
 
 import com.dremio.common.expression.CompleteType;
 import com.dremio.common.util.MajorTypeHelper;
 
+import io.netty.util.internal.PlatformDependent;
+
+/**
+ * Value list filter with a split block bloom filter over the values, for int and bigint like fields. The bloom filter
+ * is built locally from the value list, after it is received.
+ */
 public class ValueListWithBloomFilter extends ValueListFilter {
   protected ArrowBuf bloomFilterSlice;
 
@@ -43,20 +51,42 @@ public class ValueListWithBloomFilter extends ValueListFilter {
 
   @Override
   public boolean mightBePresent(int key) {
-    int hash = hashInt(key);
-    return getBit(hash);
+    return BlockedBloomFilter.contains(bloomFilterSlice.memoryAddress(), getNumBlocks(), BlockedBloomFilter.hashLong(key));
   }
 
   @Override
   public boolean mightBePresent(long val) {
-    int hash = hashInt((int) (val ^ val >>> 32));
-    return getBit(hash);
+    return BlockedBloomFilter.contains(bloomFilterSlice.memoryAddress(), getNumBlocks(), BlockedBloomFilter.hashLong(val));
+  }
+
+  /**
+   * Checks a batch of values against the bloom filter. Null values never match.
+   *
+   * @param vector int, bigint, date, time or timestamp vector
+   * @param recordCount number of records to check
+   * @param matches bitmap of at least (recordCount + 7) / 8 bytes, where bit i is set if record i might be present
+   * @return number of records that might be present
+   */
+  public int mightBePresent(FieldVector vector, int recordCount, ArrowBuf matches) {
+    final int width = ((BaseFixedWidthVector) vector).getTypeWidth();
+    checkArgument(width == 4 || width == 8, "Unsupported vector type %s", vector.getMinorType());
+    final long blocksAddr = bloomFilterSlice.memoryAddress();
+    final int numBlocks = getNumBlocks();
+    final long dataAddr = vector.getDataBufferAddress();
+    if (width == 4) {
+      return BlockedBloomFilter.probe(vector, recordCount, matches, i -> BlockedBloomFilter.contains(blocksAddr,
+        numBlocks, BlockedBloomFilter.hashLong(PlatformDependent.getInt(dataAddr + 4L * i))));
+    }
+    return BlockedBloomFilter.probe(vector, recordCount, matches, i -> BlockedBloomFilter.contains(blocksAddr,
+      numBlocks, BlockedBloomFilter.hashLong(PlatformDependent.getLong(dataAddr + 8L * i))));
   }
 
   @Override
   public void buildBloomFilter() {
     long elements = 0, buffIndex = 0;
-    Object value;
+    final long blocksAddr = bloomFilterSlice.memoryAddress();
+    final int numBlocks = getNumBlocks();
+    bloomFilterSlice.setZero(0, BLOOM_FILTER_SIZE);
 
     CompleteType type = CompleteType.fromMinorType(
       MajorTypeHelper.getMinorTypeFromArrowMinorType(getFieldType()));
@@ -66,14 +96,12 @@ public class ValueListWithBloomFilter extends ValueListFilter {
         case DATE:
         case TIMESTAMP:
         case BIGINT:
-          value = valueListSlice.getLong(buffIndex);
-          insertIntoBloomFilter((long)value);
+          BlockedBloomFilter.insert(blocksAddr, numBlocks, BlockedBloomFilter.hashLong(valueListSlice.getLong(buffIndex)));
           buffIndex = buffIndex + 8;
           break;
         case TIME:
         case INT:
-          value = valueListSlice.getInt(buffIndex);
-          insertIntoBloomFilter((int)value);
+          BlockedBloomFilter.insert(blocksAddr, numBlocks, BlockedBloomFilter.hashLong(valueListSlice.getInt(buffIndex)));
           buffIndex = buffIndex + 4;
           break;
       }
@@ -81,38 +109,12 @@ public class ValueListWithBloomFilter extends ValueListFilter {
     }
   }
 
-  private void insertIntoBloomFilter(long val) {
-    int hashValue =  hashInt((int) (val ^ val >>> 32));
-    setBit(hashValue);
-  }
-
-  private void insertIntoBloomFilter(int val) {
-    int hashValue = hashInt(val);
-    setBit(hashValue);
-  }
-
-  private int hashInt(int val) {
-    return val ^ (val >>> 16) & 0xFFFF;
-  }
-
-  private void setBit(int pos) {
-    pos = Math.abs(pos);
-    pos = pos % (BLOOM_FILTER_SIZE * 8);
-    long bytePos = pos / 8;
-    long bitOffset = pos % 8;
-    byte byteAtPos = bloomFilterSlice.getByte(bytePos);
-
-    byteAtPos |= 1 << bitOffset;
-    bloomFilterSlice.writerIndex(bytePos).writeByte(byteAtPos);
-  }
-
-  private boolean getBit(long pos) {
-    pos = Math.abs(pos);
-    pos = pos % (BLOOM_FILTER_SIZE * 8);
-    long bytePos = pos / 8;
-    long bitOffset = pos % 8;
-
-    byte byteAtPos = bloomFilterSlice.getByte(bytePos);
-    return ((byteAtPos >> bitOffset) & 1) == 1;
+  /**
+   * Number of blocks of the bloom filter in use, sized from the number of values. Both the sender and the receiver
+   * derive it from the value count, so a small value list only touches the start of the slice.
+   */
+  private int getNumBlocks() {
+    return (int) Math.min(BlockedBloomFilter.getMinNumBlocks(Math.max(1, valueCount)),
+      BLOOM_FILTER_SIZE / BlockedBloomFilter.BLOCK_BYTES);
   }
 }
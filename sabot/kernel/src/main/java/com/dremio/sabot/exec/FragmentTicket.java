@@ -18,6 +18,7 @@ package com.dremio.sabot.exec;
 import org.apache.arrow.memory.BufferAllocator;
 
 import com.dremio.exec.proto.ExecProtos.FragmentHandle;
+import com.dremio.sabot.exec.fragment.SplitDispatcher;
 import com.dremio.sabot.task.AsyncTaskWrapper;
 import com.dremio.sabot.task.SchedulingGroup;
 import com.google.common.base.Preconditions;
@@ -45,6 +46,14 @@ public class FragmentTicket implements AutoCloseable {
 
   public FragmentHandle getHandle() { return handle; }
 
+  public int getQueryWeight() {
+    return phaseTicket.getQueryTicket().getQueryWeight();
+  }
+
+  public SplitDispatcher getSplitDispatcher() {
+    return phaseTicket.getSplitDispatcher();
+  }
+
   public SchedulingGroup<AsyncTaskWrapper> getSchedulingGroup() {
     return schedulingGroup;
   }
@@ -22,6 +22,7 @@ import java.util.concurrent.ConcurrentHashMap;
 import org.apache.arrow.memory.BufferAllocator;
 
 import com.dremio.exec.proto.CoordExecRPC.NodePhaseStatus;
+import com.dremio.sabot.exec.fragment.SplitDispatcher;
 import com.google.common.collect.ImmutableList;
 
 /**
@@ -42,6 +43,7 @@ public class PhaseTicket extends TicketWithChildren {
   private final int majorFragmentId;
   private final int phaseWeight;
   private final Set<FragmentTicket> fragmentTickets = ConcurrentHashMap.newKeySet();
+  private final SplitDispatcher splitDispatcher = new SplitDispatcher();
 
   public PhaseTicket(QueryTicket queryTicket, int majorFragmentId, BufferAllocator allocator, int phaseWeight) {
     super(allocator);
@@ -68,6 +70,13 @@ public class PhaseTicket extends TicketWithChildren {
     return super.release();
   }
 
+  /**
+   * @return the split queues shared by the minor fragments of this phase on this node
+   */
+  public SplitDispatcher getSplitDispatcher() {
+    return splitDispatcher;
+  }
+
   public Collection<FragmentTicket> getFragmentTickets() {
     return ImmutableList.copyOf(fragmentTickets);
   }
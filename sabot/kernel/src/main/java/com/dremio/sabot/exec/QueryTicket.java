@@ -61,6 +61,7 @@ public class QueryTicket extends TicketWithChildren {
   private final Collection<NodePhaseStatus> completed = new ConcurrentLinkedQueue<>();
   private final long enqueuedTime;
   private final SchedulingGroup<AsyncTaskWrapper> queryGroup;
+  private final int queryWeight;
   private volatile NodeQueryStatus finalQueryStatus;
 
   public QueryTicket(WorkloadTicket workloadTicket, QueryId queryId, BufferAllocator allocator, NodeEndpoint foreman,
@@ -71,15 +72,23 @@ public class QueryTicket extends TicketWithChildren {
     this.foreman = foreman;
     this.assignment = assignment;
     this.enqueuedTime = enqueuedTime;
-    final int queryWeight = Math.min(expectedNumTickets, MAX_EXPECTED_SIZE);
+    final int expectedWeight = Math.min(expectedNumTickets, MAX_EXPECTED_SIZE);
+    this.queryWeight = (expectedWeight <= 0) ? 1 : expectedWeight;
     this.queryGroup = this.workloadTicket.getSchedulingGroup()
-      .addGroup((queryWeight <= 0) ? 1 : queryWeight, useWeightBasedScheduling);
+      .addGroup(queryWeight, useWeightBasedScheduling);
   }
 
   public QueryId getQueryId() {
     return queryId;
   }
 
+  /**
+   * @return weight of the query, relative to the other queries running on this node
+   */
+  public int getQueryWeight() {
+    return queryWeight;
+  }
+
   public NodeEndpoint getForeman() {
     return foreman;
   }
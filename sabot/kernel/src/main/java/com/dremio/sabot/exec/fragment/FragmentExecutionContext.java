@@ -32,13 +32,20 @@ public class FragmentExecutionContext {
   private final CatalogService sources;
   private final ListenableFuture<Boolean> cancelled;
   private final CoordExecRPC.QueryContextInformation queryContextInformation;
+  private final SplitDispatcher splitDispatcher;
 
   public FragmentExecutionContext(NodeEndpoint foreman, CatalogService sources, ListenableFuture<Boolean> cancelled, CoordExecRPC.QueryContextInformation context) {
+    this(foreman, sources, cancelled, context, null);
+  }
+
+  public FragmentExecutionContext(NodeEndpoint foreman, CatalogService sources, ListenableFuture<Boolean> cancelled,
+                                  CoordExecRPC.QueryContextInformation context, SplitDispatcher splitDispatcher) {
     super();
     this.foreman = foreman;
     this.sources = sources;
     this.cancelled = cancelled;
     this.queryContextInformation = context;
+    this.splitDispatcher = splitDispatcher;
   }
 
   public NodeEndpoint getForemanEndpoint(){
@@ -61,4 +68,12 @@ public class FragmentExecutionContext {
   public CoordExecRPC.QueryContextInformation getQueryContextInformation() {
     return queryContextInformation;
   }
+
+  /**
+   * @return the split queues shared with the other minor fragments of this phase on this node, or null if the
+   * fragment does not run on an executor
+   */
+  public SplitDispatcher getSplitDispatcher() {
+    return splitDispatcher;
+  }
 }
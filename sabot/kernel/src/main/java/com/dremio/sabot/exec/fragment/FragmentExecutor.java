@@ -161,6 +161,9 @@ public class FragmentExecutor implements MemoryArbiterTask {
 
   private final SharedResource allocatorLock;
 
+  // blocked while the fragment waits for a memory grant
+  private final SharedResource memoryGrantResource;
+
   // This is the weight assigned by the planner
   private final long fragmentWeight;
   // This is the weight assigned by the executor
@@ -169,7 +172,7 @@ public class FragmentExecutor implements MemoryArbiterTask {
 
   // This is used to keep track of fragments that use the memory arbiter
   private final MemoryArbiter memoryArbiter;
-  private long memoryGrantInBytes = 0;
+  private volatile long memoryGrantInBytes = 0;
 
   public FragmentExecutor(
       FragmentStatusReporter statusReporter,
@@ -232,6 +235,8 @@ public class FragmentExecutor implements MemoryArbiterTask {
     this.cancelled = SettableFuture.create();
     this.executionControls = executionControls;
     this.allocatorLock = sharedResources.getGroup(PIPELINE_RES_GRP).createResource("frag-allocator", SharedResourceType.UNKNOWN);
+    this.memoryGrantResource = sharedResources.getGroup(PIPELINE_RES_GRP).createResource(
+      "memory-grant-" + this.name, SharedResourceType.MEMORY_GRANT);
   }
 
   @Override
@@ -254,6 +259,26 @@ public class FragmentExecutor implements MemoryArbiterTask {
     return allocator.getAllocatedMemory();
   }
 
+  @Override
+  public String getQueryId() {
+    return QueryIdHelper.getQueryId(fragment.getHandle().getQueryId());
+  }
+
+  @Override
+  public long getQueryWeight() {
+    return ticket.getQueryWeight();
+  }
+
+  @Override
+  public void blockOnMemoryGrant() {
+    memoryGrantResource.markBlocked();
+  }
+
+  @Override
+  public void unblockOnMemoryGrant() {
+    memoryGrantResource.markAvailable();
+  }
+
   // TODO: Improve this based on actual usage
   private long getMemoryToAcquire() {
     return 16 * MB;
@@ -261,7 +286,11 @@ public class FragmentExecutor implements MemoryArbiterTask {
 
   private void postRunUpdate() {
     if (memoryArbiter != null) {
-      memoryArbiter.releaseMemoryGrant(this);
+      if (taskState == State.DONE) {
+        memoryArbiter.taskDone(this);
+      } else {
+        memoryArbiter.releaseMemoryGrant(this);
+      }
     }
     assert memoryGrantInBytes == 0 : "Memory grant should be 0";
   }
@@ -321,8 +350,10 @@ public class FragmentExecutor implements MemoryArbiterTask {
       if(!isSetup){
         stats.setupStarted();
         try {
-          if (memoryArbiter != null) {
-            memoryArbiter.acquireMemoryGrant(this, getMemoryToAcquire());
+          if (memoryArbiter != null && !memoryArbiter.acquireMemoryGrant(this, getMemoryToAcquire())) {
+            // the arbiter unblocks the fragment once the grant is assigned
+            taskState = State.BLOCKED_ON_SHARED_RESOURCE;
+            return;
           }
           setupExecution();
         } finally {
@@ -348,8 +379,10 @@ public class FragmentExecutor implements MemoryArbiterTask {
         pipeline.getTerminalOperator().receivingFragmentFinished(finishedFragment);
       }
 
-      if (memoryArbiter != null) {
-        memoryArbiter.acquireMemoryGrant(this, getMemoryToAcquire());
+      if (memoryArbiter != null && !memoryArbiter.acquireMemoryGrant(this, getMemoryToAcquire())) {
+        // the arbiter unblocks the fragment once the grant is assigned
+        taskState = State.BLOCKED_ON_SHARED_RESOURCE;
+        return;
       }
       // pump the pipeline
       taskState = pumper.run();
@@ -465,7 +498,7 @@ public class FragmentExecutor implements MemoryArbiterTask {
       functionLookupContextToUse = decimalFunctionLookupContext;
     }
     pipeline = PipelineCreator.get(
-        new FragmentExecutionContext(major.getForeman(), sources, cancelled, major.getContext()),
+        new FragmentExecutionContext(major.getForeman(), sources, cancelled, major.getContext(), ticket.getSplitDispatcher()),
         buffers,
         opCreator,
         contextCreator,
@@ -0,0 +1,104 @@
+/*
+ * Copyright (C) 2017-2019 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.sabot.exec.fragment;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+
+import com.dremio.exec.store.SplitAndPartitionInfo;
+
+/**
+ * Queues of splits shared by the minor fragments of a phase running on this node.
+ *
+ * The splits of a scan are assigned to its minor fragments up front, based on their block locations. When split
+ * dispatch is enabled, the scans hand the splits they receive to the queue of their operator instead of reading them,
+ * and pull splits back from it whenever they run out of readers. A minor fragment slowed down by large or slow files
+ * therefore leaves its pending splits to the other minor fragments of the scan on the same node, which keeps the
+ * splits on the node they were assigned to for locality.
+ *
+ * A minor fragment only completes once the queue of its scan is empty, so that every queued split is read, even if the
+ * fragment which received it already completed.
+ */
+public class SplitDispatcher {
+  private final ConcurrentMap<Integer, Queue<DispatchedSplit>> queues = new ConcurrentHashMap<>();
+
+  /**
+   * Queues splits received by a minor fragment.
+   *
+   * @param operatorId id of the scan operator
+   * @param minorFragmentId minor fragment which received the splits
+   * @param splits splits to queue
+   */
+  public void offer(int operatorId, int minorFragmentId, List<SplitAndPartitionInfo> splits) {
+    final Queue<DispatchedSplit> queue = queues.computeIfAbsent(operatorId, k -> new ConcurrentLinkedQueue<>());
+    for (SplitAndPartitionInfo split : splits) {
+      queue.add(new DispatchedSplit(minorFragmentId, split));
+    }
+  }
+
+  /**
+   * Takes splits from the queue of a scan operator, in the order they were queued.
+   *
+   * @param operatorId id of the scan operator
+   * @param maxSplits maximum number of splits to take
+   * @return the splits taken, empty if the queue is empty
+   */
+  public List<DispatchedSplit> poll(int operatorId, int maxSplits) {
+    final Queue<DispatchedSplit> queue = queues.get(operatorId);
+    final List<DispatchedSplit> splits = new ArrayList<>();
+    if (queue == null) {
+      return splits;
+    }
+    DispatchedSplit split;
+    while (splits.size() < maxSplits && (split = queue.poll()) != null) {
+      splits.add(split);
+    }
+    return splits;
+  }
+
+  /**
+   * @return true if the queue of a scan operator has splits
+   */
+  public boolean hasSplits(int operatorId) {
+    final Queue<DispatchedSplit> queue = queues.get(operatorId);
+    return queue != null && !queue.isEmpty();
+  }
+
+  /**
+   * A split in the queue, with the minor fragment which received it.
+   */
+  public static final class DispatchedSplit {
+    private final int minorFragmentId;
+    private final SplitAndPartitionInfo split;
+
+    DispatchedSplit(int minorFragmentId, SplitAndPartitionInfo split) {
+      this.minorFragmentId = minorFragmentId;
+      this.split = split;
+    }
+
+    public int getMinorFragmentId() {
+      return minorFragmentId;
+    }
+
+    public SplitAndPartitionInfo getSplit() {
+      return split;
+    }
+  }
+}
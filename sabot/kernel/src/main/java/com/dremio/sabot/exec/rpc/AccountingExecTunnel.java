@@ -58,4 +58,15 @@ public class AccountingExecTunnel {
     tunnel.sendOOBMessage(statusHandler, message);
   }
 
+  public boolean isInProcess() {
+    return tunnel.isInProcess();
+  }
+
+  /**
+   * @return number of messages sent through this tunnel that are not acknowledged yet
+   */
+  public int getOutstandingMessages() {
+    return monitor.getOutstandingMessages();
+  }
+
 }
@@ -35,6 +35,13 @@ public interface ExecTunnel {
 
   void informReceiverFinished(RpcOutcomeListener<GeneralRPCProtos.Ack> outcomeListener, ExecRPC.FinishedReceiver finishedReceiver);
 
+  /**
+   * @return true if batches sent through this tunnel do not leave the process
+   */
+  default boolean isInProcess() {
+    return false;
+  }
+
   static void checkFragmentHandle(ExecProtos.FragmentHandle handle) {
     Preconditions.checkState(handle.hasQueryId(), "must set query id");
     Preconditions.checkState(handle.hasMajorFragmentId(), "must set major fragment id");
@@ -50,6 +50,11 @@ public class InProcessExecTunnel implements ExecTunnel {
     this.allocator = allocator;
   }
 
+  @Override
+  public boolean isInProcess() {
+    return true;
+  }
+
   @Override
   public void sendStreamComplete(RpcOutcomeListener<GeneralRPCProtos.Ack> outcomeListener, ExecRPC.FragmentStreamComplete streamComplete) {
     try {
@@ -35,4 +35,14 @@ public interface MemoryArbiter {
    * @param memoryArbiterTask The task that acquired the grant
    */
   void releaseMemoryGrant(MemoryArbiterTask memoryArbiterTask);
+
+  /**
+   * Invoked once the task is done. Releases any grant still held by the task and
+   * removes it from the queue of tasks waiting for a grant
+   *
+   * @param memoryArbiterTask The completed task
+   */
+  default void taskDone(MemoryArbiterTask memoryArbiterTask) {
+    releaseMemoryGrant(memoryArbiterTask);
+  }
 }
@@ -29,7 +29,7 @@ public class MemoryArbiterFactory {
     if (sabotConfig.hasPath(DREMIO_MEMORY_ARBITER_CLASS)) {
       memoryArbiter = sabotConfig.getInstance(DREMIO_MEMORY_ARBITER_CLASS, MemoryArbiter.class, rootAllocator);
     } else {
-      memoryArbiter = new DefaultMemoryArbiter(rootAllocator);
+      memoryArbiter = new QueueingMemoryArbiter(rootAllocator);
     }
 
     return memoryArbiter;
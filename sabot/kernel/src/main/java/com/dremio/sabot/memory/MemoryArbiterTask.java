@@ -44,4 +44,30 @@ public interface MemoryArbiterTask {
    * @param memoryGrantInBytes Memory grant assigned in bytes
    */
   void setMemoryGrant(long memoryGrantInBytes);
+
+  /**
+   * Obtains the id of the query the task belongs to. Tasks of the same query share the query's
+   * portion of the memory
+   * @return
+   */
+  String getQueryId();
+
+  /**
+   * Returns the weight of the task's query, used to compute the fair share of the query
+   * @return
+   */
+  default long getQueryWeight() {
+    return 1;
+  }
+
+  /**
+   * Invoked from the task's thread when the grant could not be acquired. The task is expected to
+   * block until {@link #unblockOnMemoryGrant()} is invoked
+   */
+  void blockOnMemoryGrant();
+
+  /**
+   * Invoked, possibly from another thread, once the grant has been assigned to a blocked task
+   */
+  void unblockOnMemoryGrant();
 }
@@ -0,0 +1,177 @@
+/*
+ * Copyright (C) 2017-2019 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.sabot.memory;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.apache.arrow.memory.BufferAllocator;
+
+import com.dremio.common.memory.DremioRootAllocator;
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Preconditions;
+
+/**
+ * MemoryArbiter that tracks the outstanding grants against the memory available in the root allocator.<br>
+ * <br>
+ * A grant is acquired right away when the memory not yet allocated, nor granted to other tasks, can
+ * accommodate it and no other task is waiting. Otherwise the task is queued and blocked until enough
+ * memory is released. Queued tasks are served by weighted fair share: the waiting task whose query holds
+ * the fewest granted bytes relative to its weight goes first. A task is always granted memory when no
+ * other grant is outstanding, so that the node can always make progress.<br>
+ * <br>
+ * Tasks block on their own shared resource, so the time spent waiting in the queue is reported in the
+ * query profile as time blocked on {@code MEMORY_GRANT}.
+ */
+public class QueueingMemoryArbiter implements MemoryArbiter {
+  private static final org.slf4j.Logger logger = org.slf4j.LoggerFactory.getLogger(QueueingMemoryArbiter.class);
+
+  private final BufferAllocator rootAllocator;
+  // tasks waiting for a grant, in arrival order
+  private final Map<MemoryArbiterTask, Long> waitingTasks = new LinkedHashMap<>();
+  private final Map<String, QueryShare> queryShares = new HashMap<>();
+  private long outstandingGrants;
+
+  public QueueingMemoryArbiter(DremioRootAllocator rootAllocator) {
+    this((BufferAllocator) rootAllocator);
+  }
+
+  @VisibleForTesting
+  QueueingMemoryArbiter(BufferAllocator rootAllocator) {
+    this.rootAllocator = Preconditions.checkNotNull(rootAllocator);
+  }
+
+  @Override
+  public synchronized boolean acquireMemoryGrant(MemoryArbiterTask memoryArbiterTask, long memoryGrantInBytes) {
+    final long currentGrant = memoryArbiterTask.getMemoryGrant();
+    if (currentGrant >= memoryGrantInBytes) {
+      // either already granted, or the grant was assigned while the task was queued
+      return true;
+    }
+
+    if (waitingTasks.containsKey(memoryArbiterTask)) {
+      // woken up for another reason, keep waiting for the grant
+      memoryArbiterTask.blockOnMemoryGrant();
+      return false;
+    }
+
+    final long additionalBytes = memoryGrantInBytes - currentGrant;
+    if (waitingTasks.isEmpty() && canGrant(additionalBytes)) {
+      grant(memoryArbiterTask, additionalBytes);
+      return true;
+    }
+
+    logger.debug("Queueing task {} for a grant of {} bytes, {} bytes currently granted",
+      memoryArbiterTask.getTaskId(), additionalBytes, outstandingGrants);
+    waitingTasks.put(memoryArbiterTask, additionalBytes);
+    memoryArbiterTask.blockOnMemoryGrant();
+    return false;
+  }
+
+  @Override
+  public synchronized void releaseMemoryGrant(MemoryArbiterTask memoryArbiterTask) {
+    final long grant = memoryArbiterTask.getMemoryGrant();
+    if (grant == 0) {
+      return;
+    }
+
+    memoryArbiterTask.setMemoryGrant(0);
+    outstandingGrants -= grant;
+    final String queryId = memoryArbiterTask.getQueryId();
+    final QueryShare share = queryShares.get(queryId);
+    if (share != null) {
+      share.grantedBytes -= grant;
+      if (share.grantedBytes <= 0) {
+        queryShares.remove(queryId);
+      }
+    }
+    grantWaitingTasks();
+  }
+
+  @Override
+  public synchronized void taskDone(MemoryArbiterTask memoryArbiterTask) {
+    waitingTasks.remove(memoryArbiterTask);
+    releaseMemoryGrant(memoryArbiterTask);
+    // the task may have freed memory that some waiting task can use
+    grantWaitingTasks();
+  }
+
+  @VisibleForTesting
+  synchronized long getOutstandingGrants() {
+    return outstandingGrants;
+  }
+
+  @VisibleForTesting
+  synchronized int getNumWaitingTasks() {
+    return waitingTasks.size();
+  }
+
+  private boolean canGrant(long bytes) {
+    if (outstandingGrants == 0) {
+      return true;
+    }
+    final long available = rootAllocator.getLimit() - rootAllocator.getAllocatedMemory() - outstandingGrants;
+    return bytes <= available;
+  }
+
+  private void grant(MemoryArbiterTask memoryArbiterTask, long bytes) {
+    outstandingGrants += bytes;
+    queryShares.computeIfAbsent(memoryArbiterTask.getQueryId(), k -> new QueryShare()).grantedBytes += bytes;
+    memoryArbiterTask.setMemoryGrant(memoryArbiterTask.getMemoryGrant() + bytes);
+  }
+
+  /**
+   * Grants memory to the waiting tasks, by weighted fair share, as long as the next one fits
+   */
+  private void grantWaitingTasks() {
+    while (!waitingTasks.isEmpty()) {
+      Map.Entry<MemoryArbiterTask, Long> next = null;
+      double nextUsage = Double.MAX_VALUE;
+      for (Map.Entry<MemoryArbiterTask, Long> entry : waitingTasks.entrySet()) {
+        final double usage = getWeightedUsage(entry.getKey());
+        // strict comparison to preserve the arrival order between equals
+        if (usage < nextUsage) {
+          next = entry;
+          nextUsage = usage;
+        }
+      }
+
+      final MemoryArbiterTask task = next.getKey();
+      final long bytes = next.getValue();
+      if (!canGrant(bytes)) {
+        return;
+      }
+
+      waitingTasks.remove(task);
+      grant(task, bytes);
+      task.unblockOnMemoryGrant();
+    }
+  }
+
+  private double getWeightedUsage(MemoryArbiterTask memoryArbiterTask) {
+    final QueryShare share = queryShares.get(memoryArbiterTask.getQueryId());
+    final long granted = share == null ? 0 : share.grantedBytes;
+    return (double) granted / Math.max(memoryArbiterTask.getQueryWeight(), 1);
+  }
+
+  /**
+   * Memory currently granted to the tasks of a query
+   */
+  private static final class QueryShare {
+    private long grantedBytes;
+  }
+}
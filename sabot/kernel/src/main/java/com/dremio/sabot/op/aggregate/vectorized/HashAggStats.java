@@ -88,6 +88,17 @@ public class HashAggStats {
     OOB_DROP_NO_VICTIM, // Number of times OOB dropped spilling notification as all allocations were minimal.
     OOB_SPILL, // Spill was done due to oob.
     OOB_DROP_ALREADY_SPILLING, // Number of times operator dropped spilling notification as it was already spilling
+
+    // Streaming pre-aggregation metrics
+    STREAMING_PREAGG, // 1 if the first phase aggregation switched to streaming due to poor reduction
+    PREAGG_SAMPLED_GROUPS_PERCENT, // Groups per 100 input records observed when sampling the reduction
+    STREAMING_PREAGG_FLUSHES, // Number of times the in-memory partitions were output while streaming
+
+    // Asynchronous spill I/O metrics
+    SPILL_WRITE_WAIT_NANOS, // Time the operator was blocked waiting for spill writes
+    SPILL_READ_WAIT_NANOS, // Time the operator was blocked waiting for spill reads
+    SPILL_IO_WRITE_NANOS, // Time spent writing spill files in the background
+    SPILL_IO_READ_NANOS, // Time spent reading spill files in the background
     ;
 
     @Override
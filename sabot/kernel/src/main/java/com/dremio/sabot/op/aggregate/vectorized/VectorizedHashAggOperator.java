@@ -364,6 +364,14 @@ public class VectorizedHashAggOperator implements SingleInputOperator {
   public static final DoubleValidator OOB_SPILL_TRIGGER_HEADROOM_FACTOR = new RangeDoubleValidator("exec.operator.aggregate.vectorize.oob_trigger_headroom_factor", 0.0d, 10.0d, .2d);
   public static final BooleanValidator OOB_SPILL_TRIGGER_ENABLED = new BooleanValidator("exec.operator.aggregate.vectorize.oob_trigger_enabled", true);
   public static final BooleanValidator VECTORIZED_HASHAGG_ENABLE_MICRO_SPILLS = new BooleanValidator("exec.operator.aggregate.vectorize.enable_micro_spills", true);
+  /*
+   * The first phase of a two phase aggregation samples its reduction (groups per input record) once it has consumed
+   * the configured number of records. If there is little reduction, it stops building up its hash tables and instead
+   * flushes them downstream after every incoming batch, leaving the aggregation to the second phase.
+   */
+  public static final BooleanValidator VECTORIZED_HASHAGG_ENABLE_STREAMING_PREAGG = new BooleanValidator("exec.operator.aggregate.vectorize.streaming_preagg.enabled", true);
+  public static final PositiveLongValidator VECTORIZED_HASHAGG_STREAMING_PREAGG_SAMPLE_RECORDS = new PositiveLongValidator("exec.operator.aggregate.vectorize.streaming_preagg.sample_records", Integer.MAX_VALUE, 256 * 1024);
+  public static final DoubleValidator VECTORIZED_HASHAGG_STREAMING_PREAGG_MAX_GROUPS_RATIO = new RangeDoubleValidator("exec.operator.aggregate.vectorize.streaming_preagg.max_groups_ratio", 0.0d, 1.0d, .9d);
   /*
    * If variable column records size is much larger then default (15) size, let the vector created for new batches
    * can go up to 1M (256 * 4K). Config option can be used to reduce, if really needed.
@@ -452,6 +460,15 @@ public class VectorizedHashAggOperator implements SingleInputOperator {
   private final boolean enableSmallSpills;
   private ResumableInsertState resumableInsertState;
   private OperatorStateBeforeOOB operatorStateBeforeOOB;
+  /* streaming pre-aggregation state */
+  private boolean samplingReduction;
+  private final long reductionSampleRecords;
+  private final double maxGroupsRatio;
+  private long recordsSampled;
+  private long sampledGroupsPercent;
+  private boolean streamingPreAgg;
+  private boolean flushingPartitions;
+  private int streamingFlushes;
   private ForceSpillState forceSpillState;
   /**
    * This is used to read/write a spilled varlen accumulator from/to disk.
@@ -526,6 +543,9 @@ public class VectorizedHashAggOperator implements SingleInputOperator {
     this.resumableInsertState = null;
     this.operatorStateBeforeOOB = null;
     this.forceSpillState = null;
+    this.samplingReduction = popConfig.isPartialAggregation() && options.getOption(VECTORIZED_HASHAGG_ENABLE_STREAMING_PREAGG);
+    this.reductionSampleRecords = options.getOption(VECTORIZED_HASHAGG_STREAMING_PREAGG_SAMPLE_RECORDS);
+    this.maxGroupsRatio = options.getOption(VECTORIZED_HASHAGG_STREAMING_PREAGG_MAX_GROUPS_RATIO);
     logger.debug("partitions:{}, min-hashtable-size:{}, max-hashtable-batch-size:{} variable-width-key-size:{}",
       numPartitions, minHashTableSize, maxHashTableBatchSize, estimatedVariableWidthKeySize);
   }
@@ -867,6 +887,50 @@ public class VectorizedHashAggOperator implements SingleInputOperator {
       VariableLengthValidator.validateVariable(v, records);
     }
     consumeDataHelper(records);
+    if (samplingReduction || streamingPreAgg) {
+      checkForStreamingFlush(records);
+    }
+  }
+
+  /**
+   * In the first phase of a two phase aggregation, checks the reduction achieved so far once enough
+   * records have been sampled. If most records create a new group, there is no point in holding them
+   * (and spilling them) here, so the operator switches to streaming: the in-memory partitions are
+   * output after every incoming batch and the second phase does the aggregation.
+   *
+   * @param records number of records consumed from the incoming batch
+   */
+  private void checkForStreamingFlush(final int records) {
+    if (internalStateMachine != InternalState.NONE) {
+      /* the batch has not been fully consumed, we are spilling */
+      return;
+    }
+
+    if (samplingReduction) {
+      recordsSampled += records;
+      if (recordsSampled < reductionSampleRecords) {
+        return;
+      }
+      samplingReduction = false;
+      final long groups = getHashTableSize() + partitionSpillHandler.getTotalRecordsSpilled();
+      final double groupsRatio = (double) groups / recordsSampled;
+      sampledGroupsPercent = Math.round(groupsRatio * 100);
+      if (groupsRatio < maxGroupsRatio) {
+        return;
+      }
+      logger.debug("switching to streaming pre-aggregation, {} groups for {} records", groups, recordsSampled);
+      streamingPreAgg = true;
+    }
+
+    if (getHashTableSize() == 0) {
+      return;
+    }
+
+    /* output the in-memory partitions, and resume consuming with empty hash tables */
+    streamingFlushes++;
+    flushingPartitions = true;
+    state = State.CAN_PRODUCE;
+    internalStateMachine = InternalState.OUTPUT_INMEMORY_PARTITIONS;
   }
 
   /**
@@ -1988,6 +2052,13 @@ public class VectorizedHashAggOperator implements SingleInputOperator {
     stats.setLongStat(Metric.OOB_DROP_NO_VICTIM, oobDropNoVictim);
     stats.setLongStat(Metric.OOB_SPILL, oobSpills);
     stats.setLongStat(Metric.OOB_DROP_ALREADY_SPILLING, oobDropSpill);
+    stats.setLongStat(Metric.STREAMING_PREAGG, streamingPreAgg ? 1 : 0);
+    stats.setLongStat(Metric.PREAGG_SAMPLED_GROUPS_PERCENT, sampledGroupsPercent);
+    stats.setLongStat(Metric.STREAMING_PREAGG_FLUSHES, streamingFlushes);
+    stats.setLongStat(Metric.SPILL_WRITE_WAIT_NANOS, partitionSpillHandler.getSpillWriteWaitNanos());
+    stats.setLongStat(Metric.SPILL_READ_WAIT_NANOS, partitionSpillHandler.getSpillReadWaitNanos());
+    stats.setLongStat(Metric.SPILL_IO_WRITE_NANOS, partitionSpillHandler.getSpillIOWriteNanos());
+    stats.setLongStat(Metric.SPILL_IO_READ_NANOS, partitionSpillHandler.getSpillIOReadNanos());
 
     if (iterations == 1) {
       stats.setLongStat(Metric.ALLOCATED_FOR_FIXED_KEYS, statsHolder.allocatedForFixedBlocks);
@@ -2391,7 +2462,14 @@ public class VectorizedHashAggOperator implements SingleInputOperator {
   private int outputPartitions() throws Exception {
 
     if (outputPartitionIndex == numPartitions) {
-      postOutputProcessing();
+      if (flushingPartitions) {
+        /* streaming pre-aggregation, continue consuming incoming data */
+        flushingPartitions = false;
+        state = State.CAN_CONSUME;
+        internalStateMachine = InternalState.NONE;
+      } else {
+        postOutputProcessing();
+      }
       outputPartitionIndex = 0;
       outputBatchIndex = 0;
       return 0;
@@ -193,6 +193,11 @@ public class BoostTableFunction extends ParquetScanTableFunction {
     splitReaderCreatorIterator.addSplits(splits);
   }
 
+  @Override
+  protected boolean supportsSplitDispatch() {
+    return false;
+  }
+
   @Override
   protected void setSplitReaderCreatorIterator() throws IOException, ExecutionSetupException {
     splitReaderCreatorIterator = new ParquetSplitReaderCreatorIterator(fec, context, props, functionConfig, true, true);
@@ -27,7 +27,7 @@ import org.apache.commons.lang3.StringUtils;
 
 import com.dremio.common.AutoCloseables;
 import com.dremio.common.util.CloseableIterator;
-import com.dremio.exec.util.BloomFilter;
+import com.dremio.exec.util.BlockedBloomFilter;
 import com.dremio.exec.util.ValueListFilter;
 import com.dremio.exec.util.ValueListFilterBuilder;
 import com.google.common.base.Preconditions;
@@ -50,26 +50,22 @@ public class HashTableFilterUtil {
    * Prepares a bloomfilter from the selective field keys. Since this is an optimisation, errors are not propagated to
    * the consumer. Instead, they get an empty optional.
    * @param fieldNames
-   * @param sizeDynamically Size the filter according to the number of entries in table.
+   * @param expectedDistinctKeys Number of distinct keys the filter is sized for, including the keys of the filters
+   *                             of other fragments it is merged with.
    * @return
    */
-  public static Optional<BloomFilter> prepareBloomFilter(HashTable hashTable, BufferAllocator allocator, PivotDef pivot,
-                                                         List<String> fieldNames, boolean sizeDynamically, int maxKeySize) {
+  public static Optional<BlockedBloomFilter> prepareBloomFilter(HashTable hashTable, BufferAllocator allocator, PivotDef pivot,
+                                                                List<String> fieldNames, long expectedDistinctKeys, int maxKeySize) {
     if (CollectionUtils.isEmpty(fieldNames)) {
       return Optional.empty();
     }
 
-    final int hashTableSize = hashTable.size();
-    // Not dropping the filter even if expected size is more than max possible size since there could be repeated keys.
-    long bloomFilterSize = sizeDynamically ?
-      Math.min(BloomFilter.getOptimalSize(hashTableSize), BLOOMFILTER_MAX_SIZE) : BLOOMFILTER_MAX_SIZE;
-
-    final BloomFilter bloomFilter = new BloomFilter(allocator, Thread.currentThread().getName(), bloomFilterSize);
     try (AutoCloseables.RollbackCloseable closeOnError = new AutoCloseables.RollbackCloseable();
          CloseableIterator<HashTable.HashTableKeyAddress> hashTableKeyAddressIterator = hashTable.keyIterator();
          HashTableKeyReader keyReader = getKeyReaderBuilder(fieldNames, allocator, pivot).setMaxKeySize(maxKeySize).build()) {
-      closeOnError.add(bloomFilter);
-      bloomFilter.setup();
+      // Not dropping the filter even if expected size is more than max possible size since there could be repeated keys.
+      final BlockedBloomFilter bloomFilter = closeOnError.add(new BlockedBloomFilter(allocator,
+        Thread.currentThread().getName(), expectedDistinctKeys, BLOOMFILTER_MAX_SIZE));
 
       final ArrowBuf keyHolder = keyReader.getKeyHolder();
 
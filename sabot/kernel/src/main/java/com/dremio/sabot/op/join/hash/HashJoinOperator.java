@@ -49,6 +49,7 @@ import com.dremio.exec.record.VectorAccessible;
 import com.dremio.exec.record.VectorContainer;
 import com.dremio.options.Options;
 import com.dremio.options.TypeValidators.BooleanValidator;
+import com.dremio.options.TypeValidators.PositiveLongValidator;
 import com.dremio.options.TypeValidators.PowerOfTwoLongValidator;
 import com.dremio.options.TypeValidators.StringValidator;
 import com.dremio.sabot.exec.context.OperatorContext;
@@ -77,6 +78,13 @@ public class HashJoinOperator implements DualInputOperator {
 
   public static final BooleanValidator ENABLE_SPILL = new BooleanValidator("exec.op.join.spill", false);
   public static final PowerOfTwoLongValidator NUM_PARTITIONS = new PowerOfTwoLongValidator("exec.op.join.spill.num_partitions", 16, 8);
+  // Partition the build and probe sides on the key hash even when spilling is disabled, so that each probe hits a
+  // smaller, cache resident hash table. The partitioned join does not produce runtime filters yet, so joins that
+  // are planned with runtime filters are not partitioned.
+  public static final BooleanValidator ENABLE_RADIX_PARTITIONING = new BooleanValidator("exec.op.join.radix_partitioning", false);
+  // cache budget for the hash table of each radix partition, the partition count is derived from the build size
+  public static final PositiveLongValidator RADIX_PARTITION_CACHE_BYTES = new PositiveLongValidator("exec.op.join.radix_partitioning.cache_bytes", Long.MAX_VALUE, 1024 * 1024);
+  public static final PowerOfTwoLongValidator RADIX_MAX_PARTITIONS = new PowerOfTwoLongValidator("exec.op.join.radix_partitioning.max_partitions", 64, 32);
   // For unit tests, always use with DEBUG flag only.
   public static final StringValidator TEST_SPILL_MODE = new StringValidator("exec.op.join.spill.test_spill_mode", "none");
 
@@ -476,7 +484,7 @@ public class HashJoinOperator implements DualInputOperator {
     @Override
     public DualInputOperator create(OperatorContext context, HashJoinPOP config) throws ExecutionSetupException {
       if(config.isVectorize()) {
-        if (context.getOptions().getOption(ENABLE_SPILL)) {
+        if (context.getOptions().getOption(ENABLE_SPILL) || config.getRadixPartitions() > 0) {
           return new VectorizedSpillingHashJoinOperator(context, config);
         } else {
           return new VectorizedHashJoinOperator(context, config);
@@ -29,7 +29,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.dremio.common.AutoCloseables;
-import com.dremio.exec.util.BloomFilter;
+import com.dremio.exec.util.BlockedBloomFilter;
 import com.dremio.exec.util.ValueListFilter;
 import com.dremio.sabot.op.common.ht2.HashComputation;
 import com.dremio.sabot.op.common.ht2.PivotDef;
@@ -347,7 +347,7 @@ public class EightByteInnerLeftProbeOff implements JoinTable {
   }
 
   @Override
-  public Optional<BloomFilter> prepareBloomFilter(List<String> fieldNames, boolean sizeDynamically, int maxKeySize) {
+  public Optional<BlockedBloomFilter> prepareBloomFilter(List<String> fieldNames, long expectedDistinctKeys, int maxKeySize) {
     try {
       if (CollectionUtils.isEmpty(fieldNames)) {
         return Optional.empty();
@@ -358,7 +358,7 @@ public class EightByteInnerLeftProbeOff implements JoinTable {
         return Optional.empty();
       }
 
-      return map.prepareBloomFilter(sizeDynamically);
+      return map.prepareBloomFilter(expectedDistinctKeys);
     } catch (Exception e) {
       logger.warn("Error while creating bloomfilter for " + fieldNames, e);
       return Optional.empty();
@@ -19,7 +19,7 @@ import java.util.List;
 import java.util.Optional;
 import java.util.concurrent.TimeUnit;
 
-import com.dremio.exec.util.BloomFilter;
+import com.dremio.exec.util.BlockedBloomFilter;
 import com.dremio.exec.util.ValueListFilter;
 
 public interface JoinTable extends AutoCloseable {
@@ -54,11 +54,12 @@ public interface JoinTable extends AutoCloseable {
    * Prepares a bloomfilter from the selective field keys. Since this is an optimisation, errors are not propagated to
    * the consumer. Instead, they get an empty optional.
    * @param fieldNames
-   * @param sizeDynamically Size the filter according to the number of entries in table.
+   * @param expectedDistinctKeys Number of distinct keys the filter is sized for, including the keys of the filters
+   *                             of other fragments it is merged with.
    * @param maxKeySize Max key width
    * @return
    */
-  Optional<BloomFilter> prepareBloomFilter(List<String> fieldNames, boolean sizeDynamically, int maxKeySize);
+  Optional<BlockedBloomFilter> prepareBloomFilter(List<String> fieldNames, long expectedDistinctKeys, int maxKeySize);
 
   /**
    * Returns distinct keys for a given field. In case of composite keys, this method can be used to get distinct values
@@ -26,7 +26,7 @@ import org.apache.arrow.memory.BufferAllocator;
 
 import com.dremio.common.AutoCloseables;
 import com.dremio.common.AutoCloseables.RollbackCloseable;
-import com.dremio.exec.util.BloomFilter;
+import com.dremio.exec.util.BlockedBloomFilter;
 import com.dremio.sabot.op.common.ht2.FixedBlockVector;
 import com.dremio.sabot.op.common.ht2.HashComputation;
 import com.google.common.base.Preconditions;
@@ -429,14 +429,11 @@ public final class LBlockHashTableEight implements AutoCloseable {
     initTimer.stop();
   }
 
-  public Optional<BloomFilter> prepareBloomFilter(final boolean sizeDynamically) throws Exception {
-    final long bloomFilterSize = sizeDynamically ? Math.min(BloomFilter.getOptimalSize(size()),
-            BLOOMFILTER_MAX_SIZE) : BLOOMFILTER_MAX_SIZE;
+  public Optional<BlockedBloomFilter> prepareBloomFilter(final long expectedDistinctKeys) throws Exception {
     try (ArrowBuf keyHolder = allocator.buffer(9);
          RollbackCloseable closeOnErr = new RollbackCloseable()) {
-      final BloomFilter bloomFilter = new BloomFilter(allocator, Thread.currentThread().getName(), bloomFilterSize); // fixed to 2MB
-      closeOnErr.add(bloomFilter);
-      bloomFilter.setup();
+      final BlockedBloomFilter bloomFilter = closeOnErr.add(new BlockedBloomFilter(allocator,
+        Thread.currentThread().getName(), expectedDistinctKeys, BLOOMFILTER_MAX_SIZE)); // at most 2MB
 
       // Since the exact address of the values are computed via keyhash, it is not possible to navigate values without keyhash
       // Hence, we go over each block, and pick if it contains a value.
@@ -63,7 +63,7 @@ import com.dremio.exec.record.ExpandableHyperContainer;
 import com.dremio.exec.record.VectorAccessible;
 import com.dremio.exec.record.VectorContainer;
 import com.dremio.exec.record.VectorWrapper;
-import com.dremio.exec.util.BloomFilter;
+import com.dremio.exec.util.BlockedBloomFilter;
 import com.dremio.exec.util.RuntimeFilterManager;
 import com.dremio.exec.util.ValueListFilter;
 import com.dremio.exec.util.ValueListFilterBuilder;
@@ -685,7 +685,7 @@ public class VectorizedHashJoinOperator implements DualInputOperator {
                 .setProbeScanOperatorId(probeTarget.getProbeScanOperatorId())
                 .setProbeScanMajorFragmentId(probeTarget.getProbeScanMajorFragmentId());
 
-        final Optional<BloomFilter> partitionColFilter = addPartitionColFilters(probeTarget, runtimeFilterBuilder, closeOnErr);
+        final Optional<BlockedBloomFilter> partitionColFilter = addPartitionColFilters(probeTarget, runtimeFilterBuilder, closeOnErr);
         final List<ValueListFilter> nonPartitionColFilters = addNonPartitionColFilters(probeTarget, runtimeFilterBuilder, closeOnErr);
 
         // Drop if all sub-filters are dropped
@@ -777,24 +777,25 @@ public class VectorizedHashJoinOperator implements DualInputOperator {
     stats.setProfileDetails(UserBitShared.OperatorProfileDetails.newBuilder().addAllRuntimefilterDetailsInfos(runTimeFilterDetailsInfos).build());
   }
 
-  private Optional<BloomFilter> addPartitionColFilters(RuntimeFilterProbeTarget probeTarget,
-                                                       RuntimeFilter.Builder runtimeFilterBuilder,
-                                                       RollbackCloseable closeOnErr) {
+  private Optional<BlockedBloomFilter> addPartitionColFilters(RuntimeFilterProbeTarget probeTarget,
+                                                              RuntimeFilter.Builder runtimeFilterBuilder,
+                                                              RollbackCloseable closeOnErr) {
     if (CollectionUtils.isEmpty(probeTarget.getPartitionBuildTableKeys())) {
       return Optional.empty();
     }
 
     // Add partition column filter - always a single bloomfilter
     int maxKeySize = (int) context.getOptions().getOption(RUNTIME_FILTER_KEY_MAX_SIZE);
-    final Optional<BloomFilter> bloomFilter = table.prepareBloomFilter(probeTarget.getPartitionBuildTableKeys(),
-            config.getRuntimeFilterInfo().isBroadcastJoin(), maxKeySize);
+    final Optional<BlockedBloomFilter> bloomFilter = table.prepareBloomFilter(probeTarget.getPartitionBuildTableKeys(),
+            getExpectedDistinctKeys(), maxKeySize);
     closeOnErr.add(bloomFilter.orElse(null));
     if (bloomFilter.isPresent() && !bloomFilter.get().isCrossingMaxFPP()) {
       final CompositeColumnFilter partitionFilter = CompositeColumnFilter.newBuilder()
               .setFilterType(ExecProtos.RuntimeFilterType.BLOOM_FILTER)
               .addAllColumns(probeTarget.getPartitionProbeTableKeys())
               .setValueCount(bloomFilter.get().getNumBitsSet())
-              .setSizeBytes(bloomFilter.get().getSizeInBytes()).build();
+              .setSizeBytes(bloomFilter.get().getSizeInBytes())
+              .setFormatVersion(BlockedBloomFilter.FORMAT_VERSION).build();
       runtimeFilterBuilder.setPartitionColumnFilter(partitionFilter);
     } else {
       // No valid bloom filter for partition pruning
@@ -804,6 +805,18 @@ public class VectorizedHashJoinOperator implements DualInputOperator {
     return bloomFilter;
   }
 
+  /**
+   * Number of distinct keys the partition column filter is sized for. Broadcast joins send the filter of the whole
+   * build side. Shuffle joins merge the filters of all the minor fragments, each holding a hash partition of the keys.
+   */
+  private long getExpectedDistinctKeys() {
+    if (config.getRuntimeFilterInfo().isBroadcastJoin()) {
+      return table.size();
+    }
+    final int numFragments = context.getAssignments().stream().mapToInt(FragmentAssignment::getMinorFragmentIdCount).sum();
+    return (long) table.size() * Math.max(1, numFragments);
+  }
+
   private List<ValueListFilter> addNonPartitionColFilters(RuntimeFilterProbeTarget probeTarget,
                                                           RuntimeFilter.Builder runtimeFilterBuilder,
                                                           RollbackCloseable closeOnErr) {
@@ -844,7 +857,7 @@ public class VectorizedHashJoinOperator implements DualInputOperator {
   }
 
   @VisibleForTesting
-  void sendRuntimeFilterAtMergePoints(RuntimeFilter filter, Optional<BloomFilter> bloomFilter,
+  void sendRuntimeFilterAtMergePoints(RuntimeFilter filter, Optional<BlockedBloomFilter> bloomFilter,
                                       List<ValueListFilter> nonPartitionColFilters) throws Exception {
     final List<ArrowBuf> orderedBuffers = new ArrayList<>(nonPartitionColFilters.size() + 1);
     try {
@@ -906,11 +919,13 @@ public class VectorizedHashJoinOperator implements DualInputOperator {
       ExecProtos.CompositeColumnFilter partitionColFilterProto = runtimeFilter.getPartitionColumnFilter();
 
       // Partition col filters
-      BloomFilter bloomFilterPiece = null;
+      BlockedBloomFilter bloomFilterPiece = null;
       if (partitionColFilterProto != null && !partitionColFilterProto.getColumnsList().isEmpty()) {
         checkArgument(msgBuf.capacity() >= partitionColFilterProto.getSizeBytes(), "Invalid filter size. " +
                 "Buffer capacity is %s, expected filter size %s", msgBuf.capacity(), partitionColFilterProto.getSizeBytes());
-        bloomFilterPiece = BloomFilter.prepareFrom(msgBuf.slice(nextSliceStart, partitionColFilterProto.getSizeBytes()));
+        checkState(partitionColFilterProto.getFormatVersion() == BlockedBloomFilter.FORMAT_VERSION,
+                "Unsupported bloomfilter format version %s", partitionColFilterProto.getFormatVersion());
+        bloomFilterPiece = BlockedBloomFilter.prepareFrom(msgBuf.slice(nextSliceStart, partitionColFilterProto.getSizeBytes()));
         checkState(bloomFilterPiece.getNumBitsSet() == partitionColFilterProto.getValueCount(),
                 "Bloomfilter value count mismatched. Expected %s, Actual %s", partitionColFilterProto.getValueCount(), bloomFilterPiece.getNumBitsSet());
         nextSliceStart += partitionColFilterProto.getSizeBytes();
@@ -959,10 +974,10 @@ public class VectorizedHashJoinOperator implements DualInputOperator {
   }
 
   @VisibleForTesting
-  void sendRuntimeFilterToProbeScan(RuntimeFilter filter, Optional<BloomFilter> partitionColFilter,
+  void sendRuntimeFilterToProbeScan(RuntimeFilter filter, Optional<BlockedBloomFilter> partitionColFilter,
                                     List<ValueListFilter> nonPartitionColFilters) throws Exception {
     logger.debug("Sending join runtime filter to probe scan {}:{}, Filter {}", filter.getProbeScanOperatorId(), filter.getProbeScanMajorFragmentId(), partitionColFilter);
-    logger.debug("Partition col filter fpp {}", partitionColFilter.map(BloomFilter::getExpectedFPP).orElse(-1D));
+    logger.debug("Partition col filter fpp {}", partitionColFilter.map(BlockedBloomFilter::getExpectedFPP).orElse(-1D));
     final List<ArrowBuf> orderedBuffers = new ArrayList<>(nonPartitionColFilters.size() + 1);
     try {
       final ArrowBuf bloomFilterBuf = partitionColFilter.map(bf -> bf.getDataBuffer()).orElse(null);
@@ -85,6 +85,8 @@ public class VectorizedSpillingHashJoinOperator implements DualInputOperator {
    * 4. ProbeBuffers = 1.25M
    */
   public static final int MIN_RESERVE = 27 * 1024 * 1024;
+  // 2a to 2c above, for each partition beyond the 8 partitions MIN_RESERVE covers
+  private static final int PARTITION_RESERVE = 5 * 512 * 1024;
 
   private final OperatorContext context;
   private final HashJoinPOP config;
@@ -313,18 +315,33 @@ public class VectorizedSpillingHashJoinOperator implements DualInputOperator {
         spillManager,
         spillPool);
 
-      partition = rc.add(new MultiPartition(joinSetupParams, CopierFactory.getInstance(context.getConfig(), context.getOptions())));
+      partition = rc.add(new MultiPartition(joinSetupParams, getNumPartitions(),
+        CopierFactory.getInstance(context.getConfig(), context.getOptions())));
 
       joinReplayer = rc.add(new JoinRecursiveReplayer(joinSetupParams, partition, outgoing, targetOutputBatchSize));
 
       rc.commit();
     }
 
-    Preconditions.checkState(allocator.getAllocatedMemory() <= MIN_RESERVE);
+    Preconditions.checkState(allocator.getAllocatedMemory() <= getMinReserve(getNumPartitions()));
     computeExternalState(InternalState.BUILD);
     return outgoing;
   }
 
+  private int getNumPartitions() {
+    // the planner sizes radix partitions for the cache, the spilling join uses the configured partition count
+    return config.getRadixPartitions() > 0 && !context.getOptions().getOption(HashJoinOperator.ENABLE_SPILL)
+      ? config.getRadixPartitions()
+      : (int) context.getOptions().getOption(HashJoinOperator.NUM_PARTITIONS);
+  }
+
+  /**
+   * @return the memory needed to set up the join with the given number of partitions
+   */
+  public static long getMinReserve(int numPartitions) {
+    return MIN_RESERVE + (long) Math.max(0, numPartitions - 8) * PARTITION_RESERVE;
+  }
+
   // Get ids for a field
   private int[] getFieldIds(VectorAccessible accessible, LogicalExpression expr){
     final LogicalExpression materialized = context.getClassProducer().materialize(expr, accessible);
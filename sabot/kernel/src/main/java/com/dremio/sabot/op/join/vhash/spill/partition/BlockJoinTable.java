@@ -24,7 +24,7 @@ import org.apache.arrow.util.Preconditions;
 
 import com.dremio.common.config.SabotConfig;
 import com.dremio.exec.ExecConstants;
-import com.dremio.exec.util.BloomFilter;
+import com.dremio.exec.util.BlockedBloomFilter;
 import com.dremio.exec.util.ValueListFilter;
 import com.dremio.options.OptionManager;
 import com.dremio.sabot.op.common.ht2.FixedBlockVector;
@@ -92,13 +92,14 @@ public class BlockJoinTable implements JoinTable {
    * Prepares a bloomfilter from the selective field keys. Since this is an optimisation, errors are not propagated to
    * the consumer. Instead, they get an empty optional.
    * @param fieldNames
-   * @param sizeDynamically Size the filter according to the number of entries in table.
+   * @param expectedDistinctKeys Number of distinct keys the filter is sized for, including the keys of the filters
+   *                             of other fragments it is merged with.
    * @return
    */
   @Override
-  public Optional<BloomFilter> prepareBloomFilter(List<String> fieldNames, boolean sizeDynamically, int maxKeySize) {
+  public Optional<BlockedBloomFilter> prepareBloomFilter(List<String> fieldNames, long expectedDistinctKeys, int maxKeySize) {
     return HashTableFilterUtil.prepareBloomFilter(table, allocator, buildPivot,
-      fieldNames, sizeDynamically, maxKeySize);
+      fieldNames, expectedDistinctKeys, maxKeySize);
   }
 
   @Override
@@ -51,6 +51,7 @@ public class MultiPartition implements Partition, CanSwitchToSpilling {
 
   private final int numPartitions;
   private final int partitionMask;
+  private final boolean canSpill;
 
   private final JoinSetupParams setupParams;
   private final CopierFactory copierFactory;
@@ -68,12 +69,15 @@ public class MultiPartition implements Partition, CanSwitchToSpilling {
 
   private static final boolean DEBUG = AssertionUtil.isAssertionsEnabled();
 
-  public MultiPartition(JoinSetupParams setupParams, CopierFactory copierFactory) {
+  public MultiPartition(JoinSetupParams setupParams, int numPartitions, CopierFactory copierFactory) {
+    Preconditions.checkArgument(Integer.bitCount(numPartitions) == 1, "number of partitions must be a power of two");
     this.setupParams = setupParams;
     this.copierFactory = copierFactory;
 
-    numPartitions = (int) setupParams.getOptions().getOption(HashJoinOperator.NUM_PARTITIONS);
+    this.numPartitions = numPartitions;
     partitionMask = numPartitions - 1;
+    // without spilling, the partitions only serve to keep the hash tables small (radix partitioning).
+    canSpill = setupParams.getOptions().getOption(HashJoinOperator.ENABLE_SPILL);
     childWrappers = new PartitionWrapper[numPartitions];
     probePartitionCursor = numPartitions;
     probeNonMatchesPartitionCursor = 0;
@@ -142,7 +146,8 @@ public class MultiPartition implements Partition, CanSwitchToSpilling {
           child.removeInsertedRecordsInSV2(recordsInsertedInIteration);
         } else {
           logger.error("zero records inserted during build, even after all partitions switched to spill");
-          throw new OutOfMemoryException("unable to insert batch even after switching to spill");
+          throw new OutOfMemoryException(canSpill ? "unable to insert batch even after switching to spill"
+            : "unable to insert batch, spilling is disabled");
         }
       }
     }
@@ -363,6 +368,10 @@ public class MultiPartition implements Partition, CanSwitchToSpilling {
       return true;
     }
 
+    if (!canSpill) {
+      return false;
+    }
+
     // If we cannot release memory, move a partition to spilling mode.
     return switchToSpilling(false).isSwitchDone();
   }
@@ -18,7 +18,6 @@ package com.dremio.sabot.op.receiver.merging;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
-import java.util.PriorityQueue;
 
 import org.apache.arrow.memory.OutOfMemoryException;
 import org.apache.arrow.vector.AllocationHelper;
@@ -30,6 +29,7 @@ import com.dremio.common.AutoCloseables;
 import com.dremio.common.exceptions.ExecutionSetupException;
 import com.dremio.common.expression.LogicalExpression;
 import com.dremio.common.logical.data.Order.Ordering;
+import com.dremio.exec.ExecConstants;
 import com.dremio.exec.compile.sig.GeneratorMapping;
 import com.dremio.exec.compile.sig.MappingSet;
 import com.dremio.exec.exception.SchemaChangeException;
@@ -49,6 +49,8 @@ import com.dremio.sabot.exec.context.OperatorContext;
 import com.dremio.sabot.exec.context.OperatorStats;
 import com.dremio.sabot.op.receiver.RawFragmentBatch;
 import com.dremio.sabot.op.receiver.RawFragmentBatchProvider;
+import com.dremio.sabot.op.sort.merge.LoserTree;
+import com.dremio.sabot.op.sort.merge.NormalizedKeyPrefix;
 import com.dremio.sabot.op.spi.BatchStreamProvider;
 import com.dremio.sabot.op.spi.ProducerOperator;
 import com.sun.codemodel.JConditional;
@@ -71,15 +73,20 @@ public class MergingReceiverOperator implements ProducerOperator {
 
   private State state = State.NEEDS_SETUP;
   private OutputState outputState = OutputState.INIT_ON_NEXT;
-  private PriorityQueue<Node> pqueue;
+  private LoserTree tree;
+  // true if the winner of the tree moved to its next value since the tree was last replayed
+  private boolean replayPending;
   private Merger merger;
+  private NormalizedKeyPrefix keyPrefix;
 
   private int outgoingPosition = 0;
 
   public static enum Metric implements MetricDef{
     BYTES_RECEIVED,
     NUM_SENDERS,
-    NEXT_WAIT_NANOS;
+    NEXT_WAIT_NANOS,
+    DECOMPRESSION_NANOS,
+    BYTES_AFTER_DECOMPRESSION;
 
     @Override
     public int metricId() {
@@ -115,9 +122,6 @@ public class MergingReceiverOperator implements ProducerOperator {
   public VectorAccessible setup() throws Exception {
     state.is(State.NEEDS_SETUP);
     this.merger = createMerger();
-
-    // allocate the priority queue with the generated comparator
-    this.pqueue = new PriorityQueue<>(nodes.length);
     state = State.CAN_PRODUCE;
     return outgoingContainer;
   }
@@ -147,6 +151,15 @@ public class MergingReceiverOperator implements ProducerOperator {
       return 0;
     }
 
+    // the tree is built once all the streams have a value
+    if (tree == null) {
+      tree = new LoserTree(nodes.length, new NodeSources());
+      tree.init();
+    } else if (replayPending) {
+      tree.replay();
+      replayPending = false;
+    }
+
     if(outputState == OutputState.INIT_ON_NEXT){
       allocateOutgoing();
       outgoingPosition = 0;
@@ -161,10 +174,12 @@ public class MergingReceiverOperator implements ProducerOperator {
      * - when our outgoing batch is full
      * - when there are no more records.
      */
-    while (!pqueue.isEmpty()) {
-      // pop next value from pq and copy to outgoing batch
-      final Node node = pqueue.poll();
+    int winner;
+    while ((winner = tree.top()) >= 0) {
+      // copy the smallest value to outgoing batch
+      final Node node = nodes[winner];
       node.copyRecordToOutgoingBatch();
+      replayPending = true;
 
       if (outgoingPosition == maxRecords) {
         logger.debug("Outgoing vectors space is full; breaking");
@@ -179,6 +194,8 @@ public class MergingReceiverOperator implements ProducerOperator {
         return 0;
       }
 
+      tree.replay();
+      replayPending = false;
     }
 
     // set the value counts in the outgoing vectors
@@ -187,9 +204,7 @@ public class MergingReceiverOperator implements ProducerOperator {
     }
     outgoingContainer.setRecordCount(outgoingPosition);
 
-    if (pqueue.isEmpty()) {
-      state = State.DONE;
-    }
+    state = State.DONE;
 
     return outgoingPosition;
   }
@@ -234,6 +249,9 @@ public class MergingReceiverOperator implements ProducerOperator {
     final Merger merger = cg.getImplementationClass();
 
     merger.doSetup(context.getFunctionContext(), batch, outgoingContainer);
+    if (context.getOptions().getOption(ExecConstants.MERGE_USE_KEY_PREFIX) && !config.getOrderings().isEmpty()) {
+      keyPrefix = NormalizedKeyPrefix.create(config.getOrderings().get(0), batch);
+    }
     return merger;
   }
 
@@ -272,11 +290,33 @@ public class MergingReceiverOperator implements ProducerOperator {
     g.getEvalBlock()._return(JExpr.lit(0));
   }
 
+  /**
+   * Exposes the nodes to the tree merging them.
+   */
+  private class NodeSources implements LoserTree.Sources {
+    @Override
+    public boolean isDone(int source) {
+      return nodes[source].done;
+    }
+
+    @Override
+    public long getKeyPrefix(int source) {
+      return keyPrefix == null ? 0 : keyPrefix.get(source, nodes[source].valueIndex);
+    }
+
+    @Override
+    public int compareSources(int leftSource, int rightSource) {
+      final int leftIndex = (leftSource << 16) + nodes[leftSource].valueIndex;
+      final int rightIndex = (rightSource << 16) + nodes[rightSource].valueIndex;
+      return merger.doEval(leftIndex, rightIndex);
+    }
+  }
+
   /**
    * A SabotNode contains a reference to a single value in a specific incoming batch.  It is used
-   * as a wrapper for the priority queue.
+   * as a source of the loser tree.
    */
-  private class Node implements Comparable<Node>, AutoCloseable {
+  private class Node implements AutoCloseable {
     private final int batchId;      // incoming batch
     private final ArrowRecordBatchLoader loader;
     private final RawFragmentBatchProvider provider;
@@ -301,8 +341,8 @@ public class MergingReceiverOperator implements ProducerOperator {
     }
 
     /**
-     * Attempt to get next value and then readd yourself to the priority queue.
-     * @return True if we were able to move forward (whether added to queue or not). False if we are blocked on an incoming message.
+     * Attempt to get next value.
+     * @return True if we were able to move forward (whether done or not). False if we are blocked on an incoming message.
      */
     private boolean nextPosition(){
       if(currentBatch == null || valueIndex == loader.getRecordCount() - 1){
@@ -326,18 +366,17 @@ public class MergingReceiverOperator implements ProducerOperator {
           valueIndex = 0;
         }
 
-        // we received actual data, let's set things up and add to priority queue.
+        // we received actual data, let's set things up.
         stats.addLongStat(Metric.BYTES_RECEIVED, currentBatch.getByteCount());
+        stats.addLongStat(Metric.DECOMPRESSION_NANOS, loader.getDecompressionNanos());
+        stats.addLongStat(Metric.BYTES_AFTER_DECOMPRESSION, loader.getDecompressedBytes());
         stats.batchReceived(0, loader.getRecordCount(), size);
         inputCounts += loader.getRecordCount();
         valueIndex = 0;
-
-        pqueue.add(this);
         return true;
 
       }else{
         valueIndex++;
-        pqueue.add(this);
         return true;
       }
     }
@@ -346,13 +385,6 @@ public class MergingReceiverOperator implements ProducerOperator {
       return done || currentBatch != null;
     }
 
-    @Override
-    public int compareTo(final Node node2) {
-      final int leftIndex = (this.batchId << 16) + this.valueIndex;
-      final int rightIndex = (node2.batchId << 16) + node2.valueIndex;
-      return merger.doEval(leftIndex, rightIndex);
-    }
-
     private void copyRecordToOutgoingBatch() {
       if (!(++outputCounts <= inputCounts)) {
         throw new RuntimeException(String.format("Stream %d input count: %d output count %d", batchId, inputCounts, outputCounts));
@@ -44,7 +44,9 @@ public class UnorderedReceiverOperator implements ProducerOperator {
 
   public enum Metric implements MetricDef {
     BYTES_RECEIVED,
-    NUM_SENDERS;
+    NUM_SENDERS,
+    DECOMPRESSION_NANOS,
+    BYTES_AFTER_DECOMPRESSION;
 
     @Override
     public int metricId() {
@@ -109,6 +111,8 @@ public class UnorderedReceiverOperator implements ProducerOperator {
       int size = batchLoader.load(batch);
 
       stats.addLongStat(Metric.BYTES_RECEIVED, batch.getByteCount());
+      stats.addLongStat(Metric.DECOMPRESSION_NANOS, batchLoader.getDecompressionNanos());
+      stats.addLongStat(Metric.BYTES_AFTER_DECOMPRESSION, batchLoader.getDecompressedBytes());
 
       final int count = batchLoader.getRecordCount();
       stats.batchReceived(0, count, size);
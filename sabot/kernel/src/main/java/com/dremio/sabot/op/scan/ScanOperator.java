@@ -66,6 +66,7 @@ import com.dremio.exec.record.VectorAccessible;
 import com.dremio.exec.record.VectorContainer;
 import com.dremio.exec.store.RecordReader;
 import com.dremio.exec.store.RuntimeFilter;
+import com.dremio.exec.store.ThresholdFilter;
 import com.dremio.exec.store.parquet.GlobalDictionaries;
 import com.dremio.exec.store.parquet.ParquetSubScan;
 import com.dremio.exec.store.parquet.RecordReaderIterator;
@@ -169,7 +170,13 @@ public class ScanOperator implements ProducerOperator {
     NUM_METADATA_IO_READ,
     HIVE_FILE_FORMATS,// File Formats in hive sub scan represented as bitmap. Indices correspond to HiveFilFormat enum
     NUM_ZERO_SIZED_COLUMN, // Number of zero sized column
-    NUM_EXTRA_FOOTER_READS // Number of times footer is read for a split.
+    NUM_EXTRA_FOOTER_READS, // Number of times footer is read for a split.
+    NUM_FOOTER_CACHE_HITS, // Number of parquet footers served from the node-wide footer cache
+    NUM_FOOTER_CACHE_MISSES, // Number of parquet footers read from the file system
+    NUM_ROW_GROUPS_PRUNED_BY_RUNTIME_FILTER, // Number of row groups skipped as no row can match the runtime filters
+    NUM_ROW_GROUPS_PRUNED_BY_TOPN_THRESHOLD, // Number of row groups skipped as no row can be part of a downstream TopN
+    NUM_SPLITS_DISPATCHED, // Number of splits read from the split queue shared with the other fragments of the scan
+    NUM_SPLITS_STOLEN // Number of splits read from the shared split queue which were received by another fragment
     ;
 
     @Override
@@ -212,6 +219,7 @@ public class ScanOperator implements ProducerOperator {
   private final CoordExecRPC.QueryContextInformation queryContextInfo;
 
   private List<RuntimeFilter> runtimeFilters = new ArrayList<>();
+  private ThresholdFilter thresholdFilter;
 
   public ScanOperator(SubScan config, OperatorContext context, RecordReaderIterator readers) {
     this(config, context, readers, null, null, null);
@@ -299,6 +307,9 @@ public class ScanOperator implements ProducerOperator {
     try {
       BatchSchema initialSchema = outgoing.getSchema();
       runtimeFilters.stream().forEach(reader::addRuntimeFilter);
+      if (thresholdFilter != null) {
+        reader.setThresholdFilter(thresholdFilter);
+      }
       setupReaderAsCorrectUser(reader);
       checkAndLearnSchema();
       Preconditions.checkArgument(initialSchema.equals(outgoing.getSchema()), "Schema changed but not detected.");
@@ -371,6 +382,19 @@ public class ScanOperator implements ProducerOperator {
 
   @Override
   public void workOnOOB(OutOfBandMessage message) {
+    if (ExecProtos.TopNThreshold.class.getName().equals(message.getPayload().getType())) {
+      // sort threshold published by a TopN of this fragment
+      final ExecProtos.TopNThreshold threshold = message.getPayload(ExecProtos.TopNThreshold.parser());
+      if (thresholdFilter == null) {
+        thresholdFilter = new ThresholdFilter(threshold);
+        this.currentReader.setThresholdFilter(thresholdFilter);
+      } else if (!thresholdFilter.update(threshold)) {
+        logger.debug("Ignoring TopN threshold on {}, a threshold on {} is already applied", threshold.getColumn(),
+          thresholdFilter.getColumn());
+      }
+      return;
+    }
+
     final String senderInfo = String.format("Frag %d, OpId %d", message.getSendingMajorFragmentId(), message.getSendingOperatorId());
     if (message.getBuffers()==null || message.getBuffers().length!=1) {
       logger.warn("Empty runtime filter received from {}", senderInfo);
@@ -61,6 +61,7 @@ public class BridgeFileWriterSenderOperator extends BaseSender {
   private final OptionManager options;
   private final SpillService spillService;
   private final SabotConfig sabotConfig;
+  private final ExchangeBatchCompressor compressor;
 
   private State state = State.NEEDS_SETUP;
   private SpillManager spillManager;
@@ -68,7 +69,10 @@ public class BridgeFileWriterSenderOperator extends BaseSender {
   private VectorAccessible incoming;
 
   public enum Metric implements MetricDef {
-    BYTES_SENT;
+    BYTES_SENT,
+    COMPRESSION_NANOS,
+    BYTES_BEFORE_COMPRESSION,
+    BYTES_AFTER_COMPRESSION;
     @Override
     public int metricId() {
       return ordinal();
@@ -87,6 +91,7 @@ public class BridgeFileWriterSenderOperator extends BaseSender {
     this.options = context.getOptions();
     this.spillService = context.getSpillService();
     this.sabotConfig = context.getConfig();
+    this.compressor = new ExchangeBatchCompressor(context);
 
     logger.debug("uniqueId {}", uniqueId);
   }
@@ -132,8 +137,8 @@ public class BridgeFileWriterSenderOperator extends BaseSender {
       handle.getMajorFragmentId(),
       handle.getMinorFragmentId(),
       config.getReceiverMajorFragmentId(),
-      new ArrowRecordBatch(arrowRecordBatch.getLength(), arrowRecordBatch.getNodes(), buffers,
-        NoCompressionCodec.DEFAULT_BODY_COMPRESSION, false)
+      compressor.compressForFile(new ArrowRecordBatch(arrowRecordBatch.getLength(), arrowRecordBatch.getNodes(),
+        buffers, NoCompressionCodec.DEFAULT_BODY_COMPRESSION, false))
     );
 
     // write batch to the file tunnel.
@@ -156,6 +161,9 @@ public class BridgeFileWriterSenderOperator extends BaseSender {
 
   private void updateStats(FragmentWritableBatch writableBatch) {
     stats.addLongStat(BridgeFileWriterSenderOperator.Metric.BYTES_SENT, writableBatch.getByteCount());
+    stats.setLongStat(BridgeFileWriterSenderOperator.Metric.COMPRESSION_NANOS, compressor.getCompressionNanos());
+    stats.setLongStat(BridgeFileWriterSenderOperator.Metric.BYTES_BEFORE_COMPRESSION, compressor.getUncompressedBytes());
+    stats.setLongStat(BridgeFileWriterSenderOperator.Metric.BYTES_AFTER_COMPRESSION, compressor.getCompressedBytes());
   }
 
   @Override
@@ -0,0 +1,175 @@
+/*
+ * Copyright (C) 2017-2019 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.sabot.op.sender;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.arrow.memory.ArrowBuf;
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.vector.ipc.message.ArrowRecordBatch;
+
+import com.dremio.exec.ExecConstants;
+import com.dremio.exec.record.Lz4BodyCodec;
+import com.dremio.options.OptionManager;
+import com.dremio.sabot.exec.context.OperatorContext;
+import com.dremio.sabot.exec.rpc.AccountingExecTunnel;
+import com.google.common.annotations.VisibleForTesting;
+
+/**
+ * Compresses the record batches of an exchange sender, when it is likely to pay off.
+ *
+ * Batches are only compressed when they go to another node and that node is not keeping up with the sender,
+ * i.e. previous batches sent to it are still unacknowledged, or when they are written to a file. Buffers that do not compress are sent as is, and a
+ * batch that compresses poorly turns compression off for the next few batches of the sender.
+ */
+public class ExchangeBatchCompressor {
+
+  private final BufferAllocator allocator;
+  private final boolean enabled;
+  private final long minBatchBytes;
+  private final int minOutstandingMessages;
+  private final double maxRatio;
+  private final int backoffBatches;
+
+  private int batchesToSkip;
+  private long compressionNanos;
+  private long uncompressedBytes;
+  private long compressedBytes;
+
+  public ExchangeBatchCompressor(OperatorContext context) {
+    this(context.getAllocator(), context.getOptions());
+  }
+
+  @VisibleForTesting
+  ExchangeBatchCompressor(BufferAllocator allocator, OptionManager options) {
+    this.allocator = allocator;
+    this.enabled = options.getOption(ExecConstants.EXCHANGE_COMPRESSION_ENABLED);
+    this.minBatchBytes = options.getOption(ExecConstants.EXCHANGE_COMPRESSION_MIN_BATCH_BYTES);
+    this.minOutstandingMessages = (int) options.getOption(ExecConstants.EXCHANGE_COMPRESSION_MIN_OUTSTANDING_BATCHES);
+    this.maxRatio = options.getOption(ExecConstants.EXCHANGE_COMPRESSION_MAX_RATIO);
+    this.backoffBatches = (int) options.getOption(ExecConstants.EXCHANGE_COMPRESSION_BACKOFF_BATCHES);
+  }
+
+  /**
+   * Compresses a batch about to be sent through the given tunnel, if worthwhile.
+   *
+   * @return the batch to send. If it is not the given batch, the given batch has been closed.
+   */
+  public ArrowRecordBatch compress(ArrowRecordBatch batch, AccountingExecTunnel tunnel) {
+    return enabled && isBusy(tunnel) ? compress(batch) : batch;
+  }
+
+  /**
+   * Compresses a batch about to be sent through all of the given tunnels, if worthwhile for any of them.
+   *
+   * @return the batch to send. If it is not the given batch, the given batch has been closed.
+   */
+  public ArrowRecordBatch compress(ArrowRecordBatch batch, AccountingExecTunnel[] tunnels) {
+    if (!enabled) {
+      return batch;
+    }
+    for (AccountingExecTunnel tunnel : tunnels) {
+      if (isBusy(tunnel)) {
+        return compress(batch);
+      }
+    }
+    return batch;
+  }
+
+  /**
+   * Compresses a batch about to be written to a spill file, if worthwhile. Writing to disk is slower than
+   * compressing, so the batch is compressed whenever compression is enabled and pays off.
+   *
+   * @return the batch to write. If it is not the given batch, the given batch has been closed.
+   */
+  public ArrowRecordBatch compressForFile(ArrowRecordBatch batch) {
+    return enabled ? compress(batch) : batch;
+  }
+
+  private boolean isBusy(AccountingExecTunnel tunnel) {
+    return !tunnel.isInProcess() && tunnel.getOutstandingMessages() >= minOutstandingMessages;
+  }
+
+  @VisibleForTesting
+  ArrowRecordBatch compress(ArrowRecordBatch batch) {
+    if (batchesToSkip > 0) {
+      batchesToSkip--;
+      return batch;
+    }
+
+    long length = 0;
+    for (ArrowBuf buf : batch.getBuffers()) {
+      length += buf.readableBytes();
+    }
+    if (length == 0 || length < minBatchBytes) {
+      return batch;
+    }
+
+    final long start = System.nanoTime();
+    final List<ArrowBuf> compressed = new ArrayList<>(batch.getBuffers().size());
+    ArrowRecordBatch result = batch;
+    try {
+      long compressedLength = 0;
+      for (ArrowBuf buf : batch.getBuffers()) {
+        final ArrowBuf compressedBuf = Lz4BodyCodec.compress(allocator, buf);
+        compressed.add(compressedBuf);
+        compressedLength += compressedBuf.readableBytes();
+      }
+
+      if (compressedLength > length * maxRatio) {
+        batchesToSkip = backoffBatches;
+      }
+      if (compressedLength < length) {
+        // takes its own reference to the compressed buffers
+        result = new ArrowRecordBatch(batch.getLength(), batch.getNodes(), compressed, Lz4BodyCodec.BODY_COMPRESSION, false);
+        uncompressedBytes += length;
+        compressedBytes += compressedLength;
+      }
+    } finally {
+      for (ArrowBuf buf : compressed) {
+        buf.close();
+      }
+      compressionNanos += System.nanoTime() - start;
+    }
+
+    if (result != batch) {
+      batch.close();
+    }
+    return result;
+  }
+
+  /**
+   * @return time, in nanoseconds, spent compressing batches
+   */
+  public long getCompressionNanos() {
+    return compressionNanos;
+  }
+
+  /**
+   * @return size of the batches that were sent compressed, before compression
+   */
+  public long getUncompressedBytes() {
+    return uncompressedBytes;
+  }
+
+  /**
+   * @return size of the batches that were sent compressed, after compression
+   */
+  public long getCompressedBytes() {
+    return compressedBytes;
+  }
+}
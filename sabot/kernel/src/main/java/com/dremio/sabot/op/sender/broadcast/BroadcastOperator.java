@@ -39,6 +39,7 @@ import com.dremio.sabot.exec.context.OperatorStats;
 import com.dremio.sabot.exec.rpc.AccountingExecTunnel;
 import com.dremio.sabot.exec.rpc.TunnelProvider;
 import com.dremio.sabot.op.sender.BaseSender;
+import com.dremio.sabot.op.sender.ExchangeBatchCompressor;
 import com.dremio.sabot.op.spi.TerminalOperator;
 import com.google.common.base.Function;
 import com.google.common.collect.ArrayListMultimap;
@@ -61,12 +62,16 @@ public class BroadcastOperator extends BaseSender {
   private final ExecProtos.FragmentHandle handle;
   private final OperatorStats stats;
   private final OperatorContext context;
+  private final ExchangeBatchCompressor compressor;
 
   private VectorAccessible incoming;
 
   public enum Metric implements MetricDef {
     N_RECEIVERS,
-    BYTES_SENT;
+    BYTES_SENT,
+    COMPRESSION_NANOS,
+    BYTES_BEFORE_COMPRESSION,
+    BYTES_AFTER_COMPRESSION;
     @Override
     public int metricId() {
       return ordinal();
@@ -79,6 +84,7 @@ public class BroadcastOperator extends BaseSender {
     this.context = context;
     this.handle = context.getFragmentHandle();
     this.stats = context.getStats();
+    this.compressor = new ExchangeBatchCompressor(context);
 
     final List<MinorFragmentEndpoint> destinations = config.getDestinations(context.getEndpointsIndex());
     final ArrayListMultimap<NodeEndpoint, Integer> dests = ArrayListMultimap.create();
@@ -116,6 +122,9 @@ public class BroadcastOperator extends BaseSender {
   private void updateStats(FragmentWritableBatch writableBatch) {
     stats.setLongStat(Metric.N_RECEIVERS, tunnels.length);
     stats.addLongStat(Metric.BYTES_SENT, writableBatch.getByteCount());
+    stats.setLongStat(Metric.COMPRESSION_NANOS, compressor.getCompressionNanos());
+    stats.setLongStat(Metric.BYTES_BEFORE_COMPRESSION, compressor.getUncompressedBytes());
+    stats.setLongStat(Metric.BYTES_AFTER_COMPRESSION, compressor.getCompressedBytes());
   }
 
   @Override
@@ -173,25 +182,27 @@ public class BroadcastOperator extends BaseSender {
         }
       }).toList();
 
-    if (tunnels.length > 1) {
-      for (ArrowBuf buf : buffers) {
-        buf.getReferenceManager().retain(tunnels.length - 1);
-      }
+    // compress once for all receivers, toSend holds its own references to the buffers it sends
+    final ArrowRecordBatch toSend = compressor.compress(new ArrowRecordBatch(arrowRecordBatch.getLength(),
+      arrowRecordBatch.getNodes(), buffers, NoCompressionCodec.DEFAULT_BODY_COMPRESSION, false), tunnels);
+    for (ArrowBuf buf : buffers) {
+      buf.close();
     }
 
-    for (int i = 0; i < tunnels.length; ++i) {
-      FragmentWritableBatch batch = new FragmentWritableBatch(
-          handle.getQueryId(),
-          handle.getMajorFragmentId(),
-          handle.getMinorFragmentId(),
-          config.getReceiverMajorFragmentId(),
-          new ArrowRecordBatch(arrowRecordBatch.getLength(), arrowRecordBatch.getNodes(), buffers, NoCompressionCodec.DEFAULT_BODY_COMPRESSION, false),
-          receivingMinorFragments[i]);
-      updateStats(batch);
-      tunnels[i].sendRecordBatch(batch);
-      for (ArrowBuf buf : buffers) {
-        buf.close();
+    try {
+      for (int i = 0; i < tunnels.length; ++i) {
+        FragmentWritableBatch batch = new FragmentWritableBatch(
+            handle.getQueryId(),
+            handle.getMajorFragmentId(),
+            handle.getMinorFragmentId(),
+            config.getReceiverMajorFragmentId(),
+            new ArrowRecordBatch(toSend.getLength(), toSend.getNodes(), toSend.getBuffers(), toSend.getBodyCompression(), false),
+            receivingMinorFragments[i]);
+        updateStats(batch);
+        tunnels[i].sendRecordBatch(batch);
       }
+    } finally {
+      toSend.close();
     }
   }
 
@@ -33,6 +33,7 @@ import com.dremio.exec.record.VectorWrapper;
 import com.dremio.sabot.exec.context.OperatorContext;
 import com.dremio.sabot.exec.context.OperatorStats;
 import com.dremio.sabot.exec.rpc.AccountingExecTunnel;
+import com.dremio.sabot.op.sender.ExchangeBatchCompressor;
 import com.dremio.sabot.op.sender.partition.PartitionSenderOperator.Metric;
 import com.google.common.base.Preconditions;
 import com.google.common.collect.Lists;
@@ -45,6 +46,7 @@ import com.google.common.collect.Lists;
  */
 public class OutgoingBatch extends VectorContainer {
   private final AccountingExecTunnel tunnel;
+  private final ExchangeBatchCompressor compressor;
   private final HashPartitionSender config;
   private final OperatorContext context;
   private final int oppositeMinorFragmentId;
@@ -66,7 +68,8 @@ public class OutgoingBatch extends VectorContainer {
   private volatile boolean dropAll;
 
   OutgoingBatch(int batchIdx, int nextBatchIdx, int maxRecords, final VectorAccessible incoming,
-                BufferAllocator allocator, AccountingExecTunnel tunnel, HashPartitionSender config,
+                BufferAllocator allocator, AccountingExecTunnel tunnel, ExchangeBatchCompressor compressor,
+                HashPartitionSender config,
                 OperatorContext context, int oppositeMinorFragmentId, OperatorStats stats) {
     Preconditions.checkArgument(maxRecords <= Character.MAX_VALUE, "maxRecords cannot exceed " + Character.MAX_VALUE);
     this.batchIdx = batchIdx;
@@ -74,6 +77,7 @@ public class OutgoingBatch extends VectorContainer {
     this.maxRecords = maxRecords;
 
     this.tunnel = tunnel;
+    this.compressor = compressor;
     this.config = config;
     this.context = context;
     this.oppositeMinorFragmentId = oppositeMinorFragmentId;
@@ -171,12 +175,12 @@ public class OutgoingBatch extends VectorContainer {
     }
 
     final ExecProtos.FragmentHandle handle = context.getFragmentHandle();
-    FragmentWritableBatch writableBatch = FragmentWritableBatch.create(
+    FragmentWritableBatch writableBatch = new FragmentWritableBatch(
       handle.getQueryId(),
       handle.getMajorFragmentId(),
       handle.getMinorFragmentId(),
       config.getReceiverMajorFragmentId(),
-      this,
+      compressor.compress(FragmentWritableBatch.getArrowRecordBatch(this), tunnel),
       oppositeMinorFragmentId);
 
     updateStats(writableBatch);
@@ -192,5 +196,8 @@ public class OutgoingBatch extends VectorContainer {
     stats.addLongStat(Metric.BYTES_SENT, writableBatch.getByteCount());
     stats.addLongStat(Metric.BATCHES_SENT, 1);
     stats.addLongStat(Metric.RECORDS_SENT, writableBatch.getRecordCount());
+    stats.setLongStat(Metric.COMPRESSION_NANOS, compressor.getCompressionNanos());
+    stats.setLongStat(Metric.BYTES_BEFORE_COMPRESSION, compressor.getUncompressedBytes());
+    stats.setLongStat(Metric.BYTES_AFTER_COMPRESSION, compressor.getCompressedBytes());
   }
 }
@@ -47,6 +47,7 @@ import com.dremio.sabot.exec.context.OperatorStats;
 import com.dremio.sabot.exec.rpc.AccountingExecTunnel;
 import com.dremio.sabot.exec.rpc.TunnelProvider;
 import com.dremio.sabot.op.sender.BaseSender;
+import com.dremio.sabot.op.sender.ExchangeBatchCompressor;
 import com.dremio.sabot.op.sender.partition.PartitionSenderOperator.Metric;
 import com.dremio.sabot.op.sender.partition.vectorized.MultiDestCopier.CopyWatches;
 import com.google.common.annotations.VisibleForTesting;
@@ -84,6 +85,7 @@ public class VectorizedPartitionSenderOperator extends BaseSender {
   private IntVector partitionIndices;
 
   private final OperatorStats stats;
+  private final ExchangeBatchCompressor compressor;
   private final CopyWatches copyWatches = new CopyWatches();
   private final Stopwatch preCopyWatch = Stopwatch.createUnstarted();
   private final Stopwatch flushWatch = Stopwatch.createUnstarted();
@@ -148,6 +150,7 @@ public class VectorizedPartitionSenderOperator extends BaseSender {
     this.config = config;
     this.tunnelProvider = tunnelProvider;
     this.stats = context.getStats();
+    this.compressor = new ExchangeBatchCompressor(context);
     this.numReceivers = config.getDestinations().size();
 
     remainingReceivers = new AtomicIntegerArray(numReceivers);
@@ -225,8 +228,8 @@ public class VectorizedPartitionSenderOperator extends BaseSender {
       final MinorFragmentEndpoint destination = destinations.get(p);
       final AccountingExecTunnel tunnel = tunnelProvider.getExecTunnel(destination.getEndpoint());
 
-      batches[p] = new OutgoingBatch(p, batchB, numRecordsBeforeFlush, incoming, allocator, tunnel, config, context, destination.getMinorFragmentId(), stats);
-      batches[batchB] = new OutgoingBatch(batchB, p, numRecordsBeforeFlush, incoming, allocator, tunnel, config, context, destination.getMinorFragmentId(), stats);
+      batches[p] = new OutgoingBatch(p, batchB, numRecordsBeforeFlush, incoming, allocator, tunnel, compressor, config, context, destination.getMinorFragmentId(), stats);
+      batches[batchB] = new OutgoingBatch(batchB, p, numRecordsBeforeFlush, incoming, allocator, tunnel, compressor, config, context, destination.getMinorFragmentId(), stats);
 
       if (!delayAllocSendBatches) {
         // Only allocate the primary batch. Backup batch is allocated when it is needed.
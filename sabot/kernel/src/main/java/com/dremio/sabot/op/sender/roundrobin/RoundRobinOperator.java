@@ -42,6 +42,7 @@ import com.dremio.sabot.exec.context.OperatorStats;
 import com.dremio.sabot.exec.rpc.AccountingExecTunnel;
 import com.dremio.sabot.exec.rpc.TunnelProvider;
 import com.dremio.sabot.op.sender.BaseSender;
+import com.dremio.sabot.op.sender.ExchangeBatchCompressor;
 import com.dremio.sabot.op.spi.TerminalOperator;
 import com.google.common.base.Function;
 import com.google.common.collect.ArrayListMultimap;
@@ -59,6 +60,7 @@ public class RoundRobinOperator extends BaseSender {
   private final ExecProtos.FragmentHandle handle;
   private final OperatorStats stats;
   private final BufferAllocator allocator;
+  private final ExchangeBatchCompressor compressor;
 
   private final List<AccountingExecTunnel> tunnels;
   private final List<List<Integer>> minorFragments;
@@ -69,7 +71,10 @@ public class RoundRobinOperator extends BaseSender {
 
   public enum Metric implements MetricDef {
     N_RECEIVERS,
-    BYTES_SENT;
+    BYTES_SENT,
+    COMPRESSION_NANOS,
+    BYTES_BEFORE_COMPRESSION,
+    BYTES_AFTER_COMPRESSION;
     @Override
     public int metricId() {
       return ordinal();
@@ -82,6 +87,7 @@ public class RoundRobinOperator extends BaseSender {
     this.allocator = context.getAllocator();
     this.handle = context.getFragmentHandle();
     this.stats = context.getStats();
+    this.compressor = new ExchangeBatchCompressor(context);
 
     List<MinorFragmentEndpoint> destinations = config.getDestinations(context.getEndpointsIndex());
     final ArrayListMultimap<NodeEndpoint, Integer> dests = ArrayListMultimap.create();
@@ -113,6 +119,9 @@ public class RoundRobinOperator extends BaseSender {
   private void updateStats(FragmentWritableBatch writableBatch) {
     stats.setLongStat(Metric.N_RECEIVERS, tunnels.size());
     stats.addLongStat(Metric.BYTES_SENT, writableBatch.getByteCount());
+    stats.setLongStat(Metric.COMPRESSION_NANOS, compressor.getCompressionNanos());
+    stats.setLongStat(Metric.BYTES_BEFORE_COMPRESSION, compressor.getUncompressedBytes());
+    stats.setLongStat(Metric.BYTES_AFTER_COMPRESSION, compressor.getCompressedBytes());
   }
 
   @Override
@@ -168,16 +177,18 @@ public class RoundRobinOperator extends BaseSender {
         }
       }).toList();
 
+    final AccountingExecTunnel tunnel = tunnels.get(currentTunnelsIndex);
     FragmentWritableBatch batch = new FragmentWritableBatch(
       handle.getQueryId(),
       handle.getMajorFragmentId(),
       handle.getMinorFragmentId(),
       config.getReceiverMajorFragmentId(),
-      new ArrowRecordBatch(arrowRecordBatch.getLength(), arrowRecordBatch.getNodes(), buffers, NoCompressionCodec.DEFAULT_BODY_COMPRESSION, false),
+      compressor.compress(new ArrowRecordBatch(arrowRecordBatch.getLength(), arrowRecordBatch.getNodes(), buffers,
+        NoCompressionCodec.DEFAULT_BODY_COMPRESSION, false), tunnel),
       minorFragments.get(currentTunnelsIndex).get(currentMinorFragmentsIndex)
     );
     updateStats(batch);
-    tunnels.get(currentTunnelsIndex).sendRecordBatch(batch);
+    tunnel.sendRecordBatch(batch);
 
     currentMinorFragmentsIndex++;
     if (currentMinorFragmentsIndex >= minorFragments.get(currentTunnelsIndex).size()) {
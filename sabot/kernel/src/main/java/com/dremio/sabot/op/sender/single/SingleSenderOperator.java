@@ -31,6 +31,7 @@ import com.dremio.sabot.exec.context.OperatorContext;
 import com.dremio.sabot.exec.rpc.AccountingExecTunnel;
 import com.dremio.sabot.exec.rpc.TunnelProvider;
 import com.dremio.sabot.op.sender.BaseSender;
+import com.dremio.sabot.op.sender.ExchangeBatchCompressor;
 import com.dremio.sabot.op.spi.TerminalOperator;
 import com.google.common.base.Preconditions;
 
@@ -41,6 +42,7 @@ public class SingleSenderOperator extends BaseSender {
     private final FragmentHandle oppositeHandle;
     private final OperatorContext context;
     private final AccountingExecTunnel tunnel;
+    private final ExchangeBatchCompressor compressor;
     private final FragmentHandle handle;
     private final int recMajor;
 
@@ -48,7 +50,10 @@ public class SingleSenderOperator extends BaseSender {
     private VectorAccessible incoming;
 
     public enum Metric implements MetricDef {
-      BYTES_SENT;
+      BYTES_SENT,
+      COMPRESSION_NANOS,
+      BYTES_BEFORE_COMPRESSION,
+      BYTES_AFTER_COMPRESSION;
 
       @Override
       public int metricId() {
@@ -68,17 +73,18 @@ public class SingleSenderOperator extends BaseSender {
 
       NodeEndpoint ep = config.getDestinations(context.getEndpointsIndex()).get(0).getEndpoint();
       this.tunnel = tunnelProvider.getExecTunnel(ep);
+      this.compressor = new ExchangeBatchCompressor(context);
     }
 
     @Override
     public void consumeData(int records) {
       Preconditions.checkArgument(records > 0);
-      final FragmentWritableBatch batch = FragmentWritableBatch.create(
+      final FragmentWritableBatch batch = new FragmentWritableBatch(
           handle.getQueryId(),
           handle.getMajorFragmentId(),
           handle.getMinorFragmentId(),
           recMajor,
-          incoming,
+          compressor.compress(FragmentWritableBatch.getArrowRecordBatch(incoming), tunnel),
           oppositeHandle.getMinorFragmentId()
           );
       updateStats(batch);
@@ -126,6 +132,9 @@ public class SingleSenderOperator extends BaseSender {
 
     private void updateStats(FragmentWritableBatch writableBatch) {
       context.getStats().addLongStat(Metric.BYTES_SENT, writableBatch.getByteCount());
+      context.getStats().setLongStat(Metric.COMPRESSION_NANOS, compressor.getCompressionNanos());
+      context.getStats().setLongStat(Metric.BYTES_BEFORE_COMPRESSION, compressor.getUncompressedBytes());
+      context.getStats().setLongStat(Metric.BYTES_AFTER_COMPRESSION, compressor.getCompressedBytes());
     }
 
     @Override
@@ -68,6 +68,7 @@ import com.dremio.sabot.op.copier.FieldBufferCopierFactory;
 import com.dremio.sabot.op.sort.external.SpillManager.SpillFile;
 import com.dremio.sabot.op.sort.external.SpillManager.SpillInputStream;
 import com.dremio.sabot.op.sort.external.SpillManager.SpillOutputStream;
+import com.dremio.sabot.op.sort.merge.NormalizedKeyPrefix;
 import com.dremio.service.spill.SpillService;
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Function;
@@ -120,6 +121,7 @@ public class DiskRunManager implements AutoCloseable {
   private MicroSpillState microSpillState;
   private final int spillWriteMax;
   private final boolean useVectorCopier;
+  private final boolean useKeyPrefix;
   private long oomAllocate;
   private long oomCopy;
   private final double allocationDensity;
@@ -171,6 +173,7 @@ public class DiskRunManager implements AutoCloseable {
       this.spillWriteMax = (int) optionManager.getOption(ExecConstants.SORT_MAX_WRITE_BATCH);
       this.useArrowEncoding = optionManager.getOption(ExecConstants.EXTERNAL_SORT_ARROW_ENCODING);
       this.useVectorCopier = optionManager.getOption(ExecConstants.EXTERNAL_SORT_VECTOR_COPIER);
+      this.useKeyPrefix = optionManager.getOption(ExecConstants.MERGE_USE_KEY_PREFIX);
       this.allocationDensity = optionManager.getOption(ExecConstants.EXTERNAL_SORT_SPILL_ALLOCATION_DENSITY);
       this.copierFactory = new FieldBufferCopierFactory(optionManager);
 
@@ -758,7 +761,9 @@ public class DiskRunManager implements AutoCloseable {
 
       final PriorityQueueCopier copier = cg.getImplementationClass();
 
-      copier.setup(producer.getFunctionContext(), copierAllocator, iterators, incoming, targetContainer);
+      final NormalizedKeyPrefix keyPrefix = useKeyPrefix && !orderings.isEmpty()
+        ? NormalizedKeyPrefix.create(orderings.get(0), incoming) : null;
+      copier.setup(producer.getFunctionContext(), copierAllocator, iterators, incoming, targetContainer, keyPrefix);
       this.copier = copier;
 
       rollback.commit();
@@ -987,6 +992,14 @@ public class DiskRunManager implements AutoCloseable {
     return spillManager.getIOWriteWait();
   }
 
+  public long getIOReadNanos() {
+    return spillManager.getIOReadNanos();
+  }
+
+  public long getIOWriteNanos() {
+    return spillManager.getIOWriteNanos();
+  }
+
   public long getOOMAllocateCount() {
     return oomAllocate;
   }
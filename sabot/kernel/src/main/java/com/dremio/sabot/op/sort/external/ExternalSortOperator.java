@@ -123,6 +123,7 @@ public class ExternalSortOperator implements SingleInputOperator, ShrinkableOper
   private int maxBatchesInMemory = 0;
   private int batchsizeMultiplier;
   private boolean enableSplaySort;
+  private boolean enableNormalizedKeys;
   private boolean enableMicroSpill;
   private State prevState;
   private SortState prevSortState;
@@ -177,6 +178,9 @@ public class ExternalSortOperator implements SingleInputOperator, ShrinkableOper
 
     OOM_ALLOCATE_COUNT,
     OOM_COPY_COUNT,
+
+    IO_WRITE_NANOS,     // time spent writing spill files, on the I/O threads with asynchronous spill I/O
+    IO_READ_NANOS,      // time spent reading spill files, on the I/O threads with asynchronous spill I/O
     ;
 
     @Override
@@ -219,6 +223,7 @@ public class ExternalSortOperator implements SingleInputOperator, ShrinkableOper
       final int varFieldSizeEstimate = (int) options.getOption(ExecConstants.BATCH_VARIABLE_FIELD_SIZE_ESTIMATE);
       final boolean compressSpilledBatch = options.getOption(ExecConstants.EXTERNAL_SORT_COMPRESS_SPILL_FILES);
       this.enableSplaySort = options.getOption(ExecConstants.EXTERNAL_SORT_ENABLE_SPLAY_SORT);
+      this.enableNormalizedKeys = options.getOption(ExecConstants.EXTERNAL_SORT_NORMALIZED_KEYS);
       this.unconsumedRef = null;
       this.enableMicroSpill = options.getOption(ExecConstants.EXTERNAL_SORT_ENABLE_MICRO_SPILL);
       this.consumePendingIncomingBatch = false;
@@ -226,7 +231,7 @@ public class ExternalSortOperator implements SingleInputOperator, ShrinkableOper
       this.prevSortState = null;
 
       this.memoryRun = new MemoryRun(config, producer, context.getAllocator(), incoming.getSchema(), tracer,
-        batchsizeMultiplier, enableSplaySort, targetBatchSize, context.getExecutionControls());
+        batchsizeMultiplier, enableSplaySort, enableNormalizedKeys, targetBatchSize, context.getExecutionControls());
       rollback.add(this.memoryRun);
 
       this.incoming = incoming;
@@ -445,6 +450,8 @@ public class ExternalSortOperator implements SingleInputOperator, ShrinkableOper
       stats.setLongStat(Metric.OOM_ALLOCATE_COUNT, diskRuns.getOOMAllocateCount());
       stats.setLongStat(Metric.OOM_COPY_COUNT, diskRuns.getOOMCopyCount());
       stats.setLongStat(Metric.SPILL_COPY_NANOS, diskRuns.getSpillCopyNanos());
+      stats.setLongStat(Metric.IO_WRITE_NANOS, diskRuns.getIOWriteNanos());
+      stats.setLongStat(Metric.IO_READ_NANOS, diskRuns.getIOReadNanos());
     }
 
   }
@@ -459,7 +466,7 @@ public class ExternalSortOperator implements SingleInputOperator, ShrinkableOper
     try {
       memoryRun.closeToDisk(diskRuns);
       memoryRun = new MemoryRun(config, producer, allocator, incoming.getSchema(), tracer,
-        batchsizeMultiplier, enableSplaySort, targetBatchSize, context.getExecutionControls());
+        batchsizeMultiplier, enableSplaySort, enableNormalizedKeys, targetBatchSize, context.getExecutionControls());
     } catch (Exception e) {
       throw UserException.dataWriteError(e)
         .message("Failure while attempting to spill sort data to disk.")
@@ -488,7 +495,7 @@ public class ExternalSortOperator implements SingleInputOperator, ShrinkableOper
 
   private void finishMicroSpilling() throws Exception {
     memoryRun = new MemoryRun(config, producer, allocator, incoming.getSchema(), tracer,
-      batchsizeMultiplier, enableSplaySort, targetBatchSize, context.getExecutionControls());
+      batchsizeMultiplier, enableSplaySort, enableNormalizedKeys, targetBatchSize, context.getExecutionControls());
 
     if (consumePendingIncomingBatch) {
       Preconditions.checkState(this.unconsumedRef != null);
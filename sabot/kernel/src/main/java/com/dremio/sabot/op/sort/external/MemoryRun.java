@@ -95,6 +95,7 @@ class MemoryRun implements AutoCloseable {
       ExternalSortTracer tracer,
       int batchsizeMultiplier,
       boolean useSplaySort,
+      boolean useNormalizedKeys,
       int targetBatchSize,
       ExecutionControls executionControls
       ) {
@@ -110,7 +111,7 @@ class MemoryRun implements AutoCloseable {
       if (useSplaySort) {
         this.sorter = new SplaySorter(sortConfig, classProducer, schema, allocator);
       } else {
-        this.sorter = new QuickSorter(sortConfig, classProducer, schema, allocator);
+        this.sorter = new QuickSorter(sortConfig, classProducer, schema, allocator, useNormalizedKeys);
       }
     } catch (OutOfMemoryException ex) {
       this.sorter = null;
@@ -0,0 +1,411 @@
+/*
+ * Copyright (C) 2017-2019 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.sabot.op.sort.external;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.apache.arrow.memory.ArrowBuf;
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.memory.OutOfMemoryException;
+import org.apache.arrow.vector.BaseVariableWidthVector;
+import org.apache.arrow.vector.BigIntVector;
+import org.apache.arrow.vector.BitVector;
+import org.apache.arrow.vector.DateMilliVector;
+import org.apache.arrow.vector.DecimalVector;
+import org.apache.arrow.vector.IntVector;
+import org.apache.arrow.vector.SimpleIntVector;
+import org.apache.arrow.vector.TimeMilliVector;
+import org.apache.arrow.vector.TimeStampMilliVector;
+import org.apache.arrow.vector.ValueVector;
+import org.apache.calcite.rel.RelFieldCollation.Direction;
+import org.apache.hadoop.util.IndexedSortable;
+import org.apache.hadoop.util.QuickSort;
+
+import com.dremio.common.expression.SchemaPath;
+import com.dremio.common.logical.data.Order.Ordering;
+import com.dremio.exec.record.TypedFieldId;
+import com.dremio.exec.record.VectorAccessible;
+import com.dremio.exec.record.VectorWrapper;
+import com.dremio.exec.record.selection.SelectionVector2;
+
+/**
+ * Fixed width binary keys of the rows of a hyper batch, ordered as the rows when compared byte by byte, and sorted
+ * with a radix sort instead of calling the generated comparator.
+ *
+ * Each ordering column is encoded as a null byte followed by its value in big endian: integers and decimals have
+ * their sign bit flipped, and strings and binaries are truncated to their first {@link #STRING_PREFIX_WIDTH} bytes,
+ * padded with zeros. All the bytes of descending columns are inverted. Columns following a truncated column, or
+ * of types without such an encoding, are not encoded: the keys are then not exact, and rows with equal keys are
+ * sorted with the generated comparator.
+ *
+ * Keys are stored with the compound index of their row, batch index in the upper 16 bits, in a single buffer.
+ */
+public class NormalizedKeys implements AutoCloseable {
+  private static final org.slf4j.Logger logger = org.slf4j.LoggerFactory.getLogger(NormalizedKeys.class);
+
+  static final int STRING_PREFIX_WIDTH = 16;
+  static final int MAX_KEY_WIDTH = 64;
+  // ranges smaller than this are sorted by insertion
+  private static final int INSERTION_SORT_THRESHOLD = 16;
+  private static final int RADIX = 256;
+
+  private final BufferAllocator allocator;
+  private final List<Column> columns;
+  private final boolean exact;
+  private final int keyWidth;
+  private final int entryWidth;
+  private final byte[] left;
+  private final byte[] right;
+
+  private ArrowBuf buffer;
+  private int capacity;
+  private int count;
+
+  private NormalizedKeys(BufferAllocator allocator, List<Column> columns, boolean exact) {
+    this.allocator = allocator;
+    this.columns = columns;
+    this.exact = exact;
+    int width = 0;
+    for (Column column : columns) {
+      width += 1 + column.width;
+    }
+    this.keyWidth = width;
+    this.entryWidth = keyWidth + Integer.BYTES;
+    this.left = new byte[entryWidth];
+    this.right = new byte[entryWidth];
+  }
+
+  /**
+   * Creates the keys of the given orderings over the batches of the given hyper batch.
+   *
+   * @return the keys, or null if the first ordering can not be encoded
+   */
+  public static NormalizedKeys create(BufferAllocator allocator, List<Ordering> orderings, VectorAccessible hyperBatch) {
+    final List<Column> columns = new ArrayList<>();
+    boolean exact = true;
+    int width = 0;
+    for (Ordering ordering : orderings) {
+      final Column column = Column.create(ordering, hyperBatch);
+      if (column == null || width + 1 + column.width > MAX_KEY_WIDTH) {
+        exact = false;
+        break;
+      }
+      columns.add(column);
+      width += 1 + column.width;
+      if (column.truncated) {
+        exact = false;
+        break;
+      }
+    }
+    if (columns.isEmpty()) {
+      return null;
+    }
+    logger.debug("Sorting on normalized keys of {} bytes for {} out of {} orderings", width, columns.size(),
+      orderings.size());
+    return new NormalizedKeys(allocator, columns, exact);
+  }
+
+  /**
+   * @return true if rows with equal keys are equal for the orderings
+   */
+  public boolean isExact() {
+    return exact;
+  }
+
+  /**
+   * Makes room for the keys of the given number of rows.
+   *
+   * @return false if there is not enough memory
+   */
+  public boolean expandIfNecessary(int rowCount) {
+    if (rowCount <= capacity) {
+      return true;
+    }
+    final int newCapacity = Math.max(rowCount, Math.max(capacity * 2, 4096));
+    try {
+      final ArrowBuf newBuffer = allocator.buffer((long) newCapacity * entryWidth);
+      if (buffer != null) {
+        newBuffer.setBytes(0, buffer, 0, (long) count * entryWidth);
+        buffer.close();
+      }
+      buffer = newBuffer;
+      capacity = newCapacity;
+      return true;
+    } catch (OutOfMemoryException ex) {
+      return false;
+    }
+  }
+
+  /**
+   * Adds the keys of the rows of the batch at the given index of the hyper batch.
+   */
+  public void add(int batchIndex, SelectionVector2 sv2, int recordCount) {
+    final ValueVector[] vectors = new ValueVector[columns.size()];
+    for (int i = 0; i < vectors.length; i++) {
+      vectors[i] = columns.get(i).wrapper.getValueVectors()[batchIndex];
+    }
+    assert count + recordCount <= capacity;
+    for (int row = 0; row < recordCount; row++) {
+      final int recordIndex = (sv2 != null ? sv2.getIndex(row) : row) & 65535;
+      final long offset = (long) count * entryWidth;
+      long position = offset;
+      for (int i = 0; i < vectors.length; i++) {
+        position = columns.get(i).write(vectors[i], recordIndex, buffer, position);
+      }
+      buffer.setInt(offset + keyWidth, (batchIndex << 16) | recordIndex);
+      count++;
+    }
+  }
+
+  /**
+   * Sorts the rows on their keys, and writes their compound indexes in order to the given vector. Rows with equal
+   * keys are then sorted with the given sortable if the keys are not exact, which compares the rows referenced by
+   * the vector.
+   */
+  public void sort(SimpleIntVector sorted, IndexedSortable comparator) {
+    if (count > 1) {
+      sort(0, count, 0, new int[keyWidth][RADIX], new int[keyWidth][RADIX]);
+    }
+    for (int i = 0; i < count; i++) {
+      sorted.set(i, buffer.getInt((long) i * entryWidth + keyWidth));
+    }
+    if (!exact) {
+      final QuickSort quickSort = new QuickSort();
+      int start = 0;
+      for (int i = 1; i <= count; i++) {
+        if (i == count || compare(start, i, 0) != 0) {
+          if (i - start > 1) {
+            quickSort.sort(comparator, start, i);
+          }
+          start = i;
+        }
+      }
+    }
+  }
+
+  /**
+   * In place most significant byte first radix sort of the entries in [start, end), which have equal bytes before
+   * the given depth.
+   */
+  private void sort(int start, int end, int depth, int[][] counts, int[][] nexts) {
+    if (end - start < INSERTION_SORT_THRESHOLD) {
+      insertionSort(start, end, depth);
+      return;
+    }
+    if (depth == keyWidth) {
+      return;
+    }
+
+    // counts of the buckets, then their ends
+    final int[] ends = counts[depth];
+    final int[] next = nexts[depth];
+    Arrays.fill(ends, 0);
+    for (int i = start; i < end; i++) {
+      ends[byteAt(i, depth)]++;
+    }
+
+    int position = start;
+    for (int b = 0; b < RADIX; b++) {
+      if (ends[b] == end - start) {
+        // all the entries share this byte
+        sort(start, end, depth + 1, counts, nexts);
+        return;
+      }
+      next[b] = position;
+      position += ends[b];
+      ends[b] = position;
+    }
+
+    // move each entry to its bucket
+    for (int b = 0; b < RADIX; b++) {
+      while (next[b] < ends[b]) {
+        final int value = byteAt(next[b], depth);
+        if (value == b) {
+          next[b]++;
+        } else {
+          swap(next[b], next[value]++);
+        }
+      }
+    }
+
+    int bucketStart = start;
+    for (int b = 0; b < RADIX; b++) {
+      final int bucketEnd = ends[b];
+      if (bucketEnd - bucketStart > 1) {
+        sort(bucketStart, bucketEnd, depth + 1, counts, nexts);
+      }
+      bucketStart = bucketEnd;
+    }
+  }
+
+  private void insertionSort(int start, int end, int depth) {
+    for (int i = start + 1; i < end; i++) {
+      for (int j = i; j > start && compare(j - 1, j, depth) > 0; j--) {
+        swap(j - 1, j);
+      }
+    }
+  }
+
+  private int byteAt(int entry, int depth) {
+    return buffer.getByte((long) entry * entryWidth + depth) & 0xFF;
+  }
+
+  private int compare(int leftEntry, int rightEntry, int depth) {
+    final long leftOffset = (long) leftEntry * entryWidth;
+    final long rightOffset = (long) rightEntry * entryWidth;
+    for (int i = depth; i < keyWidth; i++) {
+      final int cmp = (buffer.getByte(leftOffset + i) & 0xFF) - (buffer.getByte(rightOffset + i) & 0xFF);
+      if (cmp != 0) {
+        return cmp;
+      }
+    }
+    return 0;
+  }
+
+  private void swap(int leftEntry, int rightEntry) {
+    final long leftOffset = (long) leftEntry * entryWidth;
+    final long rightOffset = (long) rightEntry * entryWidth;
+    buffer.getBytes(leftOffset, left);
+    buffer.getBytes(rightOffset, right);
+    buffer.setBytes(leftOffset, right);
+    buffer.setBytes(rightOffset, left);
+  }
+
+  @Override
+  public void close() {
+    if (buffer != null) {
+      buffer.close();
+      buffer = null;
+    }
+    capacity = 0;
+    count = 0;
+  }
+
+  /**
+   * Encoding of an ordering column.
+   */
+  private abstract static class Column {
+    private final VectorWrapper<?> wrapper;
+    private final int width;
+    private final boolean truncated;
+    private final boolean nullsHigh;
+    private final boolean descending;
+
+    private Column(Ordering ordering, VectorWrapper<?> wrapper, int width, boolean truncated) {
+      this.wrapper = wrapper;
+      this.width = width;
+      this.truncated = truncated;
+      this.nullsHigh = ordering.nullsSortHigh();
+      this.descending = ordering.getDirection() == Direction.DESCENDING;
+    }
+
+    /**
+     * Writes the key of the given row at the given position.
+     *
+     * @return the position following the key
+     */
+    final long write(ValueVector vector, int index, ArrowBuf buffer, long position) {
+      final boolean isNull = vector.isNull(index);
+      buffer.setByte(position, isNull == nullsHigh ? 1 : 0);
+      if (isNull) {
+        buffer.setZero(position + 1, width);
+      } else {
+        writeNotNull(vector, index, buffer, position + 1);
+      }
+      if (descending) {
+        for (long i = position; i <= position + width; i++) {
+          buffer.setByte(i, ~buffer.getByte(i));
+        }
+      }
+      return position + 1 + width;
+    }
+
+    abstract void writeNotNull(ValueVector vector, int index, ArrowBuf buffer, long position);
+
+    static Column create(Ordering ordering, VectorAccessible hyperBatch) {
+      if (!(ordering.getExpr() instanceof SchemaPath)) {
+        return null;
+      }
+      final TypedFieldId fieldId = hyperBatch.getValueVectorId((SchemaPath) ordering.getExpr());
+      if (fieldId == null || fieldId.getFieldIds().length != 1) {
+        return null;
+      }
+      final VectorWrapper<?> wrapper = hyperBatch.getValueAccessorById(ValueVector.class, fieldId.getFieldIds());
+      final Class<?> vectorClass = wrapper.getVectorClass();
+      if (BitVector.class == vectorClass) {
+        return new Column(ordering, wrapper, 1, false) {
+          @Override
+          void writeNotNull(ValueVector vector, int index, ArrowBuf buffer, long position) {
+            buffer.setByte(position, ((BitVector) vector).get(index));
+          }
+        };
+      }
+      if (IntVector.class == vectorClass || TimeMilliVector.class == vectorClass) {
+        return new Column(ordering, wrapper, Integer.BYTES, false) {
+          @Override
+          void writeNotNull(ValueVector vector, int index, ArrowBuf buffer, long position) {
+            final int value = vector.getDataBuffer().getInt((long) index * Integer.BYTES);
+            buffer.setInt(position, Integer.reverseBytes(value ^ Integer.MIN_VALUE));
+          }
+        };
+      }
+      if (BigIntVector.class == vectorClass || DateMilliVector.class == vectorClass
+        || TimeStampMilliVector.class == vectorClass) {
+        return new Column(ordering, wrapper, Long.BYTES, false) {
+          @Override
+          void writeNotNull(ValueVector vector, int index, ArrowBuf buffer, long position) {
+            final long value = vector.getDataBuffer().getLong((long) index * Long.BYTES);
+            buffer.setLong(position, Long.reverseBytes(value ^ Long.MIN_VALUE));
+          }
+        };
+      }
+      if (DecimalVector.class == vectorClass) {
+        // all the values of a column have the same scale, so they are ordered as their unscaled values, stored as
+        // 128 bits little endian two's complement integers
+        return new Column(ordering, wrapper, DecimalVector.TYPE_WIDTH, false) {
+          @Override
+          void writeNotNull(ValueVector vector, int index, ArrowBuf buffer, long position) {
+            final long offset = (long) index * DecimalVector.TYPE_WIDTH;
+            final long low = vector.getDataBuffer().getLong(offset);
+            final long high = vector.getDataBuffer().getLong(offset + Long.BYTES);
+            buffer.setLong(position, Long.reverseBytes(high ^ Long.MIN_VALUE));
+            buffer.setLong(position + Long.BYTES, Long.reverseBytes(low));
+          }
+        };
+      }
+      if (BaseVariableWidthVector.class.isAssignableFrom(vectorClass)) {
+        // compared as unsigned bytes, then on their length
+        return new Column(ordering, wrapper, STRING_PREFIX_WIDTH, true) {
+          @Override
+          void writeNotNull(ValueVector vector, int index, ArrowBuf buffer, long position) {
+            final ArrowBuf offsets = vector.getOffsetBuffer();
+            final int start = offsets.getInt((long) index * BaseVariableWidthVector.OFFSET_WIDTH);
+            final int end = offsets.getInt((long) (index + 1) * BaseVariableWidthVector.OFFSET_WIDTH);
+            final int length = Math.min(end - start, STRING_PREFIX_WIDTH);
+            buffer.setBytes(position, vector.getDataBuffer(), start, length);
+            if (length < STRING_PREFIX_WIDTH) {
+              buffer.setZero(position + length, STRING_PREFIX_WIDTH - length);
+            }
+          }
+        };
+      }
+      // floating point values are compared with the primitive operators, which do not order NaN
+      return null;
+    }
+  }
+}
@@ -25,6 +25,7 @@ import com.dremio.exec.record.VectorAccessible;
 import com.dremio.exec.record.VectorContainer;
 import com.dremio.sabot.exec.context.FunctionContext;
 import com.dremio.sabot.op.sort.external.DiskRunManager.DiskRunIterator;
+import com.dremio.sabot.op.sort.merge.NormalizedKeyPrefix;
 
 public interface PriorityQueueCopier extends AutoCloseable, MovingCopier {
   static final long INITIAL_ALLOCATION = 10000000;
@@ -37,7 +38,8 @@ public interface PriorityQueueCopier extends AutoCloseable, MovingCopier {
       BufferAllocator allocator,
       DiskRunIterator[] iterators,
       VectorAccessible incoming,
-      VectorContainer outgoing) throws SchemaChangeException, IOException ;
+      VectorContainer outgoing,
+      NormalizedKeyPrefix keyPrefix) throws SchemaChangeException, IOException ;
 
   int copy(int targetRecordCount);
 }
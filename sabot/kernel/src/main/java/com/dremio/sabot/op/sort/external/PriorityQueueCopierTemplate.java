@@ -19,7 +19,6 @@ import java.io.IOException;
 
 import javax.inject.Named;
 
-import org.apache.arrow.memory.ArrowBuf;
 import org.apache.arrow.memory.BufferAllocator;
 import org.apache.arrow.memory.OutOfMemoryException;
 import org.apache.arrow.vector.DensityAwareVector;
@@ -31,20 +30,22 @@ import com.dremio.exec.exception.SchemaChangeException;
 import com.dremio.exec.record.VectorAccessible;
 import com.dremio.exec.record.VectorContainer;
 import com.dremio.exec.record.VectorWrapper;
-import com.dremio.exec.record.selection.SelectionVector4;
 import com.dremio.sabot.exec.context.FunctionContext;
 import com.dremio.sabot.op.sort.external.DiskRunManager.DiskRunIterator;
+import com.dremio.sabot.op.sort.merge.LoserTree;
+import com.dremio.sabot.op.sort.merge.NormalizedKeyPrefix;
 import com.google.common.collect.Iterables;
 
-public abstract class PriorityQueueCopierTemplate implements PriorityQueueCopier {
+public abstract class PriorityQueueCopierTemplate implements PriorityQueueCopier, LoserTree.Sources {
   private static final org.slf4j.Logger logger = org.slf4j.LoggerFactory.getLogger(PriorityQueueCopierTemplate.class);
 
-  private SelectionVector4 vector4;
+  // compound index of the current record of each run, or -1 once the run is exhausted
+  private int[] currentIds;
   private DiskRunIterator[] iterators;
   private Sv4HyperContainer incoming;
   private VectorContainer outgoing;
-  private int size;
-  private int queueSize = 0;
+  private NormalizedKeyPrefix keyPrefix;
+  private LoserTree tree;
 
   /**
    * Last density parameter used to successfully allocate memory for outgoing vectors. We keep track of this parameter
@@ -58,22 +59,41 @@ public abstract class PriorityQueueCopierTemplate implements PriorityQueueCopier
       BufferAllocator allocator,
       DiskRunIterator[] iterators,
       VectorAccessible incoming,
-      VectorContainer outgoing) throws SchemaChangeException, IOException {
+      VectorContainer outgoing,
+      NormalizedKeyPrefix keyPrefix) throws SchemaChangeException, IOException {
     this.incoming = new Sv4HyperContainer(allocator, incoming.getSchema());
-    this.size = iterators.length;
-    final ArrowBuf arrowBuf = allocator.buffer(4 * size);
-    this.vector4 = new SelectionVector4(arrowBuf, size, Character.MAX_VALUE);
+    this.currentIds = new int[iterators.length];
     this.iterators = iterators;
     this.outgoing = outgoing;
+    this.keyPrefix = keyPrefix;
 
     doSetup(context, incoming, outgoing);
 
-    queueSize = 0;
-    for (int i = 0; i < size; i++) {
-      vector4.set(i, i, iterators[i].getNextId());
-      siftUp();
-      queueSize++;
+    for (int i = 0; i < iterators.length; i++) {
+      advance(i);
     }
+    this.tree = new LoserTree(iterators.length, this);
+    tree.init();
+  }
+
+  private void advance(int batch) throws IOException {
+    final int nextIndex = iterators[batch].getNextId();
+    currentIds[batch] = nextIndex < 0 ? -1 : (batch << 16) | nextIndex;
+  }
+
+  @Override
+  public boolean isDone(int source) {
+    return currentIds[source] < 0;
+  }
+
+  @Override
+  public long getKeyPrefix(int source) {
+    return keyPrefix == null ? 0 : keyPrefix.get(currentIds[source]);
+  }
+
+  @Override
+  public int compareSources(int leftSource, int rightSource) {
+    return doEval(currentIds[leftSource], currentIds[rightSource]);
   }
 
   @Override
@@ -83,26 +103,18 @@ public abstract class PriorityQueueCopierTemplate implements PriorityQueueCopier
     try{
       for (; outgoingIndex < targetRecordCount; outgoingIndex++) {
 
-        if (queueSize == 0) {
-          return 0;
+        final int batch = tree.top();
+        if (batch < 0) {
+          if (outgoingIndex > 0) {
+            setValueCount(outgoingIndex);
+          }
+          return outgoingIndex;
         }
 
-        final int compoundIndex = vector4.get(0);
-        final int batch = compoundIndex >>> 16;
-        assert batch < iterators.length : String.format("batch: %d batchGroups: %d", batch, iterators.length);
-        doCopy(compoundIndex, outgoingIndex);
+        doCopy(currentIds[batch], outgoingIndex);
 
-        int nextIndex = iterators[batch].getNextId();
-        if (nextIndex < 0) {
-          vector4.set(0, vector4.get(--queueSize));
-        } else {
-          vector4.set(0, batch, nextIndex);
-        }
-        if (queueSize == 0) {
-          setValueCount(++outgoingIndex);
-          return outgoingIndex;
-        }
-        siftDown();
+        advance(batch);
+        tree.replay();
       }
       setValueCount(targetRecordCount);
       return targetRecordCount;
@@ -134,7 +146,6 @@ public abstract class PriorityQueueCopierTemplate implements PriorityQueueCopier
   public void close() throws Exception {
     AutoCloseables.close(
       Iterables.concat(
-          AutoCloseables.iter(vector4),
           AutoCloseables.iter(outgoing),
           incoming,
           AutoCloseables.iter(iterators)
@@ -142,18 +153,6 @@ public abstract class PriorityQueueCopierTemplate implements PriorityQueueCopier
     );
   }
 
-  private void siftUp() {
-    int p = queueSize;
-    while (p > 0) {
-      if (compare(p, (p - 1) / 2) < 0) {
-        swap(p, (p - 1) / 2);
-        p = (p - 1) / 2;
-      } else {
-        break;
-      }
-    }
-  }
-
   private void allocateVectors(int targetRecordCount) {
     boolean memoryAllocated = false;
     double density = lastSuccessfulDensity;
@@ -184,40 +183,6 @@ public abstract class PriorityQueueCopierTemplate implements PriorityQueueCopier
     }
   }
 
-  private void siftDown() {
-    int p = 0;
-    int next;
-    while (p * 2 + 1 < queueSize) { // While the current node has at least one child
-      if (p * 2 + 2 >= queueSize) { // if current node has only one child, then we only look at it
-        next = p * 2 + 1;
-      } else {
-        if (compare(p * 2 + 1, p * 2 + 2) <= 0) {//if current node has two children, we must first determine which one has higher priority
-          next = p * 2 + 1;
-        } else {
-          next = p * 2 + 2;
-        }
-      }
-      if (compare(p, next) > 0) { // compare current node to highest priority child and swap if necessary
-        swap(p, next);
-        p = next;
-      } else {
-        break;
-      }
-    }
-  }
-
-  public void swap(int sv0, int sv1) {
-    int tmp = vector4.get(sv0);
-    vector4.set(sv0, vector4.get(sv1));
-    vector4.set(sv1, tmp);
-  }
-
-  public int compare(int leftIndex, int rightIndex) {
-    int sv1 = vector4.get(leftIndex);
-    int sv2 = vector4.get(rightIndex);
-    return doEval(sv1, sv2);
-  }
-
   public abstract void doSetup(@Named("context") FunctionContext context, @Named("incoming") VectorAccessible incoming, @Named("outgoing") VectorAccessible outgoing);
   public abstract int doEval(@Named("leftIndex") int leftIndex, @Named("rightIndex") int rightIndex);
   public abstract void doCopy(@Named("inIndex") int inIndex, @Named("outIndex") int outIndex);
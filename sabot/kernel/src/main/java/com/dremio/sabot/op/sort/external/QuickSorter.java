@@ -44,15 +44,19 @@ public class QuickSorter implements Sorter {
   private final ClassProducer classProducer;
   private final Schema schema;
   private final BufferAllocator allocator;
+  private final boolean useNormalizedKeys;
 
   private QuickSorterInterface quickSorter;
   private SimpleIntVector quickSorterBuffer;
+  private NormalizedKeys normalizedKeys;
 
-  public QuickSorter(ExternalSort sortConfig, ClassProducer classProducer, Schema schema, BufferAllocator allocator) {
+  public QuickSorter(ExternalSort sortConfig, ClassProducer classProducer, Schema schema, BufferAllocator allocator,
+                     boolean useNormalizedKeys) {
     this.sortConfig = sortConfig;
     this.classProducer = classProducer;
     this.schema = schema;
     this.allocator = allocator;
+    this.useNormalizedKeys = useNormalizedKeys;
     quickSorterBuffer = new SimpleIntVector("QuickSorterSimpleIntVector", allocator);
   }
 
@@ -66,7 +70,7 @@ public class QuickSorter implements Sorter {
       return false;
     }
 
-    return true;
+    return normalizedKeys == null || normalizedKeys.expandIfNecessary(newRequiredSize);
   }
 
   public void setup(VectorAccessible batch) throws ClassTransformationException, SchemaChangeException, IOException {
@@ -78,6 +82,16 @@ public class QuickSorter implements Sorter {
     this.quickSorter = cg.getImplementationClass();
     quickSorter.init(classProducer.getFunctionContext(), container);
     quickSorter.setDataBuffer(quickSorterBuffer);
+
+    if (useNormalizedKeys) {
+      normalizedKeys = NormalizedKeys.create(allocator, sortConfig.getOrderings(), container);
+      // room for the keys of the first batch was not reserved, sort with the comparator if there is none
+      if (normalizedKeys != null && !normalizedKeys.expandIfNecessary(quickSorterBuffer.getValueCapacity())) {
+        normalizedKeys.close();
+        normalizedKeys = null;
+      }
+      quickSorter.setNormalizedKeys(normalizedKeys);
+    }
   }
 
   public void addBatch(RecordBatchData data, BufferAllocator copyTargetAllocator) throws SchemaChangeException {
@@ -110,8 +124,10 @@ public class QuickSorter implements Sorter {
     final List<AutoCloseable> closeables = Lists.newArrayList();
 
     closeables.add(quickSorterBuffer);
+    closeables.add(normalizedKeys);
     AutoCloseables.close(closeables);
 
     quickSorterBuffer = null;
+    normalizedKeys = null;
   }
 }
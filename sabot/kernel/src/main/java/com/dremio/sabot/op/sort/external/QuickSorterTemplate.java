@@ -40,6 +40,7 @@ public abstract class QuickSorterTemplate implements QuickSorterInterface, Index
   private FunctionContext context;
   private ExpandableHyperContainer hyperBatch;
   private SimpleIntVector intVector;
+  private NormalizedKeys keys;
   private int totalCount;
 
   @Override
@@ -54,6 +55,11 @@ public abstract class QuickSorterTemplate implements QuickSorterInterface, Index
     totalCount = 0;
   }
 
+  @Override
+  public void setNormalizedKeys(NormalizedKeys keys) {
+    this.keys = keys;
+  }
+
   @Override
   public void add(final RecordBatchData batch) throws SchemaChangeException {
     final Stopwatch watch = Stopwatch.createStarted();
@@ -71,6 +77,9 @@ public abstract class QuickSorterTemplate implements QuickSorterInterface, Index
       totalCount++;
     }
     assert totalCount <= intVector.getValueCapacity();
+    if (keys != null) {
+      keys.add(batchIndex, incomingSv2, recordCount);
+    }
 
     logger.debug("Took {} us to add {} records for batch number {}",
       watch.elapsed(TimeUnit.MICROSECONDS), batch.getRecordCount(), batchIndex);
@@ -83,7 +92,11 @@ public abstract class QuickSorterTemplate implements QuickSorterInterface, Index
     intVector.setValueCount(totalCount);
     QuickSort qs = new QuickSort();
     if (totalCount > 0) {
-      qs.sort(this, 0, totalCount);
+      if (keys != null) {
+        keys.sort(intVector, this);
+      } else {
+        qs.sort(this, 0, totalCount);
+      }
     }
 
     SelectionVector4 finalSortedSV4 = new SelectionVector4(allocator.buffer(totalCount * 4), totalCount, targetBatchSize);
@@ -22,6 +22,7 @@ import java.io.InputStream;
 import java.io.OutputStream;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.Executor;
 import java.util.function.Function;
 
 import org.apache.arrow.memory.ArrowBuf;
@@ -42,6 +43,8 @@ import com.dremio.exec.store.InputStreamWithStats;
 import com.dremio.exec.store.LocalSyncableFileSystem.LocalSyncableOutputStream;
 import com.dremio.exec.store.LocalSyncableFileSystem.WritesArrowBuf;
 import com.dremio.exec.store.OutputStreamWithStats;
+import com.dremio.exec.store.ReadAheadInputStream;
+import com.dremio.exec.store.WriteBehindOutputStream;
 import com.dremio.options.OptionManager;
 import com.dremio.sabot.exec.context.OperatorStats;
 import com.dremio.service.spill.SpillDirectory;
@@ -54,6 +57,10 @@ import net.jpountz.lz4.LZ4BlockOutputStream;
  * Distribute spills across given list of directories.
  * Monitor disk space left and stop using disks which are running low on free space.
  * Monitoring is disabled for spill directories on non local filesystems.
+ *
+ * When asynchronous spill I/O is enabled, spill streams write behind and read ahead of the caller using the
+ * spill service's I/O executor. Compression then also happens on the I/O threads, and the reported wait
+ * times are the time the caller was actually blocked on I/O.
  */
 public class SpillManager implements AutoCloseable {
   private static final org.slf4j.Logger logger = org.slf4j.LoggerFactory.getLogger(SpillManager.class);
@@ -65,6 +72,9 @@ public class SpillManager implements AutoCloseable {
   private final String caller;
   private final OperatorStats stats;
   private final boolean useDirectWritePathIfPossible;
+  private final Executor asyncIOExecutor;
+  private final int asyncIOBufferSize;
+  private final int asyncIOBuffers;
   private long appWriteBytes;
   private long appReadBytes;
   private long ioReadBytes;
@@ -73,6 +83,8 @@ public class SpillManager implements AutoCloseable {
   private long decompressionNanos;
   private long ioReadWaitNanos;
   private long ioWriteWaitNanos;
+  private long ioReadNanos;
+  private long ioWriteNanos;
 
   public SpillManager(SabotConfig sabotConfig, OptionManager optionManager, String id, Configuration hadoopConf,
       SpillService spillService, String caller, OperatorStats stats)  {
@@ -92,8 +104,14 @@ public class SpillManager implements AutoCloseable {
     // load options
     if (optionManager != null) {
       this.useDirectWritePathIfPossible = optionManager.getOption(ExecConstants.EXTERNAL_SORT_DIRECT_WRITE);
+      this.asyncIOExecutor = optionManager.getOption(ExecConstants.SPILL_ASYNC_IO_ENABLED) ? spillService.getIOExecutor() : null;
+      this.asyncIOBufferSize = (int) optionManager.getOption(ExecConstants.SPILL_ASYNC_IO_BUFFER_SIZE);
+      this.asyncIOBuffers = (int) optionManager.getOption(ExecConstants.SPILL_ASYNC_IO_BUFFERS);
     } else {
       this.useDirectWritePathIfPossible = ExecConstants.EXTERNAL_SORT_DIRECT_WRITE.getDefault().getBoolVal();
+      this.asyncIOExecutor = null;
+      this.asyncIOBufferSize = 0;
+      this.asyncIOBuffers = 0;
     }
 
     try {
@@ -109,6 +127,13 @@ public class SpillManager implements AutoCloseable {
     return id;
   }
 
+  /**
+   * @return true if spill streams write behind and read ahead of the caller
+   */
+  public boolean isAsyncIO() {
+    return asyncIOExecutor != null;
+  }
+
   public SpillFile getSpillFile(String fileName) throws RuntimeException {
     try {
       final SpillDirectory spillDirectory = spillService.getSpillSubdir(id);
@@ -147,6 +172,15 @@ public class SpillManager implements AutoCloseable {
       return fs.create(path);
     }
 
+    /**
+     * Creates the spill file for callers doing their own serialization. The returned stream writes behind the
+     * caller if asynchronous spill I/O is enabled.
+     */
+    public OutputStream createForSpill() throws IOException {
+      final FSDataOutputStream output = create();
+      return isAsyncIO() ? new TrackedWriteBehindOutputStream(output) : output;
+    }
+
     public FSDataOutputStream append() throws IOException {
       return fs.append(path);
     }
@@ -155,6 +189,15 @@ public class SpillManager implements AutoCloseable {
       return fs.open(path);
     }
 
+    /**
+     * Opens the spill file for callers doing their own deserialization. The returned stream reads ahead of
+     * the caller if asynchronous spill I/O is enabled.
+     */
+    public InputStream openForSpill() throws IOException {
+      final FSDataInputStream input = open();
+      return isAsyncIO() ? new TrackedReadAheadInputStream(input) : input;
+    }
+
     private void delete() throws IOException {
       fs.delete(path, true);
     }
@@ -204,8 +247,13 @@ public class SpillManager implements AutoCloseable {
     }
     ABOutputStreamWithStats base = new ABOutputStreamWithStats(actualOutput);
     ABOutputStreamWithStats top = compressed ? new ABOutputStreamWithStats(new LZ4BlockOutputStream(base)) : base;
+    if (isAsyncIO()) {
+      // batches are copied into the write-behind buffers, so the direct write path does not apply
+      final WriteBehindOutputStream writeBehind = new WriteBehindOutputStream(top, asyncIOExecutor, asyncIOBufferSize, asyncIOBuffers);
+      return new SpillOutputStream(writeBehind, top, base, file, compressed, false);
+    }
     boolean useDirectWrite = useDirectWritePathIfPossible && !compressed && actualOutput instanceof WritesArrowBuf;
-    return new SpillOutputStream(top, base, file, compressed, useDirectWrite);
+    return new SpillOutputStream(top, top, base, file, compressed, useDirectWrite);
   }
 
   public class SpillOutputStream extends FilterOutputStream {
@@ -217,12 +265,13 @@ public class SpillManager implements AutoCloseable {
     private final boolean writeDirect;
 
     private SpillOutputStream(
+        OutputStream out,
         ABOutputStreamWithStats top,
         ABOutputStreamWithStats base,
         SpillFile file,
         boolean compressed,
         boolean writeDirect) {
-      super(top);
+      super(out);
       this.top = top;
       this.base = base;
       this.file = file;
@@ -258,10 +307,20 @@ public class SpillManager implements AutoCloseable {
       return top.getWriteNanos() + top.getCloseNanos() - getIOTime();
     }
 
+    /**
+     * @return time the caller was blocked on writes to the spill file
+     */
+    public long getWaitTime() {
+      if (out instanceof WriteBehindOutputStream) {
+        return ((WriteBehindOutputStream) out).getStallNanos();
+      }
+      return getIOTime();
+    }
+
     public long writeBatch(VectorContainer outgoing) throws IOException {
       VectorAccessibleFlatBufSerializable serializable = new VectorAccessibleFlatBufSerializable(outgoing, null);
       serializable.setWriteDirect(writeDirect);
-      serializable.writeToStream(top);
+      serializable.writeToStream(out);
       return serializable.getBytesWritten();
     }
 
@@ -278,9 +337,10 @@ public class SpillManager implements AutoCloseable {
     public void close() throws IOException {
       super.close();
       if(stats != null) {
-        stats.moveProcessingToWait(getIOTime());
+        stats.moveProcessingToWait(getWaitTime());
       }
-      ioWriteWaitNanos += getIOTime();
+      ioWriteWaitNanos += getWaitTime();
+      ioWriteNanos += getIOTime();
       appWriteBytes += getWriteBytes();
       ioWriteBytes += getIOBytes();
       compressionNanos += getCompressionTime();
@@ -292,7 +352,11 @@ public class SpillManager implements AutoCloseable {
     InputStream output = file.fs.open(file.path);
     InputStreamWithStats base = new InputStreamWithStats(output);
     InputStreamWithStats top = compressed ? new InputStreamWithStats(new LZ4BlockInputStream(base)) : base;
-    return new SpillInputStream(top, base, file, compressed);
+    if (isAsyncIO()) {
+      final ReadAheadInputStream readAhead = new ReadAheadInputStream(top, asyncIOExecutor, asyncIOBufferSize, asyncIOBuffers);
+      return new SpillInputStream(readAhead, top, base, file, compressed);
+    }
+    return new SpillInputStream(top, top, base, file, compressed);
   }
 
   public class SpillInputStream extends FilterInputStream {
@@ -303,11 +367,12 @@ public class SpillManager implements AutoCloseable {
     private boolean compressed;
 
     private SpillInputStream(
+        InputStream in,
         InputStreamWithStats top,
         InputStreamWithStats base,
         SpillFile file,
         boolean compressed) {
-      super(top);
+      super(in);
       this.top = top;
       this.base = base;
       this.file = file;
@@ -342,29 +407,96 @@ public class SpillManager implements AutoCloseable {
       return top.getReadNanos() - getIOTime();
     }
 
+    /**
+     * @return time the caller was blocked on reads from the spill file
+     */
+    public long getWaitTime() {
+      if (in instanceof ReadAheadInputStream) {
+        return ((ReadAheadInputStream) in).getStallNanos();
+      }
+      return getIOTime();
+    }
+
     public void load(VectorContainer container, BufferAllocator allocator) throws IOException {
       VectorAccessibleFlatBufSerializable serializable = new VectorAccessibleFlatBufSerializable(container, allocator);
-      serializable.readFromStream(top);
+      serializable.readFromStream(in);
     }
 
     public void load(VectorContainer container, Function<Integer, ArrowBuf> allocatorFunc) throws IOException {
       VectorAccessibleFlatBufSerializable serializable = new VectorAccessibleFlatBufSerializable(container, allocatorFunc, stats);
-      serializable.readFromStream(top);
+      serializable.readFromStream(in);
     }
 
     @Override
     public void close() throws IOException {
       super.close();
       if(stats != null) {
-        stats.moveProcessingToWait(getIOTime());
+        stats.moveProcessingToWait(getWaitTime());
       }
-      ioReadWaitNanos += getIOTime();
+      ioReadWaitNanos += getWaitTime();
+      ioReadNanos += getIOTime();
       appReadBytes += getDecompressedBytes();
       ioReadBytes += getIOBytes();
       decompressionNanos += getDeompressionTime();
     }
   }
 
+  /**
+   * Write-behind stream for spill files written through {@link SpillFile#createForSpill()}
+   */
+  private class TrackedWriteBehindOutputStream extends WriteBehindOutputStream {
+    TrackedWriteBehindOutputStream(OutputStream out) {
+      super(out, asyncIOExecutor, asyncIOBufferSize, asyncIOBuffers);
+    }
+
+    private boolean closed;
+
+    @Override
+    public void close() throws IOException {
+      if (closed) {
+        return;
+      }
+      closed = true;
+      try {
+        super.close();
+      } finally {
+        if (stats != null) {
+          stats.moveProcessingToWait(getStallNanos());
+        }
+        ioWriteWaitNanos += getStallNanos();
+        ioWriteNanos += getWriteNanos();
+      }
+    }
+  }
+
+  /**
+   * Read-ahead stream for spill files read through {@link SpillFile#openForSpill()}
+   */
+  private class TrackedReadAheadInputStream extends ReadAheadInputStream {
+    TrackedReadAheadInputStream(InputStream in) throws IOException {
+      super(in, asyncIOExecutor, asyncIOBufferSize, asyncIOBuffers);
+    }
+
+    private boolean closed;
+
+    @Override
+    public void close() throws IOException {
+      if (closed) {
+        return;
+      }
+      closed = true;
+      try {
+        super.close();
+      } finally {
+        if (stats != null) {
+          stats.moveProcessingToWait(getStallNanos());
+        }
+        ioReadWaitNanos += getStallNanos();
+        ioReadNanos += getReadNanos();
+      }
+    }
+  }
+
   public long getAppWriteBytes() {
     return appWriteBytes;
   }
@@ -396,4 +528,12 @@ public class SpillManager implements AutoCloseable {
   public long getIOWriteWait() {
     return ioWriteWaitNanos;
   }
+
+  public long getIOReadNanos() {
+    return ioReadNanos;
+  }
+
+  public long getIOWriteNanos() {
+    return ioWriteNanos;
+  }
 }
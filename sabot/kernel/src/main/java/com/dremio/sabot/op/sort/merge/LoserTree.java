@@ -0,0 +1,143 @@
+/*
+ * Copyright (C) 2017-2019 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.sabot.op.sort.merge;
+
+import com.google.common.base.Preconditions;
+
+/**
+ * Tournament tree merging sorted sources, identified by their index.
+ *
+ * Each internal node of the tree holds the loser of the match between the winners of its two subtrees, so that
+ * replacing the overall winner only replays the matches on the path from its leaf to the root: log2(k) comparisons
+ * for k sources, against up to twice as many for a binary heap. Matches first compare the key prefixes of the
+ * current values of the sources, cached in the tree, and only call the full comparison of the sources on ties.
+ */
+public final class LoserTree {
+
+  /**
+   * Sorted sources merged by the tree.
+   */
+  public interface Sources {
+    /**
+     * @return true if the source has no more values
+     */
+    boolean isDone(int source);
+
+    /**
+     * @return the prefix of the key of the current value of the source, as an unsigned number ordered as the keys,
+     * or 0 if the sources have no key prefix
+     */
+    long getKeyPrefix(int source);
+
+    /**
+     * Compares the current values of two sources that are not done.
+     */
+    int compareSources(int leftSource, int rightSource);
+  }
+
+  private final Sources sources;
+  private final int size;
+  // tree[0] holds the winner, tree[1..size - 1] the losers of the matches
+  private final int[] tree;
+  private final long[] prefixes;
+  private final boolean[] done;
+
+  public LoserTree(int size, Sources sources) {
+    Preconditions.checkArgument(size > 0, "At least one source is required");
+    this.sources = sources;
+    this.size = size;
+    this.tree = new int[size];
+    this.prefixes = new long[size];
+    this.done = new boolean[size];
+  }
+
+  /**
+   * Builds the tree from the current values of all the sources.
+   */
+  public void init() {
+    for (int i = 0; i < size; i++) {
+      refresh(i);
+    }
+    if (size == 1) {
+      tree[0] = 0;
+      return;
+    }
+
+    // winners[n] holds the winner of the subtree rooted at n, leaves are at size..2 * size - 1
+    final int[] winners = new int[2 * size];
+    for (int i = 0; i < size; i++) {
+      winners[size + i] = i;
+    }
+    for (int n = size - 1; n > 0; n--) {
+      final int left = winners[2 * n];
+      final int right = winners[2 * n + 1];
+      if (beats(right, left)) {
+        winners[n] = right;
+        tree[n] = left;
+      } else {
+        winners[n] = left;
+        tree[n] = right;
+      }
+    }
+    tree[0] = winners[1];
+  }
+
+  /**
+   * @return the source with the smallest current value, or -1 if all the sources are done
+   */
+  public int top() {
+    final int winner = tree[0];
+    return done[winner] ? -1 : winner;
+  }
+
+  /**
+   * Replays the matches of the winner, after it moved to its next value or is done.
+   */
+  public void replay() {
+    int winner = tree[0];
+    refresh(winner);
+    for (int n = (winner + size) >>> 1; n > 0; n >>>= 1) {
+      final int loser = tree[n];
+      if (beats(loser, winner)) {
+        tree[n] = winner;
+        winner = loser;
+      }
+    }
+    tree[0] = winner;
+  }
+
+  private void refresh(int source) {
+    done[source] = sources.isDone(source);
+    prefixes[source] = done[source] ? 0 : sources.getKeyPrefix(source);
+  }
+
+  /**
+   * @return true if the current value of the left source is strictly smaller than the one of the right source
+   */
+  private boolean beats(int left, int right) {
+    if (done[left]) {
+      return false;
+    }
+    if (done[right]) {
+      return true;
+    }
+    final int cmp = Long.compareUnsigned(prefixes[left], prefixes[right]);
+    if (cmp != 0) {
+      return cmp < 0;
+    }
+    return sources.compareSources(left, right) < 0;
+  }
+}
@@ -0,0 +1,154 @@
+/*
+ * Copyright (C) 2017-2019 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.sabot.op.sort.merge;
+
+import org.apache.arrow.memory.ArrowBuf;
+import org.apache.arrow.vector.BaseVariableWidthVector;
+import org.apache.arrow.vector.BigIntVector;
+import org.apache.arrow.vector.DateMilliVector;
+import org.apache.arrow.vector.IntVector;
+import org.apache.arrow.vector.TimeMilliVector;
+import org.apache.arrow.vector.TimeStampMilliVector;
+import org.apache.arrow.vector.ValueVector;
+import org.apache.calcite.rel.RelFieldCollation.Direction;
+
+import com.dremio.common.expression.SchemaPath;
+import com.dremio.common.logical.data.Order.Ordering;
+import com.dremio.exec.record.TypedFieldId;
+import com.dremio.exec.record.VectorAccessible;
+import com.dremio.exec.record.VectorWrapper;
+
+/**
+ * Binary comparable prefix of the first sort key of the rows of a hyper batch, used to compare rows without calling
+ * the generated comparator.
+ *
+ * The prefix is an unsigned 64 bits number: comparing the prefixes of two rows gives the same result as the
+ * ordering when they differ, and rows with equal prefixes must be compared on their whole keys.
+ * Integers are sign flipped, strings and binaries are truncated to their first 8 bytes, nulls map to the smallest
+ * or largest prefix, and descending orderings have all the bits of the prefix inverted.
+ */
+public abstract class NormalizedKeyPrefix {
+
+  private final boolean nullsHigh;
+  private final boolean descending;
+
+  private NormalizedKeyPrefix(Ordering ordering) {
+    this.nullsHigh = ordering.nullsSortHigh();
+    this.descending = ordering.getDirection() == Direction.DESCENDING;
+  }
+
+  /**
+   * @return the prefix of the key of the given row
+   */
+  public final long get(int batchIndex, int recordIndex) {
+    final ValueVector vector = getVector(batchIndex);
+    final long prefix;
+    if (vector.isNull(recordIndex)) {
+      prefix = nullsHigh ? -1L : 0L;
+    } else {
+      prefix = getNotNull(vector, recordIndex);
+    }
+    return descending ? ~prefix : prefix;
+  }
+
+  /**
+   * @return the prefix of the key of the row with the given compound index, batch index in the upper 16 bits
+   */
+  public final long get(int compoundIndex) {
+    return get(compoundIndex >>> 16, compoundIndex & 65535);
+  }
+
+  abstract ValueVector getVector(int batchIndex);
+
+  abstract long getNotNull(ValueVector vector, int recordIndex);
+
+  /**
+   * Creates the prefix of the first key of the given orderings, for the batches of the given hyper batch.
+   * The batches are looked up on each call, so batches added afterwards are supported, but their vectors must not
+   * be replaced.
+   *
+   * @return the prefix, or null if the key has no binary comparable prefix
+   */
+  public static NormalizedKeyPrefix create(Ordering ordering, VectorAccessible hyperBatch) {
+    if (!(ordering.getExpr() instanceof SchemaPath)) {
+      return null;
+    }
+    final TypedFieldId fieldId = hyperBatch.getValueVectorId((SchemaPath) ordering.getExpr());
+    if (fieldId == null || fieldId.getFieldIds().length != 1) {
+      return null;
+    }
+    final VectorWrapper<?> wrapper = hyperBatch.getValueAccessorById(ValueVector.class, fieldId.getFieldIds());
+    final Class<?> vectorClass = wrapper.getVectorClass();
+    if (IntVector.class == vectorClass || TimeMilliVector.class == vectorClass) {
+      return new ColumnPrefix(ordering, wrapper) {
+        @Override
+        long getNotNull(ValueVector vector, int recordIndex) {
+          final int value = vector instanceof IntVector
+            ? ((IntVector) vector).get(recordIndex)
+            : ((TimeMilliVector) vector).get(recordIndex);
+          return value ^ Long.MIN_VALUE;
+        }
+      };
+    }
+    if (BigIntVector.class == vectorClass || DateMilliVector.class == vectorClass
+      || TimeStampMilliVector.class == vectorClass) {
+      return new ColumnPrefix(ordering, wrapper) {
+        @Override
+        long getNotNull(ValueVector vector, int recordIndex) {
+          return vector.getDataBuffer().getLong((long) recordIndex * Long.BYTES) ^ Long.MIN_VALUE;
+        }
+      };
+    }
+    if (BaseVariableWidthVector.class.isAssignableFrom(vectorClass)) {
+      return new ColumnPrefix(ordering, wrapper) {
+        @Override
+        long getNotNull(ValueVector vector, int recordIndex) {
+          final ArrowBuf offsets = vector.getOffsetBuffer();
+          final int start = offsets.getInt((long) recordIndex * BaseVariableWidthVector.OFFSET_WIDTH);
+          final int end = offsets.getInt((long) (recordIndex + 1) * BaseVariableWidthVector.OFFSET_WIDTH);
+          final int length = Math.min(end - start, Long.BYTES);
+          final ArrowBuf data = vector.getDataBuffer();
+          long prefix = 0;
+          for (int i = 0; i < Long.BYTES; i++) {
+            prefix <<= 8;
+            if (i < length) {
+              prefix |= data.getByte(start + i) & 0xFF;
+            }
+          }
+          return prefix;
+        }
+      };
+    }
+    return null;
+  }
+
+  /**
+   * Prefix of a column of the hyper batch.
+   */
+  private abstract static class ColumnPrefix extends NormalizedKeyPrefix {
+    private final VectorWrapper<?> wrapper;
+
+    private ColumnPrefix(Ordering ordering, VectorWrapper<?> wrapper) {
+      super(ordering);
+      this.wrapper = wrapper;
+    }
+
+    @Override
+    ValueVector getVector(int batchIndex) {
+      return wrapper.getValueVectors()[batchIndex];
+    }
+  }
+}
@@ -31,6 +31,7 @@ public interface PriorityQueue extends AutoCloseable {
   Sv4HyperContainer getHyperBatch();
   SelectionVector4 getHeapSv4();
   SelectionVector4 getFinalSv4();
+  int getQueueSize();
   void resetQueue(final VectorContainer newQueue, final SelectionVector4 oldHeap);
 
   static TemplateClassDefinition<PriorityQueue> TEMPLATE_DEFINITION = new TemplateClassDefinition<PriorityQueue>(PriorityQueue.class, PriorityQueueTemplate.class);
@@ -143,6 +143,11 @@ public abstract class PriorityQueueTemplate implements PriorityQueue {
     return finalSv4;
   }
 
+  @Override
+  public int getQueueSize() {
+    return queueSize;
+  }
+
   @Override
   public void close() {
     try{
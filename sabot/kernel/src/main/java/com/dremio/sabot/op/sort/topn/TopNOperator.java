@@ -45,6 +45,10 @@ import com.dremio.exec.record.VectorAccessible;
 import com.dremio.exec.record.VectorContainer;
 import com.dremio.exec.record.VectorWrapper;
 import com.dremio.exec.record.selection.SelectionVector4;
+import com.dremio.options.Options;
+import com.dremio.options.TypeValidators.BooleanValidator;
+import com.dremio.options.TypeValidators.RangeLongValidator;
+import com.dremio.sabot.exec.context.MetricDef;
 import com.dremio.sabot.exec.context.OperatorContext;
 import com.dremio.sabot.op.copier.Copier;
 import com.dremio.sabot.op.copier.CopierOperator;
@@ -55,9 +59,16 @@ import com.google.common.base.Stopwatch;
 import com.sun.codemodel.JConditional;
 import com.sun.codemodel.JExpr;
 
+@Options
 public class TopNOperator implements SingleInputOperator {
   private static final org.slf4j.Logger logger = org.slf4j.LoggerFactory.getLogger(TopNOperator.class);
 
+  public static final BooleanValidator THRESHOLD_FILTER_ENABLED =
+    new BooleanValidator("exec.operator.topn.threshold_filter.enabled", false);
+  // number of incoming batches between two thresholds sent to the scan
+  public static final RangeLongValidator THRESHOLD_PUBLISH_INTERVAL =
+    new RangeLongValidator("exec.operator.topn.threshold_filter.publish_interval", 1, Integer.MAX_VALUE, 4);
+
   private final int batchPurgeThreshold;
   private final TopN config;
   private final OperatorContext context;
@@ -78,6 +89,10 @@ public class TopNOperator implements SingleInputOperator {
   private PriorityQueue priorityQueue;
   private Copier copier;
 
+  // null if disabled or the sort key is not supported
+  private TopNThreshold threshold;
+  private long batchesSkipped;
+
   public TopNOperator(OperatorContext context, TopN popConfig) {
     this.config = popConfig;
     this.context = context;
@@ -101,6 +116,10 @@ public class TopNOperator implements SingleInputOperator {
 
     priorityQueue = createNewPriorityQueue(context.getClassProducer(), config.getOrderings());
     copier = CopierOperator.getGenerated4Copier(context.getClassProducer(), priorityQueue.getHyperBatch(), outgoing);
+    if (context.getOptions().getOption(THRESHOLD_FILTER_ENABLED)) {
+      threshold = TopNThreshold.create(context, config, incoming,
+        (int) context.getOptions().getOption(THRESHOLD_PUBLISH_INTERVAL));
+    }
     state = State.CAN_CONSUME;
     return outgoing;
   }
@@ -108,6 +127,12 @@ public class TopNOperator implements SingleInputOperator {
   @Override
   public void consumeData(int records) throws Exception {
 
+    if (threshold != null && threshold.canSkip(incoming)) {
+      // none of the rows can make it to the output
+      context.getStats().setLongStat(Metric.BATCHES_SKIPPED, ++batchesSkipped);
+      return;
+    }
+
     countSincePurge += incoming.getRecordCount();
     batchCount++;
 
@@ -119,6 +144,10 @@ public class TopNOperator implements SingleInputOperator {
       batchCount = 0;
     }
 
+    if (threshold != null) {
+      threshold.update(priorityQueue, config.getLimit());
+      context.getStats().setLongStat(Metric.THRESHOLDS_PUBLISHED, threshold.getPublishCount());
+    }
   }
 
   @Override
@@ -260,6 +289,16 @@ public class TopNOperator implements SingleInputOperator {
     AutoCloseables.close(outgoing, finalOrder, priorityQueue, copier);
   }
 
+  public enum Metric implements MetricDef {
+    THRESHOLDS_PUBLISHED,   // number of thresholds sent to the scan
+    BATCHES_SKIPPED;        // number of incoming batches skipped as all their rows sort after the threshold
+
+    @Override
+    public int metricId() {
+      return ordinal();
+    }
+  }
+
   public static class TopNCreator implements SingleInputOperator.Creator<TopN>{
 
     @Override
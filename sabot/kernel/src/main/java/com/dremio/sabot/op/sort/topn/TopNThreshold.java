@@ -0,0 +1,242 @@
+/*
+ * Copyright (C) 2017-2019 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.sabot.op.sort.topn;
+
+import java.util.Collections;
+
+import org.apache.arrow.vector.BigIntVector;
+import org.apache.arrow.vector.IntVector;
+import org.apache.arrow.vector.ValueVector;
+import org.apache.arrow.vector.types.Types.MinorType;
+import org.apache.calcite.rel.RelFieldCollation.Direction;
+
+import com.dremio.common.expression.LogicalExpression;
+import com.dremio.common.expression.SchemaPath;
+import com.dremio.common.logical.data.NamedExpression;
+import com.dremio.common.logical.data.Order.Ordering;
+import com.dremio.exec.physical.base.AbstractSingle;
+import com.dremio.exec.physical.base.PhysicalOperator;
+import com.dremio.exec.physical.base.SubScan;
+import com.dremio.exec.physical.config.Filter;
+import com.dremio.exec.physical.config.Project;
+import com.dremio.exec.physical.config.SelectionVectorRemover;
+import com.dremio.exec.physical.config.TableFunctionConfig;
+import com.dremio.exec.physical.config.TableFunctionPOP;
+import com.dremio.exec.physical.config.TopN;
+import com.dremio.exec.proto.ExecProtos;
+import com.dremio.exec.proto.ExecProtos.FragmentHandle;
+import com.dremio.exec.record.TypedFieldId;
+import com.dremio.exec.record.VectorAccessible;
+import com.dremio.sabot.exec.context.OperatorContext;
+import com.dremio.sabot.exec.fragment.OutOfBandMessage;
+
+/**
+ * Tracks the sort key of the last row retained by a TopN, i.e. the root of its heap once the heap is full. Rows
+ * sorting strictly after it can not be part of the TopN output.
+ *
+ * The threshold is used to skip incoming batches without adding them to the priority queue, and is published
+ * to the scan feeding the TopN in the same fragment, which uses it to skip row groups. Only a first sort key that is
+ * an INT or BIGINT column, read from the scan through projections, filters and selection vector removers, is
+ * supported.
+ */
+class TopNThreshold {
+  private static final org.slf4j.Logger logger = org.slf4j.LoggerFactory.getLogger(TopNThreshold.class);
+
+  private final OperatorContext context;
+  private final int operatorId;
+  private final SchemaPath key;
+  private final boolean descending;
+  private final boolean nullsHigh;
+  private final String scanColumn;
+  private final int scanOperatorId;
+  private final int publishInterval;
+
+  private TypedFieldId incomingFieldId;
+  private boolean hasValue;
+  private long value;
+  private boolean published = true;
+  private int batchesSincePublish;
+  private long publishCount;
+
+  private TopNThreshold(OperatorContext context, TopN config, SchemaPath key, String scanColumn, int scanOperatorId,
+                        int publishInterval) {
+    final Ordering ordering = config.getOrderings().get(0);
+    this.context = context;
+    this.operatorId = config.getProps().getOperatorId();
+    this.key = key;
+    this.descending = ordering.getDirection() == Direction.DESCENDING;
+    this.nullsHigh = ordering.nullsSortHigh();
+    this.scanColumn = scanColumn;
+    this.scanOperatorId = scanOperatorId;
+    this.publishInterval = publishInterval;
+  }
+
+  /**
+   * @return the threshold tracker for the given TopN, or null if its sort key is not supported
+   */
+  static TopNThreshold create(OperatorContext context, TopN config, VectorAccessible incoming, int publishInterval) {
+    final LogicalExpression expr = config.getOrderings().get(0).getExpr();
+    if (!(expr instanceof SchemaPath) || !((SchemaPath) expr).isSimplePath()) {
+      return null;
+    }
+    final SchemaPath key = (SchemaPath) expr;
+    final TypedFieldId fieldId = incoming.getValueVectorId(key);
+    if (fieldId == null || !isSupported(fieldId)) {
+      return null;
+    }
+
+    // follow the sort key down to the scan of this fragment
+    String column = key.getRootSegment().getPath();
+    PhysicalOperator operator = config.getChild();
+    while (true) {
+      if (operator instanceof SubScan || (operator instanceof TableFunctionPOP
+        && ((TableFunctionPOP) operator).getFunction().getType() == TableFunctionConfig.FunctionType.DATA_FILE_SCAN)) {
+        logger.debug("Publishing TopN thresholds on {} to scan {}", column, operator.getProps().getOperatorId());
+        return new TopNThreshold(context, config, key, column, operator.getProps().getOperatorId(), publishInterval);
+      }
+      if (operator instanceof Project) {
+        column = getProjectedColumn((Project) operator, column);
+        if (column == null) {
+          return null;
+        }
+      } else if (!(operator instanceof Filter) && !(operator instanceof SelectionVectorRemover)) {
+        // other operators may depend on the rows the scan produces, e.g. a limit
+        return null;
+      }
+      operator = ((AbstractSingle) operator).getChild();
+    }
+  }
+
+  private static boolean isSupported(TypedFieldId fieldId) {
+    if (fieldId.hasRemainder() || fieldId.getFieldIds().length != 1) {
+      return false;
+    }
+    final MinorType type = fieldId.getFinalType().toMinorType();
+    return type == MinorType.INT || type == MinorType.BIGINT;
+  }
+
+  /**
+   * @return the input column the project copies to the given output column, or null if the output column is computed
+   */
+  private static String getProjectedColumn(Project project, String column) {
+    for (NamedExpression expr : project.getExprs()) {
+      if (expr.getRef().isSimplePath() && expr.getRef().getRootSegment().getPath().equalsIgnoreCase(column)) {
+        if (expr.getExpr() instanceof SchemaPath && ((SchemaPath) expr.getExpr()).isSimplePath()) {
+          return ((SchemaPath) expr.getExpr()).getRootSegment().getPath();
+        }
+        return null;
+      }
+    }
+    return null;
+  }
+
+  /**
+   * @return true if no row of the incoming batch can be part of the TopN output
+   */
+  boolean canSkip(VectorAccessible incoming) {
+    if (!hasValue) {
+      return false;
+    }
+    if (incomingFieldId == null) {
+      incomingFieldId = incoming.getValueVectorId(key);
+    }
+    // with a selection vector, checking all the rows of the batch is more conservative than needed
+    final ValueVector vector = incoming.getValueAccessorById(ValueVector.class, incomingFieldId.getFieldIds()).getValueVector();
+    final int count = vector.getValueCount();
+    for (int i = 0; i < count; i++) {
+      if (vector.isNull(i) ? !nullsSortLast() : !isAfter(getValue(vector, i))) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Reads the threshold from the given queue, and publishes it to the scan if it tightened.
+   */
+  void update(PriorityQueue queue, int limit) {
+    batchesSincePublish++;
+    if (limit > 0 && queue.getQueueSize() == limit) {
+      // the root of the heap is the last row of the TopN output
+      final int index = queue.getHeapSv4().get(0);
+      final TypedFieldId fieldId = queue.getHyperBatch().getValueVectorId(key);
+      final ValueVector vector = queue.getHyperBatch()
+        .getValueAccessorById(ValueVector.class, fieldId.getFieldIds()).getValueVectors()[index >>> 16];
+      final int row = index & 65535;
+      if (!vector.isNull(row)) {
+        final long current = getValue(vector, row);
+        if (!hasValue || isAfter(value, current)) {
+          value = current;
+          hasValue = true;
+          published = false;
+        }
+      }
+    }
+
+    if (!published && batchesSincePublish >= publishInterval) {
+      publish();
+      published = true;
+      batchesSincePublish = 0;
+    }
+  }
+
+  private void publish() {
+    final ExecProtos.TopNThreshold threshold = ExecProtos.TopNThreshold.newBuilder()
+      .setColumn(scanColumn)
+      .setDescending(descending)
+      .setNullsHigh(nullsHigh)
+      .setValue(value)
+      .build();
+    final FragmentHandle handle = context.getFragmentHandle();
+    final OutOfBandMessage message = new OutOfBandMessage(
+      handle.getQueryId(),
+      handle.getMajorFragmentId(),
+      Collections.singletonList(handle.getMinorFragmentId()),
+      scanOperatorId,
+      handle.getMajorFragmentId(),
+      handle.getMinorFragmentId(),
+      operatorId,
+      new OutOfBandMessage.Payload(threshold),
+      null,
+      true);
+    try {
+      context.getTunnelProvider().getExecTunnel(context.getNodeEndPoint()).sendOOBMessage(message);
+      publishCount++;
+    } catch (Exception e) {
+      logger.warn("Error while sending TopN threshold to scan {}", scanOperatorId, e);
+    }
+  }
+
+  private boolean nullsSortLast() {
+    return nullsHigh != descending;
+  }
+
+  private boolean isAfter(long candidate) {
+    return isAfter(candidate, value);
+  }
+
+  private boolean isAfter(long candidate, long reference) {
+    return descending ? candidate < reference : candidate > reference;
+  }
+
+  private static long getValue(ValueVector vector, int index) {
+    return vector instanceof IntVector ? ((IntVector) vector).get(index) : ((BigIntVector) vector).get(index);
+  }
+
+  long getPublishCount() {
+    return publishCount;
+  }
+}
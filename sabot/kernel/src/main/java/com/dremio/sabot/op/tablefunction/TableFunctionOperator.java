@@ -31,6 +31,7 @@ import com.dremio.sabot.exec.fragment.FragmentExecutionContext;
 import com.dremio.sabot.exec.fragment.OutOfBandMessage;
 import com.dremio.sabot.op.scan.ScanOperator;
 import com.dremio.sabot.op.spi.SingleInputOperator;
+import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Preconditions;
 
 /**
@@ -64,10 +65,16 @@ public class TableFunctionOperator implements SingleInputOperator {
   static long BATCH_LIMIT_BYTES = 1_048_576;
 
   public TableFunctionOperator(FragmentExecutionContext fec, OperatorContext context, AbstractTableFunctionPOP operator) {
+    this(fec, context, operator, new InternalTableFunctionFactory());
+  }
+
+  @VisibleForTesting
+  public TableFunctionOperator(FragmentExecutionContext fec, OperatorContext context, AbstractTableFunctionPOP operator,
+                               TableFunctionFactory tableFunctionFactory) {
     this.context = context;
     this.functionOperator = operator;
     this.fec = fec;
-    this.tableFunctionFactory = new InternalTableFunctionFactory();
+    this.tableFunctionFactory = tableFunctionFactory;
   }
 
   @Override
@@ -260,7 +260,9 @@ public abstract class FrameSupportTemplate implements WindowFramer {
     long length = 0;
 
     // a single frame can include rows from multiple batches
-    // start processing first batch and, if necessary, move to next batches
+    // start processing first batch and, if necessary, move to next batches. Stop as soon as the frame ends, so we
+    // don't read spilled batches that are not part of it
+    outer:
     for (VectorAccessible batch : batches) {
       setupEvaluatePeer(batch, container);
       final int recordCount = batch.getRecordCount();
@@ -269,11 +271,11 @@ public abstract class FrameSupportTemplate implements WindowFramer {
       for (int row = (batch == current) ? start : 0; row < recordCount; row++, length++) {
         if (unboundedFollowing) {
           if (length >= remainingRows) {
-            break;
+            break outer;
           }
         } else {
           if (!isPeer(start, current, row, batch)) {
-            break;
+            break outer;
           }
         }
 
@@ -0,0 +1,292 @@
+/*
+ * Copyright (C) 2017-2019 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.sabot.op.windowframe;
+
+import java.io.IOException;
+import java.util.AbstractList;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import org.apache.hadoop.fs.FSDataInputStream;
+import org.apache.hadoop.fs.FSDataOutputStream;
+
+import com.dremio.common.AutoCloseables;
+import com.dremio.common.exceptions.UserException;
+import com.dremio.common.utils.protos.QueryIdHelper;
+import com.dremio.exec.cache.VectorAccessibleFlatBufSerializable;
+import com.dremio.exec.proto.ExecProtos.FragmentHandle;
+import com.dremio.exec.record.BatchSchema;
+import com.dremio.exec.record.VectorContainer;
+import com.dremio.sabot.exec.context.OperatorContext;
+import com.dremio.sabot.op.sort.external.SpillManager;
+import com.dremio.sabot.op.sort.external.SpillManager.SpillFile;
+import com.google.common.base.Preconditions;
+
+/**
+ * List of the batches buffered by the window operator, that keeps at most {@code maxBatchesInMemory + 1} of them
+ * in memory and spills the others to disk.
+ *
+ * The batches are kept in three groups: the first batches of the list (the head) are in memory, followed by the
+ * spilled batches and by the last batch of the list (the tail), which is also kept in memory. This is enough
+ * for the window framers, which only access the first two batches and the last one directly: the spilled
+ * batches are only reachable through {@link #iterator()}, which reads them back one at a time. When the first
+ * batch is removed, the head is refilled with the oldest spilled batches.
+ *
+ * Spilled batches are appended to a single spill file, which is kept until all of its batches were read back into
+ * the head. The batches spilled while a partition is buffered therefore share one file, and the next spilled
+ * partition starts a new one.
+ */
+class SpillableBatchList extends AbstractList<VectorContainer> implements AutoCloseable {
+  private static final org.slf4j.Logger logger = org.slf4j.LoggerFactory.getLogger(SpillableBatchList.class);
+
+  private final OperatorContext context;
+  private final String spillId;
+  private final int maxBatchesInMemory;
+
+  private final List<VectorContainer> head = new ArrayList<>();
+  private final ArrayDeque<SpilledBatch> spilled = new ArrayDeque<>();
+  private VectorContainer tail;
+
+  // file the spilled batches are appended to, open for writing and, once a batch was read back, for reading
+  private SpillFile spillFile;
+  private FSDataOutputStream spillOutput;
+  private FSDataInputStream spillInput;
+  private long spillFileLength;
+  private long spillInputPosition;
+
+  // spilled batches are read into these while iterating. We alternate between two containers so the batch read
+  // before the current one remains valid, as framers keep a reference to the last batch of a frame.
+  private final VectorContainer[] readContainers = new VectorContainer[2];
+
+  private BatchSchema schema;
+  private SpillManager spillManager;
+  private long spillFileCount;
+  private long spilledBatches;
+  private long spillBytes;
+  private long spillReadBatches;
+
+  SpillableBatchList(OperatorContext context, int operatorId, int maxBatchesInMemory) {
+    Preconditions.checkArgument(maxBatchesInMemory >= 2, "window framers need at least two batches in memory");
+    final FragmentHandle handle = context.getFragmentHandle();
+    this.context = context;
+    this.spillId = String.format("windowspill-%s.%s.%s.%s", QueryIdHelper.getQueryId(handle.getQueryId()),
+      handle.getMajorFragmentId(), handle.getMinorFragmentId(), operatorId);
+    this.maxBatchesInMemory = maxBatchesInMemory;
+  }
+
+  @Override
+  public boolean add(VectorContainer batch) {
+    if (schema == null) {
+      schema = batch.getSchema();
+    }
+
+    if (tail == null && head.size() < maxBatchesInMemory) {
+      head.add(batch);
+      return true;
+    }
+
+    // the list owns the new batch even if spilling the previous tail fails
+    final VectorContainer previous = tail;
+    tail = batch;
+    if (previous != null) {
+      spill(previous);
+    }
+    return true;
+  }
+
+  /**
+   * Only the batches in memory can be accessed directly: the first {@code maxBatchesInMemory} batches and the
+   * last one.
+   */
+  @Override
+  public VectorContainer get(int index) {
+    if (index >= 0 && index < head.size()) {
+      return head.get(index);
+    }
+    if (tail != null && index == size() - 1) {
+      return tail;
+    }
+    throw new UnsupportedOperationException(String.format("Batch %d of %d is spilled and can only be read by iterating",
+      index, size()));
+  }
+
+  /**
+   * Only the first batch can be removed. The removed batch is not closed.
+   */
+  @Override
+  public VectorContainer remove(int index) {
+    Preconditions.checkArgument(index == 0, "only the first batch can be removed");
+    final VectorContainer removed = head.remove(0);
+
+    while (head.size() < maxBatchesInMemory && !spilled.isEmpty()) {
+      final VectorContainer batch = VectorContainer.create(context.getAllocator(), schema);
+      try {
+        read(spilled.poll(), batch);
+        head.add(batch);
+      } catch (Exception e) {
+        batch.close();
+        throw UserException.dataReadError(e).message("Failure while reading spilled window batch").build(logger);
+      }
+    }
+    if (spilled.isEmpty() && spillFile != null) {
+      // all the batches of the spill file were read back
+      try {
+        closeSpillFile();
+      } catch (Exception e) {
+        throw UserException.dataWriteError(e).message("Failure while deleting window spill file").build(logger);
+      }
+    }
+    if (spilled.isEmpty() && tail != null && head.size() < maxBatchesInMemory) {
+      head.add(tail);
+      tail = null;
+    }
+    return removed;
+  }
+
+  @Override
+  public int size() {
+    return head.size() + spilled.size() + (tail != null ? 1 : 0);
+  }
+
+  @Override
+  public Iterator<VectorContainer> iterator() {
+    return new Iterator<VectorContainer>() {
+      private final Iterator<VectorContainer> headIterator = head.iterator();
+      private final Iterator<SpilledBatch> spilledIterator = spilled.iterator();
+      private boolean tailReturned;
+      private int nextReadContainer;
+
+      @Override
+      public boolean hasNext() {
+        return headIterator.hasNext() || spilledIterator.hasNext() || (tail != null && !tailReturned);
+      }
+
+      @Override
+      public VectorContainer next() {
+        if (headIterator.hasNext()) {
+          return headIterator.next();
+        }
+        if (spilledIterator.hasNext()) {
+          final VectorContainer container = getReadContainer(nextReadContainer);
+          nextReadContainer = 1 - nextReadContainer;
+          container.zeroVectors();
+          try {
+            read(spilledIterator.next(), container);
+          } catch (IOException e) {
+            throw UserException.dataReadError(e).message("Failure while reading spilled window batch").build(logger);
+          }
+          return container;
+        }
+        if (tail != null && !tailReturned) {
+          tailReturned = true;
+          return tail;
+        }
+        throw new NoSuchElementException();
+      }
+    };
+  }
+
+  private VectorContainer getReadContainer(int index) {
+    if (readContainers[index] == null) {
+      readContainers[index] = VectorContainer.create(context.getAllocator(), schema);
+    }
+    return readContainers[index];
+  }
+
+  private void spill(VectorContainer batch) {
+    if (spillManager == null) {
+      spillManager = new SpillManager(context.getConfig(), context.getOptions(), spillId, null,
+        context.getSpillService(), "window spilling", context.getStats());
+    }
+
+    try (VectorContainer toSpill = batch) {
+      if (spillFile == null) {
+        spillFile = spillManager.getSpillFile(String.format("batches-%d", spillFileCount++));
+        spillOutput = spillFile.create();
+        spillFileLength = 0;
+      }
+      final VectorAccessibleFlatBufSerializable serializable =
+        new VectorAccessibleFlatBufSerializable(toSpill, context.getAllocator(), context.getStats());
+      serializable.writeToStream(spillOutput);
+      spilled.add(new SpilledBatch(spillFileLength, serializable.getBytesWritten()));
+      spillFileLength += serializable.getBytesWritten();
+      spillBytes += serializable.getBytesWritten();
+    } catch (Exception e) {
+      throw UserException.dataWriteError(e).message("Failure while spilling window batch").build(logger);
+    }
+    spilledBatches++;
+
+    context.getStats().setLongStat(WindowFrameOperator.Metric.SPILLED_BATCHES, spilledBatches);
+    context.getStats().setLongStat(WindowFrameOperator.Metric.SPILL_BYTES, spillBytes);
+  }
+
+  private void read(SpilledBatch batch, VectorContainer container) throws IOException {
+    // the batch may still be in the output buffer
+    spillOutput.flush();
+    if (spillInput == null) {
+      spillInput = spillFile.open();
+      spillInputPosition = 0;
+    }
+    // batches are mostly read in the order they were spilled, so only seek when skipping back or ahead
+    if (spillInputPosition != batch.offset) {
+      spillInput.seek(batch.offset);
+    }
+    spillInputPosition = batch.offset + batch.length;
+    new VectorAccessibleFlatBufSerializable(container, context.getAllocator(), context.getStats())
+      .readFromStream(spillInput);
+    context.getStats().setLongStat(WindowFrameOperator.Metric.SPILL_READ_BATCHES, ++spillReadBatches);
+  }
+
+  private void closeSpillFile() throws Exception {
+    try {
+      AutoCloseables.close(spillInput, spillOutput, spillFile);
+    } finally {
+      spillInput = null;
+      spillOutput = null;
+      spillFile = null;
+    }
+  }
+
+  @Override
+  public void close() throws Exception {
+    final List<AutoCloseable> closeables = new ArrayList<>(head);
+    closeables.add(tail);
+    closeables.add(readContainers[0]);
+    closeables.add(readContainers[1]);
+    closeables.add(this::closeSpillFile);
+    closeables.add(spillManager);
+    head.clear();
+    tail = null;
+    spilled.clear();
+    AutoCloseables.close(closeables);
+  }
+
+  /**
+   * Location of a spilled batch in the spill file.
+   */
+  private static final class SpilledBatch {
+    private final long offset;
+    private final long length;
+
+    SpilledBatch(long offset, long length) {
+      this.offset = offset;
+      this.length = length;
+    }
+  }
+}
@@ -18,7 +18,6 @@ package com.dremio.sabot.op.windowframe;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.LinkedList;
 import java.util.List;
 
 import org.apache.arrow.memory.OutOfMemoryException;
@@ -42,6 +41,10 @@ import com.dremio.exec.physical.config.WindowPOP;
 import com.dremio.exec.record.VectorAccessible;
 import com.dremio.exec.record.VectorContainer;
 import com.dremio.exec.record.VectorWrapper;
+import com.dremio.options.Options;
+import com.dremio.options.TypeValidators.BooleanValidator;
+import com.dremio.options.TypeValidators.RangeLongValidator;
+import com.dremio.sabot.exec.context.MetricDef;
 import com.dremio.sabot.exec.context.OperatorContext;
 import com.dremio.sabot.op.spi.SingleInputOperator;
 import com.google.common.collect.ImmutableList;
@@ -52,14 +55,21 @@ import com.sun.codemodel.JExpr;
 /**
  * support for OVER(PARTITION BY expression1,expression2,... [ORDER BY expressionA, expressionB,...])
  *
+ * Batches are buffered until the window functions can process the first one. When a partition spans more than
+ * {@link #MAX_BATCHES_IN_MEMORY} batches, the extra batches are spilled to disk and read back as needed.
  */
+@Options
 public class WindowFrameOperator implements SingleInputOperator {
   private static final org.slf4j.Logger logger = org.slf4j.LoggerFactory.getLogger(WindowFrameOperator.class);
 
+  public static final BooleanValidator SPILL_ENABLED = new BooleanValidator("exec.operator.window.spill.enabled", true);
+  public static final RangeLongValidator MAX_BATCHES_IN_MEMORY =
+    new RangeLongValidator("exec.operator.window.spill.max_batches_in_memory", 2, Integer.MAX_VALUE, 64);
+
   private final OperatorContext context;
   private final List<WindowFunction> functions = Lists.newArrayList();
   private final WindowPOP config;
-  private final LinkedList<VectorContainer> batches = new LinkedList<>();
+  private final SpillableBatchList batches;
 
   private VectorAccessible incoming;
   private VectorContainer outgoing;
@@ -73,6 +83,9 @@ public class WindowFrameOperator implements SingleInputOperator {
   public WindowFrameOperator(OperatorContext context, WindowPOP config) throws OutOfMemoryException {
     this.context = context;
     this.config = config;
+    final int maxBatchesInMemory = context.getOptions().getOption(SPILL_ENABLED) ?
+      (int) context.getOptions().getOption(MAX_BATCHES_IN_MEMORY) : Integer.MAX_VALUE;
+    this.batches = new SpillableBatchList(context, config.getProps().getOperatorId(), maxBatchesInMemory);
   }
 
   @Override
@@ -175,9 +188,9 @@ public class WindowFrameOperator implements SingleInputOperator {
       return false;
     }
 
-    final VectorAccessible current = batches.getFirst();
+    final VectorAccessible current = batches.get(0);
     final int currentSize = current.getRecordCount();
-    final VectorAccessible last = batches.getLast();
+    final VectorAccessible last = batches.get(batches.size() - 1);
     final int lastSize = last.getRecordCount();
 
     final boolean partitionEndReached = !framers[0].isSamePartition(currentSize - 1, current, lastSize - 1, last);
@@ -340,10 +353,21 @@ public class WindowFrameOperator implements SingleInputOperator {
     if (framers != null) {
       closeables.addAll(Arrays.asList(framers));
     }
-    closeables.addAll(batches);
+    closeables.add(batches);
     AutoCloseables.close(closeables);
   }
 
+  public enum Metric implements MetricDef {
+    SPILLED_BATCHES,      // number of batches spilled to disk
+    SPILL_BYTES,          // number of bytes spilled to disk
+    SPILL_READ_BATCHES;   // number of spilled batches read back, a batch can be read several times
+
+    @Override
+    public int metricId() {
+      return ordinal();
+    }
+  }
+
   public static class Creator implements SingleInputOperator.Creator<WindowPOP>{
 
     @Override
@@ -0,0 +1,359 @@
+/*
+ * Copyright (C) 2017-2019 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.sabot.task.slicing;
+
+import java.util.Comparator;
+import java.util.TreeSet;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+import com.dremio.sabot.task.AsyncTaskWrapper;
+import com.dremio.sabot.task.SchedulingGroup;
+import com.dremio.sabot.task.TaskManager;
+import com.dremio.sabot.task.TaskManager.TaskHandle;
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Preconditions;
+
+/**
+ * Hierarchical weighted fair scheduler shared by all the slicing threads.<br>
+ * <br>
+ * Groups (workloads, queries) and tasks (fragments) form a tree. Every node keeps a virtual runtime: the
+ * time it spent running scaled by {@code MAX_WEIGHT / weight}. A slicing thread always picks the runnable
+ * child with the smallest virtual runtime, starting from the root, so that siblings get CPU time in proportion
+ * of their weights. A node that becomes runnable again is caught up to the smallest virtual runtime of its
+ * parent, so that blocked tasks don't accumulate credit while sleeping.<br>
+ * <br>
+ * A group is present in its parent's run queue if and only if it has at least one runnable descendant.
+ * All the operations are done under a single lock, which is fine given the small number of slicing threads.
+ */
+class SlicingScheduler {
+
+  private static final Comparator<Node> VRUNTIME_ORDER = (n1, n2) -> {
+    // wrap-around safe comparison
+    final int cmp = Long.signum(n1.vruntime - n2.vruntime);
+    return cmp != 0 ? cmp : Long.compare(n1.sequence, n2.sequence);
+  };
+
+  private final ReentrantLock lock = new ReentrantLock();
+  private final Condition runnable = lock.newCondition();
+  private final Group root = new Group(null, 1, false);
+  private final int[] tasksPerThread;
+
+  private long sequence;
+  private int numRunnable;
+  private int numIdleThreads;
+  private boolean closed;
+
+  SlicingScheduler(int numThreads) {
+    this.tasksPerThread = new int[numThreads];
+  }
+
+  /**
+   * @return the root of the scheduling tree
+   */
+  Group getRoot() {
+    return root;
+  }
+
+  /**
+   * Creates a handle for the given task, without making it runnable
+   */
+  Handle newTask(AsyncTaskWrapper task, SchedulingGroup<AsyncTaskWrapper> group, long weight) {
+    final Group parent = (group instanceof Group) ? (Group) group : root;
+    return new Handle(parent, parent.weightBased ? weight : 1, task);
+  }
+
+  /**
+   * Wait until a task is runnable, and remove it from the run queues.
+   *
+   * @param thread index of the calling slicing thread
+   * @return the next task to run, or null if the scheduler was closed
+   * @throws InterruptedException if the calling thread is interrupted while waiting
+   */
+  Handle take(int thread) throws InterruptedException {
+    lock.lockInterruptibly();
+    try {
+      if (closed) {
+        return null;
+      }
+      Handle handle = pollLocked();
+      while (handle == null) {
+        numIdleThreads++;
+        try {
+          runnable.await();
+        } finally {
+          numIdleThreads--;
+        }
+        if (closed) {
+          return null;
+        }
+        handle = pollLocked();
+      }
+      if (handle.thread != thread) {
+        if (handle.thread >= 0) {
+          tasksPerThread[handle.thread]--;
+        }
+        tasksPerThread[thread]++;
+        handle.thread = thread;
+      }
+      return handle;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Non blocking version of {@link #take(int)}, without any thread bookkeeping
+   */
+  @VisibleForTesting
+  Handle poll() {
+    lock.lock();
+    try {
+      return pollLocked();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Makes the task runnable
+   */
+  void enqueue(Handle handle) {
+    lock.lock();
+    try {
+      Preconditions.checkState(!handle.done, "Task %s already completed", handle);
+      if (handle.queued) {
+        return;
+      }
+      enqueueLocked(handle);
+      numRunnable++;
+      runnable.signal();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Accounts for the time the task just ran, in the task and all its ancestors.
+   *
+   * @param handle task that ran
+   * @param elapsedNanos running time in nanoseconds
+   */
+  void charge(Handle handle, long elapsedNanos) {
+    lock.lock();
+    try {
+      for (Node node = handle; node.parent != null; node = node.parent) {
+        final long delta = Math.max(elapsedNanos, 0) * TaskManager.MAX_WEIGHT / node.weight;
+        if (node.queued) {
+          node.parent.runQueue.remove(node);
+          node.vruntime += delta;
+          node.parent.runQueue.add(node);
+        } else {
+          node.vruntime += delta;
+        }
+      }
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Marks the task as done. It won't be scheduled anymore
+   */
+  void done(Handle handle) {
+    lock.lock();
+    try {
+      handle.done = true;
+      if (handle.thread >= 0) {
+        tasksPerThread[handle.thread]--;
+      }
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Wakes up all the waiting threads, and prevents any further task from being handed out
+   */
+  void close() {
+    lock.lock();
+    try {
+      closed = true;
+      runnable.signalAll();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  int getNumTasks(int thread) {
+    lock.lock();
+    try {
+      return tasksPerThread[thread];
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  int getNumRunnable() {
+    lock.lock();
+    try {
+      return numRunnable;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  int getNumIdleThreads() {
+    lock.lock();
+    try {
+      return numIdleThreads;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  private void enqueueLocked(Node node) {
+    while (node.parent != null && !node.queued) {
+      final Group parent = node.parent;
+      if (parent.minVruntime - node.vruntime > 0) {
+        node.vruntime = parent.minVruntime;
+      }
+      node.sequence = sequence++;
+      node.queued = true;
+      final boolean wasEmpty = parent.runQueue.isEmpty();
+      parent.runQueue.add(node);
+      if (!wasEmpty) {
+        // parent is already queued in its own parent
+        break;
+      }
+      node = parent;
+    }
+  }
+
+  private Handle pollLocked() {
+    Node node = root;
+    while (node instanceof Group) {
+      final Group group = (Group) node;
+      if (group.runQueue.isEmpty()) {
+        // only the root can be empty, the other groups are removed from their parent when they become empty
+        return null;
+      }
+      final Node next = group.runQueue.first();
+      if (next.vruntime - group.minVruntime > 0) {
+        group.minVruntime = next.vruntime;
+      }
+      node = next;
+    }
+
+    // remove the task from its parent, as well as any ancestor that has no runnable descendant anymore
+    for (Node current = node; current.parent != null; current = current.parent) {
+      current.parent.runQueue.pollFirst();
+      current.queued = false;
+      if (!current.parent.runQueue.isEmpty()) {
+        break;
+      }
+    }
+    numRunnable--;
+    return (Handle) node;
+  }
+
+  private static long normalizeWeight(long weight) {
+    return Math.min(Math.max(weight, 1), TaskManager.MAX_WEIGHT);
+  }
+
+  /**
+   * An entry of the scheduling tree
+   */
+  abstract static class Node {
+    private final Group parent;
+    private final long weight;
+
+    private long vruntime;
+    private long sequence;
+    private boolean queued;
+
+    Node(Group parent, long weight) {
+      this.parent = parent;
+      this.weight = normalizeWeight(weight);
+    }
+
+    @VisibleForTesting
+    long getVruntime() {
+      return vruntime;
+    }
+  }
+
+  /**
+   * A scheduling group: CPU time is shared between its runnable children according to their weights
+   */
+  final class Group extends Node implements SchedulingGroup<AsyncTaskWrapper> {
+    private final TreeSet<Node> runQueue = new TreeSet<>(VRUNTIME_ORDER);
+    private final boolean weightBased;
+    private long minVruntime;
+
+    private Group(Group parent, long weight, boolean weightBased) {
+      super(parent, weight);
+      this.weightBased = weightBased;
+    }
+
+    @Override
+    public SchedulingGroup<AsyncTaskWrapper> addGroup(long weight, boolean weightBasedScheduler) {
+      return new Group(this, weight, weightBasedScheduler);
+    }
+
+    @Override
+    public TaskHandle<AsyncTaskWrapper> addTask(AsyncTaskWrapper task, long weight) {
+      final Handle handle = newTask(task, this, weight);
+      enqueue(handle);
+      return handle;
+    }
+  }
+
+  /**
+   * A task scheduled by the slicing threads
+   */
+  final class Handle extends Node implements TaskHandle<AsyncTaskWrapper> {
+    private final AsyncTaskWrapper task;
+
+    private volatile int thread = -1;
+    private boolean done;
+
+    private Handle(Group parent, long weight, AsyncTaskWrapper task) {
+      super(parent, weight);
+      this.task = task;
+    }
+
+    @Override
+    public AsyncTaskWrapper getTask() {
+      return task;
+    }
+
+    @Override
+    public void reEnqueue() {
+      enqueue(this);
+    }
+
+    @Override
+    public int getThread() {
+      return thread;
+    }
+
+    @Override
+    public String toString() {
+      return String.format("%s: thread e%d, %s", task, thread, task.getState());
+    }
+  }
+}
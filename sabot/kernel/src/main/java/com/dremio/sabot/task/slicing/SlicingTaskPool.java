@@ -0,0 +1,119 @@
+/*
+ * Copyright (C) 2017-2019 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.sabot.task.slicing;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import com.dremio.config.DremioConfig;
+import com.dremio.exec.ExecConstants;
+import com.dremio.options.OptionManager;
+import com.dremio.sabot.task.AsyncTaskWrapper;
+import com.dremio.sabot.task.GroupManager;
+import com.dremio.sabot.task.TaskPool;
+import com.dremio.sabot.task.TaskPoolFactory;
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Lists;
+
+/**
+ * A task pool that runs all the tasks on a fixed number of slicing threads. Each thread runs a task for at most
+ * a quantum before switching to the next runnable task, according to the weights of the scheduling groups.
+ * Blocked tasks don't use any thread until they become runnable again.
+ *
+ * To use it, set {@code dremio.task.pool.factory.class} to {@code com.dremio.sabot.task.slicing.SlicingTaskPool$Factory}.
+ */
+public class SlicingTaskPool implements TaskPool {
+  private static final org.slf4j.Logger logger = org.slf4j.LoggerFactory.getLogger(SlicingTaskPool.class);
+
+  private static final long CLOSE_TIMEOUT_MS = 5_000;
+
+  /**
+   * Factory for {@code SlicingTaskPool}
+   */
+  public static final class Factory implements TaskPoolFactory {
+    @Override
+    public TaskPool newInstance(OptionManager options, DremioConfig config) {
+      final int configuredThreads = (int) options.getOption(ExecConstants.SLICING_NUM_THREADS);
+      final int numThreads = configuredThreads > 0 ? configuredThreads : Runtime.getRuntime().availableProcessors();
+      return new SlicingTaskPool(numThreads, options.getOption(ExecConstants.SLICING_QUANTUM_MS));
+    }
+  }
+
+  private final SlicingScheduler scheduler;
+  private final List<SlicingThread> threads;
+  private final GroupManager<AsyncTaskWrapper> groupManager;
+
+  @VisibleForTesting
+  SlicingTaskPool(int numThreads, long quantumMs) {
+    this.scheduler = new SlicingScheduler(numThreads);
+    this.groupManager = weight -> scheduler.getRoot().addGroup(weight);
+
+    final ImmutableList.Builder<SlicingThread> builder = ImmutableList.builder();
+    for (int i = 0; i < numThreads; i++) {
+      final SlicingThread thread = new SlicingThread(i, scheduler, TimeUnit.MILLISECONDS.toNanos(quantumMs));
+      thread.start();
+      builder.add(thread);
+    }
+    this.threads = builder.build();
+    logger.info("Started {} slicing threads with a quantum of {}ms", numThreads, quantumMs);
+  }
+
+  @Override
+  public void execute(AsyncTaskWrapper task) {
+    final SlicingScheduler.Handle handle = scheduler.newTask(task, task.getSchedulingGroup(), task.getTaskWeight());
+    // set the handle before the task is made runnable, so it's visible by the time the task runs
+    task.setTaskHandle(handle);
+    scheduler.enqueue(handle);
+  }
+
+  @Override
+  public GroupManager<AsyncTaskWrapper> getGroupManager() {
+    return groupManager;
+  }
+
+  @Override
+  public Iterable<ThreadInfo> getSlicingThreads() {
+    final List<ThreadInfo> infos = Lists.newArrayListWithCapacity(threads.size());
+    final int numRunnable = scheduler.getNumRunnable();
+    for (SlicingThread thread : threads) {
+      infos.add(new ThreadInfo(thread.getName(), thread.getIndex(), -1, -1,
+        scheduler.getNumTasks(thread.getIndex()), numRunnable, thread.isRunningTask() ? 0 : 1, thread.getId()));
+    }
+    return infos;
+  }
+
+  @Override
+  public boolean areAllThreadsAlive() {
+    for (SlicingThread thread : threads) {
+      if (!thread.isAlive()) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  @Override
+  public void close() throws Exception {
+    scheduler.close();
+    for (SlicingThread thread : threads) {
+      thread.interrupt();
+    }
+    for (SlicingThread thread : threads) {
+      thread.join(CLOSE_TIMEOUT_MS);
+    }
+  }
+}
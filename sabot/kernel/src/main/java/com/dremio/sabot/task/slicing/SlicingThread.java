@@ -0,0 +1,121 @@
+/*
+ * Copyright (C) 2017-2019 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.sabot.task.slicing;
+
+import com.dremio.common.perf.StatsCollectionEligibilityRegistrar;
+import com.dremio.sabot.task.AsyncTaskWrapper;
+import com.dremio.sabot.task.BlockRun;
+import com.dremio.sabot.task.Task.State;
+
+/**
+ * Worker thread of the {@link SlicingTaskPool}. Repeatedly picks the next task from the scheduler and runs it
+ * until it blocks, completes or exhausts its quantum.
+ */
+class SlicingThread extends Thread {
+
+  private static final org.slf4j.Logger logger = org.slf4j.LoggerFactory.getLogger(SlicingThread.class);
+
+  private final int index;
+  private final SlicingScheduler scheduler;
+  private final long quantumNanos;
+
+  private volatile boolean running;
+
+  SlicingThread(int index, SlicingScheduler scheduler, long quantumNanos) {
+    super("e" + index);
+    this.index = index;
+    this.scheduler = scheduler;
+    this.quantumNanos = quantumNanos;
+    setDaemon(true);
+  }
+
+  int getIndex() {
+    return index;
+  }
+
+  /**
+   * @return true if the thread is currently running a task
+   */
+  boolean isRunningTask() {
+    return running;
+  }
+
+  @Override
+  public void run() {
+    StatsCollectionEligibilityRegistrar.addSelf();
+
+    while (true) {
+      final SlicingScheduler.Handle handle;
+      try {
+        handle = scheduler.take(index);
+      } catch (InterruptedException e) {
+        logger.info("Thread interrupted, exiting.");
+        return;
+      }
+
+      if (handle == null) {
+        // scheduler was closed
+        return;
+      }
+
+      // put try inside the run loop so we don't lose threads with uncaught exceptions.
+      running = true;
+      try {
+        runSlice(handle);
+      } catch (Throwable t) {
+        logger.error("Unhandled Exception in slicing thread.", t);
+      } finally {
+        running = false;
+      }
+    }
+  }
+
+  private void runSlice(SlicingScheduler.Handle handle) throws Exception {
+    final AsyncTaskWrapper task = handle.getTask();
+    final long start = System.nanoTime();
+    long elapsed;
+    try {
+      do {
+        try {
+          task.run();
+        } finally {
+          task.getAsyncTask().postRunUpdate();
+        }
+        elapsed = System.nanoTime() - start;
+      } while (task.getState() == State.RUNNABLE && elapsed < quantumNanos);
+    } finally {
+      scheduler.charge(handle, System.nanoTime() - start);
+    }
+
+    switch (task.getState()) {
+      case BLOCKED_ON_DOWNSTREAM:
+      case BLOCKED_ON_UPSTREAM:
+      case BLOCKED_ON_SHARED_RESOURCE:
+        // the callback may be invoked right away if the resource is already available
+        task.setAvailabilityCallback(new BlockRun(handle));
+        break;
+      case DONE:
+        scheduler.done(handle);
+        task.getCleaner().close();
+        break;
+      case RUNNABLE:
+      default:
+        // quantum exhausted, give other tasks a chance to run
+        scheduler.enqueue(handle);
+        break;
+    }
+  }
+}
@@ -68,6 +68,10 @@ public class SendingMonitor {
     }
   }
 
+  public int getOutstandingMessages() {
+    return outstandingMessages.get();
+  }
+
   public RpcOutcomeListener<Ack> wrap(RpcOutcomeListener<Ack> listener){
     return new WrappedListener(listener);
   }
@@ -19,6 +19,7 @@ import static org.apache.parquet.format.converter.ParquetMetadataConverter.fromP
 
 import java.io.IOException;
 import java.nio.ByteBuffer;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -329,6 +330,16 @@ public class ColumnChunkIncReadStore implements PageReadStore {
       : new ColumnChunkIncPageReader(metaData, descriptor, in));
   }
 
+  /**
+   * Adds several columns, letting the input stream provider fetch their column chunks together.
+   */
+  public void addColumns(Map<ColumnDescriptor, ColumnChunkMetaData> columnChunks) throws IOException {
+    inputStreamProvider.prefetchColumnChunks(new ArrayList<>(columnChunks.values()));
+    for (Map.Entry<ColumnDescriptor, ColumnChunkMetaData> entry : columnChunks.entrySet()) {
+      addColumn(entry.getKey(), entry.getValue());
+    }
+  }
+
   public void close() throws IOException {
     for (ColumnChunkIncPageReader reader : columns.values()) {
       reader.close();
@@ -23,7 +23,9 @@ import java.io.IOException;
 import org.codehaus.commons.compiler.CompileException;
 import org.junit.Assert;
 import org.junit.BeforeClass;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 
 import com.dremio.BaseTestQuery;
 import com.dremio.exec.compile.ClassTransformer.ClassSet;
@@ -47,6 +49,9 @@ public class TestClassTransformation extends BaseTestQuery {
 
   private static OptionManager sessionOptions;
 
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+
   @BeforeClass
   public static void beforeTestClassTransformation() throws Exception {
     final UserSession userSession = UserSession.Builder.newBuilder()
@@ -113,6 +118,29 @@ public class TestClassTransformation extends BaseTestQuery {
     logger.debug("Optimized code is {}% smaller than debug code.", (int)((sizeWithDebug - sizeWithoutDebug)/(double)sizeWithDebug*100));
   }
 
+  @Test
+  public void testPersistentCodeCache() throws Exception {
+    final PersistentCodeCache codeCache = new PersistentCodeCache(folder.newFolder("codecache").toPath(), 1024 * 1024);
+    final ClassTransformer ct = new ClassTransformer(sessionOptions, codeCache);
+
+    // each code generator has a different class name, but generates the same code
+    for (int i = 0; i < 2; i++) {
+      final CodeGenerator<ExampleInner> cg = newCodeGenerator(ExampleInner.class, ExampleTemplateWithInner.class);
+      cg.generate();
+      try (QueryClassLoader loader = new QueryClassLoader(new ClassCompilerSelector(DEFAULT_SABOT_CONFIG, sessionOptions))) {
+        final Class<?> c = ct.getImplementationClass(loader, cg.getDefinition(), cg.getGeneratedCode(), cg.getMaterializedClassName());
+        final ExampleInner t = (ExampleInner) c.newInstance();
+        t.doOutside();
+        t.doInsideOutside();
+      }
+    }
+
+    Assert.assertEquals(1, codeCache.getMisses());
+    Assert.assertEquals(1, codeCache.getWrites());
+    Assert.assertEquals(1, codeCache.getHits());
+    Assert.assertEquals(1, codeCache.getNumEntries());
+  }
+
   /**
    * Do a test of a three level class to ensure that nested code generators works correctly.
    * @throws Exception
@@ -0,0 +1,140 @@
+/*
+ * Copyright (C) 2017-2019 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.exec.compile;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.dremio.exec.expr.CodeGenerator;
+import com.dremio.sabot.exec.context.CompilationOptions;
+import com.dremio.sabot.exec.context.FunctionContext;
+import com.dremio.sabot.op.project.Projector;
+
+/**
+ * Tests for {@link PersistentCodeCache}
+ */
+public class TestPersistentCodeCache {
+
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+
+  private static ClassBytes[] classes(int size) {
+    return new ClassBytes[] {
+      new ClassBytes("com.dremio.Gen1", new byte[size]),
+      new ClassBytes("com.dremio.Gen1$Inner", new byte[] {1, 2, 3})
+    };
+  }
+
+  @Test
+  public void testKeyIgnoresClassName() {
+    final String key = PersistentCodeCache.getKey("Template", "com.dremio.ProjectorGen1",
+      "package com.dremio; class ProjectorGen1 { ProjectorGen1() {} ProjectorGen12 a; }");
+    assertEquals(key, PersistentCodeCache.getKey("Template", "com.dremio.ProjectorGen2",
+      "package com.dremio; class ProjectorGen2 { ProjectorGen2() {} ProjectorGen12 a; }"));
+    // only the name of the generated class itself is ignored
+    assertNotEquals(key, PersistentCodeCache.getKey("Template", "com.dremio.ProjectorGen2",
+      "package com.dremio; class ProjectorGen2 { ProjectorGen2() {} ProjectorGen22 a; }"));
+    assertNotEquals(key, PersistentCodeCache.getKey("Template", "com.dremio.ProjectorGen2",
+      "package com.dremio; class ProjectorGen2 { int a; }"));
+    assertNotEquals(key, PersistentCodeCache.getKey("Other", "com.dremio.ProjectorGen1",
+      "package com.dremio; class ProjectorGen1 { ProjectorGen1() {} ProjectorGen12 a; }"));
+  }
+
+  @Test
+  public void testSameKeyForGenerationsOfSameCode() throws Exception {
+    final CodeGenerator<Projector> first = generateProjector();
+    final CodeGenerator<Projector> second = generateProjector();
+    assertNotEquals(first.getMaterializedClassName(), second.getMaterializedClassName());
+    assertEquals(
+      PersistentCodeCache.getKey(first.getDefinition().getTemplateClassName(), first.getMaterializedClassName(),
+        first.getGeneratedCode()),
+      PersistentCodeCache.getKey(second.getDefinition().getTemplateClassName(), second.getMaterializedClassName(),
+        second.getGeneratedCode()));
+  }
+
+  private static CodeGenerator<Projector> generateProjector() throws Exception {
+    final CompilationOptions compilationOptions = mock(CompilationOptions.class);
+    when(compilationOptions.getNewMethodThreshold()).thenReturn(100);
+    final FunctionContext functionContext = mock(FunctionContext.class);
+    when(functionContext.getCompilationOptions()).thenReturn(compilationOptions);
+    final CodeGenerator<Projector> cg = CodeGenerator.get(Projector.TEMPLATE_DEFINITION, null, functionContext);
+    cg.generate();
+    return cg;
+  }
+
+  @Test
+  public void testSurvivesRestart() throws Exception {
+    final Path directory = folder.newFolder().toPath();
+    final PersistentCodeCache cache = new PersistentCodeCache(directory, 1024 * 1024);
+    assertNull(cache.get("key"));
+    cache.put("key", "com.dremio.Gen1", classes(10));
+
+    final PersistentCodeCache restarted = new PersistentCodeCache(directory, 1024 * 1024);
+    assertEquals(1, restarted.getNumEntries());
+    final PersistentCodeCache.CachedClasses cached = restarted.get("key");
+    assertNotNull(cached);
+    assertEquals("com.dremio.Gen1", cached.getMainClassName());
+    assertEquals(2, cached.getClasses().length);
+    assertEquals("com.dremio.Gen1$Inner", cached.getClasses()[1].getName());
+    assertArrayEquals(new byte[] {1, 2, 3}, cached.getClasses()[1].getBytes());
+    assertEquals(1, restarted.getHits());
+  }
+
+  @Test
+  public void testEviction() throws Exception {
+    final Path directory = folder.newFolder().toPath();
+    final PersistentCodeCache cache = new PersistentCodeCache(directory, 4096);
+    for (int i = 0; i < 10; i++) {
+      cache.put("key" + i, "com.dremio.Gen1", classes(1000));
+      final Path file = directory.resolve("key" + i + ".class.bin");
+      if (Files.exists(file)) {
+        // make the access order explicit, regardless of the file system timestamp resolution
+        Files.setLastModifiedTime(file, FileTime.fromMillis(1000L * (i + 1)));
+      }
+    }
+    assertTrue(cache.getSizeBytes() <= 4096);
+    assertTrue(cache.getEvictions() > 0);
+    assertEquals(10, cache.getWrites());
+    assertNotNull(cache.get("key9"));
+    assertNull(cache.get("key0"));
+  }
+
+  @Test
+  public void testCorruptedEntry() throws Exception {
+    final Path directory = folder.newFolder().toPath();
+    final PersistentCodeCache cache = new PersistentCodeCache(directory, 1024 * 1024);
+    cache.put("key", "com.dremio.Gen1", classes(10));
+    Files.write(directory.resolve("key.class.bin"), new byte[] {1, 2});
+
+    assertNull(cache.get("key"));
+    assertEquals(1, cache.getMisses());
+    assertTrue(Files.notExists(directory.resolve("key.class.bin")));
+  }
+}
@@ -27,6 +27,7 @@ import static com.dremio.sabot.Fixtures.t;
 import static java.util.Collections.singletonList;
 import static org.apache.calcite.rel.RelFieldCollation.Direction.DESCENDING;
 import static org.apache.calcite.rel.RelFieldCollation.NullDirection.FIRST;
+import static org.junit.Assert.assertTrue;
 
 import java.util.Arrays;
 import java.util.Collections;
@@ -41,6 +42,7 @@ import com.dremio.exec.physical.config.WindowPOP.Bound;
 import com.dremio.sabot.BaseTestOperator;
 import com.dremio.sabot.Fixtures;
 import com.dremio.sabot.Fixtures.Table;
+import com.dremio.sabot.exec.context.OperatorStats;
 import com.dremio.sabot.op.windowframe.WindowFrameOperator;
 
 public class TestWindowOperator extends BaseTestOperator {
@@ -69,6 +71,15 @@ public class TestWindowOperator extends BaseTestOperator {
     validateSingle(window, WindowFrameOperator.class, input, generateOutput(dataDef, withOrderBy), 20);
   }
 
+  private void validateSpillingWindow(DataPar[] dataDef, boolean withPartitionBy, boolean withOrderBy) throws Exception {
+    final WindowPOP window = createWindowPOP(withPartitionBy, withOrderBy);
+    final Table input = t(WindowGenerator.header, generateInput(dataDef));
+    // small batches, so partitions span more batches than we keep in memory
+    final OperatorStats stats = validateSingle(window, WindowFrameOperator.class, input.toGenerator(getTestAllocator()),
+      generateOutput(dataDef, withOrderBy), 3);
+    assertTrue(stats.getLongStat(WindowFrameOperator.Metric.SPILLED_BATCHES) > 0);
+  }
+
   private void runTests(DataPar[] withPartitionDef, DataPar[] withoutPartitionDef) throws Exception {
     validateWindow(withPartitionDef, true, true);
     validateWindow(withPartitionDef, true, false);
@@ -106,6 +117,16 @@ public class TestWindowOperator extends BaseTestOperator {
     runTests(dataB4P4(true), dataB4P4(false));
   }
 
+  @Test
+  public void testSpill() throws Exception {
+    try (AutoCloseable maxBatches = with(WindowFrameOperator.MAX_BATCHES_IN_MEMORY, 2)) {
+      validateSpillingWindow(dataB4P4(true), true, true);
+      validateSpillingWindow(dataB4P4(true), true, false);
+      validateSpillingWindow(dataB4P4(false), false, true);
+      validateSpillingWindow(dataB4P4(false), false, false);
+    }
+  }
+
   @Test // DRILL-4657
   public void test4657() throws Exception {
     // SELECT row_number() OVER(ORDER BY position_id) rn, rank() OVER(ORDER BY position_id) rnk FROM dfs.\"%s/window/b3.p2\"
@@ -0,0 +1,76 @@
+/*
+ * Copyright (C) 2017-2019 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.exec.planner;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+import org.apache.calcite.avatica.util.Quoting;
+import org.apache.calcite.sql.parser.SqlParseException;
+import org.apache.calcite.sql.parser.SqlParser;
+import org.apache.calcite.sql.type.SqlTypeFactoryImpl;
+import org.junit.Test;
+
+import com.dremio.exec.planner.sql.DremioSqlConformance;
+import com.dremio.exec.planner.sql.parser.impl.ParserImpl;
+
+/**
+ * Tests the extraction of the parameters of queries by {@link PlanTemplate}.
+ */
+public class TestPlanTemplate {
+
+  private static final SqlParser.Config PARSER_CONFIG = SqlParser.configBuilder()
+    .setCaseSensitive(false)
+    .setConformance(DremioSqlConformance.INSTANCE)
+    .setQuoting(Quoting.DOUBLE_QUOTE)
+    .setParserFactory(ParserImpl.FACTORY).build();
+
+  private static PlanTemplate.Parameters parameterize(String sql) throws SqlParseException {
+    return PlanTemplate.parameterize(SqlParser.create(sql, PARSER_CONFIG).parseQuery(), SqlTypeFactoryImpl.INSTANCE);
+  }
+
+  @Test
+  public void testSameTemplateForDifferentValues() throws Exception {
+    final PlanTemplate.Parameters first = parameterize(
+      "SELECT a FROM t WHERE d >= DATE '2020-01-01' AND d < DATE '2020-02-01' AND b = 'x' AND c IN (1, 2)");
+    final PlanTemplate.Parameters second = parameterize(
+      "SELECT a FROM t WHERE d >= DATE '2021-06-01' AND d < DATE '2021-07-01' AND b = 'y' AND c IN (3, 4)");
+    assertNotNull(first);
+    assertNotNull(second);
+    assertEquals(first.getTemplateSql(), second.getTemplateSql());
+    assertEquals(6, first.getValues().size());
+    assertNotEquals(first.getValues(), second.getValues());
+  }
+
+  @Test
+  public void testDifferentTemplateForDifferentTypes() throws Exception {
+    final PlanTemplate.Parameters integer = parameterize("SELECT a FROM t WHERE b = 1");
+    final PlanTemplate.Parameters decimal = parameterize("SELECT a FROM t WHERE b = 1.5");
+    final PlanTemplate.Parameters string = parameterize("SELECT a FROM t WHERE b = 'abc'");
+    final PlanTemplate.Parameters longerString = parameterize("SELECT a FROM t WHERE b = 'abcd'");
+    assertNotEquals(integer.getTemplateSql(), decimal.getTemplateSql());
+    assertNotEquals(string.getTemplateSql(), longerString.getTemplateSql());
+  }
+
+  @Test
+  public void testNoParameters() throws Exception {
+    assertNull(parameterize("SELECT a FROM t ORDER BY 1 LIMIT 10"));
+    assertNull(parameterize("SELECT a + 1 FROM t GROUP BY a + 1"));
+    assertNull(parameterize("SELECT a FROM t WHERE b = ? AND c = 1"));
+  }
+}
@@ -0,0 +1,115 @@
+/*
+ * Copyright (C) 2017-2019 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.exec.planner;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import com.dremio.BaseTestQuery;
+import com.dremio.exec.work.protector.ForemenWorkManager;
+
+/**
+ * Tests the plan templates cached by {@link PlanCache} for queries only differing by their literals.
+ */
+public class TestPlanTemplateCache extends BaseTestQuery {
+  private static final String TABLE = TEMP_SCHEMA + ".\"plan_template.json\"";
+
+  @BeforeClass
+  public static void setupTable() throws Exception {
+    Files.write(new File(getDfsTestTmpSchemaLocation(), "plan_template.json").toPath(),
+      ("{\"a\": 10, \"b\": 3}\n{\"a\": 20, \"b\": 3}\n{\"a\": 20, \"b\": 5}\n{\"a\": 1, \"b\": 2}\n{\"a\": 30, \"b\": 7}\n")
+        .getBytes(StandardCharsets.UTF_8));
+  }
+
+  @Before
+  public void clearPlanCache() {
+    getPlanCache().getCachePlans().invalidateAll();
+  }
+
+  private static PlanCache getPlanCache() {
+    return nodes[0].getBindingProvider().lookup(ForemenWorkManager.class).getPlanCacheHandle();
+  }
+
+  private static List<CachedPlan> getTemplates() {
+    return getPlanCache().getCachePlans().asMap().values().stream()
+      .filter(plan -> plan.getTemplate() != null)
+      .collect(Collectors.toList());
+  }
+
+  private static CachedPlan getTemplate() {
+    final List<CachedPlan> templates = getTemplates();
+    assertEquals(1, templates.size());
+    return templates.get(0);
+  }
+
+  @Test
+  public void testProjectedLiteralEqualToParameter() throws Exception {
+    final String query = "SELECT a, b * 10 AS p FROM " + TABLE + " WHERE a = %d AND b = %d";
+
+    testBuilder().sqlQuery(query, 10, 3).unOrdered()
+      .baselineColumns("a", "p").baselineValues(10L, 30L).go();
+    assertFalse(getTemplate().getTemplate().isValidated());
+
+    // a keeps its value: the literal 10 of the projection can not be told apart from it
+    test(String.format(query, 10, 4));
+    assertFalse(getTemplate().getTemplate().isValidated());
+
+    testBuilder().sqlQuery(query, 1, 2).unOrdered()
+      .baselineColumns("a", "p").baselineValues(1L, 20L).go();
+    assertTrue(getTemplate().getTemplate().isValidated());
+
+    // planned from the template, which only rebinds the parameters
+    testBuilder().sqlQuery(query, 20, 5).unOrdered()
+      .baselineColumns("a", "p").baselineValues(20L, 50L).go();
+    assertEquals(1, getTemplate().getUseCount());
+  }
+
+  @Test
+  public void testLimitEqualToParameter() throws Exception {
+    final String query = "SELECT count(*) AS c FROM (SELECT a FROM " + TABLE + " WHERE a > %d AND b > %d LIMIT 3)";
+
+    testBuilder().sqlQuery(query, 3, 1).unOrdered()
+      .baselineColumns("c").baselineValues(3L).go();
+    test(String.format(query, 3, 0));
+    assertFalse(getTemplate().getTemplate().isValidated());
+
+    testBuilder().sqlQuery(query, 0, 2).unOrdered()
+      .baselineColumns("c").baselineValues(3L).go();
+    assertTrue(getTemplate().getTemplate().isValidated());
+
+    testBuilder().sqlQuery(query, 5, 0).unOrdered()
+      .baselineColumns("c").baselineValues(3L).go();
+    assertEquals(1, getTemplate().getUseCount());
+  }
+
+  @Test
+  public void testSameParameterValuesNotTemplated() throws Exception {
+    testBuilder().sqlQuery("SELECT a FROM " + TABLE + " WHERE a = %d AND b = %d", 20, 20).unOrdered()
+      .expectsEmptyResultSet().go();
+    assertTrue(getTemplates().isEmpty());
+  }
+}
@@ -16,22 +16,29 @@
 package com.dremio.exec.planner.acceleration;
 
 
+import static org.junit.Assert.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.atLeastOnce;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import org.apache.calcite.rel.RelNode;
 import org.junit.Before;
 import org.junit.Test;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 
+import com.dremio.exec.planner.observer.AttemptObserver;
 import com.dremio.exec.planner.sql.SqlConverter;
 import com.dremio.exec.server.MaterializationDescriptorProvider;
 import com.dremio.exec.work.user.SubstitutionSettings;
 import com.dremio.sabot.rpc.user.UserSession;
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
 
 public class TestMaterializationList {
 
@@ -56,6 +63,12 @@ public class TestMaterializationList {
   @Mock
   private MaterializationDescriptor included;
 
+  @Mock
+  private AttemptObserver observer;
+
+  @Mock
+  private RelNode query;
+
   @Before
   public void setup() {
     MockitoAnnotations.initMocks(this);
@@ -82,6 +95,35 @@ public class TestMaterializationList {
     verify(included, atLeastOnce()).getMaterializationFor(converter);
   }
 
+  @Test
+  public void testApplicableMaterializationsOnlyExpandCandidates() {
+    when(excluded.getMaterializationId()).thenReturn("mid-1");
+    when(excluded.getLayoutId()).thenReturn("rid-1");
+    when(included.getMaterializationFor(converter)).thenReturn(relOptMat2);
+    when(included.getMaterializationId()).thenReturn("mid-2");
+    when(included.getLayoutId()).thenReturn("rid-2");
+    when(included.getPath()).thenReturn(ImmutableList.of("__accelerator", "rid-2", "mid-2"));
+    when(relOptMat2.getQueryRel()).thenReturn(query);
+
+    when(session.getSubstitutionSettings()).thenReturn(new SubstitutionSettings(ImmutableList.of()));
+    when(converter.getObserver()).thenReturn(observer);
+    when(provider.get()).thenReturn(ImmutableList.of(excluded, included));
+    when(provider.getCandidates(ImmutableSet.of()))
+      .thenReturn(new MaterializationDescriptorProvider.Candidates(ImmutableList.of(included), 1));
+
+    final MaterializationList materializations = new MaterializationList(converter, session, provider);
+    materializations.getApplicableMaterializations(query);
+
+    verify(excluded, never()).getMaterializationFor(any(SqlConverter.class));
+    verify(included, atLeastOnce()).getMaterializationFor(converter);
+    verify(observer).planMaterializationCandidates(eq(1), eq(1), anyLong());
+    assertTrue(materializations.getDescriptor(ImmutableList.of("__accelerator", "rid-2", "mid-2")).isPresent());
+
+    // materializations already expanded are reused
+    materializations.getApplicableMaterializations(query);
+    verify(included, times(1)).getMaterializationFor(converter);
+  }
+
 
 
 }
@@ -32,7 +32,7 @@ import org.junit.Rule;
 import org.junit.Test;
 
 import com.dremio.common.AutoCloseables;
-import com.dremio.exec.util.BloomFilter;
+import com.dremio.exec.util.BlockedBloomFilter;
 import com.dremio.exec.util.ValueListFilterBuilder;
 import com.dremio.test.AllocatorRule;
 import com.google.common.collect.Lists;
@@ -162,7 +162,7 @@ public class TestRuntimeFilter {
     }
 
     private CompositeColumnFilter newBloomFilter(List<String> columns) {
-        BloomFilter bloomFilter = mock(BloomFilter.class);
+        BlockedBloomFilter bloomFilter = mock(BlockedBloomFilter.class);
         return new CompositeColumnFilter.Builder()
                 .setColumnsList(columns)
                 .setBloomFilter(bloomFilter)
@@ -41,7 +41,7 @@ import com.dremio.exec.ExecConstants;
 import com.dremio.exec.store.dfs.implicit.ConstantColumnPopulators;
 import com.dremio.exec.store.dfs.implicit.NameValuePair;
 import com.dremio.exec.store.dfs.implicit.TwosComplementValuePair;
-import com.dremio.exec.util.BloomFilter;
+import com.dremio.exec.util.BlockedBloomFilter;
 import com.dremio.exec.util.DecimalUtils;
 import com.dremio.options.OptionManager;
 import com.dremio.sabot.exec.context.OpProfileDef;
@@ -75,8 +75,7 @@ public class TestRuntimeFilterEvaluator {
   }
 
   private void testRuntimeFilter(ArrowBuf keyBuf, int keyLength, List<String> partitionCols, List<NameValuePair<?>> nameValuePairs) {
-    try (BloomFilter bloomFilter = new BloomFilter(testAllocator, TEST_NAME, 512)) {
-      bloomFilter.setup();
+    try (BlockedBloomFilter bloomFilter = new BlockedBloomFilter(testAllocator, TEST_NAME, 64, 512)) {
       bloomFilter.put(keyBuf, keyLength);
 
       // create mocks
@@ -0,0 +1,160 @@
+/*
+ * Copyright (C) 2017-2019 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.exec.store.cache;
+
+import static com.dremio.exec.store.cache.BlockCache.BLOCK_SIZE;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Collections;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.dremio.exec.store.cache.BlockCache.BlockKey;
+import com.dremio.io.AsyncByteReader;
+import com.dremio.io.file.Path;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+
+/**
+ * Test for {@link CachingAsyncByteReader}
+ */
+public class CachingAsyncByteReaderTest {
+  @Rule
+  public final TemporaryFolder tempDir = new TemporaryFolder();
+
+  private static final int FILE_LENGTH = 3 * BLOCK_SIZE + 12345;
+
+  private final byte[] data = new byte[FILE_LENGTH];
+  private final AtomicInteger innerReads = new AtomicInteger();
+  private BlockCache cache;
+
+  @Before
+  public void setup() throws Exception {
+    new Random(0).nextBytes(data);
+    cache = newCache();
+  }
+
+  @After
+  public void tearDown() throws Exception {
+    cache.close();
+  }
+
+  private BlockCache newCache() throws Exception {
+    return new BlockCache("localhost", tempDir.getRoot().toPath().resolve("db"),
+      Collections.singletonList(tempDir.getRoot().toPath().resolve("blocks")),
+      Collections.singletonList(100), Collections.singletonList(0));
+  }
+
+  private AsyncByteReader newReader(String version) {
+    final AsyncByteReader inner = new AsyncByteReader() {
+      @Override
+      public CompletableFuture<Void> readFully(long offset, ByteBuf dst, int dstOffset, int len) {
+        innerReads.incrementAndGet();
+        dst.setBytes(dstOffset, data, (int) offset, len);
+        return CompletableFuture.completedFuture(null);
+      }
+    };
+    return new CachingAsyncByteReader(inner, cache, "source",
+      AsyncByteReader.FileKey.of(Path.of("/bucket/file.parquet"), version, AsyncByteReader.FileKey.FileType.PARQUET),
+      100, () -> FILE_LENGTH);
+  }
+
+  private byte[] read(AsyncByteReader reader, long offset, int len) throws Exception {
+    final ByteBuf buf = Unpooled.directBuffer(len);
+    try {
+      reader.readFully(offset, buf, 0, len).get();
+      final byte[] bytes = new byte[len];
+      buf.getBytes(0, bytes);
+      return bytes;
+    } finally {
+      buf.release();
+    }
+  }
+
+  private byte[] expected(long offset, int len) {
+    final byte[] bytes = new byte[len];
+    System.arraycopy(data, (int) offset, bytes, 0, len);
+    return bytes;
+  }
+
+  private void awaitCached(String version, int blocks) throws InterruptedException {
+    for (int i = 0; i < 500; i++) {
+      boolean cached = true;
+      for (int block = 0; block < blocks; block++) {
+        cached &= cache.contains(new BlockKey("source", "/bucket/file.parquet", version, (long) block * BLOCK_SIZE));
+      }
+      if (cached) {
+        return;
+      }
+      Thread.sleep(10);
+    }
+  }
+
+  @Test
+  public void testReadsFromCacheOnceWritten() throws Exception {
+    final AsyncByteReader reader = newReader("1");
+    final long offset = BLOCK_SIZE / 2;
+    final int len = 2 * BLOCK_SIZE + BLOCK_SIZE / 2 + 1000;
+    assertArrayEquals(expected(offset, len), read(reader, offset, len));
+    assertEquals(1, innerReads.get());
+
+    awaitCached("1", 4);
+    innerReads.set(0);
+    assertArrayEquals(expected(offset, len), read(reader, offset, len));
+    assertArrayEquals(expected(FILE_LENGTH - 100, 100), read(reader, FILE_LENGTH - 100, 100));
+    assertEquals(0, innerReads.get());
+    reader.close();
+  }
+
+  @Test
+  public void testNewVersionIsNotReadFromCache() throws Exception {
+    final AsyncByteReader reader = newReader("1");
+    assertArrayEquals(expected(0, 1000), read(reader, 0, 1000));
+    awaitCached("1", 1);
+
+    innerReads.set(0);
+    final AsyncByteReader newReader = newReader("2");
+    assertArrayEquals(expected(0, 1000), read(newReader, 0, 1000));
+    assertEquals(1, innerReads.get());
+    reader.close();
+    newReader.close();
+  }
+
+  @Test
+  public void testBlocksReloadedAfterRestart() throws Exception {
+    final AsyncByteReader reader = newReader("1");
+    assertArrayEquals(expected(0, 2 * BLOCK_SIZE), read(reader, 0, 2 * BLOCK_SIZE));
+    awaitCached("1", 2);
+    reader.close();
+
+    cache.close();
+    cache = newCache();
+    assertTrue(cache.contains(new BlockKey("source", "/bucket/file.parquet", "1", BLOCK_SIZE)));
+    innerReads.set(0);
+    assertArrayEquals(expected(10, BLOCK_SIZE), read(newReader("1"), 10, BLOCK_SIZE));
+    assertEquals(0, innerReads.get());
+  }
+}
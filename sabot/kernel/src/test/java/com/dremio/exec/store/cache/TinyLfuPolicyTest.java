@@ -0,0 +1,89 @@
+/*
+ * Copyright (C) 2017-2019 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.exec.store.cache;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+
+import org.junit.Test;
+
+/**
+ * Test for {@link TinyLfuPolicy}
+ */
+public class TinyLfuPolicyTest {
+
+  @Test
+  public void testWeightIsBounded() {
+    TinyLfuPolicy<Integer> policy = new TinyLfuPolicy<>(100, 100);
+    int evicted = 0;
+    for (int i = 0; i < 1000; i++) {
+      evicted += policy.add(i, 1).size();
+    }
+    assertEquals(1000, evicted + policy.size());
+    assertTrue(policy.getWeight() <= 100);
+  }
+
+  @Test
+  public void testFrequentKeysSurviveScan() {
+    TinyLfuPolicy<Integer> policy = new TinyLfuPolicy<>(100, 100);
+    for (int i = 0; i < 50; i++) {
+      policy.add(i, 1);
+    }
+    for (int round = 0; round < 5; round++) {
+      for (int i = 0; i < 50; i++) {
+        assertTrue(policy.access(i));
+      }
+    }
+
+    // keys only used once by a scan should not replace the frequently used ones
+    for (int i = 1000; i < 2000; i++) {
+      if (!policy.access(i)) {
+        policy.add(i, 1);
+      }
+    }
+    for (int i = 0; i < 50; i++) {
+      assertTrue("frequent key " + i + " was evicted", policy.contains(i));
+    }
+  }
+
+  @Test
+  public void testRemove() {
+    TinyLfuPolicy<Integer> policy = new TinyLfuPolicy<>(100, 100);
+    List<Integer> evicted = policy.add(1, 10);
+    assertTrue(evicted.isEmpty() || evicted.contains(1));
+    policy.remove(1);
+    assertFalse(policy.contains(1));
+    assertEquals(0, policy.getWeight());
+  }
+
+  @Test
+  public void testSketchAging() {
+    TinyLfuPolicy.FrequencySketch sketch = new TinyLfuPolicy.FrequencySketch(16);
+    for (int i = 0; i < 20; i++) {
+      sketch.increment(42);
+    }
+    assertEquals(15, sketch.frequency(42));
+
+    // enough increments of other keys halve all the counters
+    for (int i = 0; i < 10 * 16; i++) {
+      sketch.increment(i * 31 + 1000);
+    }
+    assertTrue(sketch.frequency(42) < 15);
+  }
+}
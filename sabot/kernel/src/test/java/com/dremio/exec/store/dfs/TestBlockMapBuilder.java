@@ -0,0 +1,126 @@
+/*
+ * Copyright (C) 2017-2019 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.exec.store.dfs;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Test;
+
+import com.dremio.exec.proto.CoordinationProtos.NodeEndpoint;
+import com.dremio.io.CompressionCodec;
+import com.dremio.io.CompressionCodecFactory;
+import com.dremio.io.file.FileAttributes;
+import com.dremio.io.file.FileBlockLocation;
+import com.dremio.io.file.FileSystem;
+import com.dremio.io.file.Path;
+import com.google.common.collect.ImmutableList;
+
+/**
+ * Tests for {@link BlockMapBuilder}
+ */
+public class TestBlockMapBuilder {
+  private static final List<NodeEndpoint> ENDPOINTS = Collections.singletonList(
+    NodeEndpoint.newBuilder().setAddress("host1").build());
+
+  @Test
+  public void testBlocksNotSplitByDefault() throws IOException {
+    final FileAttributes file = file("/a.csv", 1000);
+    final BlockMapBuilder builder = new BlockMapBuilder(codecFactory(false), fs(file, 0, 600, 1000), ENDPOINTS);
+
+    assertWork(builder.generateFileWork(ImmutableList.of(file), true), 0, 600, 600, 400);
+  }
+
+  @Test
+  public void testBlocksSplitToMaxSize() throws IOException {
+    final FileAttributes file = file("/a.csv", 1000);
+    final BlockMapBuilder builder = new BlockMapBuilder(codecFactory(false), fs(file, 0, 600, 1000), ENDPOINTS, 250);
+
+    // the second block is split from its own offset
+    assertWork(builder.generateFileWork(ImmutableList.of(file), true),
+      0, 250, 250, 250, 500, 100, 600, 250, 850, 150);
+  }
+
+  @Test
+  public void testNotSplittable() throws IOException {
+    final FileAttributes file = file("/a.json", 1000);
+    final BlockMapBuilder builder = new BlockMapBuilder(codecFactory(false), fs(file, 0, 1000), ENDPOINTS, 250);
+
+    assertWork(builder.generateFileWork(ImmutableList.of(file), false), 0, 1000);
+  }
+
+  @Test
+  public void testCompressedNotSplit() throws IOException {
+    final FileAttributes file = file("/a.csv.gz", 1000);
+    final BlockMapBuilder builder = new BlockMapBuilder(codecFactory(true), fs(file, 0, 1000), ENDPOINTS, 250);
+
+    assertWork(builder.generateFileWork(ImmutableList.of(file), true), 0, 1000);
+  }
+
+  private static void assertWork(List<CompleteFileWork> work, long... startsAndLengths) {
+    final List<Long> actual = new ArrayList<>();
+    for (CompleteFileWork w : work) {
+      actual.add(w.getStart());
+      actual.add(w.getLength());
+    }
+    final List<Long> expected = new ArrayList<>();
+    for (long l : startsAndLengths) {
+      expected.add(l);
+    }
+    assertEquals(expected, actual);
+  }
+
+  private static FileAttributes file(String path, long size) {
+    final FileAttributes attributes = mock(FileAttributes.class);
+    when(attributes.getPath()).thenReturn(Path.of(path));
+    when(attributes.size()).thenReturn(size);
+    when(attributes.isDirectory()).thenReturn(false);
+    return attributes;
+  }
+
+  private static CompressionCodecFactory codecFactory(boolean compressed) {
+    final CompressionCodecFactory factory = mock(CompressionCodecFactory.class);
+    if (compressed) {
+      when(factory.getCodec(any(Path.class))).thenReturn(mock(CompressionCodec.class));
+    }
+    return factory;
+  }
+
+  /**
+   * @param boundaries offsets of the blocks of the file, followed by the file size
+   */
+  private static FileSystem fs(FileAttributes file, long... boundaries) throws IOException {
+    final List<FileBlockLocation> blocks = new ArrayList<>();
+    for (int i = 0; i + 1 < boundaries.length; i++) {
+      final FileBlockLocation block = mock(FileBlockLocation.class);
+      when(block.getOffset()).thenReturn(boundaries[i]);
+      when(block.getSize()).thenReturn(boundaries[i + 1] - boundaries[i]);
+      when(block.getHosts()).thenReturn(ImmutableList.of("host1"));
+      blocks.add(block);
+    }
+    final FileSystem fs = mock(FileSystem.class);
+    when(fs.getFileBlockLocations(any(FileAttributes.class), anyLong(), anyLong())).thenReturn(blocks);
+    return fs;
+  }
+}
@@ -74,7 +74,7 @@ import com.dremio.exec.store.parquet.ParquetReaderFactory;
 import com.dremio.exec.store.parquet.ParquetSplitReaderCreatorIterator;
 import com.dremio.exec.store.parquet.ParquetSubScan;
 import com.dremio.exec.store.parquet.SplitReaderCreatorIterator;
-import com.dremio.exec.util.BloomFilter;
+import com.dremio.exec.util.BlockedBloomFilter;
 import com.dremio.io.file.FileSystem;
 import com.dremio.io.file.Path;
 import com.dremio.options.OptionManager;
@@ -450,9 +450,8 @@ public class TestPrefetchingIterator {
     private RuntimeFilter prepareRuntimeFilter(String colName, int... value) throws Exception {
         try (AutoCloseables.RollbackCloseable rollbackCloseable = new AutoCloseables.RollbackCloseable();
              ArrowBuf keyBuf = testAllocator.buffer(5)) {
-            BloomFilter bloomFilter = new BloomFilter(testAllocator, TEST_NAME, 512);
+            BlockedBloomFilter bloomFilter = new BlockedBloomFilter(testAllocator, TEST_NAME, 64, 512);
             rollbackCloseable.add(bloomFilter);
-            bloomFilter.setup();
 
             keyBuf.setByte(0, 1);
             for (int v : value) {
@@ -0,0 +1,118 @@
+/*
+ * Copyright (C) 2017-2019 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.exec.store.easy.json;
+
+import static org.junit.Assert.assertArrayEquals;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+import org.apache.arrow.memory.ArrowBuf;
+import org.apache.arrow.memory.BufferAllocator;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+
+import com.dremio.io.ArrowBufFSInputStream;
+import com.dremio.test.AllocatorRule;
+import com.dremio.test.DremioTest;
+
+/**
+ * Tests for {@link NewlineDelimitedSplitInputStream}
+ */
+public class TestNewlineDelimitedSplitInputStream extends DremioTest {
+
+  private BufferAllocator testAllocator;
+
+  @Rule
+  public final AllocatorRule allocatorRule = AllocatorRule.defaultAllocator();
+
+  @Before
+  public void setupBeforeTest() {
+    testAllocator = allocatorRule.newAllocator("test-newline-delimited-split", 0, Long.MAX_VALUE);
+  }
+
+  @After
+  public void cleanupAfterTest() throws Exception {
+    testAllocator.close();
+  }
+
+  @Test
+  public void testBlocksReadEachRecordOnce() throws Exception {
+    final byte[] data = records(200, true);
+    for (long blockSize : new long[] {1, 2, 7, 100, 1000, data.length}) {
+      assertArrayEquals("block size " + blockSize, data, readBlocks(data, blockSize));
+    }
+  }
+
+  @Test
+  public void testLastRecordWithoutLineSeparator() throws Exception {
+    final byte[] data = records(100, false);
+    for (long blockSize : new long[] {1, 13, 4096, data.length}) {
+      assertArrayEquals("block size " + blockSize, data, readBlocks(data, blockSize));
+    }
+  }
+
+  @Test
+  public void testRecordLargerThanBuffer() throws Exception {
+    final StringBuilder record = new StringBuilder("{\"a\": \"");
+    for (int i = 0; i < 200_000; i++) {
+      record.append((char) ('a' + i % 26));
+    }
+    record.append("\"}\n");
+    final byte[] data = (record.toString() + "{\"a\": 1}\n" + record).getBytes(StandardCharsets.UTF_8);
+    for (long blockSize : new long[] {50_000, 65_536, 150_000}) {
+      assertArrayEquals("block size " + blockSize, data, readBlocks(data, blockSize));
+    }
+  }
+
+  private static byte[] records(int count, boolean trailingSeparator) {
+    final Random random = new Random(count);
+    final StringBuilder sb = new StringBuilder();
+    for (int i = 0; i < count; i++) {
+      sb.append("{\"id\": ").append(i).append(", \"s\": \"");
+      final int length = random.nextInt(50);
+      for (int j = 0; j < length; j++) {
+        sb.append((char) ('a' + random.nextInt(26)));
+      }
+      sb.append("\"}");
+      if (i < count - 1 || trailingSeparator) {
+        sb.append('\n');
+      }
+    }
+    return sb.toString().getBytes(StandardCharsets.UTF_8);
+  }
+
+  private byte[] readBlocks(byte[] data, long blockSize) throws IOException {
+    final ByteArrayOutputStream out = new ByteArrayOutputStream();
+    final byte[] chunk = new byte[1000];
+    for (long start = 0; start < data.length; start += blockSize) {
+      final ArrowBuf buf = testAllocator.buffer(data.length);
+      buf.writeBytes(data);
+      try (NewlineDelimitedSplitInputStream stream = new NewlineDelimitedSplitInputStream(new ArrowBufFSInputStream(buf),
+        start, Math.min(blockSize, data.length - start))) {
+        int read;
+        while ((read = stream.read(chunk, 0, chunk.length)) != -1) {
+          out.write(chunk, 0, read);
+        }
+      }
+    }
+    return out.toByteArray();
+  }
+}
@@ -0,0 +1,83 @@
+/*
+ * Copyright (C) 2017-2019 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.exec.store.easy.text.compliant;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+
+/**
+ * Tests for {@link StructuralByteScanner}
+ */
+public class TestStructuralByteScanner {
+
+  private static int naiveIndexOfAny(byte[] data, int offset, int length, byte b1, byte b2, byte b3) {
+    for (int i = 0; i < length; i++) {
+      final byte b = data[offset + i];
+      if (b == b1 || b == b2 || b == b3) {
+        return i;
+      }
+    }
+    return length;
+  }
+
+  @Test
+  public void testMatchesNaiveScan() {
+    final Random random = new Random(42);
+    final byte[] data = new byte[4096];
+    final ByteBuf buf = Unpooled.directBuffer(data.length);
+    try {
+      for (int round = 0; round < 200; round++) {
+        // sparse structural bytes, including bytes with the high bit set
+        for (int i = 0; i < data.length; i++) {
+          final int r = random.nextInt(100);
+          data[i] = r == 0 ? (byte) ',' : r == 1 ? (byte) '\n' : r == 2 ? (byte) 0xE9 : (byte) ('a' + r % 26);
+        }
+        buf.setBytes(0, data);
+        final int offset = random.nextInt(64);
+        final int length = random.nextInt(data.length - offset);
+        assertEquals(naiveIndexOfAny(data, offset, length, (byte) ',', (byte) '\n', (byte) 0xE9),
+          StructuralByteScanner.indexOfAny(buf.memoryAddress() + offset, length, (byte) ',', (byte) '\n', (byte) 0xE9));
+      }
+    } finally {
+      buf.release();
+    }
+  }
+
+  @Test
+  public void testEveryPosition() {
+    final byte[] data = new byte[200];
+    final ByteBuf buf = Unpooled.directBuffer(data.length);
+    try {
+      for (int pos = 0; pos <= data.length; pos++) {
+        for (int i = 0; i < data.length; i++) {
+          // the bytes next to the searched ones differ from them by a single bit
+          data[i] = i == pos ? (byte) '"' : (byte) ('"' ^ (1 << (i % 8)));
+        }
+        buf.setBytes(0, data);
+        assertEquals(pos, StructuralByteScanner.indexOfAny(buf.memoryAddress(), data.length, (byte) '"', (byte) '"',
+          (byte) '"'));
+      }
+    } finally {
+      buf.release();
+    }
+  }
+}
@@ -15,9 +15,11 @@
  */
 package com.dremio.exec.store.parquet;
 
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.junit.Assert.assertEquals;
 
 import java.io.ByteArrayInputStream;
+import java.io.EOFException;
 import java.io.IOException;
 import java.nio.ByteBuffer;
 
@@ -212,4 +214,29 @@ public class TestBulkInputStream {
       }
     }.asSeekableInputStream());
   }
+
+  @Test
+  public void testByteBufStream() throws Exception {
+    try (ByteBufBulkInputStream bis = new ByteBufBulkInputStream(0, Unpooled.wrappedBuffer(testData))) {
+      testSeekableStream(bis.asSeekableInputStream());
+    }
+  }
+
+  @Test
+  public void testByteBufStreamAtOffset() throws Exception {
+    final int start = 1000;
+    final ByteBuf data = Unpooled.wrappedBuffer(testData, start, 500);
+    try (ByteBufBulkInputStream bis = new ByteBufBulkInputStream(start, data)) {
+      assertEquals(start, bis.getPos());
+      bis.seek(start + 100);
+      final ByteBuf buf = Unpooled.buffer(100);
+      bis.readFully(buf, 100);
+      compareData(buf, start + 100, 100);
+      assertEquals(start + 200, bis.getPos());
+
+      assertThatThrownBy(() -> bis.seek(start - 1)).isInstanceOf(EOFException.class);
+      assertThatThrownBy(() -> bis.readFully(Unpooled.buffer(400), 400)).isInstanceOf(EOFException.class);
+    }
+    assertEquals(0, data.refCnt());
+  }
 }
@@ -0,0 +1,119 @@
+/*
+ * Copyright (C) 2017-2019 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.exec.store.parquet;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.dremio.common.expression.SchemaPath;
+import com.dremio.exec.ExecConstants;
+import com.dremio.io.file.FileSystem;
+import com.dremio.io.file.Path;
+import com.dremio.options.OptionManager;
+import com.dremio.sabot.exec.context.OperatorContext;
+
+/**
+ * Tests the choice of {@link InputStreamProvider} made by {@link InputStreamProviderFactory#DEFAULT}.
+ */
+public class TestInputStreamProviderFactory {
+  private static final long FILE_LENGTH = 64 * 1024 * 1024;
+  private static final long LARGE_SPLIT = 16 * 1024 * 1024;
+
+  private final FileSystem fs = mock(FileSystem.class);
+  private final OptionManager options = mock(OptionManager.class);
+  private final OperatorContext context = mock(OperatorContext.class);
+
+  @Before
+  public void setup() {
+    when(context.getOptions()).thenReturn(options);
+    when(fs.supportsAsync()).thenReturn(true);
+    when(options.getOption(ExecConstants.PARQUET_SINGLE_STREAM)).thenReturn(false);
+    when(options.getOption(ExecConstants.PARQUET_SINGLE_STREAM_COLUMN_THRESHOLD)).thenReturn(40L);
+    when(options.getOption(ExecConstants.PARQUET_MULTI_STREAM_SIZE_LIMIT_ENABLE)).thenReturn(true);
+    when(options.getOption(ExecConstants.PARQUET_MULTI_STREAM_SIZE_LIMIT)).thenReturn(1024 * 1024L);
+    when(options.getOption(ExecConstants.PARQUET_MAX_FOOTER_LEN_VALIDATOR)).thenReturn(16 * 1024 * 1024L);
+    when(options.getOption(ExecConstants.PARQUET_VECTORED_READ_ENABLED)).thenReturn(true);
+    when(options.getOption(ExecConstants.PARQUET_VECTORED_READ_MAX_GAP)).thenReturn(128 * 1024L);
+    when(options.getOption(ExecConstants.PARQUET_VECTORED_READ_MAX_MERGED_SIZE)).thenReturn(8 * 1024 * 1024L);
+    when(options.getOption(ExecConstants.PARQUET_VECTORED_READ_MAX_BUFFERED_SIZE)).thenReturn(32 * 1024 * 1024L);
+  }
+
+  @Test
+  public void testVectoredReadOffByDefault() {
+    assertFalse(ExecConstants.PARQUET_VECTORED_READ_ENABLED.getDefault().getBoolVal());
+  }
+
+  @Test
+  public void testSingleStreamOption() throws Exception {
+    when(options.getOption(ExecConstants.PARQUET_SINGLE_STREAM)).thenReturn(true);
+    assertProvider(SingleStreamProvider.class, 3, LARGE_SPLIT, false);
+  }
+
+  @Test
+  public void testSingleStreamAboveColumnThreshold() throws Exception {
+    assertProvider(SingleStreamProvider.class, 40, LARGE_SPLIT, false);
+  }
+
+  @Test
+  public void testSingleStreamBelowMultiStreamLimit() throws Exception {
+    assertProvider(SingleStreamProvider.class, 3, 512 * 1024, false);
+
+    when(options.getOption(ExecConstants.PARQUET_MULTI_STREAM_SIZE_LIMIT_ENABLE)).thenReturn(false);
+    assertProvider(CoalescingStreamProvider.class, 3, 512 * 1024, false);
+  }
+
+  @Test
+  public void testSingleStreamForFullFile() throws Exception {
+    assertProvider(SingleStreamProvider.class, 3, LARGE_SPLIT, true);
+  }
+
+  @Test
+  public void testVectoredRead() throws Exception {
+    assertProvider(CoalescingStreamProvider.class, 3, LARGE_SPLIT, false);
+  }
+
+  @Test
+  public void testStreamPerColumn() throws Exception {
+    when(options.getOption(ExecConstants.PARQUET_VECTORED_READ_ENABLED)).thenReturn(false);
+    assertProvider(StreamPerColumnProvider.class, 3, LARGE_SPLIT, false);
+
+    when(options.getOption(ExecConstants.PARQUET_VECTORED_READ_ENABLED)).thenReturn(true);
+    when(fs.supportsAsync()).thenReturn(false);
+    assertProvider(StreamPerColumnProvider.class, 3, LARGE_SPLIT, false);
+  }
+
+  private void assertProvider(Class<? extends InputStreamProvider> expected, int numColumns, long splitSize,
+                              boolean readFullFile) throws Exception {
+    final List<SchemaPath> columns = IntStream.range(0, numColumns)
+      .mapToObj(i -> SchemaPath.getSimplePath("c" + i))
+      .collect(Collectors.toList());
+    try (InputStreamProvider provider = InputStreamProviderFactory.DEFAULT.create(fs, context,
+      Path.of("/tmp/file.parquet"), FILE_LENGTH, splitSize, ParquetScanProjectedColumns.fromSchemaPaths(columns),
+      null, null, f -> 0, readFullFile, Collections.singletonList("dataset"), 1L, false, false)) {
+      assertEquals(expected, provider.getClass());
+    }
+  }
+}
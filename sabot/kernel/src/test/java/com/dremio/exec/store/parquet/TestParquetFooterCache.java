@@ -0,0 +1,65 @@
+/*
+ * Copyright (C) 2017-2019 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.exec.store.parquet;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+/**
+ * Tests for {@link ParquetFooterCache}
+ */
+public class TestParquetFooterCache {
+
+  @Test
+  public void testKeyedByVersion() {
+    final ParquetFooterCache cache = new ParquetFooterCache(1024);
+    final byte[] footer = new byte[] {1, 2, 3};
+    cache.put("/a/b.parquet", 10, 100, footer);
+
+    assertArrayEquals(footer, cache.get("/a/b.parquet", 10, 100));
+    // a modified file must not be served the old footer
+    assertNull(cache.get("/a/b.parquet", 11, 100));
+    assertNull(cache.get("/a/b.parquet", 10, 101));
+    assertNull(cache.get("/a/c.parquet", 10, 100));
+  }
+
+  @Test
+  public void testSizeBounded() {
+    final ParquetFooterCache cache = new ParquetFooterCache(1024);
+    for (int i = 0; i < 100; i++) {
+      cache.put("/file" + i, 1, 1, new byte[100]);
+    }
+    assertTrue(cache.size() <= 10);
+    // recently inserted entries are kept
+    assertArrayEquals(new byte[100], cache.get("/file99", 1, 1));
+
+    // entries larger than the cache are never stored
+    cache.put("/large", 1, 1, new byte[2048]);
+    assertNull(cache.get("/large", 1, 1));
+  }
+
+  @Test
+  public void testInstanceResizedOnOptionChange() {
+    final ParquetFooterCache first = ParquetFooterCache.getInstance(1024);
+    assertSame(first, ParquetFooterCache.getInstance(1024));
+    assertNotSame(first, ParquetFooterCache.getInstance(2048));
+  }
+}
@@ -53,6 +53,7 @@ import com.dremio.exec.proto.UserBitShared;
 import com.dremio.exec.record.BatchSchema;
 import com.dremio.exec.store.RecordReader;
 import com.dremio.exec.store.RuntimeFilter;
+import com.dremio.exec.util.BlockedBloomFilter;
 import com.dremio.exec.util.RuntimeFilterTestUtils;
 import com.dremio.exec.util.ValueListFilter;
 import com.dremio.options.OptionManager;
@@ -282,6 +283,7 @@ public class TestParquetScanTableFunction {
                 .setPartitionColumnFilter(ExecProtos.CompositeColumnFilter.newBuilder()
                         .addAllColumns(Lists.newArrayList(cols))
                         .setFilterType(ExecProtos.RuntimeFilterType.BLOOM_FILTER)
+                        .setFormatVersion(BlockedBloomFilter.FORMAT_VERSION)
                         .setSizeBytes(sizeBytes).build())
                 .build();
     }
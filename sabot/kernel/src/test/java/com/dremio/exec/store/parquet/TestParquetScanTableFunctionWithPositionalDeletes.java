@@ -64,7 +64,7 @@ import com.dremio.exec.store.iceberg.IcebergSerDe;
 import com.dremio.exec.store.iceberg.IcebergTestTables;
 import com.dremio.exec.store.iceberg.SupportsIcebergRootPointer;
 import com.dremio.exec.store.iceberg.SupportsInternalIcebergTable;
-import com.dremio.exec.util.BloomFilter;
+import com.dremio.exec.util.BlockedBloomFilter;
 import com.dremio.io.file.FileSystem;
 import com.dremio.io.file.Path;
 import com.dremio.sabot.BaseTestTableFunction;
@@ -505,8 +505,7 @@ public class TestParquetScanTableFunctionWithPositionalDeletes extends BaseTestT
   private OutOfBandMessage createRuntimeFilterForOrderYears(ImmutableList<Integer> orderYears) {
     try (
         ArrowBuf keyBuf = getTestAllocator().buffer(4);
-        BloomFilter bloomFilter = new BloomFilter(getTestAllocator(), "testfilter", 64)) {
-      bloomFilter.setup();
+        BlockedBloomFilter bloomFilter = new BlockedBloomFilter(getTestAllocator(), "testfilter", orderYears.size(), 64)) {
 
       for (int orderYear : orderYears) {
         keyBuf.writerIndex(0);
@@ -518,10 +517,11 @@ public class TestParquetScanTableFunctionWithPositionalDeletes extends BaseTestT
     }
   }
 
-  private OutOfBandMessage createRuntimeFilterMsg(List<String> partitionCols, BloomFilter bloomFilter) {
+  private OutOfBandMessage createRuntimeFilterMsg(List<String> partitionCols, BlockedBloomFilter bloomFilter) {
     ExecProtos.RuntimeFilter.Builder runtimeFilter = ExecProtos.RuntimeFilter.newBuilder().setProbeScanOperatorId(0).setProbeScanMajorFragmentId(0);
     ExecProtos.CompositeColumnFilter partitionColFilter = ExecProtos.CompositeColumnFilter.newBuilder()
         .setFilterType(ExecProtos.RuntimeFilterType.BLOOM_FILTER)
+        .setFormatVersion(BlockedBloomFilter.FORMAT_VERSION)
         .setSizeBytes(bloomFilter.getSizeInBytes())
         .setValueCount(bloomFilter.getNumBitsSet())
         .addAllColumns(partitionCols)
@@ -0,0 +1,292 @@
+/*
+ * Copyright (C) 2017-2019 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.exec.store.parquet;
+
+import static org.apache.parquet.hadoop.metadata.CompressionCodecName.UNCOMPRESSED;
+import static org.apache.parquet.schema.PrimitiveType.PrimitiveTypeName.INT32;
+import static org.apache.parquet.schema.PrimitiveType.PrimitiveTypeName.INT64;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.function.Function;
+
+import org.apache.arrow.memory.ArrowBuf;
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.vector.types.Types.MinorType;
+import org.apache.parquet.column.Dictionary;
+import org.apache.parquet.column.Encoding;
+import org.apache.parquet.column.EncodingStats;
+import org.apache.parquet.column.statistics.IntStatistics;
+import org.apache.parquet.column.statistics.Statistics;
+import org.apache.parquet.hadoop.metadata.BlockMetaData;
+import org.apache.parquet.hadoop.metadata.ColumnChunkMetaData;
+import org.apache.parquet.hadoop.metadata.ColumnPath;
+import org.apache.parquet.internal.column.columnindex.ColumnIndex;
+import org.apache.parquet.internal.column.columnindex.ColumnIndexBuilder;
+import org.apache.parquet.internal.hadoop.metadata.IndexReference;
+import org.apache.parquet.schema.LogicalTypeAnnotation;
+import org.apache.parquet.schema.PrimitiveType;
+import org.apache.parquet.schema.Types;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+
+import com.dremio.common.AutoCloseables;
+import com.dremio.exec.proto.ExecProtos.TopNThreshold;
+import com.dremio.exec.store.CompositeColumnFilter;
+import com.dremio.exec.store.RuntimeFilter;
+import com.dremio.exec.store.ThresholdFilter;
+import com.dremio.exec.util.ValueListFilter;
+import com.dremio.exec.util.ValueListFilterBuilder;
+import com.dremio.test.AllocatorRule;
+import com.google.common.collect.ImmutableMap;
+
+/**
+ * Tests for {@link RowGroupRuntimeFilterEvaluator}
+ */
+public class TestRowGroupRuntimeFilterEvaluator {
+  private static final PrimitiveType ID_TYPE = Types.optional(INT32).named("id");
+  private static final RowGroupRuntimeFilterEvaluator.DictionaryReader NO_DICTIONARY = column -> null;
+  private static final Function<List<ColumnChunkMetaData>, ColumnIndexProvider> NO_COLUMN_INDEX = columns -> null;
+
+  @Rule
+  public final AllocatorRule allocatorRule = AllocatorRule.defaultAllocator();
+
+  private BufferAllocator allocator;
+  private RuntimeFilter runtimeFilter;
+
+  @Before
+  public void setupBeforeTest() {
+    allocator = allocatorRule.newAllocator("test-rowgroup-runtime-filter", 0, Long.MAX_VALUE);
+  }
+
+  @After
+  public void cleanupAfterTest() throws Exception {
+    AutoCloseables.close(runtimeFilter, allocator);
+  }
+
+  @Test
+  public void testStatistics() throws Exception {
+    final RowGroupRuntimeFilterEvaluator evaluator = newEvaluator(intFilter(false, -20, 5, 2000));
+    assertTrue(evaluator.canBeSkipped(block(column(ID_TYPE, stats(10, 1000, 0))), NO_COLUMN_INDEX, NO_DICTIONARY));
+    assertFalse(evaluator.canBeSkipped(block(column(ID_TYPE, stats(-30, -10, 0))), NO_COLUMN_INDEX, NO_DICTIONARY));
+    assertFalse(evaluator.canBeSkipped(block(column(ID_TYPE, stats(1000, 2000, 0))), NO_COLUMN_INDEX, NO_DICTIONARY));
+    // a chunk with only nulls can't match a filter without nulls
+    assertTrue(evaluator.canBeSkipped(block(column(ID_TYPE, nullStats(100))), NO_COLUMN_INDEX, NO_DICTIONARY));
+    // no statistics
+    assertFalse(evaluator.canBeSkipped(block(column(ID_TYPE, null)), NO_COLUMN_INDEX, NO_DICTIONARY));
+  }
+
+  @Test
+  public void testFilterWithNulls() throws Exception {
+    final RowGroupRuntimeFilterEvaluator evaluator = newEvaluator(intFilter(true, 5));
+    assertTrue(evaluator.canBeSkipped(block(column(ID_TYPE, stats(10, 1000, 0))), NO_COLUMN_INDEX, NO_DICTIONARY));
+    assertFalse(evaluator.canBeSkipped(block(column(ID_TYPE, stats(10, 1000, 1))), NO_COLUMN_INDEX, NO_DICTIONARY));
+  }
+
+  @Test
+  public void testColumnIndex() throws Exception {
+    final ColumnChunkMetaData column = column(ID_TYPE, stats(0, 1000, 0));
+    column.setColumnIndexReference(new IndexReference(1024, 100));
+    final ColumnIndexBuilder builder = ColumnIndexBuilder.getBuilder(ID_TYPE, Integer.MAX_VALUE);
+    builder.add(stats(0, 10, 0));
+    builder.add(nullStats(100));
+    builder.add(stats(500, 600, 0));
+    builder.add(stats(990, 1000, 0));
+    final ColumnIndex columnIndex = builder.build();
+    final Function<List<ColumnChunkMetaData>, ColumnIndexProvider> columnIndexes =
+      columns -> new ColumnIndexProvider(ImmutableMap.of(1024L, columnIndex));
+
+    // values fall in the gaps between the pages
+    assertTrue(newEvaluator(intFilter(false, 50, 300, 700))
+      .canBeSkipped(block(column), columnIndexes, NO_DICTIONARY));
+    runtimeFilter.close();
+    assertFalse(newEvaluator(intFilter(false, 50, 505))
+      .canBeSkipped(block(column), columnIndexes, NO_DICTIONARY));
+    runtimeFilter.close();
+    // the null page can match
+    assertFalse(newEvaluator(intFilter(true, 50))
+      .canBeSkipped(block(column), columnIndexes, NO_DICTIONARY));
+  }
+
+  @Test
+  public void testDictionary() throws Exception {
+    final ColumnChunkMetaData column = ColumnChunkMetaData.get(ColumnPath.get("id"), ID_TYPE, UNCOMPRESSED,
+      new EncodingStats.Builder().addDictEncoding(Encoding.PLAIN).addDataEncoding(Encoding.RLE_DICTIONARY).build(),
+      new HashSet<>(Arrays.asList(Encoding.PLAIN, Encoding.RLE_DICTIONARY)), stats(1, 7, 0),
+      100, 4, 1000, 0, 0, Collections.emptyList());
+    final RowGroupRuntimeFilterEvaluator.DictionaryReader dictionaryReader = c -> intDictionary(1, 3, 5, 7);
+
+    assertTrue(newEvaluator(intFilter(false, 2, 4, 6))
+      .canBeSkipped(block(column), NO_COLUMN_INDEX, dictionaryReader));
+    runtimeFilter.close();
+    assertFalse(newEvaluator(intFilter(false, 2, 5))
+      .canBeSkipped(block(column), NO_COLUMN_INDEX, dictionaryReader));
+    runtimeFilter.close();
+    // not all pages are dictionary encoded
+    final ColumnChunkMetaData mixedColumn = ColumnChunkMetaData.get(ColumnPath.get("id"), ID_TYPE, UNCOMPRESSED,
+      new EncodingStats.Builder().addDictEncoding(Encoding.PLAIN).addDataEncoding(Encoding.RLE_DICTIONARY)
+        .addDataEncoding(Encoding.PLAIN).build(),
+      new HashSet<>(Arrays.asList(Encoding.PLAIN, Encoding.RLE_DICTIONARY)), stats(1, 7, 0),
+      100, 4, 1000, 0, 0, Collections.emptyList());
+    assertFalse(newEvaluator(intFilter(false, 2, 4, 6))
+      .canBeSkipped(block(mixedColumn), NO_COLUMN_INDEX, dictionaryReader));
+  }
+
+  @Test
+  public void testUnsupportedTypes() throws Exception {
+    final PrimitiveType dateType = Types.optional(INT32).as(LogicalTypeAnnotation.dateType()).named("id");
+    final PrimitiveType unsignedType = Types.optional(INT32).as(LogicalTypeAnnotation.intType(32, false)).named("id");
+    final RowGroupRuntimeFilterEvaluator evaluator = newEvaluator(intFilter(false, 5));
+    assertFalse(evaluator.canBeSkipped(block(column(dateType, stats(10, 1000, 0))), NO_COLUMN_INDEX, NO_DICTIONARY));
+    assertFalse(evaluator.canBeSkipped(block(column(unsignedType, stats(10, 1000, 0))), NO_COLUMN_INDEX, NO_DICTIONARY));
+    // filter on another column
+    final PrimitiveType otherType = Types.optional(INT32).named("other");
+    assertFalse(evaluator.canBeSkipped(block(column(otherType, stats(10, 1000, 0))), NO_COLUMN_INDEX, NO_DICTIONARY));
+  }
+
+  @Test
+  public void testBigIntFilter() throws Exception {
+    final PrimitiveType type = Types.optional(INT64).named("id");
+    final RowGroupRuntimeFilterEvaluator evaluator = newEvaluator(bigIntFilter(Long.MIN_VALUE, -1L, Long.MAX_VALUE));
+    final Statistics<?> stats = Statistics.getBuilderForReading(type)
+      .withMin(longBytes(0L)).withMax(longBytes(1L << 40)).withNumNulls(0).build();
+    assertTrue(evaluator.canBeSkipped(block(column(type, stats)), NO_COLUMN_INDEX, NO_DICTIONARY));
+  }
+
+  @Test
+  public void testThreshold() {
+    // ascending, nulls last: keeps rows <= 100
+    final ThresholdFilter ascending = new ThresholdFilter(TopNThreshold.newBuilder()
+      .setColumn("id").setDescending(false).setNullsHigh(true).setValue(100).build());
+    assertTrue(RowGroupRuntimeFilterEvaluator.canBeSkippedByThreshold(ascending, block(column(ID_TYPE, stats(101, 200, 0))), "id"));
+    assertTrue(RowGroupRuntimeFilterEvaluator.canBeSkippedByThreshold(ascending, block(column(ID_TYPE, stats(101, 200, 5))), "id"));
+    assertTrue(RowGroupRuntimeFilterEvaluator.canBeSkippedByThreshold(ascending, block(column(ID_TYPE, nullStats(100))), "id"));
+    assertFalse(RowGroupRuntimeFilterEvaluator.canBeSkippedByThreshold(ascending, block(column(ID_TYPE, stats(100, 200, 0))), "id"));
+    assertFalse(RowGroupRuntimeFilterEvaluator.canBeSkippedByThreshold(ascending, block(column(ID_TYPE, stats(101, 200, 0))), "other"));
+
+    // the threshold only tightens
+    assertTrue(ascending.update(TopNThreshold.newBuilder()
+      .setColumn("id").setDescending(false).setNullsHigh(true).setValue(50).build()));
+    assertTrue(ascending.update(TopNThreshold.newBuilder()
+      .setColumn("id").setDescending(false).setNullsHigh(true).setValue(80).build()));
+    assertTrue(RowGroupRuntimeFilterEvaluator.canBeSkippedByThreshold(ascending, block(column(ID_TYPE, stats(60, 70, 0))), "id"));
+    assertFalse(ascending.update(TopNThreshold.newBuilder()
+      .setColumn("id").setDescending(true).setNullsHigh(true).setValue(80).build()));
+
+    // descending, nulls first: keeps rows >= 100 and nulls
+    final ThresholdFilter descending = new ThresholdFilter(TopNThreshold.newBuilder()
+      .setColumn("id").setDescending(true).setNullsHigh(true).setValue(100).build());
+    assertTrue(RowGroupRuntimeFilterEvaluator.canBeSkippedByThreshold(descending, block(column(ID_TYPE, stats(0, 99, 0))), "id"));
+    assertFalse(RowGroupRuntimeFilterEvaluator.canBeSkippedByThreshold(descending, block(column(ID_TYPE, stats(0, 99, 1))), "id"));
+    assertFalse(RowGroupRuntimeFilterEvaluator.canBeSkippedByThreshold(descending, block(column(ID_TYPE, stats(0, 100, 0))), "id"));
+    // no statistics
+    assertFalse(RowGroupRuntimeFilterEvaluator.canBeSkippedByThreshold(descending, block(column(ID_TYPE, null)), "id"));
+  }
+
+  private RowGroupRuntimeFilterEvaluator newEvaluator(ValueListFilter valueList) {
+    final CompositeColumnFilter columnFilter = new CompositeColumnFilter.Builder()
+      .setFilterType(CompositeColumnFilter.RuntimeFilterType.VALUE_LIST)
+      .setColumnsList(Collections.singletonList("id"))
+      .setValueList(valueList)
+      .build();
+    runtimeFilter = new RuntimeFilter(null, Collections.singletonList(columnFilter), "test");
+    return new RowGroupRuntimeFilterEvaluator(Collections.singletonList(runtimeFilter), Function.identity());
+  }
+
+  private ValueListFilter intFilter(boolean containsNull, int... values) throws Exception {
+    try (ValueListFilterBuilder builder = new ValueListFilterBuilder(allocator, values.length, (byte) 4, false);
+         ArrowBuf keyBuf = allocator.buffer(4)) {
+      builder.setup();
+      for (int value : values) {
+        keyBuf.setInt(0, value);
+        builder.insert(keyBuf);
+      }
+      if (containsNull) {
+        builder.insertNull();
+      }
+      builder.setName("id");
+      builder.setFieldType(MinorType.INT);
+      return builder.build();
+    }
+  }
+
+  private ValueListFilter bigIntFilter(long... values) throws Exception {
+    try (ValueListFilterBuilder builder = new ValueListFilterBuilder(allocator, values.length, (byte) 8, false);
+         ArrowBuf keyBuf = allocator.buffer(8)) {
+      builder.setup();
+      for (long value : values) {
+        keyBuf.setLong(0, value);
+        builder.insert(keyBuf);
+      }
+      builder.setName("id");
+      builder.setFieldType(MinorType.BIGINT);
+      return builder.build();
+    }
+  }
+
+  private static BlockMetaData block(ColumnChunkMetaData column) {
+    final BlockMetaData block = new BlockMetaData();
+    block.addColumn(column);
+    block.setRowCount(column.getValueCount());
+    return block;
+  }
+
+  private static ColumnChunkMetaData column(PrimitiveType type, Statistics<?> stats) {
+    return ColumnChunkMetaData.get(ColumnPath.get(type.getName()), type, UNCOMPRESSED, null,
+      new HashSet<>(Collections.singletonList(Encoding.PLAIN)), stats, 4, 0, 100, 0, 0, Collections.emptyList());
+  }
+
+  private static IntStatistics stats(int min, int max, long numNulls) {
+    final IntStatistics stats = new IntStatistics();
+    stats.setMinMax(min, max);
+    stats.setNumNulls(numNulls);
+    return stats;
+  }
+
+  private static IntStatistics nullStats(long numNulls) {
+    final IntStatistics stats = new IntStatistics();
+    stats.setNumNulls(numNulls);
+    return stats;
+  }
+
+  private static byte[] longBytes(long value) {
+    final byte[] bytes = new byte[8];
+    for (int i = 0; i < 8; i++) {
+      bytes[i] = (byte) (value >>> (8 * i));
+    }
+    return bytes;
+  }
+
+  private static Dictionary intDictionary(int... values) {
+    return new Dictionary(Encoding.PLAIN) {
+      @Override
+      public int getMaxId() {
+        return values.length - 1;
+      }
+
+      @Override
+      public int decodeToInt(int id) {
+        return values[id];
+      }
+    };
+  }
+}
@@ -0,0 +1,347 @@
+/*
+ * Copyright (C) 2017-2019 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.exec.store.parquet;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectOutputStream;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.vector.VarBinaryVector;
+import org.apache.arrow.vector.types.Types;
+import org.apache.arrow.vector.types.pojo.Field;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+
+import com.dremio.common.AutoCloseables;
+import com.dremio.exec.ExecConstants;
+import com.dremio.exec.physical.base.OpProps;
+import com.dremio.exec.physical.config.TableFunctionConfig;
+import com.dremio.exec.physical.config.TableFunctionContext;
+import com.dremio.exec.physical.config.TableFunctionPOP;
+import com.dremio.exec.proto.ExecProtos.FragmentHandle;
+import com.dremio.exec.record.BatchSchema;
+import com.dremio.exec.record.VectorContainer;
+import com.dremio.exec.store.RecordReader;
+import com.dremio.exec.store.SplitAndPartitionInfo;
+import com.dremio.options.OptionManager;
+import com.dremio.sabot.exec.context.OpProfileDef;
+import com.dremio.sabot.exec.context.OperatorContext;
+import com.dremio.sabot.exec.context.OperatorStats;
+import com.dremio.sabot.exec.fragment.FragmentExecutionContext;
+import com.dremio.sabot.exec.fragment.SplitDispatcher;
+import com.dremio.sabot.op.scan.ScanOperator;
+import com.dremio.sabot.op.spi.SingleInputOperator;
+import com.dremio.sabot.op.tablefunction.TableFunctionOperator;
+import com.dremio.service.namespace.dataset.proto.PartitionProtobuf;
+import com.dremio.test.AllocatorRule;
+
+/**
+ * Tests for the split dispatch of {@link ScanTableFunction}, with minor fragments of a scan sharing a
+ * {@link SplitDispatcher}
+ */
+public class TestScanTableFunctionSplitDispatch {
+  private static final int OPERATOR_ID = 123;
+
+  @Rule
+  public final AllocatorRule allocatorRule = AllocatorRule.defaultAllocator();
+
+  private BufferAllocator testAllocator;
+  private final List<Fragment> fragments = new ArrayList<>();
+
+  @Before
+  public void setupBeforeTest() {
+    testAllocator = allocatorRule.newAllocator("test-scan-split-dispatch", 0, Long.MAX_VALUE);
+  }
+
+  @After
+  public void cleanupAfterTest() throws Exception {
+    AutoCloseables.close(fragments);
+    testAllocator.close();
+  }
+
+  @Test
+  public void testDrainQueueAfterNoMoreToConsume() throws Exception {
+    final SplitDispatcher dispatcher = new SplitDispatcher();
+    final Fragment fragment0 = newFragment(dispatcher, 0, Arrays.asList(1, 2, 3, 4, 5));
+    final Fragment fragment1 = newFragment(dispatcher, 1, Collections.singletonList(0));
+
+    // fragment 1 reads the only split it received
+    fragment1.consume();
+    fragment1.produce();
+    assertEquals(Collections.singletonList(0), fragment1.read);
+
+    // fragment 0 queues its splits and takes the first two
+    fragment0.consume();
+    assertEquals(SingleInputOperator.State.CAN_PRODUCE, fragment0.op.getState());
+    assertTrue(fragment0.op.outputData() > 0);
+    assertEquals(Arrays.asList(1), fragment0.read);
+
+    // fragment 1 has no more input, but still reads the splits left in the queue
+    fragment1.op.noMoreToConsume();
+    assertEquals(SingleInputOperator.State.CAN_PRODUCE, fragment1.op.getState());
+    fragment1.produce();
+    assertEquals(Arrays.asList(0, 3, 4, 5), fragment1.read);
+    fragment1.op.noMoreToConsume();
+    assertEquals(SingleInputOperator.State.DONE, fragment1.op.getState());
+
+    // fragment 0 only reads the splits it already took
+    fragment0.produce();
+    assertEquals(Arrays.asList(1, 2), fragment0.read);
+    fragment0.op.noMoreToConsume();
+    assertEquals(SingleInputOperator.State.DONE, fragment0.op.getState());
+
+    assertEquals(2, fragment0.stats.getLongStat(ScanOperator.Metric.NUM_SPLITS_DISPATCHED));
+    assertEquals(0, fragment0.stats.getLongStat(ScanOperator.Metric.NUM_SPLITS_STOLEN));
+    assertEquals(4, fragment1.stats.getLongStat(ScanOperator.Metric.NUM_SPLITS_DISPATCHED));
+    assertEquals(3, fragment1.stats.getLongStat(ScanOperator.Metric.NUM_SPLITS_STOLEN));
+  }
+
+  @Test
+  public void testNoBufferedRemainingWithoutIncomingRows() throws Exception {
+    final SplitDispatcher dispatcher = new SplitDispatcher();
+    final Fragment fragment = newFragment(dispatcher, 0);
+    dispatcher.offer(OPERATOR_ID, 1, Collections.singletonList(split(0)));
+
+    // the queued split is left to the fragment which received it, as the operator can't produce from an empty batch
+    fragment.op.noMoreToConsume();
+    assertEquals(SingleInputOperator.State.DONE, fragment.op.getState());
+    assertTrue(dispatcher.hasSplits(OPERATOR_ID));
+    assertTrue(fragment.read.isEmpty());
+    assertEquals(0, fragment.stats.getLongStat(ScanOperator.Metric.NUM_SPLITS_DISPATCHED));
+  }
+
+  @Test
+  public void testEverySplitReadOnce() throws Exception {
+    final SplitDispatcher dispatcher = new SplitDispatcher();
+    final Fragment fragment0 = newFragment(dispatcher, 0, range(0, 10), range(10, 15));
+    final Fragment fragment1 = newFragment(dispatcher, 1, range(15, 16));
+
+    // run the fragments one step at a time until both are done
+    boolean running = true;
+    while (running) {
+      running = fragment0.step() | fragment1.step();
+    }
+
+    final List<Integer> read = new ArrayList<>(fragment0.read);
+    read.addAll(fragment1.read);
+    assertEquals(16, read.size());
+    assertEquals(new HashSet<>(range(0, 16)), new HashSet<>(read));
+    assertEquals(fragment0.read.size(), fragment0.stats.getLongStat(ScanOperator.Metric.NUM_SPLITS_DISPATCHED));
+    assertEquals(fragment1.read.size(), fragment1.stats.getLongStat(ScanOperator.Metric.NUM_SPLITS_DISPATCHED));
+
+    // splits 0 to 14 were received by fragment 0, split 15 by fragment 1
+    final long stolenBy0 = fragment0.read.stream().filter(s -> s == 15).count();
+    final long stolenBy1 = fragment1.read.stream().filter(s -> s < 15).count();
+    assertTrue(stolenBy1 > 0);
+    assertEquals(stolenBy0, fragment0.stats.getLongStat(ScanOperator.Metric.NUM_SPLITS_STOLEN));
+    assertEquals(stolenBy1, fragment1.stats.getLongStat(ScanOperator.Metric.NUM_SPLITS_STOLEN));
+  }
+
+  @SafeVarargs
+  private final Fragment newFragment(SplitDispatcher dispatcher, int minorFragmentId, List<Integer>... batches)
+    throws Exception {
+    final Fragment fragment = new Fragment(testAllocator, dispatcher, minorFragmentId, batches);
+    fragments.add(fragment);
+    return fragment;
+  }
+
+  private static List<Integer> range(int start, int end) {
+    return IntStream.range(start, end).boxed().collect(Collectors.toList());
+  }
+
+  private static SplitAndPartitionInfo split(int id) {
+    return new SplitAndPartitionInfo(
+      PartitionProtobuf.NormalizedPartitionInfo.newBuilder().setId(String.valueOf(id)).build(),
+      PartitionProtobuf.NormalizedDatasetSplitInfo.newBuilder().setPartitionId(String.valueOf(id)).build());
+  }
+
+  private static byte[] serialize(SplitAndPartitionInfo split) throws Exception {
+    try (ByteArrayOutputStream bos = new ByteArrayOutputStream();
+         ObjectOutputStream out = new ObjectOutputStream(bos)) {
+      out.writeObject(split);
+      out.flush();
+      return bos.toByteArray();
+    }
+  }
+
+  /**
+   * A minor fragment of the scan, with a table function operator reading the splits of its input batches
+   */
+  private static final class Fragment implements AutoCloseable {
+    private final VectorContainer incoming;
+    private final VarBinaryVector splits;
+    private final OperatorStats stats;
+    private final TableFunctionOperator op;
+    private final Deque<List<Integer>> batches;
+    // ids of the splits read by this fragment, in order
+    private final List<Integer> read = new ArrayList<>();
+
+    private Fragment(BufferAllocator allocator, SplitDispatcher dispatcher, int minorFragmentId,
+                     List<Integer>[] batches) throws Exception {
+      this.batches = new ArrayDeque<>(Arrays.asList(batches));
+      this.incoming = new VectorContainer(allocator);
+      this.splits = incoming.addOrGet(Field.nullable(RecordReader.SPLIT_INFORMATION, Types.MinorType.VARBINARY.getType()));
+      incoming.buildSchema();
+      this.stats = new OperatorStats(new OpProfileDef(1, 1, 1), allocator);
+
+      final OptionManager options = mock(OptionManager.class);
+      when(options.getOption(ExecConstants.SPLIT_DISPATCH_ENABLED)).thenReturn(true);
+      when(options.getOption(ExecConstants.SPLIT_DISPATCH_BATCH_SIZE)).thenReturn(2L);
+
+      final OperatorContext context = mock(OperatorContext.class);
+      when(context.getOptions()).thenReturn(options);
+      when(context.getStats()).thenReturn(stats);
+      when(context.getTargetBatchSize()).thenReturn(4095);
+      when(context.getFragmentHandle()).thenReturn(FragmentHandle.newBuilder()
+        .setMajorFragmentId(1)
+        .setMinorFragmentId(minorFragmentId)
+        .build());
+      when(context.createOutputVectorContainer()).thenAnswer(invocation -> new VectorContainer(allocator));
+
+      final FragmentExecutionContext fec = mock(FragmentExecutionContext.class);
+      when(fec.getSplitDispatcher()).thenReturn(dispatcher);
+
+      final OpProps props = mock(OpProps.class);
+      when(props.getOperatorId()).thenReturn(OPERATOR_ID);
+
+      final TableFunctionContext functionContext = mock(TableFunctionContext.class);
+      when(functionContext.getFullSchema()).thenReturn(new BatchSchema(Collections.emptyList()));
+      when(functionContext.getColumns()).thenReturn(Collections.emptyList());
+      final TableFunctionConfig functionConfig =
+        new TableFunctionConfig(TableFunctionConfig.FunctionType.DATA_FILE_SCAN, false, functionContext);
+
+      this.op = new TableFunctionOperator(fec, context, new TableFunctionPOP(props, null, functionConfig),
+        (f, c, p, config) -> new TestScanTableFunction(f, c, p, config, read));
+      op.setup(incoming);
+    }
+
+    /**
+     * Passes the next input batch to the operator
+     */
+    private void consume() throws Exception {
+      final List<Integer> batch = batches.remove();
+      splits.allocateNew();
+      for (int i = 0; i < batch.size(); i++) {
+        splits.setSafe(i, serialize(split(batch.get(i))));
+      }
+      op.consumeData(incoming.setAllCount(batch.size()));
+    }
+
+    /**
+     * Outputs until the operator needs more input
+     */
+    private void produce() throws Exception {
+      while (op.getState() == SingleInputOperator.State.CAN_PRODUCE) {
+        op.outputData();
+      }
+      assertEquals(SingleInputOperator.State.CAN_CONSUME, op.getState());
+    }
+
+    /**
+     * Moves the operator forward by one call
+     *
+     * @return false if the operator is done
+     */
+    private boolean step() throws Exception {
+      switch (op.getState()) {
+        case CAN_CONSUME:
+          if (batches.isEmpty()) {
+            op.noMoreToConsume();
+          } else {
+            consume();
+          }
+          return true;
+        case CAN_PRODUCE:
+          op.outputData();
+          return true;
+        default:
+          return false;
+      }
+    }
+
+    @Override
+    public void close() throws Exception {
+      AutoCloseables.close(op, incoming);
+    }
+  }
+
+  /**
+   * Scan table function creating a reader of one row for each split, and logging the ids of the splits it reads
+   */
+  private static final class TestScanTableFunction extends ScanTableFunction {
+    private final Deque<SplitAndPartitionInfo> splits = new ArrayDeque<>();
+    private final List<Integer> read;
+    private RecordReaderIterator recordReaderIterator;
+
+    private TestScanTableFunction(FragmentExecutionContext fec, OperatorContext context, OpProps props,
+                                  TableFunctionConfig functionConfig, List<Integer> read) {
+      super(fec, context, props, functionConfig);
+      this.read = read;
+    }
+
+    @Override
+    protected RecordReaderIterator createRecordReaderIterator() {
+      recordReaderIterator = RecordReaderIterator.from(new Iterator<RecordReader>() {
+        @Override
+        public boolean hasNext() {
+          return !splits.isEmpty();
+        }
+
+        @Override
+        public RecordReader next() {
+          final SplitAndPartitionInfo split = splits.remove();
+          read.add(Integer.valueOf(split.getPartitionInfo().getId()));
+          final RecordReader reader = mock(RecordReader.class);
+          when(reader.next()).thenReturn(1, 0);
+          return reader;
+        }
+      });
+      return recordReaderIterator;
+    }
+
+    @Override
+    protected RecordReaderIterator getRecordReaderIterator() {
+      return recordReaderIterator;
+    }
+
+    @Override
+    protected void addSplits(List<SplitAndPartitionInfo> splits) {
+      this.splits.addAll(splits);
+    }
+
+    @Override
+    protected boolean supportsSplitDispatch() {
+      return true;
+    }
+  }
+}
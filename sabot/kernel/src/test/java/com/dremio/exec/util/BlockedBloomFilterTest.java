@@ -0,0 +1,264 @@
+/*
+ * Copyright (C) 2017-2019 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.exec.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import org.apache.arrow.memory.ArrowBuf;
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.vector.BigIntVector;
+import org.apache.arrow.vector.VarCharVector;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+
+import com.dremio.test.AllocatorRule;
+
+/**
+ * Tests for {@link BlockedBloomFilter}
+ */
+public class BlockedBloomFilterTest {
+  private static final String TEST_NAME = "20ed4177-87c7-91cc-c869-82b1d90cd300:frag:1:3";
+  private static final long MAX_SIZE = 2 * 1024 * 1024;
+
+  private BufferAllocator allocator;
+
+  @Rule
+  public final AllocatorRule allocatorRule = AllocatorRule.defaultAllocator();
+
+  @Before
+  public void setupBeforeTest() {
+    allocator = allocatorRule.newAllocator("test-blocked-bloomfilter", 0, Long.MAX_VALUE);
+  }
+
+  @After
+  public void cleanupAfterTest() {
+    allocator.close();
+  }
+
+  @Test
+  public void testSizedFromInsertions() {
+    assertEquals(1, BlockedBloomFilter.getMinNumBlocks(1));
+    assertEquals(5, BlockedBloomFilter.getMinNumBlocks(100));
+    assertEquals(46_875, BlockedBloomFilter.getMinNumBlocks(1_000_000));
+    // rounded up to a power of two, so that filters of different sizes can be merged
+    assertEquals(1, BlockedBloomFilter.getOptimalNumBlocks(1));
+    assertEquals(8, BlockedBloomFilter.getOptimalNumBlocks(100));
+    assertEquals(65_536, BlockedBloomFilter.getOptimalNumBlocks(1_000_000));
+
+    try (BlockedBloomFilter small = new BlockedBloomFilter(allocator, TEST_NAME, 100, MAX_SIZE);
+         BlockedBloomFilter large = new BlockedBloomFilter(allocator, TEST_NAME, 1_000_000, MAX_SIZE);
+         BlockedBloomFilter capped = new BlockedBloomFilter(allocator, TEST_NAME, 100_000_000, MAX_SIZE)) {
+      assertEquals(BlockedBloomFilter.getOptimalSize(100), small.getSizeInBytes());
+      assertEquals(BlockedBloomFilter.getOptimalSize(1_000_000), large.getSizeInBytes());
+      assertTrue(capped.getSizeInBytes() <= MAX_SIZE);
+      assertEquals(1, Integer.bitCount(capped.getNumBlocks()));
+      assertEquals(TEST_NAME.substring(TEST_NAME.length() - 24), small.getName());
+    }
+  }
+
+  @Test
+  public void testInsertAndContains() {
+    final int count = 10_000;
+    final int numBlocks = (int) BlockedBloomFilter.getOptimalNumBlocks(count);
+    try (ArrowBuf blocks = allocator.buffer((long) numBlocks * BlockedBloomFilter.BLOCK_BYTES)) {
+      blocks.setZero(0, blocks.capacity());
+      final long blocksAddr = blocks.memoryAddress();
+      final Set<Long> inserted = randomLongs(count, 1);
+      long numBitsSet = 0;
+      for (long key : inserted) {
+        numBitsSet += BlockedBloomFilter.insert(blocksAddr, numBlocks, BlockedBloomFilter.hashLong(key));
+      }
+      assertTrue(numBitsSet > 0 && numBitsSet <= 8L * count);
+
+      // no false negatives, and inserting again sets no new bit
+      for (long key : inserted) {
+        assertTrue(BlockedBloomFilter.contains(blocksAddr, numBlocks, BlockedBloomFilter.hashLong(key)));
+        assertEquals(0, BlockedBloomFilter.insert(blocksAddr, numBlocks, BlockedBloomFilter.hashLong(key)));
+      }
+
+      final Set<Long> others = randomLongs(count, 2);
+      others.removeAll(inserted);
+      final long errCount = others.stream()
+        .filter(k -> BlockedBloomFilter.contains(blocksAddr, numBlocks, BlockedBloomFilter.hashLong(k)))
+        .count();
+      assertTrue("False positivity is higher than expected: " + errCount, errCount <= 0.03 * others.size());
+    }
+  }
+
+  @Test
+  public void testFilterLong() {
+    try (ArrowBuf keyBuf = allocator.buffer(8);
+         BlockedBloomFilter filter = new BlockedBloomFilter(allocator, TEST_NAME, 10_000, MAX_SIZE)) {
+      final Set<Long> inserted = randomLongs(10_000, 1);
+      inserted.forEach(k -> filter.put(writeKey(keyBuf, k), 8));
+
+      // no false negatives
+      inserted.forEach(k -> assertTrue(filter.mightContain(writeKey(keyBuf, k), 8)));
+
+      final Set<Long> others = randomLongs(10_000, 2);
+      others.removeAll(inserted);
+      final long errCount = others.stream().filter(k -> filter.mightContain(writeKey(keyBuf, k), 8)).count();
+      assertTrue("False positivity is higher than expected: " + errCount, errCount <= 0.03 * others.size());
+      assertTrue(filter.getExpectedFPP() < 0.03);
+    }
+  }
+
+  @Test
+  public void testDuplicateKeyIdentification() {
+    try (ArrowBuf keyBuf = allocator.buffer(8);
+         BlockedBloomFilter filter = new BlockedBloomFilter(allocator, TEST_NAME, 100, MAX_SIZE)) {
+      assertTrue(filter.put(writeKey(keyBuf, 42L), 8));
+      final long numBitsSet = filter.getNumBitsSet();
+      assertTrue(numBitsSet > 0 && numBitsSet <= 8);
+      assertFalse(filter.put(writeKey(keyBuf, 42L), 8));
+      assertEquals(numBitsSet, filter.getNumBitsSet());
+    }
+  }
+
+  @Test
+  public void testMergeAndPrepareFrom() {
+    try (ArrowBuf keyBuf = allocator.buffer(8);
+         BlockedBloomFilter filter1 = new BlockedBloomFilter(allocator, TEST_NAME, 1000, MAX_SIZE);
+         BlockedBloomFilter filter2 = new BlockedBloomFilter(allocator, TEST_NAME, 1000, MAX_SIZE)) {
+      final Set<Long> keys1 = randomLongs(1000, 1);
+      final Set<Long> keys2 = randomLongs(1000, 2);
+      keys1.forEach(k -> filter1.put(writeKey(keyBuf, k), 8));
+      keys2.forEach(k -> filter2.put(writeKey(keyBuf, k), 8));
+
+      // receiving side gets a copy of the buffer
+      try (BlockedBloomFilter received = filter2.createCopy(allocator)) {
+        assertEquals(filter2.getNumBitsSet(), received.getNumBitsSet());
+        assertEquals(filter2.getName(), received.getName());
+        filter1.merge(received);
+      }
+
+      keys1.forEach(k -> assertTrue(filter1.mightContain(writeKey(keyBuf, k), 8)));
+      keys2.forEach(k -> assertTrue(filter1.mightContain(writeKey(keyBuf, k), 8)));
+    }
+  }
+
+  @Test
+  public void testMergeDifferentSizes() {
+    // shuffle join fragments size their filters from their own keys, so pieces of different sizes are merged
+    testMergeDifferentSizes(1000, 100_000);
+    testMergeDifferentSizes(100_000, 1000);
+  }
+
+  private void testMergeDifferentSizes(int count1, int count2) {
+    try (ArrowBuf keyBuf = allocator.buffer(8);
+         BlockedBloomFilter filter1 = new BlockedBloomFilter(allocator, TEST_NAME, count1, MAX_SIZE);
+         BlockedBloomFilter filter2 = new BlockedBloomFilter(allocator, TEST_NAME, count2, MAX_SIZE)) {
+      assertTrue(filter1.getNumBlocks() != filter2.getNumBlocks());
+      final Set<Long> keys1 = randomLongs(count1, 1);
+      final Set<Long> keys2 = randomLongs(count2, 2);
+      keys1.forEach(k -> filter1.put(writeKey(keyBuf, k), 8));
+      keys2.forEach(k -> filter2.put(writeKey(keyBuf, k), 8));
+
+      final long numBitsSet = filter1.getNumBitsSet();
+      filter1.merge(filter2);
+      assertTrue(filter1.getNumBitsSet() > numBitsSet);
+
+      // no false negatives for the keys of either filter
+      keys1.forEach(k -> assertTrue(filter1.mightContain(writeKey(keyBuf, k), 8)));
+      keys2.forEach(k -> assertTrue(filter1.mightContain(writeKey(keyBuf, k), 8)));
+    }
+  }
+
+  @Test
+  public void testBatchProbeFixedWidth() {
+    final int count = 4000;
+    try (BigIntVector build = new BigIntVector("build", allocator);
+         BigIntVector probe = new BigIntVector("probe", allocator);
+         ArrowBuf matches = allocator.buffer((count + 7) / 8);
+         BlockedBloomFilter filter = new BlockedBloomFilter(allocator, TEST_NAME, count, MAX_SIZE)) {
+      build.allocateNew(count);
+      probe.allocateNew(count);
+      for (int i = 0; i < count; i++) {
+        build.set(i, i * 2L);
+        // every third probe value is null, others alternate between present and absent
+        if (i % 3 == 0) {
+          probe.setNull(i);
+        } else {
+          probe.set(i, i);
+        }
+      }
+      build.setValueCount(count);
+      probe.setValueCount(count);
+      filter.put(build, count);
+
+      final int matchCount = filter.mightContain(probe, count, matches);
+      int expectedMatches = 0;
+      int falsePositives = 0;
+      for (int i = 0; i < count; i++) {
+        final boolean matched = ((matches.getByte(i >>> 3) >>> (i & 7)) & 1) != 0;
+        if (i % 3 == 0) {
+          assertFalse("null value matched at " + i, matched);
+        } else if (i % 2 == 0) {
+          assertTrue("false negative at " + i, matched);
+          expectedMatches++;
+        } else if (matched) {
+          falsePositives++;
+        }
+      }
+      assertEquals(expectedMatches + falsePositives, matchCount);
+      assertTrue("False positivity is higher than expected: " + falsePositives, falsePositives <= 0.03 * count);
+    }
+  }
+
+  @Test
+  public void testBatchProbeVariableWidth() {
+    final int count = 1000;
+    try (VarCharVector build = new VarCharVector("build", allocator);
+         VarCharVector probe = new VarCharVector("probe", allocator);
+         ArrowBuf matches = allocator.buffer((count + 7) / 8);
+         BlockedBloomFilter filter = new BlockedBloomFilter(allocator, TEST_NAME, count, MAX_SIZE)) {
+      build.allocateNew(count);
+      probe.allocateNew(count);
+      for (int i = 0; i < count; i++) {
+        build.setSafe(i, ("key-" + i).getBytes(StandardCharsets.UTF_8));
+        probe.setSafe(i, ("key-" + (count - 1 - i)).getBytes(StandardCharsets.UTF_8));
+      }
+      build.setValueCount(count);
+      probe.setValueCount(count);
+      filter.put(build, count);
+
+      assertEquals(count, filter.mightContain(probe, count, matches));
+    }
+  }
+
+  private static Set<Long> randomLongs(int count, long seed) {
+    final Random random = new Random(seed);
+    final Set<Long> values = new HashSet<>();
+    while (values.size() < count) {
+      values.add(random.nextLong());
+    }
+    return values;
+  }
+
+  private static ArrowBuf writeKey(ArrowBuf keyBuf, long val) {
+    keyBuf.setLong(0, val);
+    return keyBuf;
+  }
+}
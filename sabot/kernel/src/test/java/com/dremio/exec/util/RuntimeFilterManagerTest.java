@@ -71,8 +71,8 @@ public class RuntimeFilterManagerTest {
         RuntimeFilterManager filterManager = new RuntimeFilterManager(allocator, MAX_VALS, Sets.newHashSet(1, 2, 3));
 
         RuntimeFilter frMinor1Target1 = newFilter(opId1, majorFragment1, Lists.newArrayList("col1", "col2"), EMPTY_LIST);
-        BloomFilter bf = mockedBloom();
-        BloomFilter copyBf = mockedBloom();
+        BlockedBloomFilter bf = mockedBloom();
+        BlockedBloomFilter copyBf = mockedBloom();
         when(bf.createCopy(eq(allocator))).thenReturn(copyBf);
 
         RuntimeFilterManagerEntry entry1 = filterManager.coalesce(frMinor1Target1, Optional.of(bf), EMPTY_LIST, 1);
@@ -91,7 +91,7 @@ public class RuntimeFilterManagerTest {
         assertFalse(entry1.isDropped());
         assertEquals(entry1, entry3);
 
-        verify(copyBf, times(2)).merge(any(BloomFilter.class));
+        verify(copyBf, times(2)).merge(any(BlockedBloomFilter.class));
         verify(copyBf, times(2)).isCrossingMaxFPP();
     }
 
@@ -159,8 +159,8 @@ public class RuntimeFilterManagerTest {
         RuntimeFilterManager filterManager = new RuntimeFilterManager(allocator, MAX_VALS, Sets.newHashSet(1, 2, 3));
 
         RuntimeFilter frMinor1Target1 = newFilter(opId1, majorFragment1, Lists.newArrayList("col1", "col2"), Lists.newArrayList("col3", "col4"));
-        BloomFilter bf = mockedBloom();
-        BloomFilter copyBf = mockedBloom();
+        BlockedBloomFilter bf = mockedBloom();
+        BlockedBloomFilter copyBf = mockedBloom();
         when(bf.createCopy(eq(allocator))).thenReturn(copyBf);
 
         when(copyBf.getNumBitsSet()).thenReturn(10L);
@@ -185,7 +185,7 @@ public class RuntimeFilterManagerTest {
         assertFalse(entry1.isDropped());
         assertEquals(entry1, entry3);
 
-        verify(copyBf, times(2)).merge(any(BloomFilter.class));
+        verify(copyBf, times(2)).merge(any(BlockedBloomFilter.class));
         verify(copyBf, times(2)).isCrossingMaxFPP();
         ValueListFilter vR1 = entry1.getNonPartitionColFilter("col3");
         List<Integer> expectedVR1 = Lists.newArrayList(1, 2, 3, 4, 5, 6, 8, 9);
@@ -214,14 +214,14 @@ public class RuntimeFilterManagerTest {
     public void testFilterMergeMultiProbeTargets() throws Exception{
         RuntimeFilterManager filterManager = new RuntimeFilterManager(allocator, MAX_VALS, Sets.newHashSet(1, 2));
 
-        BloomFilter bf1 = mockedBloom();
-        BloomFilter copyBf1 = mockedBloom();
+        BlockedBloomFilter bf1 = mockedBloom();
+        BlockedBloomFilter copyBf1 = mockedBloom();
         when(bf1.createCopy(eq(allocator))).thenReturn(copyBf1);
         RuntimeFilter frMinor1Target1 = newFilter(opId1, majorFragment1, Lists.newArrayList("colT1"), EMPTY_LIST);
         RuntimeFilterManagerEntry entry1 = filterManager.coalesce(frMinor1Target1, Optional.of(bf1), EMPTY_LIST, 1);
 
-        BloomFilter bf2 = mockedBloom();
-        BloomFilter copyBf2 = mockedBloom();
+        BlockedBloomFilter bf2 = mockedBloom();
+        BlockedBloomFilter copyBf2 = mockedBloom();
         when(bf2.createCopy(eq(allocator))).thenReturn(copyBf2);
         RuntimeFilter frMinor1Target2 = newFilter(opId2, majorFragment2, Lists.newArrayList("colT2"), EMPTY_LIST);
         RuntimeFilterManagerEntry entry2 = filterManager.coalesce(frMinor1Target2, Optional.of(bf2), EMPTY_LIST, 1);
@@ -240,10 +240,10 @@ public class RuntimeFilterManagerTest {
         assertTrue(entry2.isComplete());
         assertFalse(entry2.isDropped());
 
-        verify(copyBf1, times(1)).merge(any(BloomFilter.class));
+        verify(copyBf1, times(1)).merge(any(BlockedBloomFilter.class));
         verify(copyBf1, times(1)).isCrossingMaxFPP();
 
-        verify(copyBf2, times(1)).merge(any(BloomFilter.class));
+        verify(copyBf2, times(1)).merge(any(BlockedBloomFilter.class));
         verify(copyBf2, times(1)).isCrossingMaxFPP();
     }
 
@@ -252,8 +252,8 @@ public class RuntimeFilterManagerTest {
         RuntimeFilterManager filterManager = new RuntimeFilterManager(allocator, MAX_VALS, Sets.newHashSet(1, 2, 3));
 
         RuntimeFilter frMinor1Target1 = newFilter(opId1, majorFragment1, Lists.newArrayList("col1", "col2"), Lists.newArrayList("col3", "col4"));
-        BloomFilter bf = mockedBloom();
-        BloomFilter copyBf = mockedBloom();
+        BlockedBloomFilter bf = mockedBloom();
+        BlockedBloomFilter copyBf = mockedBloom();
         when(bf.createCopy(eq(allocator))).thenReturn(copyBf);
 
         ValueListFilter vA1 = newValListFilter("col3", Lists.newArrayList(4, 1, 3, 2));
@@ -285,8 +285,8 @@ public class RuntimeFilterManagerTest {
         RuntimeFilterManager filterManager = new RuntimeFilterManager(allocator, MAX_VALS, Sets.newHashSet(1, 2, 3));
 
         RuntimeFilter frMinor1Target1 = newFilter(opId1, majorFragment1, Lists.newArrayList("col1", "col2"), Lists.newArrayList("col3", "col4"));
-        BloomFilter bf = mockedBloom();
-        BloomFilter copyBf = mockedBloom();
+        BlockedBloomFilter bf = mockedBloom();
+        BlockedBloomFilter copyBf = mockedBloom();
         when(bf.createCopy(eq(allocator))).thenReturn(copyBf);
 
         ValueListFilter vA1 = newValListFilter("col3", Lists.newArrayList(4, 1, 3, 2));
@@ -328,8 +328,8 @@ public class RuntimeFilterManagerTest {
         RuntimeFilterManager filterManager = new RuntimeFilterManager(allocator, MAX_VALS, Sets.newHashSet(1, 2, 3));
 
         RuntimeFilter filter1 = newFilter(opId1, majorFragment1, Lists.newArrayList("col1", "col2"), EMPTY_LIST);
-        BloomFilter bf = mockedBloom();
-        BloomFilter copyBf = mockedBloom();
+        BlockedBloomFilter bf = mockedBloom();
+        BlockedBloomFilter copyBf = mockedBloom();
         when(bf.createCopy(eq(allocator))).thenReturn(copyBf);
 
         when(copyBf.isCrossingMaxFPP()).thenReturn(true);
@@ -349,11 +349,11 @@ public class RuntimeFilterManagerTest {
     public void testDropFilterDueToMergeFailure() {
         RuntimeFilterManager filterManager = new RuntimeFilterManager(allocator, MAX_VALS, Sets.newHashSet(1, 2, 3));
         RuntimeFilter filter1 = newFilter(opId1, majorFragment1, Lists.newArrayList("col1", "col2"), EMPTY_LIST);
-        BloomFilter bf = mockedBloom();
-        BloomFilter copyBf = mockedBloom();
+        BlockedBloomFilter bf = mockedBloom();
+        BlockedBloomFilter copyBf = mockedBloom();
         when(bf.createCopy(eq(allocator))).thenReturn(copyBf);
 
-        doThrow(new IllegalArgumentException("Incompatible BloomFilter, different hashing technique.")).when(copyBf).merge(any(BloomFilter.class));
+        doThrow(new IllegalArgumentException("Invalid blocked bloomfilter size 96")).when(copyBf).merge(any(BlockedBloomFilter.class));
         RuntimeFilterManagerEntry entry1 = filterManager.coalesce(filter1, Optional.of(bf), EMPTY_LIST, 1);
 
         RuntimeFilter filter2 = newFilter(opId1, majorFragment1, Lists.newArrayList("col1", "col2"), EMPTY_LIST);
@@ -361,15 +361,15 @@ public class RuntimeFilterManagerTest {
 
         assertTrue(entry1.isDropped());
         assertEquals(entry1, entry2);
-        verify(copyBf, times(1)).merge(any(BloomFilter.class));
+        verify(copyBf, times(1)).merge(any(BlockedBloomFilter.class));
         filterManager.remove(entry1);
         assertEquals(1, filterManager.getFilterDropCount());
     }
 
-    private BloomFilter mockedBloom() {
-        BloomFilter bloom = mock(BloomFilter.class);
+    private BlockedBloomFilter mockedBloom() {
+        BlockedBloomFilter bloom = mock(BlockedBloomFilter.class);
         when(bloom.isCrossingMaxFPP()).thenReturn(false);
-        doNothing().when(bloom).merge(any(BloomFilter.class));
+        doNothing().when(bloom).merge(any(BlockedBloomFilter.class));
         return bloom;
     }
 
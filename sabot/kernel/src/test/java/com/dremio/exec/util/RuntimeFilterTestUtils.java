@@ -49,6 +49,7 @@ public class RuntimeFilterTestUtils {
         if (!partitionCols.isEmpty()) {
             ExecProtos.CompositeColumnFilter partitionColFilter = ExecProtos.CompositeColumnFilter.newBuilder()
                     .setFilterType(ExecProtos.RuntimeFilterType.BLOOM_FILTER)
+                    .setFormatVersion(BlockedBloomFilter.FORMAT_VERSION)
                     .setSizeBytes(64)
                     .setValueCount(0)
                     .addAllColumns(partitionCols)
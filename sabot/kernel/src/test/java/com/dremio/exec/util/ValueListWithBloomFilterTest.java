@@ -27,6 +27,7 @@ import java.util.stream.IntStream;
 import org.apache.arrow.memory.ArrowBuf;
 import org.apache.arrow.memory.BufferAllocator;
 import org.apache.arrow.util.AutoCloseables;
+import org.apache.arrow.vector.IntVector;
 import org.apache.arrow.vector.types.Types;
 import org.junit.After;
 import org.junit.Before;
@@ -140,6 +141,39 @@ public class ValueListWithBloomFilterTest {
       insertedVals.forEach(x -> assertTrue(valueListFilter.mightBePresent(x)));
     }
   }
+
+  @Test
+  public void testBatchProbe() throws Exception {
+    try (ValueListFilterBuilder builder = new ValueListFilterBuilder(testAllocator, 100, (byte) 4, false, true);
+         AutoCloseables.RollbackCloseable closer = new AutoCloseables.RollbackCloseable();
+         ArrowBuf keyBuf = testAllocator.buffer(4);
+         IntVector probe = new IntVector("probe", testAllocator);
+         ArrowBuf matches = testAllocator.buffer(2)) {
+      builder.setup();
+      List<Integer> insertedVals = Arrays.asList(1, 2, 3, 10, 20, 30, 100, 200, 300, 90);
+      insertedVals.forEach(val -> builder.insert(writeKey(keyBuf, val)));
+      builder.setName(TEST_NAME);
+      builder.setFieldType(Types.MinorType.INT);
+
+      ValueListFilter valueListFilter = builder.build();
+      closer.add(valueListFilter);
+      assertTrue(valueListFilter instanceof ValueListWithBloomFilter);
+
+      probe.allocateNew(12);
+      for (int i = 0; i < insertedVals.size(); i++) {
+        probe.set(i, insertedVals.get(i));
+      }
+      probe.setNull(10);
+      probe.setNull(11);
+      probe.setValueCount(12);
+
+      int matchCount = ((ValueListWithBloomFilter) valueListFilter).mightBePresent(probe, 12, matches);
+      assertEquals(insertedVals.size(), matchCount);
+      assertEquals((byte) 0xFF, matches.getByte(0));
+      assertEquals((byte) 0x03, matches.getByte(1));
+    }
+  }
+
   private static ArrowBuf writeKey(ArrowBuf keyBuf, int val) {
     keyBuf.setInt(0, val);
     return keyBuf;
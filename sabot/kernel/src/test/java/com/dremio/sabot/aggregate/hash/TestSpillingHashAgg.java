@@ -70,6 +70,10 @@ public class TestSpillingHashAgg extends BaseTestOperator {
   public final AllocatorRule allocatorRule = AllocatorRule.defaultAllocator();
 
   private HashAggregate getHashAggregate(long reserve, long max, int hashTableBatchSize) {
+    return getHashAggregate(reserve, max, hashTableBatchSize, false);
+  }
+
+  private HashAggregate getHashAggregate(long reserve, long max, int hashTableBatchSize, boolean partialAggregation) {
     OpProps props = PROPS.cloneWithNewReserve(reserve).cloneWithMemoryExpensive(true);
     props.setMemLimit(max);
     return new HashAggregate(props, null,
@@ -94,7 +98,8 @@ public class TestSpillingHashAgg extends BaseTestOperator {
                              true,
                              true,
                              1f,
-                              hashTableBatchSize);
+                             hashTableBatchSize,
+                             partialAggregation);
   }
 
   private HashAggregate getHashAggregateWithLargeAccum(long reserve, long max, int hashTableBatchSize, int numAccum) {
@@ -155,6 +160,28 @@ public class TestSpillingHashAgg extends BaseTestOperator {
     }
   }
 
+  /**
+   * Test first phase aggregation switching to streaming mode when the sample
+   * shows poor reduction. Every input batch carries its own set of groups, so
+   * flushing after each batch must still produce the complete result.
+   * @throws Exception
+   */
+  @Test
+  public void testStreamingPreAgg() throws Exception {
+    final HashAggregate agg = getHashAggregate(1_000_000, 12_000_000, 3968, true);
+    try (AutoCloseable useSpillingAgg = with(VectorizedHashAggOperator.VECTORIZED_HASHAGG_USE_SPILLING_OPERATOR, true);
+         AutoCloseable sampleRecords = with(VectorizedHashAggOperator.VECTORIZED_HASHAGG_STREAMING_PREAGG_SAMPLE_RECORDS, 1000);
+         AutoCloseable groupsRatio = with(VectorizedHashAggOperator.VECTORIZED_HASHAGG_STREAMING_PREAGG_MAX_GROUPS_RATIO, 0.1)) {
+      try (CustomHashAggDataGenerator generator = new CustomHashAggDataGenerator(20000, getTestAllocator(), true)) {
+        Fixtures.Table table = generator.getExpectedGroupsAndAggregations();
+        validateSingle(agg, VectorizedHashAggOperator.class, generator, table, 1000);
+        final VectorizedHashAggSpillStats stats = agg.getSpillStats();
+        assertEquals(0, stats.getSpills());
+        assertEquals(0, stats.getOoms());
+      }
+    }
+  }
+
   /**
    * Tests with varchar key of length > 32k
    * @throws Exception
@@ -571,6 +598,26 @@ public class TestSpillingHashAgg extends BaseTestOperator {
     }
   }
 
+  /**
+   * Test recursive spilling with spill files written behind and read ahead
+   * of the operator
+   * @throws Exception
+   */
+  @Test
+  public void testSpill20KWithAsyncIO() throws Exception {
+    final HashAggregate agg = getHashAggregate(1_000_000, 12_000_000);
+    try (AutoCloseable useSpillingAgg = with(VectorizedHashAggOperator.VECTORIZED_HASHAGG_USE_SPILLING_OPERATOR, true);
+         AutoCloseable asyncIO = with(ExecConstants.SPILL_ASYNC_IO_ENABLED, true);
+         AutoCloseable bufferSize = with(ExecConstants.SPILL_ASYNC_IO_BUFFER_SIZE, 16 * 1024)) {
+      try (CustomHashAggDataGenerator generator = new CustomHashAggDataGenerator(20000, getTestAllocator(), true)) {
+        Fixtures.Table table = generator.getExpectedGroupsAndAggregations();
+        validateSingle(agg, VectorizedHashAggOperator.class, generator, table, 2000);
+        final VectorizedHashAggSpillStats stats = agg.getSpillStats();
+        assertTrue(stats.getSpills() > 0);
+      }
+    }
+  }
+
   /**
    * Test spill of 100K rows -- reasonably sized varchars so no
    * recursive spilling
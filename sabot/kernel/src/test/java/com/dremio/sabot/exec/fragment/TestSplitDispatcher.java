@@ -0,0 +1,108 @@
+/*
+ * Copyright (C) 2017-2019 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.sabot.exec.fragment;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.junit.Test;
+
+import com.dremio.exec.store.SplitAndPartitionInfo;
+
+/**
+ * Tests for {@link SplitDispatcher}
+ */
+public class TestSplitDispatcher {
+
+  @Test
+  public void testPollInOrder() {
+    final SplitDispatcher dispatcher = new SplitDispatcher();
+    final SplitAndPartitionInfo split1 = mock(SplitAndPartitionInfo.class);
+    final SplitAndPartitionInfo split2 = mock(SplitAndPartitionInfo.class);
+    final SplitAndPartitionInfo split3 = mock(SplitAndPartitionInfo.class);
+
+    assertFalse(dispatcher.hasSplits(1));
+    assertTrue(dispatcher.poll(1, 10).isEmpty());
+
+    dispatcher.offer(1, 0, Arrays.asList(split1, split2));
+    dispatcher.offer(1, 1, Arrays.asList(split3));
+    assertTrue(dispatcher.hasSplits(1));
+    // queues are per operator
+    assertFalse(dispatcher.hasSplits(2));
+
+    List<SplitDispatcher.DispatchedSplit> splits = dispatcher.poll(1, 2);
+    assertEquals(2, splits.size());
+    assertSame(split1, splits.get(0).getSplit());
+    assertEquals(0, splits.get(0).getMinorFragmentId());
+    assertSame(split2, splits.get(1).getSplit());
+
+    splits = dispatcher.poll(1, 2);
+    assertEquals(1, splits.size());
+    assertSame(split3, splits.get(0).getSplit());
+    assertEquals(1, splits.get(0).getMinorFragmentId());
+    assertFalse(dispatcher.hasSplits(1));
+  }
+
+  @Test
+  public void testConcurrentPoll() throws Exception {
+    final SplitDispatcher dispatcher = new SplitDispatcher();
+    final List<SplitAndPartitionInfo> offered = IntStream.range(0, 1000)
+      .mapToObj(i -> mock(SplitAndPartitionInfo.class))
+      .collect(Collectors.toList());
+    dispatcher.offer(1, 0, offered);
+
+    final ExecutorService executor = Executors.newFixedThreadPool(4);
+    try {
+      final List<Future<Set<SplitAndPartitionInfo>>> futures = IntStream.range(0, 4)
+        .mapToObj(i -> executor.submit(() -> {
+          final Set<SplitAndPartitionInfo> polled = new HashSet<>();
+          List<SplitDispatcher.DispatchedSplit> splits;
+          while (!(splits = dispatcher.poll(1, 3)).isEmpty()) {
+            splits.forEach(s -> polled.add(s.getSplit()));
+          }
+          return polled;
+        }))
+        .collect(Collectors.toList());
+
+      // every split is taken exactly once
+      final Set<SplitAndPartitionInfo> all = new HashSet<>();
+      int total = 0;
+      for (Future<Set<SplitAndPartitionInfo>> future : futures) {
+        final Set<SplitAndPartitionInfo> polled = future.get(30, TimeUnit.SECONDS);
+        total += polled.size();
+        all.addAll(polled);
+      }
+      assertEquals(offered.size(), total);
+      assertEquals(new HashSet<>(offered), all);
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+}
@@ -0,0 +1,186 @@
+/*
+ * Copyright (C) 2017-2019 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.sabot.memory;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import org.apache.arrow.memory.BufferAllocator;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link QueueingMemoryArbiter}
+ */
+public class TestQueueingMemoryArbiter {
+  private static final long MB = 1024 * 1024;
+
+  private BufferAllocator rootAllocator;
+  private QueueingMemoryArbiter arbiter;
+
+  private static class TestTask implements MemoryArbiterTask {
+    private final String taskId;
+    private final String queryId;
+    private final long queryWeight;
+    private long memoryGrant;
+    private boolean blocked;
+
+    TestTask(String taskId, String queryId, long queryWeight) {
+      this.taskId = taskId;
+      this.queryId = queryId;
+      this.queryWeight = queryWeight;
+    }
+
+    @Override
+    public String getTaskId() {
+      return taskId;
+    }
+
+    @Override
+    public long getUsedMemory() {
+      return 0;
+    }
+
+    @Override
+    public long getMemoryGrant() {
+      return memoryGrant;
+    }
+
+    @Override
+    public void setMemoryGrant(long memoryGrantInBytes) {
+      this.memoryGrant = memoryGrantInBytes;
+    }
+
+    @Override
+    public String getQueryId() {
+      return queryId;
+    }
+
+    @Override
+    public long getQueryWeight() {
+      return queryWeight;
+    }
+
+    @Override
+    public void blockOnMemoryGrant() {
+      blocked = true;
+    }
+
+    @Override
+    public void unblockOnMemoryGrant() {
+      blocked = false;
+    }
+  }
+
+  @Before
+  public void setup() {
+    rootAllocator = mock(BufferAllocator.class);
+    when(rootAllocator.getLimit()).thenReturn(100 * MB);
+    when(rootAllocator.getAllocatedMemory()).thenReturn(0L);
+    arbiter = new QueueingMemoryArbiter(rootAllocator);
+  }
+
+  @Test
+  public void testGrantWithinLimit() {
+    final TestTask t1 = new TestTask("t1", "q1", 1);
+    final TestTask t2 = new TestTask("t2", "q1", 1);
+
+    assertTrue(arbiter.acquireMemoryGrant(t1, 40 * MB));
+    assertTrue(arbiter.acquireMemoryGrant(t2, 40 * MB));
+    assertEquals(80 * MB, arbiter.getOutstandingGrants());
+
+    arbiter.releaseMemoryGrant(t1);
+    arbiter.releaseMemoryGrant(t2);
+    assertEquals(0, arbiter.getOutstandingGrants());
+    assertEquals(0, t1.getMemoryGrant());
+  }
+
+  @Test
+  public void testQueueAndWakeOnRelease() {
+    final TestTask t1 = new TestTask("t1", "q1", 1);
+    final TestTask t2 = new TestTask("t2", "q2", 1);
+
+    assertTrue(arbiter.acquireMemoryGrant(t1, 60 * MB));
+    assertFalse(arbiter.acquireMemoryGrant(t2, 60 * MB));
+    assertTrue(t2.blocked);
+    assertEquals(1, arbiter.getNumWaitingTasks());
+
+    // spurious wake up, still waiting
+    assertFalse(arbiter.acquireMemoryGrant(t2, 60 * MB));
+
+    arbiter.releaseMemoryGrant(t1);
+    assertFalse(t2.blocked);
+    assertEquals(60 * MB, t2.getMemoryGrant());
+    assertEquals(0, arbiter.getNumWaitingTasks());
+
+    // the grant was assigned while the task was queued
+    assertTrue(arbiter.acquireMemoryGrant(t2, 60 * MB));
+    arbiter.taskDone(t2);
+    assertEquals(0, arbiter.getOutstandingGrants());
+  }
+
+  @Test
+  public void testAllocatedMemoryReducesAvailableGrants() {
+    when(rootAllocator.getAllocatedMemory()).thenReturn(50 * MB);
+    final TestTask t1 = new TestTask("t1", "q1", 1);
+    final TestTask t2 = new TestTask("t2", "q1", 1);
+
+    // first grant always succeeds so the node makes progress
+    assertTrue(arbiter.acquireMemoryGrant(t1, 30 * MB));
+    assertFalse(arbiter.acquireMemoryGrant(t2, 30 * MB));
+  }
+
+  @Test
+  public void testWeightedFairShare() {
+    final TestTask heavyHolder = new TestTask("heavy-holder", "q1", 10);
+    final TestTask lightHolder1 = new TestTask("light-holder1", "q2", 1);
+    final TestTask lightHolder2 = new TestTask("light-holder2", "q2", 1);
+    final TestTask light = new TestTask("light", "q2", 1);
+    final TestTask heavy = new TestTask("heavy", "q1", 10);
+
+    assertTrue(arbiter.acquireMemoryGrant(heavyHolder, 30 * MB));
+    assertTrue(arbiter.acquireMemoryGrant(lightHolder1, 30 * MB));
+    assertTrue(arbiter.acquireMemoryGrant(lightHolder2, 30 * MB));
+    assertFalse(arbiter.acquireMemoryGrant(light, 30 * MB));
+    assertFalse(arbiter.acquireMemoryGrant(heavy, 30 * MB));
+
+    // the light task arrived first, but its query holds more memory relative to its weight
+    arbiter.releaseMemoryGrant(lightHolder2);
+    assertEquals(30 * MB, heavy.getMemoryGrant());
+    assertEquals(0, light.getMemoryGrant());
+    assertTrue(light.blocked);
+
+    arbiter.releaseMemoryGrant(lightHolder1);
+    assertEquals(30 * MB, light.getMemoryGrant());
+  }
+
+  @Test
+  public void testTaskDoneWhileWaiting() {
+    final TestTask t1 = new TestTask("t1", "q1", 1);
+    final TestTask t2 = new TestTask("t2", "q2", 1);
+
+    assertTrue(arbiter.acquireMemoryGrant(t1, 60 * MB));
+    assertFalse(arbiter.acquireMemoryGrant(t2, 60 * MB));
+    arbiter.taskDone(t2);
+    assertEquals(0, arbiter.getNumWaitingTasks());
+
+    arbiter.taskDone(t1);
+    assertEquals(0, arbiter.getOutstandingGrants());
+  }
+}
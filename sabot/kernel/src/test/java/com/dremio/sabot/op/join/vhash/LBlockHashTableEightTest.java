@@ -33,7 +33,7 @@ import org.junit.Rule;
 import org.junit.Test;
 
 import com.dremio.common.AutoCloseables;
-import com.dremio.exec.util.BloomFilter;
+import com.dremio.exec.util.BlockedBloomFilter;
 import com.dremio.sabot.op.common.ht2.HashComputation;
 import com.dremio.test.AllocatorRule;
 import com.koloboke.collect.hash.HashConfig;
@@ -65,7 +65,7 @@ public class LBlockHashTableEightTest {
             Set<Long> dataSet = generatedData(10);
             dataSet.stream().forEach(key -> table.insert(key, (int) HashComputation.computeHash(key)));
 
-            final Optional<BloomFilter> bloomFilterOptional = table.prepareBloomFilter(false);
+            final Optional<BlockedBloomFilter> bloomFilterOptional = table.prepareBloomFilter(table.size());
             assertTrue(bloomFilterOptional.isPresent());
             closeables.add(bloomFilterOptional.get());
             dataSet.stream().forEach(key -> assertTrue(bloomFilterOptional.get().mightContain(writeKey(keyBuf, key), 9)));
@@ -76,10 +76,10 @@ public class LBlockHashTableEightTest {
             assertTrue("False positive count is high - " + fpCount, fpCount < 5);
 
             // test null
-            BloomFilter bloomFilter = bloomFilterOptional.get();
+            BlockedBloomFilter bloomFilter = bloomFilterOptional.get();
             assertFalse(bloomFilter.mightContain(writeNull(keyBuf), 9));
             table.insertNull();
-            BloomFilter bloomFilter2 = table.prepareBloomFilter(false).get();
+            BlockedBloomFilter bloomFilter2 = table.prepareBloomFilter(table.size()).get();
             closeables.add(bloomFilter2);
             assertTrue(bloomFilter2.mightContain(writeNull(keyBuf), 9));
         } finally {
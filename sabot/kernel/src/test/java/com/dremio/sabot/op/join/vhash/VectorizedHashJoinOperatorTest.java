@@ -21,9 +21,9 @@ import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.ArgumentMatchers.anyBoolean;
 import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doNothing;
@@ -63,7 +63,7 @@ import com.dremio.exec.proto.ExecProtos;
 import com.dremio.exec.proto.ExecProtos.FragmentHandle;
 import com.dremio.exec.proto.ExecProtos.RuntimeFilter;
 import com.dremio.exec.proto.UserBitShared.QueryId;
-import com.dremio.exec.util.BloomFilter;
+import com.dremio.exec.util.BlockedBloomFilter;
 import com.dremio.exec.util.RuntimeFilterTestUtils;
 import com.dremio.exec.util.ValueListFilter;
 import com.dremio.options.OptionManager;
@@ -101,7 +101,7 @@ public class VectorizedHashJoinOperatorTest {
         FragmentHandle fh = FragmentHandle.newBuilder().setMinorFragmentId(4).build();
         VectorizedHashJoinOperator joinOp = spy(newVecHashJoinOp(newRuntimeFilterInfo(true, "col1"), fh));
         JoinTable joinTable = mock(JoinTable.class);
-        when(joinTable.prepareBloomFilter(any(List.class), eq(true), anyInt())).thenReturn(Optional.empty());
+        when(joinTable.prepareBloomFilter(any(List.class), anyLong(), anyInt())).thenReturn(Optional.empty());
         joinOp.setTable(joinTable);
 
         joinOp.tryPushRuntimeFilter();
@@ -118,8 +118,8 @@ public class VectorizedHashJoinOperatorTest {
         doNothing().when(joinOp).sendRuntimeFilterToProbeScan(valCaptor.capture(), any(Optional.class), anyList());
 
         JoinTable joinTable = mock(JoinTable.class);
-        Optional<BloomFilter> bloomFilter = mockedBloom();
-        when(joinTable.prepareBloomFilter(any(List.class), eq(true), anyInt())).thenReturn(bloomFilter);
+        Optional<BlockedBloomFilter> bloomFilter = mockedBloom();
+        when(joinTable.prepareBloomFilter(any(List.class), anyLong(), anyInt())).thenReturn(bloomFilter);
         joinOp.setTable(joinTable);
 
         joinOp.tryPushRuntimeFilter();
@@ -144,7 +144,7 @@ public class VectorizedHashJoinOperatorTest {
 
         JoinTable joinTable = mock(JoinTable.class);
         ValueListFilter valueListFilter = mockedValueListFilter();
-        when(joinTable.prepareBloomFilter(any(List.class), eq(true), anyInt())).thenReturn(Optional.empty());
+        when(joinTable.prepareBloomFilter(any(List.class), anyLong(), anyInt())).thenReturn(Optional.empty());
         when(joinTable.prepareValueListFilter(any(String.class), anyInt())).thenReturn(Optional.of(valueListFilter));
         joinOp.setTable(joinTable);
 
@@ -173,8 +173,8 @@ public class VectorizedHashJoinOperatorTest {
 
         JoinTable joinTable = mock(JoinTable.class);
         ValueListFilter valueListFilter = mockedValueListFilter();
-        Optional<BloomFilter> bloomFilter = mockedBloom();
-        when(joinTable.prepareBloomFilter(any(List.class), eq(true), anyInt())).thenReturn(bloomFilter);
+        Optional<BlockedBloomFilter> bloomFilter = mockedBloom();
+        when(joinTable.prepareBloomFilter(any(List.class), anyLong(), anyInt())).thenReturn(bloomFilter);
         when(joinTable.prepareValueListFilter(any(String.class), anyInt())).thenReturn(Optional.of(valueListFilter));
         joinOp.setTable(joinTable);
 
@@ -206,7 +206,7 @@ public class VectorizedHashJoinOperatorTest {
                 Lists.newArrayList("pCol1", "pCol2"), Lists.newArrayList("npCol1", "npCol2")), fh));
 
         JoinTable joinTable = mock(JoinTable.class);
-        when(joinTable.prepareBloomFilter(any(List.class), eq(true), anyInt())).thenReturn(Optional.empty());
+        when(joinTable.prepareBloomFilter(any(List.class), anyLong(), anyInt())).thenReturn(Optional.empty());
         when(joinTable.prepareValueListFilter(any(String.class), anyInt())).thenReturn(Optional.empty());
         joinOp.setTable(joinTable);
 
@@ -228,8 +228,8 @@ public class VectorizedHashJoinOperatorTest {
 
         JoinTable joinTable = mock(JoinTable.class);
         ValueListFilter valueListFilter = mockedValueListFilter();
-        Optional<BloomFilter> bloomFilter = mockedBloom();
-        when(joinTable.prepareBloomFilter(any(List.class), eq(true), anyInt())).thenReturn(bloomFilter);
+        Optional<BlockedBloomFilter> bloomFilter = mockedBloom();
+        when(joinTable.prepareBloomFilter(any(List.class), anyLong(), anyInt())).thenReturn(bloomFilter);
         when(joinTable.prepareValueListFilter(any(String.class), anyInt())).thenReturn(Optional.of(valueListFilter));
         joinOp.setTable(joinTable);
 
@@ -259,7 +259,7 @@ public class VectorizedHashJoinOperatorTest {
 
         JoinTable joinTable = mock(JoinTable.class);
         ValueListFilter valueListFilter = mockedValueListFilter();
-        when(joinTable.prepareBloomFilter(anyList(), anyBoolean(), anyInt())).thenReturn(Optional.empty());
+        when(joinTable.prepareBloomFilter(anyList(), anyLong(), anyInt())).thenReturn(Optional.empty());
         when(joinTable.prepareValueListFilter(anyString(), anyInt())).thenReturn(Optional.of(valueListFilter));
         joinOp.setTable(joinTable);
 
@@ -278,8 +278,8 @@ public class VectorizedHashJoinOperatorTest {
 
         JoinTable joinTable = mock(JoinTable.class);
         ValueListFilter valueListFilter = mockedValueListFilter();
-        Optional<BloomFilter> bloomFilter = mockedBloom();
-        when(joinTable.prepareBloomFilter(any(List.class), eq(false), anyInt())).thenReturn(bloomFilter);
+        Optional<BlockedBloomFilter> bloomFilter = mockedBloom();
+        when(joinTable.prepareBloomFilter(any(List.class), anyLong(), anyInt())).thenReturn(bloomFilter);
         when(joinTable.prepareValueListFilter(any(String.class), anyInt())).thenReturn(Optional.of(valueListFilter));
         joinOp.setTable(joinTable);
 
@@ -315,8 +315,8 @@ public class VectorizedHashJoinOperatorTest {
             doNothing().when(joinOp).sendRuntimeFilterToProbeScan(valCaptor.capture(), any(Optional.class), anyList());
 
             JoinTable joinTable = mock(JoinTable.class);
-            BloomFilter bloomFilter = mockedBloom().get();
-            when(joinTable.prepareBloomFilter(any(List.class), eq(false), anyInt())).thenReturn(Optional.of(bloomFilter));
+            BlockedBloomFilter bloomFilter = mockedBloom().get();
+            when(joinTable.prepareBloomFilter(any(List.class), anyLong(), anyInt())).thenReturn(Optional.of(bloomFilter));
             joinOp.setTable(joinTable);
 
             joinOp.tryPushRuntimeFilter();
@@ -362,7 +362,7 @@ public class VectorizedHashJoinOperatorTest {
         doNothing().when(joinOp).sendRuntimeFilterToProbeScan(valCaptor.capture(), any(Optional.class), valListCaptor.capture());
 
         JoinTable joinTable = mock(JoinTable.class);
-        when(joinTable.prepareBloomFilter(anyList(), anyBoolean(), anyInt())).thenReturn(Optional.empty());
+        when(joinTable.prepareBloomFilter(anyList(), anyLong(), anyInt())).thenReturn(Optional.empty());
         when(joinTable.prepareValueListFilter(anyString(), anyInt())).thenReturn(Optional.empty());
         when(joinTable.prepareValueListFilter(eq("col1_build"), anyInt())).thenReturn(Optional.of(valueListFilter1));
         when(joinTable.prepareValueListFilter(eq("col2_build"), anyInt())).thenReturn(Optional.of(valueListFilter2));
@@ -434,8 +434,8 @@ public class VectorizedHashJoinOperatorTest {
             doNothing().when(joinOp).sendRuntimeFilterToProbeScan(valCaptor.capture(), any(Optional.class), valListCaptor.capture());
 
             JoinTable joinTable = mock(JoinTable.class);
-            BloomFilter bloomFilter = mockedBloom().get();
-            when(joinTable.prepareBloomFilter(any(List.class), eq(false), anyInt())).thenReturn(Optional.of(bloomFilter));
+            BlockedBloomFilter bloomFilter = mockedBloom().get();
+            when(joinTable.prepareBloomFilter(any(List.class), anyLong(), anyInt())).thenReturn(Optional.of(bloomFilter));
             when(joinTable.prepareValueListFilter(anyString(), anyInt())).thenReturn(Optional.empty());
             when(joinTable.prepareValueListFilter(eq("col1_build"), anyInt())).thenReturn(Optional.of(valueListFilter1));
             when(joinTable.prepareValueListFilter(eq("col2_build"), anyInt())).thenReturn(Optional.of(valueListFilter2));
@@ -510,8 +510,8 @@ public class VectorizedHashJoinOperatorTest {
             doNothing().when(joinOp).sendRuntimeFilterToProbeScan(valCaptor.capture(), any(Optional.class), anyList());
 
             JoinTable joinTable = mock(JoinTable.class);
-            BloomFilter bloomFilter = mockedBloom().get();
-            when(joinTable.prepareBloomFilter(any(List.class), eq(false), anyInt())).thenReturn(Optional.of(bloomFilter));
+            BlockedBloomFilter bloomFilter = mockedBloom().get();
+            when(joinTable.prepareBloomFilter(any(List.class), anyLong(), anyInt())).thenReturn(Optional.of(bloomFilter));
             when(joinTable.prepareValueListFilter(anyString(), anyInt())).thenReturn(Optional.empty());
             when(joinTable.prepareValueListFilter(eq("col1_build"), anyInt())).thenReturn(Optional.of(valueListFilter1));
             when(joinTable.prepareValueListFilter(eq("col2_build"), anyInt())).thenReturn(Optional.of(valueListFilter2));
@@ -582,11 +582,11 @@ public class VectorizedHashJoinOperatorTest {
             doNothing().when(joinOp).sendRuntimeFilterToProbeScan(valCaptor.capture(), any(Optional.class), anyList());
 
             JoinTable joinTable = mock(JoinTable.class);
-            BloomFilter bloomFilterOrg = mockedBloom().get();
-            BloomFilter bloomFilter = mockedBloom().get();
+            BlockedBloomFilter bloomFilterOrg = mockedBloom().get();
+            BlockedBloomFilter bloomFilter = mockedBloom().get();
             when(bloomFilterOrg.createCopy(eq(testAllocator))).thenReturn(bloomFilter);
 
-            when(joinTable.prepareBloomFilter(any(List.class), eq(false), anyInt())).thenReturn(Optional.of(bloomFilterOrg));
+            when(joinTable.prepareBloomFilter(any(List.class), anyLong(), anyInt())).thenReturn(Optional.of(bloomFilterOrg));
             when(joinTable.prepareValueListFilter(anyString(), anyInt())).thenReturn(Optional.empty());
             when(joinTable.prepareValueListFilter(eq("col1_build"), anyInt())).thenReturn(Optional.of(valueListFilter1));
             when(joinTable.prepareValueListFilter(eq("col2_build"), anyInt())).thenReturn(Optional.of(valueListFilter2));
@@ -655,8 +655,8 @@ public class VectorizedHashJoinOperatorTest {
             doNothing().when(joinOp).sendRuntimeFilterToProbeScan(valCaptor.capture(), any(Optional.class), valListCaptor.capture());
 
             JoinTable joinTable = mock(JoinTable.class);
-            BloomFilter bloomFilter = mockedBloom().get();
-            when(joinTable.prepareBloomFilter(any(List.class), eq(false), anyInt())).thenReturn(Optional.of(bloomFilter));
+            BlockedBloomFilter bloomFilter = mockedBloom().get();
+            when(joinTable.prepareBloomFilter(any(List.class), anyLong(), anyInt())).thenReturn(Optional.of(bloomFilter));
             when(joinTable.prepareValueListFilter(anyString(), anyInt())).thenReturn(Optional.empty());
             when(joinTable.prepareValueListFilter(eq("col1_build"), anyInt())).thenReturn(Optional.of(valueListFilter1));
             when(joinTable.prepareValueListFilter(eq("col2_build"), anyInt())).thenReturn(Optional.of(valueListFilter2));
@@ -698,8 +698,8 @@ public class VectorizedHashJoinOperatorTest {
         doNothing().when(joinOp).sendRuntimeFilterToProbeScan(valCaptor.capture(), any(Optional.class), anyList());
 
         JoinTable joinTable = mock(JoinTable.class);
-        BloomFilter bloomFilter = BloomFilter.prepareFrom(recvBuffer);
-        when(joinTable.prepareBloomFilter(any(List.class), eq(false), anyInt())).thenReturn(Optional.of(bloomFilter));
+        BlockedBloomFilter bloomFilter = BlockedBloomFilter.prepareFrom(recvBuffer);
+        when(joinTable.prepareBloomFilter(any(List.class), anyLong(), anyInt())).thenReturn(Optional.of(bloomFilter));
         joinOp.setTable(joinTable);
 
         for (int sendingFragment = 2; sendingFragment <= 4; sendingFragment++) {
@@ -718,7 +718,7 @@ public class VectorizedHashJoinOperatorTest {
         assertEquals(1, filterVal.getPartitionColumnFilter().getColumnsCount());
         assertEquals("col1_probe", filterVal.getPartitionColumnFilter().getColumns(0));
         assertEquals(64, filterVal.getPartitionColumnFilter().getSizeBytes());
-        bfCaptor.getValue().ifPresent(c -> ((BloomFilter) c).close());
+        bfCaptor.getValue().ifPresent(c -> ((BlockedBloomFilter) c).close());
     }
 
     @Test
@@ -747,9 +747,9 @@ public class VectorizedHashJoinOperatorTest {
             doNothing().when(joinOp).sendRuntimeFilterToProbeScan(valCaptor.capture(), any(Optional.class), anyList());
 
             JoinTable joinTable = mock(JoinTable.class);
-            BloomFilter bloomFilter = mockedBloom().get();
+            BlockedBloomFilter bloomFilter = mockedBloom().get();
             when(bloomFilter.getDataBuffer()).thenReturn(recvBuffer);
-            when(joinTable.prepareBloomFilter(any(List.class), eq(false), anyInt())).thenReturn(Optional.of(bloomFilter));
+            when(joinTable.prepareBloomFilter(any(List.class), anyLong(), anyInt())).thenReturn(Optional.of(bloomFilter));
             when(joinTable.prepareValueListFilter(anyString(), anyInt())).thenReturn(Optional.empty());
             when(joinTable.prepareValueListFilter(eq("col1_build"), anyInt())).thenReturn(Optional.of(valueListFilter1));
             when(joinTable.prepareValueListFilter(eq("col2_build"), anyInt())).thenReturn(Optional.of(valueListFilter2));
@@ -828,7 +828,7 @@ public class VectorizedHashJoinOperatorTest {
             when(popConfig.getProps()).thenReturn(props);
             VectorizedHashJoinOperator joinOp = spy(new VectorizedHashJoinOperator(opCtx, popConfig));
 
-            BloomFilter bloomFilter = mockedBloom().get();
+            BlockedBloomFilter bloomFilter = mockedBloom().get();
             when(bloomFilter.getDataBuffer()).thenReturn(recvBuffer);
             when(bloomFilter.getExpectedFPP()).thenReturn(0.001D);
 
@@ -838,6 +838,7 @@ public class VectorizedHashJoinOperatorTest {
                     .setPartitionColumnFilter(ExecProtos.CompositeColumnFilter.newBuilder()
                             .addColumns("col1")
                             .setFilterType(ExecProtos.RuntimeFilterType.BLOOM_FILTER)
+                            .setFormatVersion(BlockedBloomFilter.FORMAT_VERSION)
                             .setSizeBytes(64).build())
                     .build();
             FragmentAssignment assignment1 = FragmentAssignment.newBuilder()
@@ -900,7 +901,7 @@ public class VectorizedHashJoinOperatorTest {
         when(popConfig.getProps()).thenReturn(props);
         VectorizedHashJoinOperator joinOp = spy(new VectorizedHashJoinOperator(opCtx, popConfig));
 
-        BloomFilter bloomFilter = mockedBloom().get();
+        BlockedBloomFilter bloomFilter = mockedBloom().get();
         when(bloomFilter.getDataBuffer()).thenReturn(recvBuffer);
         when(bloomFilter.getExpectedFPP()).thenReturn(0.001D);
 
@@ -910,6 +911,7 @@ public class VectorizedHashJoinOperatorTest {
                 .setPartitionColumnFilter(ExecProtos.CompositeColumnFilter.newBuilder()
                         .addColumns("col1")
                         .setFilterType(ExecProtos.RuntimeFilterType.BLOOM_FILTER)
+                        .setFormatVersion(BlockedBloomFilter.FORMAT_VERSION)
                         .setSizeBytes(64).build())
                 .build();
         FragmentAssignment assignment1 = FragmentAssignment.newBuilder()
@@ -932,18 +934,19 @@ public class VectorizedHashJoinOperatorTest {
         List<Integer> allFragments = Lists.newArrayList(1,2,3,4);
         allFragments.removeIf(val -> val == sendingMinorFragment);
         RuntimeFilter filter = RuntimeFilter.newBuilder().setProbeScanOperatorId(101).setProbeScanMajorFragmentId(1)
-                .setPartitionColumnFilter(ExecProtos.CompositeColumnFilter.newBuilder().setSizeBytes(64).addAllColumns(Lists.newArrayList(col)).build())
+                .setPartitionColumnFilter(ExecProtos.CompositeColumnFilter.newBuilder().setSizeBytes(64)
+                        .setFormatVersion(BlockedBloomFilter.FORMAT_VERSION).addAllColumns(Lists.newArrayList(col)).build())
                 .build();
         ArrowBuf[] bufs = new ArrowBuf[]{buf};
         return new OutOfBandMessage(null, 1, allFragments, 101, 1, sendingMinorFragment,
                 101, new OutOfBandMessage.Payload(filter), bufs, true);
     }
 
-    private Optional<BloomFilter> mockedBloom() {
-        BloomFilter bloom = mock(BloomFilter.class);
+    private Optional<BlockedBloomFilter> mockedBloom() {
+        BlockedBloomFilter bloom = mock(BlockedBloomFilter.class);
         when(bloom.isCrossingMaxFPP()).thenReturn(Boolean.FALSE);
         when(bloom.getSizeInBytes()).thenReturn(64L);
-        doNothing().when(bloom).merge(any(BloomFilter.class));
+        doNothing().when(bloom).merge(any(BlockedBloomFilter.class));
         return Optional.of(bloom);
     }
 
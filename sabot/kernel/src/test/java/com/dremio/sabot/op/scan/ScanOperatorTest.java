@@ -52,6 +52,7 @@ import com.dremio.exec.proto.ExecProtos.RuntimeFilterType;
 import com.dremio.exec.proto.UserBitShared;
 import com.dremio.exec.store.RecordReader;
 import com.dremio.exec.store.parquet.RecordReaderIterator;
+import com.dremio.exec.util.BlockedBloomFilter;
 import com.dremio.exec.util.RuntimeFilterTestUtils;
 import com.dremio.exec.util.ValueListFilter;
 import com.dremio.options.OptionManager;
@@ -273,6 +274,7 @@ public class ScanOperatorTest {
                 .setPartitionColumnFilter(CompositeColumnFilter.newBuilder()
                         .addAllColumns(Lists.newArrayList(cols))
                         .setFilterType(RuntimeFilterType.BLOOM_FILTER)
+                        .setFormatVersion(BlockedBloomFilter.FORMAT_VERSION)
                         .setSizeBytes(sizeBytes).build())
                 .build();
     }
@@ -0,0 +1,155 @@
+/*
+ * Copyright (C) 2017-2019 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.sabot.op.sender;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.Random;
+
+import org.apache.arrow.flatbuf.CompressionType;
+import org.apache.arrow.memory.ArrowBuf;
+import org.apache.arrow.vector.IntVector;
+import org.apache.arrow.vector.VarCharVector;
+import org.apache.arrow.vector.ipc.message.ArrowRecordBatch;
+import org.apache.arrow.vector.types.Types.MinorType;
+import org.apache.arrow.vector.types.pojo.Field;
+import org.apache.arrow.vector.types.pojo.FieldType;
+import org.junit.Test;
+
+import com.dremio.exec.ExecConstants;
+import com.dremio.exec.proto.UserBitShared.QueryId;
+import com.dremio.exec.record.ArrowRecordBatchLoader;
+import com.dremio.exec.record.BatchSchema;
+import com.dremio.exec.record.FragmentWritableBatch;
+import com.dremio.exec.record.VectorContainer;
+import com.dremio.sabot.BaseTestOperator;
+import com.dremio.sabot.exec.rpc.AccountingExecTunnel;
+
+import io.netty.buffer.ByteBuf;
+
+/**
+ * Tests for {@link ExchangeBatchCompressor}
+ */
+public class TestExchangeBatchCompressor extends BaseTestOperator {
+  private static final int RECORDS = 4000;
+
+  private static final BatchSchema SCHEMA = BatchSchema.newBuilder()
+    .addField(new Field("id", new FieldType(true, MinorType.INT.getType(), null), null))
+    .addField(new Field("name", new FieldType(true, MinorType.VARCHAR.getType(), null), null))
+    .build();
+
+  @Test
+  public void testCompressedRoundTrip() throws Exception {
+    try (AutoCloseable enabled = with(ExecConstants.EXCHANGE_COMPRESSION_ENABLED, true);
+         VectorContainer container = createBatch(false)) {
+      final ExchangeBatchCompressor compressor = new ExchangeBatchCompressor(getTestAllocator(), testContext.getOptions());
+      final ArrowRecordBatch sent = compressor.compress(FragmentWritableBatch.getArrowRecordBatch(container), tunnel(false, 1));
+
+      assertEquals(CompressionType.LZ4_FRAME, sent.getBodyCompression().getCodec());
+      assertTrue(compressor.getCompressedBytes() < compressor.getUncompressedBytes());
+
+      final FragmentWritableBatch batch = new FragmentWritableBatch(QueryId.getDefaultInstance(), 0, 0, 1, sent, 0);
+      try (ArrowBuf body = toBody(batch);
+           ArrowRecordBatchLoader loader = new ArrowRecordBatchLoader(getTestAllocator(), SCHEMA)) {
+        loader.load(batch.getHeader(), body);
+        assertEquals(RECORDS, loader.getRecordCount());
+        assertEquals(compressor.getUncompressedBytes(), loader.getDecompressedBytes());
+
+        final IntVector expectedIds = container.getValueAccessorById(IntVector.class, 0).getValueVector();
+        final VarCharVector expectedNames = container.getValueAccessorById(VarCharVector.class, 1).getValueVector();
+        final IntVector ids = loader.getValueAccessorById(IntVector.class, 0).getValueVector();
+        final VarCharVector names = loader.getValueAccessorById(VarCharVector.class, 1).getValueVector();
+        for (int i = 0; i < RECORDS; i++) {
+          assertEquals(expectedIds.getObject(i), ids.getObject(i));
+          assertEquals(expectedNames.getObject(i), names.getObject(i));
+        }
+      }
+    }
+  }
+
+  @Test
+  public void testSkipsCompression() throws Exception {
+    try (AutoCloseable enabled = with(ExecConstants.EXCHANGE_COMPRESSION_ENABLED, true);
+         AutoCloseable maxRatio = with(ExecConstants.EXCHANGE_COMPRESSION_MAX_RATIO, 0.5);
+         VectorContainer compressible = createBatch(false);
+         VectorContainer random = createBatch(true)) {
+      final ExchangeBatchCompressor compressor = new ExchangeBatchCompressor(getTestAllocator(), testContext.getOptions());
+
+      // the receiver is in the same process, or keeps up with the sender
+      assertNotCompressed(compressor, compressible, tunnel(true, 3));
+      assertNotCompressed(compressor, compressible, tunnel(false, 0));
+      assertEquals(0, compressor.getUncompressedBytes());
+
+      // poorly compressible data turns compression off for the next batches
+      compressor.compress(FragmentWritableBatch.getArrowRecordBatch(random), tunnel(false, 1)).close();
+      final long uncompressedBytes = compressor.getUncompressedBytes();
+      assertNotCompressed(compressor, compressible, tunnel(false, 1));
+      assertEquals(uncompressedBytes, compressor.getUncompressedBytes());
+    }
+  }
+
+  private static void assertNotCompressed(ExchangeBatchCompressor compressor, VectorContainer container,
+                                          AccountingExecTunnel tunnel) {
+    final ArrowRecordBatch batch = FragmentWritableBatch.getArrowRecordBatch(container);
+    try (ArrowRecordBatch sent = compressor.compress(batch, tunnel)) {
+      assertSame(batch, sent);
+    }
+  }
+
+  private static AccountingExecTunnel tunnel(boolean inProcess, int outstandingMessages) {
+    final AccountingExecTunnel tunnel = mock(AccountingExecTunnel.class);
+    when(tunnel.isInProcess()).thenReturn(inProcess);
+    when(tunnel.getOutstandingMessages()).thenReturn(outstandingMessages);
+    return tunnel;
+  }
+
+  private VectorContainer createBatch(boolean random) {
+    final VectorContainer container = VectorContainer.create(getTestAllocator(), SCHEMA);
+    final IntVector ids = container.getValueAccessorById(IntVector.class, 0).getValueVector();
+    final VarCharVector names = container.getValueAccessorById(VarCharVector.class, 1).getValueVector();
+    final Random rand = new Random(0);
+    ids.allocateNew(RECORDS);
+    names.allocateNew(RECORDS * 16L, RECORDS);
+    for (int i = 0; i < RECORDS; i++) {
+      ids.setSafe(i, random ? rand.nextInt() : i % 100);
+      if (random) {
+        final byte[] name = new byte[1 + rand.nextInt(32)];
+        rand.nextBytes(name);
+        names.setSafe(i, name);
+      } else {
+        names.setSafe(i, ("name-" + (i % 50)).getBytes());
+      }
+    }
+    container.setAllCount(RECORDS);
+    return container;
+  }
+
+  private ArrowBuf toBody(FragmentWritableBatch batch) {
+    final ArrowBuf body = getTestAllocator().buffer(batch.getByteCount());
+    long offset = 0;
+    for (ByteBuf buf : batch.getBuffers()) {
+      body.setBytes(offset, buf.nioBuffer());
+      offset += buf.readableBytes();
+      buf.release();
+    }
+    body.writerIndex(offset);
+    return body;
+  }
+}
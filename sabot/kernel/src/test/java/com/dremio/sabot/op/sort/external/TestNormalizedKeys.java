@@ -0,0 +1,254 @@
+/*
+ * Copyright (C) 2017-2019 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.sabot.op.sort.external;
+
+import static com.dremio.sabot.Fixtures.NULL_BIGINT;
+import static com.dremio.sabot.Fixtures.NULL_INT;
+import static com.dremio.sabot.Fixtures.NULL_VARCHAR;
+import static com.dremio.sabot.Fixtures.createDecimal;
+import static com.dremio.sabot.Fixtures.t;
+import static com.dremio.sabot.Fixtures.th;
+import static com.dremio.sabot.Fixtures.tr;
+import static org.apache.calcite.rel.RelFieldCollation.Direction.ASCENDING;
+import static org.apache.calcite.rel.RelFieldCollation.Direction.DESCENDING;
+import static org.apache.calcite.rel.RelFieldCollation.NullDirection.FIRST;
+import static org.apache.calcite.rel.RelFieldCollation.NullDirection.LAST;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+
+import org.junit.Test;
+
+import com.dremio.common.logical.data.Order.Ordering;
+import com.dremio.exec.ExecConstants;
+import com.dremio.exec.physical.config.ExternalSort;
+import com.dremio.sabot.BaseTestOperator;
+import com.dremio.sabot.Fixtures;
+import com.dremio.sabot.Fixtures.Table;
+
+/**
+ * Tests for {@link NormalizedKeys}: the sort must order the rows as the generated comparator does, which is what
+ * the sort uses when normalized keys are disabled.
+ */
+public class TestNormalizedKeys extends BaseTestOperator {
+
+  private static final String PREFIX = "abcdefghijklmnop";
+
+  @Test
+  public void testDescendingNullsLast() throws Exception {
+    final Table input = t(
+      th("k", "id"),
+      tr(3, 0),
+      tr(NULL_INT, 1),
+      tr(-7, 2),
+      tr(12, 3),
+      tr(0, 4),
+      tr(Integer.MIN_VALUE, 5),
+      tr(Integer.MAX_VALUE, 6)
+    );
+    final Table output = t(
+      th("k", "id"),
+      tr(Integer.MAX_VALUE, 6),
+      tr(12, 3),
+      tr(3, 0),
+      tr(0, 4),
+      tr(-7, 2),
+      tr(Integer.MIN_VALUE, 5),
+      tr(NULL_INT, 1)
+    );
+    validate(input, output, ordering("k", DESCENDING, LAST));
+  }
+
+  @Test
+  public void testDescendingNullsFirst() throws Exception {
+    final Table input = t(
+      th("k", "id"),
+      tr(3, 0),
+      tr(-7, 1),
+      tr(NULL_INT, 2),
+      tr(12, 3),
+      tr(Integer.MIN_VALUE, 4)
+    );
+    final Table output = t(
+      th("k", "id"),
+      tr(NULL_INT, 2),
+      tr(12, 3),
+      tr(3, 0),
+      tr(-7, 1),
+      tr(Integer.MIN_VALUE, 4)
+    );
+    validate(input, output, ordering("k", DESCENDING, FIRST));
+  }
+
+  @Test
+  public void testNegativeBigIntNullsLast() throws Exception {
+    final Table input = t(
+      th("k", "id"),
+      tr(5L, 0),
+      tr(NULL_BIGINT, 1),
+      tr(-1L, 2),
+      tr(Long.MIN_VALUE, 3),
+      tr(-4294967296L, 4),
+      tr(4294967296L, 5),
+      tr(0L, 6),
+      tr(Long.MAX_VALUE, 7)
+    );
+    final Table output = t(
+      th("k", "id"),
+      tr(Long.MIN_VALUE, 3),
+      tr(-4294967296L, 4),
+      tr(-1L, 2),
+      tr(0L, 6),
+      tr(5L, 0),
+      tr(4294967296L, 5),
+      tr(Long.MAX_VALUE, 7),
+      tr(NULL_BIGINT, 1)
+    );
+    validate(input, output, ordering("k", ASCENDING, LAST));
+  }
+
+  @Test
+  public void testNegativeDecimal() throws Exception {
+    final Table input = t(
+      th("k", "id"),
+      tr(decimal("-1.50"), 0),
+      tr(decimal("1.25"), 1),
+      tr(decimal(null), 2),
+      // wider than 64 bits
+      tr(decimal("-12345678901234567890123.45"), 3),
+      tr(decimal("0.00"), 4),
+      tr(decimal("-0.01"), 5),
+      tr(decimal("12345678901234567890123.45"), 6)
+    );
+    final Table ascending = t(
+      th("k", "id"),
+      tr(decimal(null), 2),
+      tr(decimal("-12345678901234567890123.45"), 3),
+      tr(decimal("-1.50"), 0),
+      tr(decimal("-0.01"), 5),
+      tr(decimal("0.00"), 4),
+      tr(decimal("1.25"), 1),
+      tr(decimal("12345678901234567890123.45"), 6)
+    );
+    validate(input, ascending, ordering("k", ASCENDING, FIRST));
+
+    final Table descending = t(
+      th("k", "id"),
+      tr(decimal("12345678901234567890123.45"), 6),
+      tr(decimal("1.25"), 1),
+      tr(decimal("0.00"), 4),
+      tr(decimal("-0.01"), 5),
+      tr(decimal("-1.50"), 0),
+      tr(decimal("-12345678901234567890123.45"), 3),
+      tr(decimal(null), 2)
+    );
+    validate(input, descending, ordering("k", DESCENDING, LAST));
+  }
+
+  @Test
+  public void testLongStringsFallBackToComparator() throws Exception {
+    // strings sharing their first 16 bytes have equal keys, and are ordered by the comparator, which also orders
+    // rows on the second ordering as it is not encoded
+    final Table input = t(
+      th("s", "id"),
+      tr(PREFIX + "B", 0),
+      tr(PREFIX, 1),
+      tr(PREFIX + "A", 2),
+      tr("abc", 3),
+      tr(PREFIX + "A", 4),
+      tr(NULL_VARCHAR, 5),
+      tr(PREFIX + "Az", 6),
+      tr("b", 7)
+    );
+    final Table output = t(
+      th("s", "id"),
+      tr(NULL_VARCHAR, 5),
+      tr("abc", 3),
+      tr(PREFIX, 1),
+      tr(PREFIX + "A", 4),
+      tr(PREFIX + "A", 2),
+      tr(PREFIX + "Az", 6),
+      tr(PREFIX + "B", 0),
+      tr("b", 7)
+    );
+    validate(input, output, ordering("s", ASCENDING, FIRST), ordering("id", DESCENDING, FIRST));
+  }
+
+  @Test
+  public void testLongStringsDescending() throws Exception {
+    final Table input = t(
+      th("s", "id"),
+      tr(PREFIX + "A", 0),
+      tr(NULL_VARCHAR, 1),
+      tr(PREFIX, 2),
+      tr(PREFIX + "B", 3),
+      tr("abc", 4),
+      tr(PREFIX + "Az", 5)
+    );
+    final Table output = t(
+      th("s", "id"),
+      tr(PREFIX + "B", 3),
+      tr(PREFIX + "Az", 5),
+      tr(PREFIX + "A", 0),
+      tr(PREFIX, 2),
+      tr("abc", 4),
+      tr(NULL_VARCHAR, 1)
+    );
+    validate(input, output, ordering("s", DESCENDING, LAST));
+  }
+
+  @Test
+  public void testMultipleColumns() throws Exception {
+    final Table input = t(
+      th("k", "v", "id"),
+      tr(1, 10L, 0),
+      tr(NULL_INT, -3L, 1),
+      tr(1, NULL_BIGINT, 2),
+      tr(-2, 4L, 3),
+      tr(1, -10L, 4),
+      tr(NULL_INT, 7L, 5),
+      tr(-2, -4L, 6)
+    );
+    final Table output = t(
+      th("k", "v", "id"),
+      tr(-2, 4L, 3),
+      tr(-2, -4L, 6),
+      tr(1, NULL_BIGINT, 2),
+      tr(1, 10L, 0),
+      tr(1, -10L, 4),
+      tr(NULL_INT, 7L, 5),
+      tr(NULL_INT, -3L, 1)
+    );
+    validate(input, output, ordering("k", ASCENDING, LAST), ordering("v", DESCENDING, FIRST));
+  }
+
+  /**
+   * Sorts the input with the generated comparator, then with normalized keys, in batches of a few rows so that
+   * the keys reference several batches.
+   */
+  private void validate(Table input, Table output, Ordering... orderings) throws Exception {
+    final ExternalSort sort = new ExternalSort(PROPS, null, Arrays.asList(orderings), false);
+    for (boolean normalizedKeys : new boolean[] {false, true}) {
+      try (AutoCloseable option = with(ExecConstants.EXTERNAL_SORT_NORMALIZED_KEYS, normalizedKeys)) {
+        validateSingle(sort, ExternalSortOperator.class, input, output, 3);
+      }
+    }
+  }
+
+  private static Fixtures.Decimal decimal(String value) {
+    return createDecimal(value == null ? null : new BigDecimal(value), 38, 2);
+  }
+}
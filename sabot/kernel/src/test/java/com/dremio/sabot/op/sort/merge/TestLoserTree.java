@@ -0,0 +1,126 @@
+/*
+ * Copyright (C) 2017-2019 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.sabot.op.sort.merge;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * Tests for {@link LoserTree}.
+ */
+public class TestLoserTree {
+
+  /**
+   * Sorted arrays of ints, with an optional key prefix only keeping the high bits of the values.
+   */
+  private static final class ArraySources implements LoserTree.Sources {
+    private final int[][] values;
+    private final int[] positions;
+    private final int prefixShift;
+    private int comparisons;
+
+    private ArraySources(int[][] values, int prefixShift) {
+      this.values = values;
+      this.positions = new int[values.length];
+      this.prefixShift = prefixShift;
+    }
+
+    @Override
+    public boolean isDone(int source) {
+      return positions[source] >= values[source].length;
+    }
+
+    @Override
+    public long getKeyPrefix(int source) {
+      if (prefixShift < 0) {
+        return 0;
+      }
+      return (values[source][positions[source]] >> prefixShift) ^ Long.MIN_VALUE;
+    }
+
+    @Override
+    public int compareSources(int leftSource, int rightSource) {
+      comparisons++;
+      return Integer.compare(values[leftSource][positions[leftSource]], values[rightSource][positions[rightSource]]);
+    }
+
+    private int[] merge() {
+      final LoserTree tree = new LoserTree(values.length, this);
+      tree.init();
+      final int[] merged = new int[Arrays.stream(values).mapToInt(v -> v.length).sum()];
+      int count = 0;
+      int source;
+      while ((source = tree.top()) >= 0) {
+        merged[count++] = values[source][positions[source]++];
+        tree.replay();
+      }
+      assertEquals(merged.length, count);
+      return merged;
+    }
+  }
+
+  private static int[][] randomRuns(Random random, int runCount) {
+    final int[][] runs = new int[runCount][];
+    for (int i = 0; i < runCount; i++) {
+      // some runs are empty
+      runs[i] = random.ints(random.nextInt(50), -1000, 1000).sorted().toArray();
+    }
+    return runs;
+  }
+
+  private static int[] expected(int[][] runs) {
+    return Arrays.stream(runs).flatMapToInt(Arrays::stream).sorted().toArray();
+  }
+
+  @Test
+  public void testMerge() {
+    final Random random = new Random(42);
+    for (int runCount = 1; runCount <= 17; runCount++) {
+      final int[][] runs = randomRuns(random, runCount);
+      assertArrayEquals(expected(runs), new ArraySources(runs, -1).merge());
+    }
+  }
+
+  @Test
+  public void testMergeWithKeyPrefix() {
+    final Random random = new Random(7);
+    for (int runCount = 1; runCount <= 17; runCount++) {
+      final int[][] runs = randomRuns(random, runCount);
+      // prefixes with collisions, falling back to the full comparison
+      assertArrayEquals(expected(runs), new ArraySources(runs, 4).merge());
+      assertArrayEquals(expected(runs), new ArraySources(runs, 0).merge());
+    }
+  }
+
+  @Test
+  public void testDistinctPrefixesSkipComparisons() {
+    final int[][] runs = {{1, 4, 7}, {2, 5, 8}, {3, 6, 9}};
+    final ArraySources sources = new ArraySources(runs, 0);
+    assertArrayEquals(expected(runs), sources.merge());
+    assertEquals(0, sources.comparisons);
+  }
+
+  @Test
+  public void testAllEmpty() {
+    final int[][] runs = {{}, {}, {}};
+    assertArrayEquals(new int[0], new ArraySources(runs, -1).merge());
+  }
+}
@@ -0,0 +1,169 @@
+/*
+ * Copyright (C) 2017-2019 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.sabot.op.sort.topn;
+
+import static com.dremio.sabot.Fixtures.NULL_INT;
+import static com.dremio.sabot.Fixtures.t;
+import static com.dremio.sabot.Fixtures.tb;
+import static com.dremio.sabot.Fixtures.th;
+import static com.dremio.sabot.Fixtures.tr;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.Collections;
+
+import org.apache.calcite.rel.RelFieldCollation.Direction;
+import org.apache.calcite.rel.RelFieldCollation.NullDirection;
+import org.junit.Test;
+
+import com.dremio.common.expression.CompleteType;
+import com.dremio.exec.physical.base.PhysicalOperator;
+import com.dremio.exec.physical.base.SubScan;
+import com.dremio.exec.physical.config.Project;
+import com.dremio.exec.physical.config.TopN;
+import com.dremio.exec.record.VectorContainer;
+import com.dremio.sabot.BaseTestOperator;
+import com.dremio.sabot.Fixtures.Table;
+import com.dremio.sabot.exec.context.OperatorStats;
+import com.google.common.collect.ImmutableList;
+
+/**
+ * Tests for {@link TopNThreshold}, and the batches it lets {@link TopNOperator} skip
+ */
+public class TestTopNThreshold extends BaseTestOperator {
+
+  @Test
+  public void testCreate() throws Exception {
+    try (VectorContainer incoming = new VectorContainer(getTestAllocator())) {
+      incoming.addOrGet(CompleteType.INT.toField("c0"));
+      incoming.addOrGet(CompleteType.VARCHAR.toField("s"));
+      incoming.buildSchema();
+
+      assertNotNull(create(incoming, "c0", scan()));
+      // renamed by a projection
+      assertNotNull(create(incoming, "c0", new Project(PROPS, scan(), ImmutableList.of(n("a", "c0")))));
+
+      // not read from a scan
+      assertNull(create(incoming, "c0", null));
+      // computed by a projection
+      assertNull(create(incoming, "c0", new Project(PROPS, scan(), ImmutableList.of(n("a + 1", "c0")))));
+      // unsupported type
+      assertNull(create(incoming, "s", scan()));
+    }
+  }
+
+  @Test
+  public void testSkipAscendingNullsLast() throws Exception {
+    final Table input = t(
+      th("c0"),
+      tb(tr(5), tr(3)),
+      // all after 5, nulls last
+      tb(tr(7), tr(9), tr(NULL_INT)),
+      tb(tr(6), tr(1)),
+      // all after 3
+      tb(tr(4), tr(NULL_INT)),
+      // 3 isn't after 3
+      tb(tr(3), tr(8))
+    );
+    final Table output = t(th("c0"), tr(1), tr(3));
+    assertSkipped(2, Direction.ASCENDING, NullDirection.LAST, input, output);
+  }
+
+  @Test
+  public void testSkipAscendingNullsFirst() throws Exception {
+    final Table input = t(
+      th("c0"),
+      tb(tr(5), tr(3)),
+      // nulls first
+      tb(tr(7), tr(NULL_INT)),
+      // all after 3
+      tb(tr(4), tr(9))
+    );
+    final Table output = t(th("c0"), tr(NULL_INT), tr(3));
+    assertSkipped(1, Direction.ASCENDING, NullDirection.FIRST, input, output);
+  }
+
+  @Test
+  public void testSkipDescendingNullsFirst() throws Exception {
+    final Table input = t(
+      th("c0"),
+      tb(tr(5), tr(3)),
+      // all before 3
+      tb(tr(1), tr(2)),
+      // nulls first
+      tb(tr(1), tr(NULL_INT)),
+      // all before 5
+      tb(tr(4), tr(2))
+    );
+    final Table output = t(th("c0"), tr(NULL_INT), tr(5));
+    assertSkipped(2, Direction.DESCENDING, NullDirection.FIRST, input, output);
+  }
+
+  @Test
+  public void testSkipDescendingNullsLast() throws Exception {
+    final Table input = t(
+      th("c0"),
+      tb(tr(5), tr(3)),
+      // all before 3, nulls last
+      tb(tr(1), tr(NULL_INT)),
+      tb(tr(2), tr(8)),
+      // 5 isn't before 5
+      tb(tr(4), tr(5))
+    );
+    final Table output = t(th("c0"), tr(8), tr(5));
+    assertSkipped(1, Direction.DESCENDING, NullDirection.LAST, input, output);
+  }
+
+  @Test
+  public void testNoSkipWhenDisabled() throws Exception {
+    final Table input = t(
+      th("c0"),
+      tb(tr(5), tr(3)),
+      tb(tr(7), tr(9))
+    );
+    final Table output = t(th("c0"), tr(3), tr(5));
+    final TopN topn = new TopN(PROPS, scan(), 2,
+      Collections.singletonList(ordering("c0", Direction.ASCENDING, NullDirection.LAST)), false);
+    final OperatorStats stats = validateSingle(topn, TopNOperator.class, input.toGenerator(getTestAllocator()), output,
+      DEFAULT_BATCH);
+    assertEquals(0, stats.getLongStat(TopNOperator.Metric.BATCHES_SKIPPED));
+  }
+
+  private void assertSkipped(long skipped, Direction direction, NullDirection nullDirection, Table input, Table output)
+    throws Exception {
+    final TopN topn = new TopN(PROPS, scan(), 2, Collections.singletonList(ordering("c0", direction, nullDirection)), false);
+    try (AutoCloseable with = with(TopNOperator.THRESHOLD_FILTER_ENABLED, true)) {
+      final OperatorStats stats = validateSingle(topn, TopNOperator.class, input.toGenerator(getTestAllocator()), output,
+        DEFAULT_BATCH);
+      assertEquals(skipped, stats.getLongStat(TopNOperator.Metric.BATCHES_SKIPPED));
+    }
+  }
+
+  private TopNThreshold create(VectorContainer incoming, String key, PhysicalOperator child) {
+    final TopN topn = new TopN(PROPS, child, 2,
+      Collections.singletonList(ordering(key, Direction.ASCENDING, NullDirection.LAST)), false);
+    return TopNThreshold.create(null, topn, incoming, 1);
+  }
+
+  private static SubScan scan() {
+    final SubScan scan = mock(SubScan.class);
+    when(scan.getProps()).thenReturn(PROPS);
+    return scan;
+  }
+}
@@ -30,6 +30,7 @@ import org.mockito.invocation.InvocationOnMock;
 import org.mockito.stubbing.Answer;
 
 import com.dremio.common.AutoCloseables;
+import com.dremio.exec.ExecConstants;
 import com.dremio.exec.physical.config.BridgeFileReaderReceiver;
 import com.dremio.exec.physical.config.BridgeFileWriterSender;
 import com.dremio.exec.planner.fragment.EndpointsIndex;
@@ -81,6 +82,14 @@ public class TestBridgeFileReaderReceiver extends BaseTestOperator {
     }
   }
 
+  @Test
+  public void multipleFilesCompressed() throws Exception {
+    try (AutoCloseable ac = with(BridgeFileWriterSenderOperator.NUM_BATCHES_PER_FILE, 10);
+         AutoCloseable compression = with(ExecConstants.EXCHANGE_COMPRESSION_ENABLED, true)) {
+      check(GenerationDefinition.TpchTable.CUSTOMER, 0.1, 100, false);
+    }
+  }
+
   @Test
   public void simpleInterleaved() throws Exception {
     check(GenerationDefinition.TpchTable.REGION, 0.1, DEFAULT_BATCH, true);
@@ -0,0 +1,200 @@
+/*
+ * Copyright (C) 2017-2019 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.sabot.task.slicing;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import com.dremio.sabot.task.AsyncTask;
+import com.dremio.sabot.task.AsyncTaskWrapper;
+import com.dremio.sabot.task.SchedulingGroup;
+import com.dremio.sabot.task.Task;
+import com.dremio.sabot.task.TaskDescriptor;
+import com.dremio.sabot.threads.AvailabilityCallback;
+import com.dremio.sabot.threads.sharedres.SharedResourceType;
+import com.google.common.collect.Lists;
+
+/**
+ * Unit tests for {@link SlicingTaskPool} and {@link SlicingScheduler}
+ */
+public class TestSlicingTaskPool {
+
+  /**
+   * Task that runs a fixed number of times, and blocks on upstream every other run
+   */
+  private static class TestTask implements AsyncTask {
+    private final int numRuns;
+    private final AtomicInteger runs = new AtomicInteger();
+    private volatile Task.State state = Task.State.RUNNABLE;
+
+    TestTask(int numRuns) {
+      this.numRuns = numRuns;
+    }
+
+    @Override
+    public void run() {
+      final int run = runs.incrementAndGet();
+      if (run >= numRuns) {
+        state = Task.State.DONE;
+      } else if (run % 2 == 0) {
+        state = Task.State.BLOCKED_ON_UPSTREAM;
+      }
+    }
+
+    @Override
+    public void refreshState() {
+      state = Task.State.RUNNABLE;
+    }
+
+    @Override
+    public Task.State getState() {
+      return state;
+    }
+
+    @Override
+    public SharedResourceType getFirstBlockedResource() {
+      return null;
+    }
+
+    @Override
+    public void updateSleepDuration(long duration) {
+    }
+
+    @Override
+    public void updateBlockedOnDownstreamDuration(long duration) {
+    }
+
+    @Override
+    public void updateBlockedOnUpstreamDuration(long duration) {
+    }
+
+    @Override
+    public void addBlockedOnSharedResourceDuration(SharedResourceType resource, long duration) {
+    }
+
+    @Override
+    public void setWakeupCallback(AvailabilityCallback callback) {
+      // unblock asynchronously
+      new Thread(callback::nowAvailable).start();
+    }
+
+    @Override
+    public void setTaskDescriptor(TaskDescriptor descriptor) {
+    }
+  }
+
+  private static AsyncTaskWrapper newTask(SchedulingGroup<AsyncTaskWrapper> group, AsyncTask task, AutoCloseable cleaner) {
+    return new AsyncTaskWrapper(1, group, task, cleaner, Integer.MAX_VALUE);
+  }
+
+  @Test
+  public void testTasksRunToCompletion() throws Exception {
+    final int numTasks = 50;
+    final CountDownLatch completed = new CountDownLatch(numTasks);
+    final List<TestTask> tasks = Lists.newArrayList();
+
+    try (SlicingTaskPool pool = new SlicingTaskPool(2, 1)) {
+      final SchedulingGroup<AsyncTaskWrapper> workload = pool.getGroupManager().newGroup(10);
+      for (int i = 0; i < numTasks; i++) {
+        final SchedulingGroup<AsyncTaskWrapper> query = workload.addGroup(1 + i % 3, true);
+        final TestTask task = new TestTask(10);
+        tasks.add(task);
+        pool.execute(newTask(query, task, completed::countDown));
+      }
+
+      assertTrue("tasks did not complete", completed.await(30, TimeUnit.SECONDS));
+      assertTrue(pool.areAllThreadsAlive());
+    }
+
+    for (TestTask task : tasks) {
+      assertEquals(10, task.runs.get());
+    }
+  }
+
+  @Test
+  public void testWeightedShare() {
+    final SlicingScheduler scheduler = new SlicingScheduler(1);
+    final SchedulingGroup<AsyncTaskWrapper> light = scheduler.getRoot().addGroup(1);
+    final SchedulingGroup<AsyncTaskWrapper> heavy = scheduler.getRoot().addGroup(3);
+
+    final SlicingScheduler.Handle lightTask = scheduler.newTask(newTask(light, new TestTask(1), () -> {}), light, 1);
+    final SlicingScheduler.Handle heavyTask = scheduler.newTask(newTask(heavy, new TestTask(1), () -> {}), heavy, 1);
+    scheduler.enqueue(lightTask);
+    scheduler.enqueue(heavyTask);
+
+    int lightRuns = 0;
+    int heavyRuns = 0;
+    for (int i = 0; i < 400; i++) {
+      final SlicingScheduler.Handle handle = scheduler.poll();
+      if (handle == lightTask) {
+        lightRuns++;
+      } else {
+        assertSame(heavyTask, handle);
+        heavyRuns++;
+      }
+      scheduler.charge(handle, TimeUnit.MILLISECONDS.toNanos(10));
+      scheduler.enqueue(handle);
+    }
+
+    assertEquals(100, lightRuns, 1);
+    assertEquals(300, heavyRuns, 1);
+  }
+
+  @Test
+  public void testBlockedTaskDoesNotAccumulateCredit() {
+    final SlicingScheduler scheduler = new SlicingScheduler(1);
+    final SchedulingGroup<AsyncTaskWrapper> group = scheduler.getRoot().addGroup(1);
+    final SlicingScheduler.Handle busy = scheduler.newTask(newTask(group, new TestTask(1), () -> {}), group, 1);
+    final SlicingScheduler.Handle sleeper = scheduler.newTask(newTask(group, new TestTask(1), () -> {}), group, 1);
+
+    scheduler.enqueue(busy);
+    for (int i = 0; i < 100; i++) {
+      assertSame(busy, scheduler.poll());
+      scheduler.charge(busy, TimeUnit.MILLISECONDS.toNanos(10));
+      scheduler.enqueue(busy);
+    }
+
+    // the sleeper is caught up with the busy task, and both alternate from there
+    scheduler.enqueue(sleeper);
+    assertTrue(sleeper.getVruntime() > 0);
+    int sleeperRuns = 0;
+    for (int i = 0; i < 10; i++) {
+      final SlicingScheduler.Handle handle = scheduler.poll();
+      if (handle == sleeper) {
+        sleeperRuns++;
+      }
+      scheduler.charge(handle, TimeUnit.MILLISECONDS.toNanos(10));
+      scheduler.enqueue(handle);
+    }
+    assertEquals(5, sleeperRuns);
+  }
+
+  @Test
+  public void testEmptyScheduler() {
+    final SlicingScheduler scheduler = new SlicingScheduler(1);
+    scheduler.getRoot().addGroup(1).addGroup(1);
+    assertNull(scheduler.poll());
+  }
+}
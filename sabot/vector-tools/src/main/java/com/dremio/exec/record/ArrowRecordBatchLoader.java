@@ -59,6 +59,8 @@ public class ArrowRecordBatchLoader implements VectorAccessible, Iterable<Vector
   private VectorContainer container;
   private int valueCount;
   private BatchSchema schema;
+  private long decompressionNanos;
+  private long decompressedBytes;
 
   public ArrowRecordBatchLoader(VectorContainer container) {
     this.container = container;
@@ -83,6 +85,8 @@ public class ArrowRecordBatchLoader implements VectorAccessible, Iterable<Vector
 
   public int load(FragmentRecordBatch header, ArrowBuf body) {
     container.zeroVectors();
+    decompressionNanos = 0;
+    decompressedBytes = 0;
     int size = 0;
     try {
       RecordBatch recordBatch = RecordBatch.getRootAsRecordBatch(header.getArrowRecordBatch().asReadOnlyByteBuffer());
@@ -101,7 +105,7 @@ public class ArrowRecordBatchLoader implements VectorAccessible, Iterable<Vector
         return 0;
       }
       size = (body == null) ? 0 : LargeMemoryUtil.checkedCastToInt(body.readableBytes());
-      load(recordBatch, container, body);
+      load(recordBatch, container, body, this);
     } catch (final Throwable cause) {
       // We have to clean up new vectors created here and pass over the actual cause. It is upper layer who should
       // adjudicate to call upper layer specific clean up logic.
@@ -112,6 +116,25 @@ public class ArrowRecordBatchLoader implements VectorAccessible, Iterable<Vector
     return size;
   }
 
+  /**
+   * @return time, in nanoseconds, spent decompressing the batch last loaded
+   */
+  public long getDecompressionNanos() {
+    return decompressionNanos;
+  }
+
+  /**
+   * @return decompressed size of the batch last loaded, or 0 if it was not compressed
+   */
+  public long getDecompressedBytes() {
+    return decompressedBytes;
+  }
+
+  /**
+   * Builds a record batch out of the given body. If the body is compressed (see {@link Lz4BodyCodec}), the
+   * buffers of the returned batch are decompressed copies owned by the batch and it must be closed by the caller.
+   * Otherwise the buffers are slices of the body.
+   */
   public static ArrowRecordBatch deserializeRecordBatch(RecordBatch recordBatchFB,
                                                         ArrowBuf body) throws IOException {
     // Now read the body
@@ -126,15 +149,28 @@ public class ArrowRecordBatchLoader implements VectorAccessible, Iterable<Vector
       }
       nodes.add(new ArrowFieldNode((int)node.length(), (int)node.nullCount()));
     }
-    List<ArrowBuf> buffers = new ArrayList<>();
-    for (int i = 0; i < recordBatchFB.buffersLength(); ++i) {
-      Buffer bufferFB = recordBatchFB.buffers(i);
-      ArrowBuf vectorBuffer = body.slice((int)bufferFB.offset(), (int)bufferFB.length());
-      buffers.add(vectorBuffer);
-    }
     if ((int)recordBatchFB.length() != recordBatchFB.length()) {
       throw new IOException("Cannot currently deserialize record batches over 2GB");
     }
+    final boolean compressed = Lz4BodyCodec.isCompressed(recordBatchFB);
+    List<ArrowBuf> buffers = new ArrayList<>();
+    try {
+      for (int i = 0; i < recordBatchFB.buffersLength(); ++i) {
+        Buffer bufferFB = recordBatchFB.buffers(i);
+        ArrowBuf vectorBuffer = body.slice((int)bufferFB.offset(), (int)bufferFB.length());
+        if (compressed) {
+          vectorBuffer = Lz4BodyCodec.decompress(body.getReferenceManager().getAllocator(), vectorBuffer);
+        }
+        buffers.add(vectorBuffer);
+      }
+    } catch (IOException | RuntimeException e) {
+      if (compressed) {
+        for (ArrowBuf buf : buffers) {
+          buf.close();
+        }
+      }
+      throw e;
+    }
     ArrowRecordBatch arrowRecordBatch =
       new ArrowRecordBatch((int)recordBatchFB.length(), nodes, buffers, NoCompressionCodec.DEFAULT_BODY_COMPRESSION, false);
     for (ArrowBuf buf : buffers) {
@@ -144,6 +180,11 @@ public class ArrowRecordBatchLoader implements VectorAccessible, Iterable<Vector
   }
 
   public static void load(RecordBatch recordBatch, VectorAccessible vectorAccessible, ArrowBuf body) {
+    load(recordBatch, vectorAccessible, body, null);
+  }
+
+  private static void load(RecordBatch recordBatch, VectorAccessible vectorAccessible, ArrowBuf body,
+                           ArrowRecordBatchLoader loader) {
     List<Field> fields = vectorAccessible.getSchema().getFields();
     List<FieldVector> fieldVectors = FluentIterable.from(vectorAccessible)
       .transform(new Function<VectorWrapper<?>, FieldVector>() {
@@ -153,16 +194,31 @@ public class ArrowRecordBatchLoader implements VectorAccessible, Iterable<Vector
         }
       }).toList();
     try {
+      final boolean compressed = Lz4BodyCodec.isCompressed(recordBatch);
+      final long start = System.nanoTime();
       ArrowRecordBatch arrowRecordBatch = deserializeRecordBatch(recordBatch, body);
-      Iterator<ArrowFieldNode> nodes = arrowRecordBatch.getNodes().iterator();
-      Iterator<ArrowBuf> buffers = arrowRecordBatch.getBuffers().iterator();
-      for (int i = 0; i < fields.size(); ++i) {
-        Field field = fields.get(i);
-        FieldVector fieldVector = fieldVectors.get(i);
-        loadBuffers(fieldVector, field, buffers, nodes);
+      if (compressed && loader != null) {
+        loader.decompressionNanos += System.nanoTime() - start;
+        for (ArrowBuf buf : arrowRecordBatch.getBuffers()) {
+          loader.decompressedBytes += buf.readableBytes();
+        }
       }
-      if (buffers.hasNext()) {
-        throw new IllegalArgumentException("not all buffers were consumed. " + buffers);
+      try {
+        Iterator<ArrowFieldNode> nodes = arrowRecordBatch.getNodes().iterator();
+        Iterator<ArrowBuf> buffers = arrowRecordBatch.getBuffers().iterator();
+        for (int i = 0; i < fields.size(); ++i) {
+          Field field = fields.get(i);
+          FieldVector fieldVector = fieldVectors.get(i);
+          loadBuffers(fieldVector, field, buffers, nodes);
+        }
+        if (buffers.hasNext()) {
+          throw new IllegalArgumentException("not all buffers were consumed. " + buffers);
+        }
+      } finally {
+        if (compressed) {
+          // the vectors hold their own references to the decompressed buffers
+          arrowRecordBatch.close();
+        }
       }
     } catch (IOException e) {
       throw new RuntimeException("could not deserialize batch for " + vectorAccessible.getSchema(), e);
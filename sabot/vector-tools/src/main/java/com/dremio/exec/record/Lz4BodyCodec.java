@@ -0,0 +1,247 @@
+/*
+ * Copyright (C) 2017-2019 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.exec.record;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+import org.apache.arrow.flatbuf.BodyCompression;
+import org.apache.arrow.flatbuf.BodyCompressionMethod;
+import org.apache.arrow.flatbuf.CompressionType;
+import org.apache.arrow.flatbuf.RecordBatch;
+import org.apache.arrow.memory.ArrowBuf;
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.memory.util.LargeMemoryUtil;
+import org.apache.arrow.vector.ipc.message.ArrowBodyCompression;
+
+import net.jpountz.lz4.LZ4Compressor;
+import net.jpountz.lz4.LZ4Factory;
+import net.jpountz.lz4.LZ4SafeDecompressor;
+import net.jpountz.xxhash.XXHash32;
+import net.jpountz.xxhash.XXHashFactory;
+
+/**
+ * Compresses and decompresses record batch body buffers following the Arrow IPC
+ * {@code LZ4_FRAME}/{@code BUFFER} body compression layout: every buffer starts with its uncompressed length as
+ * a little endian int64, followed by an LZ4 frame. A length of -1 means the rest of the buffer is stored
+ * uncompressed, which is used for buffers that are too small or do not compress.
+ */
+public final class Lz4BodyCodec {
+
+  public static final ArrowBodyCompression BODY_COMPRESSION =
+    new ArrowBodyCompression(CompressionType.LZ4_FRAME, BodyCompressionMethod.BUFFER);
+
+  // buffers smaller than this are always stored uncompressed
+  static final int MIN_COMPRESSED_BUFFER_SIZE = 512;
+
+  private static final long LENGTH_PREFIX_SIZE = 8;
+  private static final long NO_COMPRESSION_LENGTH = -1L;
+
+  private static final int FRAME_MAGIC = 0x184D2204;
+  // version 01, independent blocks, no block/content checksums, no content size
+  private static final byte FRAME_FLAGS = 0x60;
+  // 64KB maximum block size
+  private static final byte FRAME_BLOCK_DESCRIPTOR = 0x40;
+  private static final int BLOCK_SIZE = 64 * 1024;
+  private static final int FRAME_HEADER_SIZE = 7;
+  private static final int BLOCK_HEADER_SIZE = 4;
+  private static final int END_MARK_SIZE = 4;
+  private static final int UNCOMPRESSED_BLOCK_FLAG = 0x80000000;
+  private static final byte HEADER_CHECKSUM;
+
+  private static final LZ4Compressor COMPRESSOR = LZ4Factory.fastestInstance().fastCompressor();
+  private static final LZ4SafeDecompressor DECOMPRESSOR = LZ4Factory.fastestInstance().safeDecompressor();
+
+  static {
+    final XXHash32 hash = XXHashFactory.fastestInstance().hash32();
+    HEADER_CHECKSUM = (byte) ((hash.hash(new byte[] {FRAME_FLAGS, FRAME_BLOCK_DESCRIPTOR}, 0, 2, 0) >> 8) & 0xFF);
+  }
+
+  private Lz4BodyCodec() {
+  }
+
+  /**
+   * @return true if the body of the given record batch was compressed with this codec
+   * @throws IOException if the body was compressed with an unsupported codec
+   */
+  public static boolean isCompressed(RecordBatch recordBatchFB) throws IOException {
+    final BodyCompression compression = recordBatchFB.compression();
+    if (compression == null) {
+      return false;
+    }
+    if (compression.codec() != CompressionType.LZ4_FRAME || compression.method() != BodyCompressionMethod.BUFFER) {
+      throw new IOException(String.format("Unsupported record batch body compression, codec %d, method %d",
+        compression.codec(), compression.method()));
+    }
+    return true;
+  }
+
+  /**
+   * Compresses the readable bytes of the given buffer into a new buffer allocated from the allocator. The
+   * given buffer is left untouched.
+   */
+  public static ArrowBuf compress(BufferAllocator allocator, ArrowBuf buffer) {
+    final long length = buffer.readableBytes();
+    if (length < MIN_COMPRESSED_BUFFER_SIZE) {
+      return uncompressed(allocator, buffer);
+    }
+
+    final int srcLength = LargeMemoryUtil.checkedCastToInt(length);
+    final int blocks = (srcLength + BLOCK_SIZE - 1) / BLOCK_SIZE;
+    final long maxLength = LENGTH_PREFIX_SIZE + FRAME_HEADER_SIZE + END_MARK_SIZE
+      + (long) blocks * (BLOCK_HEADER_SIZE + COMPRESSOR.maxCompressedLength(BLOCK_SIZE));
+
+    final ArrowBuf compressed = allocator.buffer(maxLength);
+    try {
+      final ByteBuffer src = buffer.nioBuffer(buffer.readerIndex(), srcLength);
+      final ByteBuffer dst = compressed.nioBuffer(0, LargeMemoryUtil.checkedCastToInt(maxLength));
+
+      compressed.setLong(0, length);
+      int out = (int) LENGTH_PREFIX_SIZE;
+      compressed.setInt(out, FRAME_MAGIC);
+      compressed.setByte(out + 4, FRAME_FLAGS);
+      compressed.setByte(out + 5, FRAME_BLOCK_DESCRIPTOR);
+      compressed.setByte(out + 6, HEADER_CHECKSUM);
+      out += FRAME_HEADER_SIZE;
+
+      for (int in = 0; in < srcLength; in += BLOCK_SIZE) {
+        final int blockLength = Math.min(BLOCK_SIZE, srcLength - in);
+        final int compressedLength = COMPRESSOR.compress(src, in, blockLength, dst, out + BLOCK_HEADER_SIZE,
+          COMPRESSOR.maxCompressedLength(blockLength));
+        if (compressedLength < blockLength) {
+          compressed.setInt(out, compressedLength);
+          out += BLOCK_HEADER_SIZE + compressedLength;
+        } else {
+          compressed.setInt(out, blockLength | UNCOMPRESSED_BLOCK_FLAG);
+          compressed.setBytes(out + BLOCK_HEADER_SIZE, buffer, buffer.readerIndex() + in, blockLength);
+          out += BLOCK_HEADER_SIZE + blockLength;
+        }
+      }
+      compressed.setInt(out, 0);
+      out += END_MARK_SIZE;
+
+      if (out - LENGTH_PREFIX_SIZE >= length) {
+        // not worth it, let the receiver skip decompression
+        compressed.close();
+        return uncompressed(allocator, buffer);
+      }
+      compressed.writerIndex(out);
+      return compressed;
+    } catch (RuntimeException e) {
+      compressed.close();
+      throw e;
+    }
+  }
+
+  /**
+   * Decompresses a buffer produced by {@link #compress(BufferAllocator, ArrowBuf)}. The returned buffer is
+   * either newly allocated from the allocator or a retained slice of the given buffer; in both cases the
+   * caller owns one reference to it.
+   */
+  public static ArrowBuf decompress(BufferAllocator allocator, ArrowBuf buffer) throws IOException {
+    final long length = buffer.writerIndex();
+    if (length < LENGTH_PREFIX_SIZE) {
+      throw new IOException("Compressed buffer is too short: " + length);
+    }
+
+    final long uncompressedLength = buffer.getLong(0);
+    if (uncompressedLength == NO_COMPRESSION_LENGTH) {
+      final ArrowBuf slice = buffer.slice(LENGTH_PREFIX_SIZE, length - LENGTH_PREFIX_SIZE);
+      slice.getReferenceManager().retain();
+      return slice;
+    }
+    if (uncompressedLength < 0 || uncompressedLength > Integer.MAX_VALUE) {
+      throw new IOException("Invalid uncompressed buffer length: " + uncompressedLength);
+    }
+
+    final ArrowBuf decompressed = allocator.buffer(uncompressedLength);
+    try {
+      if (uncompressedLength > 0) {
+        decompressFrame(buffer, LargeMemoryUtil.checkedCastToInt(length), decompressed, (int) uncompressedLength);
+      }
+      decompressed.writerIndex(uncompressedLength);
+      return decompressed;
+    } catch (IOException | RuntimeException e) {
+      decompressed.close();
+      throw e;
+    }
+  }
+
+  private static void decompressFrame(ArrowBuf buffer, int length, ArrowBuf decompressed, int uncompressedLength)
+      throws IOException {
+    int in = (int) LENGTH_PREFIX_SIZE;
+    if (length < in + FRAME_HEADER_SIZE || buffer.getInt(in) != FRAME_MAGIC) {
+      throw new IOException("Invalid LZ4 frame header");
+    }
+    final byte flags = buffer.getByte(in + 4);
+    if (((flags >> 6) & 0x3) != 1 || (flags & 0x20) == 0 || (flags & 0x01) != 0) {
+      throw new IOException(String.format("Unsupported LZ4 frame flags 0x%02x", flags));
+    }
+    final boolean blockChecksum = (flags & 0x10) != 0;
+    final boolean contentSize = (flags & 0x08) != 0;
+    final boolean contentChecksum = (flags & 0x04) != 0;
+    in += FRAME_HEADER_SIZE + (contentSize ? 8 : 0);
+
+    final ByteBuffer src = buffer.nioBuffer(0, length);
+    final ByteBuffer dst = decompressed.nioBuffer(0, uncompressedLength);
+    int out = 0;
+    while (true) {
+      if (in + BLOCK_HEADER_SIZE > length) {
+        throw new IOException("Truncated LZ4 frame");
+      }
+      final int blockHeader = buffer.getInt(in);
+      in += BLOCK_HEADER_SIZE;
+      if (blockHeader == 0) {
+        break;
+      }
+
+      final int blockLength = blockHeader & ~UNCOMPRESSED_BLOCK_FLAG;
+      if (in + blockLength > length) {
+        throw new IOException("Truncated LZ4 frame");
+      }
+      if ((blockHeader & UNCOMPRESSED_BLOCK_FLAG) != 0) {
+        if (out + blockLength > uncompressedLength) {
+          throw new IOException("LZ4 frame is larger than the declared uncompressed length");
+        }
+        decompressed.setBytes(out, buffer, in, blockLength);
+        out += blockLength;
+      } else {
+        try {
+          out += DECOMPRESSOR.decompress(src, in, blockLength, dst, out, uncompressedLength - out);
+        } catch (RuntimeException e) {
+          throw new IOException("Corrupted LZ4 block", e);
+        }
+      }
+      in += blockLength + (blockChecksum ? 4 : 0);
+    }
+
+    if (contentChecksum) {
+      in += 4;
+    }
+    if (out != uncompressedLength || in > length) {
+      throw new IOException(String.format("LZ4 frame decompressed to %d bytes, expected %d", out, uncompressedLength));
+    }
+  }
+
+  private static ArrowBuf uncompressed(BufferAllocator allocator, ArrowBuf buffer) {
+    final long length = buffer.readableBytes();
+    final ArrowBuf result = allocator.buffer(LENGTH_PREFIX_SIZE + length);
+    result.setLong(0, NO_COMPRESSION_LENGTH);
+    result.setBytes(LENGTH_PREFIX_SIZE, buffer, buffer.readerIndex(), length);
+    result.writerIndex(LENGTH_PREFIX_SIZE + length);
+    return result;
+  }
+}
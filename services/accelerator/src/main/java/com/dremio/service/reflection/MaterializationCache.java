@@ -17,7 +17,12 @@ package com.dremio.service.reflection;
 
 import static com.dremio.service.reflection.ExternalReflectionStatus.STATUS.OUT_OF_SYNC;
 
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicReference;
 
 import org.apache.calcite.rel.RelNode;
@@ -28,7 +33,10 @@ import com.dremio.exec.calcite.logical.ScanCrel;
 import com.dremio.exec.planner.acceleration.CachedMaterializationDescriptor;
 import com.dremio.exec.planner.acceleration.DremioMaterialization;
 import com.dremio.exec.planner.acceleration.MaterializationDescriptor;
+import com.dremio.exec.planner.acceleration.substitution.SubstitutionUtils;
+import com.dremio.exec.proto.UserBitShared.ReflectionType;
 import com.dremio.exec.record.BatchSchema;
+import com.dremio.exec.server.MaterializationDescriptorProvider.Candidates;
 import com.dremio.exec.store.CatalogService;
 import com.dremio.service.Pointer;
 import com.dremio.service.namespace.NamespaceException;
@@ -39,26 +47,44 @@ import com.dremio.service.reflection.proto.ExternalReflection;
 import com.dremio.service.reflection.proto.Materialization;
 import com.dremio.service.reflection.proto.MaterializationId;
 import com.dremio.service.reflection.proto.ReflectionId;
+import com.dremio.service.reflection.store.MaterializationStore.MaterializationChange;
 import com.google.common.base.Preconditions;
+import com.google.common.collect.ArrayListMultimap;
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.Iterables;
+import com.google.common.collect.ListMultimap;
+import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
 
 import io.protostuff.ByteString;
 
 /**
  * Cache for {@link MaterializationDescriptor} to avoid having to expand all the descriptor's plans for every planned
  * query.
+ *
+ * {@link #refresh()} reloads all the valid materializations and external reflections, while {@link #refreshChanges()}
+ * only reloads the materializations of the reflections found in the materialization change log since the previous
+ * refresh, along with added or removed external reflections.
  */
 class MaterializationCache {
   private static final org.slf4j.Logger logger = org.slf4j.LoggerFactory.getLogger(MaterializationCache.class);
 
   private static final Map<String, CachedMaterializationDescriptor> EMPTY_MAP = ImmutableMap.of();
+  // changes logged up to this long before the last seen change are read again, as coordinator clocks may differ and
+  // changes may be committed out of order
+  private static final long CHANGE_LOG_OVERLAP_MILLIS = TimeUnit.MINUTES.toMillis(1);
 
   private final AtomicReference<Map<String, CachedMaterializationDescriptor>> cached = new AtomicReference<>(EMPTY_MAP);
+  private final AtomicReference<DatasetIndex> index = new AtomicReference<>(new DatasetIndex(EMPTY_MAP));
+  // time of the last change of the change log applied to the cache
+  private volatile long changeLogPosition = 0;
 
   interface CacheHelper {
     Iterable<Materialization> getValidMaterializations();
+    Iterable<Materialization> getValidMaterializations(ReflectionId reflectionId);
+    List<MaterializationChange> getChangesSince(long changedAfter);
     Iterable<ExternalReflection> getExternalReflections();
     MaterializationDescriptor getDescriptor(ExternalReflection externalReflection) throws CacheException;
 
@@ -98,8 +124,45 @@ class MaterializationCache {
     }
   }
 
+  /**
+   * Reloads all the materializations, external reflections and their datasets.
+   */
   void refresh() {
+    // changes logged during the reload are applied again by the next incremental refresh
+    final long position = getLastChange(provider.getChangesSince(changeLogPosition - CHANGE_LOG_OVERLAP_MILLIS));
     compareAndSetCache();
+    changeLogPosition = position;
+  }
+
+  /**
+   * Only reloads the materializations of the reflections that changed since the previous refresh, removes expired
+   * materializations and expands new external reflections. Changes to the datasets of the external reflections and
+   * to the schemas of the materializations are only detected by {@link #refresh()}.
+   */
+  void refreshChanges() {
+    final List<MaterializationChange> changes = provider.getChangesSince(changeLogPosition - CHANGE_LOG_OVERLAP_MILLIS);
+    final Set<ReflectionId> changed = Sets.newHashSet();
+    for (MaterializationChange change : changes) {
+      changed.add(change.getReflectionId());
+    }
+    final long position = getLastChange(changes);
+
+    boolean exchanged;
+    do {
+      Map<String, CachedMaterializationDescriptor> old = cached.get();
+      Map<String, CachedMaterializationDescriptor> updated = applyChanges(old, changed);
+      // keep the same map if nothing changed, so that the dataset index isn't rebuilt
+      exchanged = updated == old || cached.compareAndSet(old, updated);
+    } while(!exchanged);
+    changeLogPosition = position;
+  }
+
+  private long getLastChange(List<MaterializationChange> changes) {
+    long position = changeLogPosition;
+    for (MaterializationChange change : changes) {
+      position = Math.max(position, change.getChangedAt());
+    }
+    return position;
   }
 
   private void compareAndSetCache() {
@@ -163,6 +226,67 @@ class MaterializationCache {
     return updated;
   }
 
+  /**
+   * Applies the changes of the change log to the cache.
+   *
+   * @param old existing cache
+   * @param changed reflections whose materializations or refreshes changed
+   * @return updated cache, or the existing cache if nothing changed
+   */
+  private Map<String, CachedMaterializationDescriptor> applyChanges(Map<String, CachedMaterializationDescriptor> old,
+                                                                    Set<ReflectionId> changed) {
+    final long now = System.currentTimeMillis();
+    final Map<String, ExternalReflection> externalReflections = Maps.newHashMap();
+    for (ExternalReflection externalReflection : provider.getExternalReflections()) {
+      externalReflections.put(externalReflection.getId(), externalReflection);
+    }
+
+    final Map<String, CachedMaterializationDescriptor> updated = Maps.newHashMap();
+    // keep the descriptors of the reflections that didn't change, unless they expired or were dropped
+    for (Map.Entry<String, CachedMaterializationDescriptor> entry : old.entrySet()) {
+      final CachedMaterializationDescriptor descriptor = entry.getValue();
+      final boolean valid = descriptor.getReflectionType() == ReflectionType.EXTERNAL
+        ? externalReflections.containsKey(entry.getKey())
+        : !changed.contains(new ReflectionId(descriptor.getLayoutId())) && descriptor.getExpirationTimestamp() > now;
+      if (valid) {
+        updated.put(entry.getKey(), descriptor);
+      }
+    }
+
+    for (ReflectionId reflectionId : changed) {
+      for (Materialization materialization : provider.getValidMaterializations(reflectionId)) {
+        final CachedMaterializationDescriptor cachedDescriptor = old.get(materialization.getId().getId());
+        if (cachedDescriptor == null ||
+            !materialization.getTag().equals(cachedDescriptor.getVersion()) ||
+            schemaChanged(cachedDescriptor, materialization)) {
+          safeUpdateEntry(updated, materialization);
+        } else {
+          updated.put(materialization.getId().getId(), cachedDescriptor);
+        }
+      }
+    }
+
+    for (ExternalReflection externalReflection : externalReflections.values()) {
+      if (!updated.containsKey(externalReflection.getId())) {
+        updateEntry(updated, externalReflection);
+      }
+    }
+    return sameEntries(old, updated) ? old : updated;
+  }
+
+  private static boolean sameEntries(Map<String, CachedMaterializationDescriptor> old,
+                                     Map<String, CachedMaterializationDescriptor> updated) {
+    if (old.size() != updated.size()) {
+      return false;
+    }
+    for (Map.Entry<String, CachedMaterializationDescriptor> entry : updated.entrySet()) {
+      if (old.get(entry.getKey()) != entry.getValue()) {
+        return false;
+      }
+    }
+    return true;
+  }
+
   private boolean isExternalReflectionMetadataUpdated(CachedMaterializationDescriptor descriptor) {
     DremioMaterialization materialization = descriptor.getMaterialization();
     Pointer<Boolean> updated = new Pointer<>(false);
@@ -271,6 +395,62 @@ class MaterializationCache {
     } while(!exchanged);
   }
 
+  /**
+   * Returns the cached descriptors that depend on at least one of the given datasets, along with those whose
+   * dependencies are not known.
+   *
+   * @param datasetPaths paths of the tables and views used by a query
+   */
+  Candidates getCandidates(Set<List<String>> datasetPaths) {
+    final DatasetIndex current = getIndex();
+    final Set<MaterializationDescriptor> candidates = new LinkedHashSet<>(current.unindexed);
+    for (List<String> path : datasetPaths) {
+      candidates.addAll(current.byDataset.get(path));
+    }
+    return new Candidates(ImmutableList.copyOf(candidates), current.size - candidates.size());
+  }
+
+  /**
+   * @return the dataset index of the current cache, rebuilt if the cache changed since it was last built
+   */
+  private DatasetIndex getIndex() {
+    final Map<String, CachedMaterializationDescriptor> current = cached.get();
+    DatasetIndex existing = index.get();
+    if (existing.source != current) {
+      // concurrent planners may both rebuild the index, any of them is valid for this version of the cache
+      existing = new DatasetIndex(current);
+      index.set(existing);
+    }
+    return existing;
+  }
+
+  /**
+   * Inverted index from the paths of the datasets the cached materializations depend on, to the materializations.
+   * Built from an immutable version of the cache.
+   */
+  private static final class DatasetIndex {
+    private final Map<String, CachedMaterializationDescriptor> source;
+    private final ListMultimap<List<String>, MaterializationDescriptor> byDataset = ArrayListMultimap.create();
+    private final List<MaterializationDescriptor> unindexed = Lists.newArrayList();
+    private final int size;
+
+    private DatasetIndex(Map<String, CachedMaterializationDescriptor> source) {
+      this.source = source;
+      this.size = source.size();
+      for (CachedMaterializationDescriptor descriptor : source.values()) {
+        final Optional<Set<List<String>>> datasets =
+          SubstitutionUtils.findDatasetDependencies(descriptor.getMaterialization().getQueryRel());
+        if (datasets.isPresent()) {
+          for (List<String> path : datasets.get()) {
+            byDataset.put(path, descriptor);
+          }
+        } else {
+          unindexed.add(descriptor);
+        }
+      }
+    }
+  }
+
   Iterable<MaterializationDescriptor> getAll() {
     return Iterables.unmodifiableIterable(cached.get().values());
   }
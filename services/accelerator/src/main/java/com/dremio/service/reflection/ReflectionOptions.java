@@ -40,6 +40,11 @@ public interface ReflectionOptions {
   BooleanValidator MATERIALIZATION_CACHE_ENABLED = new BooleanValidator("dremio.materialization.cache.enabled", true);
   // how often should the materialization cache be refreshed
   PositiveLongValidator MATERIALIZATION_CACHE_REFRESH_DELAY_MILLIS = new PositiveLongValidator("reflection.materialization.cache.refresh.delay_millis", Long.MAX_VALUE, TimeUnit.SECONDS.toMillis(30));
+  // how often should the materialization cache reload all the materializations instead of only applying the changes
+  // of the materialization change log, checking expirations, schema changes and external reflections datasets
+  PositiveLongValidator MATERIALIZATION_CACHE_SWEEP_DELAY_MILLIS = new PositiveLongValidator("reflection.materialization.cache.sweep.delay_millis", Long.MAX_VALUE, TimeUnit.MINUTES.toMillis(10));
+  // how long are the entries of the materialization change log kept
+  PositiveLongValidator MATERIALIZATION_CHANGE_LOG_RETENTION_MILLIS = new PositiveLongValidator("reflection.materialization.change_log.retention_millis", Long.MAX_VALUE, TimeUnit.HOURS.toMillis(1));
   // allows users to set sub-hour refresh and grace periods
   BooleanValidator ENABLE_SUBHOUR_POLICIES = new BooleanValidator("accelerator.enable.subhour.policies", false);
   // control how many voted datasets are promoted every 24 hours
@@ -19,6 +19,8 @@ import static com.dremio.common.utils.SqlUtils.quotedCompound;
 import static com.dremio.options.OptionValue.OptionType.SYSTEM;
 import static com.dremio.service.reflection.ReflectionOptions.MATERIALIZATION_CACHE_ENABLED;
 import static com.dremio.service.reflection.ReflectionOptions.MATERIALIZATION_CACHE_REFRESH_DELAY_MILLIS;
+import static com.dremio.service.reflection.ReflectionOptions.MATERIALIZATION_CACHE_SWEEP_DELAY_MILLIS;
+import static com.dremio.service.reflection.ReflectionOptions.MATERIALIZATION_CHANGE_LOG_RETENTION_MILLIS;
 import static com.dremio.service.reflection.ReflectionOptions.REFLECTION_ENABLE_SUBSTITUTION;
 import static com.dremio.service.reflection.ReflectionOptions.REFLECTION_MANAGER_REFRESH_DELAY_MILLIS;
 import static com.dremio.service.reflection.ReflectionOptions.REFLECTION_PERIODIC_WAKEUP_ONLY;
@@ -125,6 +127,7 @@ import com.dremio.service.reflection.refresh.RefreshStartHandler;
 import com.dremio.service.reflection.store.DependenciesStore;
 import com.dremio.service.reflection.store.ExternalReflectionStore;
 import com.dremio.service.reflection.store.MaterializationStore;
+import com.dremio.service.reflection.store.MaterializationStore.MaterializationChange;
 import com.dremio.service.reflection.store.ReflectionEntriesStore;
 import com.dremio.service.reflection.store.ReflectionGoalsStore;
 import com.dremio.service.reflection.store.RefreshRequestsStore;
@@ -464,6 +467,30 @@ public class ReflectionServiceImpl extends BaseReflectionService {
     }
   }
 
+  /**
+   * Only applies the materialization changes to the cache, unless a full refresh of the cache is due
+   *
+   * @param lastSweep time of the last full refresh
+   * @return time of the last full refresh, after this one
+   */
+  private long refreshCacheChanges(long lastSweep) {
+    if (!isCacheEnabled()) {
+      return lastSweep;
+    }
+    final long now = System.currentTimeMillis();
+    if (now - lastSweep < getOptionManager().getOption(MATERIALIZATION_CACHE_SWEEP_DELAY_MILLIS)) {
+      logger.debug("materialization cache incremental refresh...");
+      materializationCache.refreshChanges();
+      return lastSweep;
+    }
+
+    refreshCache();
+    if (isMaster) {
+      materializationStore.deleteChangesBefore(now - getOptionManager().getOption(MATERIALIZATION_CHANGE_LOG_RETENTION_MILLIS));
+    }
+    return now;
+  }
+
   private boolean isCacheEnabled() {
     return getOptionManager().getOption(MATERIALIZATION_CACHE_ENABLED);
   }
@@ -484,15 +511,25 @@ public class ReflectionServiceImpl extends BaseReflectionService {
    */
   private Iterable<Materialization> getValidMaterializations() {
     final long now = System.currentTimeMillis();
-    return Iterables.filter(materializationStore.getAllDoneWhen(now), new Predicate<Materialization>() {
-      @Override
-      public boolean apply(Materialization m) {
-        ReflectionEntry entry = internalStore.get(m.getReflectionId());
-        return entry != null && entry.getState() != ReflectionState.FAILED && !Iterables.isEmpty(materializationStore.getRefreshes(m));
-      }
-    });
+    return Iterables.filter(materializationStore.getAllDoneWhen(now), isValidMaterialization);
+  }
+
+  /**
+   * @return non expired DONE materializations of the reflection that have at least one refresh
+   */
+  private Iterable<Materialization> getValidMaterializations(ReflectionId reflectionId) {
+    final long now = System.currentTimeMillis();
+    return Iterables.filter(materializationStore.getAllDone(reflectionId, now), isValidMaterialization);
   }
 
+  private final Predicate<Materialization> isValidMaterialization = new Predicate<Materialization>() {
+    @Override
+    public boolean apply(Materialization m) {
+      ReflectionEntry entry = internalStore.get(m.getReflectionId());
+      return entry != null && entry.getState() != ReflectionState.FAILED && !Iterables.isEmpty(materializationStore.getRefreshes(m));
+    }
+  };
+
   private Set<String> getActiveHosts() {
     return Sets.newHashSet(Iterables.transform(sabotContext.get().getExecutors(),
       new Function<CoordinationProtos.NodeEndpoint, String>() {
@@ -935,18 +972,10 @@ public class ReflectionServiceImpl extends BaseReflectionService {
         return Collections.emptyList();
       }
 
-      final long currentTime = System.currentTimeMillis();
       final Set<String> activeHosts = getActiveHosts();
       FluentIterable<MaterializationDescriptor> descriptors;
       if (isCacheEnabled()) {
-        descriptors = FluentIterable.from(materializationCache.getAll())
-          .filter(new Predicate<MaterializationDescriptor>() {
-            @Override
-              public boolean apply(MaterializationDescriptor descriptor) {
-                return descriptor.getExpirationTimestamp() > currentTime && activeHosts.containsAll(descriptor.getPartition());
-              }
-            }
-          );
+        descriptors = filterAvailable(materializationCache.getAll(), activeHosts);
       } else {
         descriptors = FluentIterable.from(getValidMaterializations())
           .filter(new Predicate<Materialization>() {
@@ -987,6 +1016,43 @@ public class ReflectionServiceImpl extends BaseReflectionService {
           .filter(notNull());
       }
 
+      return getLatest(descriptors);
+    }
+
+    @Override
+    public Candidates getCandidates(Set<List<String>> datasetPaths) {
+      if (!isSubstitutionEnabled()) {
+        return new Candidates(Collections.emptyList(), 0);
+      }
+      if (!isCacheEnabled()) {
+        // only the cache indexes materializations by dataset
+        return new Candidates(get(), 0);
+      }
+
+      final Candidates candidates = materializationCache.getCandidates(datasetPaths);
+      return new Candidates(getLatest(filterAvailable(candidates.getDescriptors(), getActiveHosts())),
+        candidates.getPrunedCount());
+    }
+
+    /**
+     * Filters out the expired descriptors, and those whose partitions are not all available.
+     */
+    private FluentIterable<MaterializationDescriptor> filterAvailable(Iterable<MaterializationDescriptor> cached,
+                                                                      Set<String> activeHosts) {
+      final long currentTime = System.currentTimeMillis();
+      return FluentIterable.from(cached)
+        .filter(new Predicate<MaterializationDescriptor>() {
+          @Override
+          public boolean apply(MaterializationDescriptor descriptor) {
+            return descriptor.getExpirationTimestamp() > currentTime && activeHosts.containsAll(descriptor.getPartition());
+          }
+        });
+    }
+
+    /**
+     * @return the latest of the given descriptors for each reflection
+     */
+    private List<MaterializationDescriptor> getLatest(FluentIterable<MaterializationDescriptor> descriptors) {
       if (Iterables.isEmpty(descriptors)) {
         return Collections.emptyList();
       }
@@ -1097,6 +1163,16 @@ public class ReflectionServiceImpl extends BaseReflectionService {
       return ReflectionServiceImpl.this.getValidMaterializations();
     }
 
+    @Override
+    public Iterable<Materialization> getValidMaterializations(ReflectionId reflectionId) {
+      return ReflectionServiceImpl.this.getValidMaterializations(reflectionId);
+    }
+
+    @Override
+    public List<MaterializationChange> getChangesSince(long changedAfter) {
+      return materializationStore.getChangesSince(changedAfter);
+    }
+
     @Override
     public Iterable<ExternalReflection> getExternalReflections() {
       return ReflectionServiceImpl.this.getAllExternalReflections();
@@ -1226,10 +1302,13 @@ public class ReflectionServiceImpl extends BaseReflectionService {
   }
 
   private final class CacheRefresher implements Runnable {
+    // the cache is fully refreshed when the service starts
+    private long lastSweep = System.currentTimeMillis();
+
     @Override
     public void run() {
       try {
-        refreshCache();
+        lastSweep = refreshCacheChanges(lastSweep);
       } finally {
         scheduleNextCacheRefresh(this);
       }
@@ -33,6 +33,7 @@ import static com.google.common.base.Predicates.and;
 import static com.google.common.base.Predicates.notNull;
 
 import java.util.Collections;
+import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 
@@ -50,6 +51,9 @@ import com.dremio.datastore.api.DocumentWriter;
 import com.dremio.datastore.api.LegacyIndexedStore;
 import com.dremio.datastore.api.LegacyIndexedStore.LegacyFindByCondition;
 import com.dremio.datastore.api.LegacyIndexedStoreCreationFunction;
+import com.dremio.datastore.api.LegacyKVStore;
+import com.dremio.datastore.api.LegacyKVStore.LegacyFindByRange;
+import com.dremio.datastore.api.LegacyKVStoreCreationFunction;
 import com.dremio.datastore.api.LegacyKVStoreProvider;
 import com.dremio.datastore.api.LegacyStoreBuildingFactory;
 import com.dremio.datastore.format.Format;
@@ -71,6 +75,7 @@ import com.google.common.base.Suppliers;
 import com.google.common.collect.FluentIterable;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Iterables;
+import com.google.common.collect.Lists;
 
 /**
  * store reflection materialization entries
@@ -80,6 +85,7 @@ public class MaterializationStore {
 
   private static final String MATERIALIZATION_TABLE_NAME = "materialization_store";
   private static final String REFRESH_TABLE_NAME = "refresh_store";
+  private static final String CHANGE_LOG_TABLE_NAME = "materialization_change_log";
 
   private static final SearchFieldSorting LAST_REFRESH = SearchTypes.SearchFieldSorting.newBuilder()
       .setType(FieldType.LONG)
@@ -101,6 +107,7 @@ public class MaterializationStore {
 
   private final Supplier<LegacyIndexedStore<MaterializationId, Materialization>> materializationStore;
   private final Supplier<LegacyIndexedStore<RefreshId, Refresh>> refreshStore;
+  private final Supplier<LegacyKVStore<String, String>> changeLogStore;
 
   private static final Function<Map.Entry<MaterializationId, Materialization>, Materialization> GET_MATERIALIZATION = new Function<Map.Entry<MaterializationId, Materialization>, Materialization>() {
     @Nullable
@@ -127,6 +134,13 @@ public class MaterializationStore {
         return provider.get().getStore(RefreshStoreCreator.class);
       }
     });
+
+    this.changeLogStore = Suppliers.memoize(new Supplier<LegacyKVStore<String, String>>() {
+      @Override
+      public LegacyKVStore<String, String> get() {
+        return provider.get().getStore(ChangeLogStoreCreator.class);
+      }
+    });
   }
 
   private Iterable<Materialization> findByIndex(IndexKey key, String value) {
@@ -417,6 +431,7 @@ public class MaterializationStore {
     m.setModifiedAt(currentTime);
 
     materializationStore.get().put(m.getId(), m);
+    logChange(m.getReflectionId(), currentTime);
   }
 
   public void save(Refresh refresh) {
@@ -426,6 +441,7 @@ public class MaterializationStore {
     }
     refresh.setModifiedAt(currentTime);
     refreshStore.get().put(refresh.getId(), refresh);
+    logChange(refresh.getReflectionId(), currentTime);
   }
 
   public Materialization get(MaterializationId materializationId) {
@@ -446,11 +462,83 @@ public class MaterializationStore {
   }
 
   public void delete(MaterializationId id) {
+    final Materialization m = materializationStore.get().get(id);
     materializationStore.get().delete(id);
+    if (m != null) {
+      logChange(m.getReflectionId(), System.currentTimeMillis());
+    }
+  }
+
+  /**
+   * Appends the reflection to the change log, so that the materialization caches of all the coordinators reload
+   * its materializations.
+   */
+  private void logChange(ReflectionId reflectionId, long changedAt) {
+    if (reflectionId == null) {
+      return;
+    }
+    changeLogStore.get().put(changeLogKey(changedAt) + ":" + reflectionId.getId(), reflectionId.getId());
+  }
+
+  private static String changeLogKey(long changedAt) {
+    // zero padded so that the keys are sorted by time
+    return String.format("%019d", changedAt);
+  }
+
+  /**
+   * @return the changes of the materializations and refreshes made at or after the passed timestamp, ordered by time
+   */
+  public List<MaterializationChange> getChangesSince(long changedAfter) {
+    final LegacyFindByRange<String> range = new LegacyFindByRange<>(
+      changeLogKey(Math.max(changedAfter, 0L)), true, changeLogKey(Long.MAX_VALUE), true);
+    final List<MaterializationChange> changes = Lists.newArrayList();
+    for (Entry<String, String> entry : changeLogStore.get().find(range)) {
+      final long changedAt = Long.parseLong(entry.getKey().substring(0, entry.getKey().indexOf(':')));
+      changes.add(new MaterializationChange(new ReflectionId(entry.getValue()), changedAt));
+    }
+    return changes;
+  }
+
+  /**
+   * Removes the changes made before the passed timestamp from the change log.
+   */
+  public void deleteChangesBefore(long changedBefore) {
+    final LegacyFindByRange<String> range = new LegacyFindByRange<>(
+      changeLogKey(0L), true, changeLogKey(changedBefore), false);
+    final List<String> keys = Lists.newArrayList();
+    for (Entry<String, String> entry : changeLogStore.get().find(range)) {
+      keys.add(entry.getKey());
+    }
+    changeLogStore.get().deleteAll(keys);
+  }
+
+  /**
+   * Entry of the change log: the materializations or refreshes of a reflection changed.
+   */
+  public static final class MaterializationChange {
+    private final ReflectionId reflectionId;
+    private final long changedAt;
+
+    MaterializationChange(ReflectionId reflectionId, long changedAt) {
+      this.reflectionId = reflectionId;
+      this.changedAt = changedAt;
+    }
+
+    public ReflectionId getReflectionId() {
+      return reflectionId;
+    }
+
+    public long getChangedAt() {
+      return changedAt;
+    }
   }
 
   public void delete(RefreshId id) {
+    final Refresh refresh = refreshStore.get().get(id);
     refreshStore.get().delete(id);
+    if (refresh != null) {
+      logChange(refresh.getReflectionId(), System.currentTimeMillis());
+    }
   }
 
   private static final class MaterializationVersionExtractor implements VersionExtractor<Materialization> {
@@ -541,6 +629,20 @@ public class MaterializationStore {
     }
   }
 
+  /**
+   * Change log store creator, keys are the zero padded change times followed by the reflection ids
+   */
+  public static final class ChangeLogStoreCreator implements LegacyKVStoreCreationFunction<String, String> {
+    @Override
+    public LegacyKVStore<String, String> build(LegacyStoreBuildingFactory factory) {
+      return factory.<String, String>newStore()
+        .name(CHANGE_LOG_TABLE_NAME)
+        .keyFormat(Format.ofString())
+        .valueFormat(Format.ofString())
+        .build();
+    }
+  }
+
   public static void materializationGoalVersionUpdate(Materialization value) {
     if(value == null) {
       return;
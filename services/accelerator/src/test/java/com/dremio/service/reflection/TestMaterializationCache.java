@@ -0,0 +1,200 @@
+/*
+ * Copyright (C) 2017-2019 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.service.reflection;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.StreamSupport;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.dremio.datastore.adapter.LegacyKVStoreProviderAdapter;
+import com.dremio.datastore.api.LegacyKVStoreProvider;
+import com.dremio.exec.planner.acceleration.CachedMaterializationDescriptor;
+import com.dremio.exec.planner.acceleration.DremioMaterialization;
+import com.dremio.exec.planner.acceleration.MaterializationDescriptor;
+import com.dremio.exec.proto.UserBitShared.ReflectionType;
+import com.dremio.exec.store.CatalogService;
+import com.dremio.service.DirectProvider;
+import com.dremio.service.namespace.NamespaceNotFoundException;
+import com.dremio.service.namespace.NamespaceService;
+import com.dremio.service.reflection.proto.ExternalReflection;
+import com.dremio.service.reflection.proto.Materialization;
+import com.dremio.service.reflection.proto.MaterializationId;
+import com.dremio.service.reflection.proto.MaterializationState;
+import com.dremio.service.reflection.proto.ReflectionId;
+import com.dremio.service.reflection.store.MaterializationStore;
+import com.dremio.service.reflection.store.MaterializationStore.MaterializationChange;
+import com.dremio.test.DremioTest;
+import com.google.common.collect.ImmutableMap;
+
+/**
+ * Tests the incremental refresh of {@link MaterializationCache}
+ */
+public class TestMaterializationCache {
+  private LegacyKVStoreProvider kvstore;
+  private MaterializationStore store;
+  private NamespaceService namespaceService;
+
+  @Before
+  public void setup() throws Exception {
+    kvstore = LegacyKVStoreProviderAdapter.inMemory(DremioTest.CLASSPATH_SCAN_RESULT);
+    kvstore.start();
+    store = new MaterializationStore(DirectProvider.wrap(kvstore));
+    namespaceService = mock(NamespaceService.class);
+    // the schema check of the reloaded materializations can't find their datasets, so they are expanded again
+    when(namespaceService.getDataset(any())).thenThrow(new NamespaceNotFoundException("not found"));
+  }
+
+  @After
+  public void cleanup() throws Exception {
+    kvstore.close();
+  }
+
+  @Test
+  public void testRefreshChangesAfterSave() {
+    save("m1", "r1");
+    save("m2", "r2");
+    final MaterializationCache cache = newCache();
+    cache.refresh();
+    assertEquals(ImmutableMap.of("m1", tag("m1"), "m2", tag("m2")), versions(cache));
+
+    save("m3", "r1");
+    // a new version of an existing materialization
+    save("m2", "r2");
+    cache.refreshChanges();
+
+    assertEquals(ImmutableMap.of("m1", tag("m1"), "m2", tag("m2"), "m3", tag("m3")), versions(cache));
+    assertEquals(versions(fullyRefreshed()), versions(cache));
+  }
+
+  @Test
+  public void testRefreshChangesAfterDelete() {
+    save("m1", "r1");
+    save("m2", "r2");
+    save("m3", "r2");
+    final MaterializationCache cache = newCache();
+    cache.refresh();
+
+    store.delete(new MaterializationId("m2"));
+    cache.refreshChanges();
+
+    assertEquals(ImmutableMap.of("m1", tag("m1"), "m3", tag("m3")), versions(cache));
+    assertEquals(versions(fullyRefreshed()), versions(cache));
+  }
+
+  @Test
+  public void testRefreshChangesWithoutChanges() {
+    save("m1", "r1");
+    save("m2", "r2");
+    final MaterializationCache cache = newCache();
+    cache.refresh();
+
+    // the changes of the last minute are read again, whether or not they were applied
+    cache.refreshChanges();
+    cache.refreshChanges();
+    assertEquals(ImmutableMap.of("m1", tag("m1"), "m2", tag("m2")), versions(cache));
+    assertEquals(versions(fullyRefreshed()), versions(cache));
+  }
+
+  private void save(String materializationId, String reflectionId) {
+    final MaterializationId id = new MaterializationId(materializationId);
+    final Materialization existing = store.get(id);
+    final Materialization materialization = existing != null ? existing : new Materialization()
+      .setId(id)
+      .setReflectionId(new ReflectionId(reflectionId))
+      .setState(MaterializationState.DONE)
+      .setSeriesId(1L)
+      .setInitRefreshSubmit(System.currentTimeMillis())
+      .setExpiration(Long.MAX_VALUE);
+    store.save(materialization);
+  }
+
+  private String tag(String materializationId) {
+    return store.get(new MaterializationId(materializationId)).getTag();
+  }
+
+  private MaterializationCache fullyRefreshed() {
+    final MaterializationCache cache = newCache();
+    cache.refresh();
+    return cache;
+  }
+
+  private MaterializationCache newCache() {
+    return new MaterializationCache(new StoreCacheHelper(), namespaceService, mock(ReflectionStatusService.class),
+      mock(CatalogService.class));
+  }
+
+  private static Map<String, String> versions(MaterializationCache cache) {
+    return StreamSupport.stream(cache.getAll().spliterator(), false)
+      .collect(Collectors.toMap(MaterializationDescriptor::getMaterializationId, MaterializationDescriptor::getVersion));
+  }
+
+  /**
+   * Reads the materializations from the store and expands them to mock descriptors
+   */
+  private final class StoreCacheHelper implements MaterializationCache.CacheHelper {
+    @Override
+    public Iterable<Materialization> getValidMaterializations() {
+      return store.getAllDoneWhen(System.currentTimeMillis());
+    }
+
+    @Override
+    public Iterable<Materialization> getValidMaterializations(ReflectionId reflectionId) {
+      return store.getAllDone(reflectionId, System.currentTimeMillis());
+    }
+
+    @Override
+    public List<MaterializationChange> getChangesSince(long changedAfter) {
+      return store.getChangesSince(changedAfter);
+    }
+
+    @Override
+    public Iterable<ExternalReflection> getExternalReflections() {
+      return Collections.emptyList();
+    }
+
+    @Override
+    public MaterializationDescriptor getDescriptor(ExternalReflection externalReflection) {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public DremioMaterialization expand(MaterializationDescriptor descriptor) {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public CachedMaterializationDescriptor expand(Materialization materialization) {
+      final CachedMaterializationDescriptor descriptor = mock(CachedMaterializationDescriptor.class);
+      when(descriptor.getMaterializationId()).thenReturn(materialization.getId().getId());
+      when(descriptor.getLayoutId()).thenReturn(materialization.getReflectionId().getId());
+      when(descriptor.getVersion()).thenReturn(materialization.getTag());
+      when(descriptor.getExpirationTimestamp()).thenReturn(materialization.getExpiration());
+      when(descriptor.getReflectionType()).thenReturn(ReflectionType.RAW);
+      return descriptor;
+    }
+  }
+}
@@ -0,0 +1,154 @@
+/*
+ * Copyright (C) 2017-2019 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.service.reflection.store;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.dremio.datastore.adapter.LegacyKVStoreProviderAdapter;
+import com.dremio.datastore.api.LegacyKVStore;
+import com.dremio.datastore.api.LegacyKVStoreProvider;
+import com.dremio.service.DirectProvider;
+import com.dremio.service.reflection.proto.Materialization;
+import com.dremio.service.reflection.proto.MaterializationId;
+import com.dremio.service.reflection.proto.MaterializationState;
+import com.dremio.service.reflection.proto.ReflectionId;
+import com.dremio.service.reflection.proto.Refresh;
+import com.dremio.service.reflection.proto.RefreshId;
+import com.dremio.service.reflection.store.MaterializationStore.MaterializationChange;
+import com.dremio.test.DremioTest;
+import com.google.common.collect.ImmutableList;
+
+/**
+ * Test the materialization change log of the MaterializationStore.
+ */
+public class TestMaterializationStore {
+  private LegacyKVStoreProvider kvstore;
+  private MaterializationStore store;
+  private LegacyKVStore<String, String> changeLog;
+
+  @Before
+  public void setup() throws Exception {
+    kvstore = LegacyKVStoreProviderAdapter.inMemory(DremioTest.CLASSPATH_SCAN_RESULT);
+    kvstore.start();
+    store = new MaterializationStore(DirectProvider.wrap(kvstore));
+    changeLog = kvstore.getStore(MaterializationStore.ChangeLogStoreCreator.class);
+  }
+
+  @After
+  public void cleanup() throws Exception {
+    kvstore.close();
+  }
+
+  @Test
+  public void testChangesOrderedByTime() {
+    // unpadded, "100" and "10" would sort before "9"
+    logChange(100, "r1");
+    logChange(9, "r2");
+    logChange(10, "r3");
+    logChange(10, "r1");
+
+    final List<MaterializationChange> changes = store.getChangesSince(0);
+    assertEquals(ImmutableList.of(9L, 10L, 10L, 100L), changedAt(changes));
+    assertEquals(ImmutableList.of("r2", "r1", "r3", "r1"), reflectionIds(changes));
+  }
+
+  @Test
+  public void testChangesSinceOverlap() {
+    final long now = System.currentTimeMillis();
+    final long overlap = TimeUnit.MINUTES.toMillis(1);
+    logChange(now - overlap - 1, "r1");
+    logChange(now - overlap, "r2");
+    logChange(now - 1, "r3");
+    logChange(now, "r4");
+
+    // the change made exactly at the start of the overlap is read again
+    assertEquals(ImmutableList.of("r2", "r3", "r4"), reflectionIds(store.getChangesSince(now - overlap)));
+    assertEquals(ImmutableList.of("r4"), reflectionIds(store.getChangesSince(now)));
+    assertTrue(store.getChangesSince(now + 1).isEmpty());
+    // negative positions, before the first refresh, read the whole log
+    assertEquals(4, store.getChangesSince(-overlap).size());
+  }
+
+  @Test
+  public void testDeleteChangesBefore() {
+    logChange(9, "r1");
+    logChange(10, "r2");
+    logChange(100, "r3");
+
+    store.deleteChangesBefore(10);
+    assertEquals(ImmutableList.of("r2", "r3"), reflectionIds(store.getChangesSince(0)));
+
+    store.deleteChangesBefore(101);
+    assertTrue(store.getChangesSince(0).isEmpty());
+  }
+
+  @Test
+  public void testSaveAndDeleteLogChanges() {
+    final long start = System.currentTimeMillis();
+    final Materialization materialization = new Materialization()
+      .setId(new MaterializationId("m1"))
+      .setReflectionId(new ReflectionId("r1"))
+      .setState(MaterializationState.DONE)
+      .setSeriesId(1L)
+      .setInitRefreshSubmit(start)
+      .setExpiration(Long.MAX_VALUE);
+    store.save(materialization);
+    List<MaterializationChange> changes = store.getChangesSince(start);
+    assertEquals(ImmutableList.of("r1"), reflectionIds(changes));
+    assertTrue(changes.get(0).getChangedAt() >= start);
+
+    store.deleteChangesBefore(Long.MAX_VALUE);
+    store.save(new Refresh()
+      .setId(new RefreshId("refresh1"))
+      .setReflectionId(new ReflectionId("r2"))
+      .setSeriesId(1L)
+      .setSeriesOrdinal(0));
+    assertEquals(ImmutableList.of("r2"), reflectionIds(store.getChangesSince(0)));
+
+    store.deleteChangesBefore(Long.MAX_VALUE);
+    store.delete(materialization.getId());
+    // deleting an unknown materialization logs nothing
+    store.delete(new MaterializationId("m2"));
+    assertEquals(ImmutableList.of("r1"), reflectionIds(store.getChangesSince(0)));
+
+    store.deleteChangesBefore(Long.MAX_VALUE);
+    store.delete(new RefreshId("refresh1"));
+    // deleting an unknown refresh logs nothing
+    store.delete(new RefreshId("refresh2"));
+    assertEquals(ImmutableList.of("r2"), reflectionIds(store.getChangesSince(0)));
+  }
+
+  private void logChange(long changedAt, String reflectionId) {
+    changeLog.put(String.format("%019d:%s", changedAt, reflectionId), reflectionId);
+  }
+
+  private static List<Long> changedAt(List<MaterializationChange> changes) {
+    return changes.stream().map(MaterializationChange::getChangedAt).collect(Collectors.toList());
+  }
+
+  private static List<String> reflectionIds(List<MaterializationChange> changes) {
+    return changes.stream().map(c -> c.getReflectionId().getId()).collect(Collectors.toList());
+  }
+}
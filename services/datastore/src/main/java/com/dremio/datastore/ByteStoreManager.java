@@ -25,6 +25,7 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Optional;
 import java.util.Set;
@@ -73,6 +74,10 @@ class ByteStoreManager implements AutoCloseable {
   private static final boolean COLLECT_METRICS = System.getProperty("dremio.kvstore.metrics", null) != null;
 
   private static final long WAL_TTL_SECONDS = Long.getLong("dremio.catalog.wal_ttl_seconds", 5 * 60L);
+  // size of the block cache shared by all stores, 0 for each store to use its own small default cache
+  private static final long BLOCK_CACHE_BYTES = Long.getLong("dremio.kvstore.block_cache_bytes", 256L * 1024 * 1024);
+  // bits per key of the bloom filters of stores which do not declare a tuning, 0 to disable
+  private static final int BLOOM_FILTER_BITS_PER_KEY = Integer.getInteger("dremio.kvstore.bloom_filter_bits_per_key", 10);
   private static final String METRICS_PREFIX = "kvstore.db";
   private static final String DEFAULT = "default";
   private static final int STRIPE_COUNT = 16;
@@ -91,12 +96,16 @@ class ByteStoreManager implements AutoCloseable {
 
   private RocksDB db;
   private ColumnFamilyHandle defaultHandle;
+  private ColumnFamilyOptionsFactory columnFamilyOptions;
+  private Statistics statistics;
   private StoreMetadataManagerImpl metadataManager;
 
   private final DeferredException closeException = new DeferredException();
 
   // on #start all the existing tables are loaded, and if new stores are requested, #newStore is used
   private final ConcurrentMap<Integer, String> handleIdToNameMap = Maps.newConcurrentMap();
+  // tuning declared by the store creators, or read from the store definitions when starting
+  private final ConcurrentMap<String, KVStoreTuningInfo> tunings = Maps.newConcurrentMap();
   private final LoadingCache<String, ByteStore> maps = CacheBuilder.newBuilder()
       .removalListener((RemovalListener<String, ByteStore>) notification -> {
         try {
@@ -127,7 +136,8 @@ class ByteStoreManager implements AutoCloseable {
     if (inMemory) {
       return new MapStore(name);
     } else {
-      final ColumnFamilyDescriptor columnFamilyDescriptor = new ColumnFamilyDescriptor(name.getBytes(UTF_8));
+      final ColumnFamilyDescriptor columnFamilyDescriptor =
+        new ColumnFamilyDescriptor(name.getBytes(UTF_8), columnFamilyOptions.newOptions(tunings.get(name)));
       ColumnFamilyHandle handle = db.createColumnFamily(columnFamilyDescriptor);
       handleIdToNameMap.put(handle.getID(), name);
       metadataManager.createEntry(name, false);
@@ -144,7 +154,9 @@ class ByteStoreManager implements AutoCloseable {
     } else {
       rocksManager = new RocksMetaManager(baseDirectory, name, Long.MAX_VALUE);
     }
-    return new RocksDBStore(name, columnFamilyDescriptor, handle, db, stripeCount, rocksManager);
+    final KVStoreTuningInfo tuning = tunings.get(name);
+    final int prefixLength = tuning != null && tuning.getPrefixLength() != null ? tuning.getPrefixLength() : 0;
+    return new RocksDBStore(name, columnFamilyDescriptor, handle, db, stripeCount, rocksManager, prefixLength);
   }
 
   // Validates that the first file found in the DB directory is owned by the currently running user.
@@ -175,9 +187,19 @@ class ByteStoreManager implements AutoCloseable {
   }
 
   public void start() throws Exception {
+    start(Collections.emptyMap());
+  }
+
+  /**
+   * Opens the database.
+   *
+   * @param storeTunings tuning of the existing stores, by name
+   */
+  public void start(Map<String, KVStoreTuningInfo> storeTunings) throws Exception {
     if (inMemory) {
       return;
     }
+    tunings.putAll(storeTunings);
 
     final String baseDirectory = CoreStoreProviderImpl.MODE == ForcedMemoryMode.DISK && this.baseDirectory == null
         ? Files.createTempDirectory(null).toString()
@@ -213,7 +235,11 @@ class ByteStoreManager implements AutoCloseable {
     if (families.isEmpty()) {
       families.add(RocksDB.DEFAULT_COLUMN_FAMILY);
     }
-    final Function<byte[], ColumnFamilyDescriptor> func = ColumnFamilyDescriptor::new;
+    columnFamilyOptions = new ColumnFamilyOptionsFactory(BLOCK_CACHE_BYTES, BLOOM_FILTER_BITS_PER_KEY);
+    final Function<byte[], ColumnFamilyDescriptor> func = family -> new ColumnFamilyDescriptor(family,
+      columnFamilyOptions.newOptions(Arrays.equals(family, RocksDB.DEFAULT_COLUMN_FAMILY)
+        ? null : tunings.get(new String(family, UTF_8))));
+    final List<ColumnFamilyDescriptor> descriptors = new ArrayList<>(Lists.transform(families, func));
 
     List<ColumnFamilyHandle> familyHandles = new ArrayList<>();
     try (final DBOptions dboptions = new DBOptions()) {
@@ -229,8 +255,9 @@ class ByteStoreManager implements AutoCloseable {
 
 
       registerMetrics(dboptions);
-      db = openDB(dboptions, path, new ArrayList<>(Lists.transform(families, func)), familyHandles);
+      db = openDB(dboptions, path, descriptors, familyHandles);
     }
+    registerBlockCacheMetrics();
     // create an output list to be populated when we open the db.
 
     // populate the local cache with the existing tables.
@@ -242,7 +269,7 @@ class ByteStoreManager implements AutoCloseable {
         String name = new String(family, UTF_8);
         final ColumnFamilyHandle handle = familyHandles.get(i);
         handleIdToNameMap.put(handle.getID(), name);
-        RocksDBStore store = newRocksDBStore(name, new ColumnFamilyDescriptor(family), handle);
+        RocksDBStore store = newRocksDBStore(name, descriptors.get(i), handle);
         maps.put(name, store);
       }
     }
@@ -255,15 +282,15 @@ class ByteStoreManager implements AutoCloseable {
   }
 
   private void registerMetrics(DBOptions dbOptions) {
-    // calling DBOptions.statisticsPtr() will create a Statistics object that will collect various stats from RocksDB and
-    // will introduce a 5-10% overhead
+    // statistics are needed for the hit rate of the block cache. Collecting all of them, including timers,
+    // introduces a 5-10% overhead, so only do it when asked to.
+    statistics = new Statistics();
+    statistics.setStatsLevel(COLLECT_METRICS ? StatsLevel.ALL : StatsLevel.EXCEPT_DETAILED_TIMERS);
+    dbOptions.setStatistics(statistics);
     if(!COLLECT_METRICS) {
       return;
     }
 
-    final Statistics statistics = new Statistics();
-    statistics.setStatsLevel(StatsLevel.ALL);
-    dbOptions.setStatistics(statistics);
     // for now, let's add all ticker stats as gauge metrics
     for (TickerType tickerType : TickerType.values()) {
       if (tickerType == TickerType.TICKER_ENUM_MAX) {
@@ -275,6 +302,33 @@ class ByteStoreManager implements AutoCloseable {
     // Note that Statistics also contains various histogram metrics, but those cannot be easily tracked through our metrics
   }
 
+  private void registerBlockCacheMetrics() {
+    if (!columnFamilyOptions.hasSharedBlockCache()) {
+      return;
+    }
+
+    final String prefix = Metrics.join(METRICS_PREFIX, "block_cache");
+    Metrics.newGauge(Metrics.join(prefix, "capacity"), columnFamilyOptions::getBlockCacheBytes);
+    Metrics.newGauge(Metrics.join(prefix, "usage"), () -> {
+      try {
+        // the cache is shared, so any column family reports the usage of all of them
+        return db.getLongProperty("rocksdb.block-cache-usage");
+      } catch (RocksDBException e) {
+        LOGGER.warn("failed to retrieve block cache usage", e);
+        return -1;
+      }
+    });
+    Metrics.newGauge(Metrics.join(prefix, "hits"), () -> statistics.getTickerCount(TickerType.BLOCK_CACHE_HIT));
+    Metrics.newGauge(Metrics.join(prefix, "misses"), () -> statistics.getTickerCount(TickerType.BLOCK_CACHE_MISS));
+    Metrics.newGauge(Metrics.join(prefix, "hit_percent"), () -> {
+      final long hits = statistics.getTickerCount(TickerType.BLOCK_CACHE_HIT);
+      final long total = hits + statistics.getTickerCount(TickerType.BLOCK_CACHE_MISS);
+      return total == 0 ? 0 : hits * 100 / total;
+    });
+    Metrics.newGauge(Metrics.join(prefix, "bloom_filter_useful"),
+      () -> statistics.getTickerCount(TickerType.BLOOM_FILTER_USEFUL));
+  }
+
 public RocksDB openDB(final DBOptions dboptions, final String path, final List<ColumnFamilyDescriptor> columnNames,
       List<ColumnFamilyHandle> familyHandles) throws RocksDBException {
     boolean printLockMessage = true;
@@ -331,7 +385,20 @@ public RocksDB openDB(final DBOptions dboptions, final String path, final List<C
   }
 
   public ByteStore getStore(String name) {
+    return getStore(name, null);
+  }
+
+  /**
+   * Gets the store with the given name, creating it if needed.
+   *
+   * @param tuning tuning declared by the creator of the store, or null. It is only applied when creating the store,
+   *               or when the store is opened on the next start.
+   */
+  public ByteStore getStore(String name, KVStoreTuningInfo tuning) {
     Preconditions.checkNotNull(name);
+    if (tuning != null) {
+      tunings.put(name, tuning);
+    }
     Preconditions.checkArgument(!DEFAULT.equals(name), "The store name 'default' is reserved and cannot be used.");
     try {
       return maps.get(name);
@@ -446,6 +513,8 @@ public RocksDB openDB(final DBOptions dboptions, final String path, final List<C
     getMetadataManager().close();
     closeException.suppressingClose(defaultHandle);
     closeException.suppressingClose(db);
+    closeException.suppressingClose(columnFamilyOptions);
+    closeException.suppressingClose(statistics);
     closeException.close();
   }
 
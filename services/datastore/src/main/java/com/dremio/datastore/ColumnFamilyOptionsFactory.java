@@ -0,0 +1,126 @@
+/*
+ * Copyright (C) 2017-2019 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.datastore;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.rocksdb.BlockBasedTableConfig;
+import org.rocksdb.BloomFilter;
+import org.rocksdb.Cache;
+import org.rocksdb.ColumnFamilyOptions;
+import org.rocksdb.CompressionType;
+import org.rocksdb.Filter;
+import org.rocksdb.LRUCache;
+
+import com.dremio.common.AutoCloseables;
+
+/**
+ * Creates the options of the column families backing the stores, from the tuning declared by their creators.
+ *
+ * All column families share a single LRU block cache, which also holds their index and filter blocks so that
+ * the memory used for reads is bounded by the cache size, and use bloom filters unless their tuning disables them.
+ * The created options must not be closed before the database.
+ */
+class ColumnFamilyOptionsFactory implements AutoCloseable {
+  private final long blockCacheBytes;
+  private final Cache blockCache;
+  private final int defaultBloomFilterBitsPerKey;
+  private final List<AutoCloseable> resources = new ArrayList<>();
+
+  /**
+   * @param blockCacheBytes size of the shared block cache, or 0 for each column family to use its own default cache
+   * @param defaultBloomFilterBitsPerKey bits per key of the bloom filters of stores which do not declare it, 0 to
+   *                                     disable bloom filters by default
+   */
+  ColumnFamilyOptionsFactory(long blockCacheBytes, int defaultBloomFilterBitsPerKey) {
+    this.blockCacheBytes = blockCacheBytes;
+    this.blockCache = blockCacheBytes > 0 ? new LRUCache(blockCacheBytes) : null;
+    this.defaultBloomFilterBitsPerKey = defaultBloomFilterBitsPerKey;
+  }
+
+  /**
+   * @param tuning tuning of the store, or null if the store did not declare any
+   */
+  synchronized ColumnFamilyOptions newOptions(KVStoreTuningInfo tuning) {
+    final ColumnFamilyOptions options = new ColumnFamilyOptions();
+    resources.add(options);
+
+    final BlockBasedTableConfig tableConfig = new BlockBasedTableConfig();
+    if (blockCache != null) {
+      tableConfig.setBlockCache(blockCache);
+      tableConfig.setCacheIndexAndFilterBlocks(true);
+      tableConfig.setPinL0FilterAndIndexBlocksInCache(true);
+    }
+
+    final Integer bitsPerKey = tuning != null ? tuning.getBloomFilterBitsPerKey() : null;
+    final int bloomFilterBitsPerKey = bitsPerKey != null ? bitsPerKey : defaultBloomFilterBitsPerKey;
+    if (bloomFilterBitsPerKey > 0) {
+      final Filter filter = new BloomFilter(bloomFilterBitsPerKey, false);
+      resources.add(filter);
+      tableConfig.setFilter(filter);
+    }
+    options.setTableFormatConfig(tableConfig);
+
+    if (tuning != null && tuning.getPrefixLength() != null) {
+      // whole keys are still added to the bloom filters, so point lookups keep using them
+      options.useCappedPrefixExtractor(tuning.getPrefixLength());
+    }
+
+    if (tuning != null && tuning.getCompressionPerLevelList() != null && !tuning.getCompressionPerLevelList().isEmpty()) {
+      final List<CompressionType> compressions = new ArrayList<>();
+      for (KVStoreTuningInfo.Compression compression : tuning.getCompressionPerLevelList()) {
+        compressions.add(toCompressionType(compression));
+      }
+      options.setCompressionPerLevel(compressions);
+    }
+    return options;
+  }
+
+  private static CompressionType toCompressionType(KVStoreTuningInfo.Compression compression) {
+    switch (compression) {
+      case NONE:
+        return CompressionType.NO_COMPRESSION;
+      case SNAPPY:
+        return CompressionType.SNAPPY_COMPRESSION;
+      case LZ4:
+        return CompressionType.LZ4_COMPRESSION;
+      case ZSTD:
+        return CompressionType.ZSTD_COMPRESSION;
+      default:
+        throw new IllegalArgumentException("Unknown compression " + compression);
+    }
+  }
+
+  /**
+   * @return true if the column families share a block cache
+   */
+  boolean hasSharedBlockCache() {
+    return blockCache != null;
+  }
+
+  long getBlockCacheBytes() {
+    return blockCacheBytes;
+  }
+
+  @Override
+  public synchronized void close() throws Exception {
+    final List<AutoCloseable> toClose = new ArrayList<>(resources);
+    toClose.add(blockCache);
+    resources.clear();
+    AutoCloseables.close(toClose);
+  }
+}
@@ -18,6 +18,7 @@ package com.dremio.datastore;
 import static com.dremio.common.perf.Timer.time;
 
 import java.util.List;
+import java.util.Map;
 
 import com.dremio.common.perf.Timer.TimedBlock;
 import com.dremio.datastore.SearchTypes.SearchQuery;
@@ -99,6 +100,20 @@ abstract class CoreBaseTimedStore<K, V> implements CoreKVStore<K, V> {
     }
   }
 
+  @Override
+  public Iterable<Document<KVStoreTuple<K>, KVStoreTuple<V>>> putAll(Map<KVStoreTuple<K>, KVStoreTuple<V>> documents, PutOption... options) {
+    try (TimedBlock b = time(name + ".putAll")) {
+      return kvStore.putAll(documents, options);
+    }
+  }
+
+  @Override
+  public void deleteAll(List<KVStoreTuple<K>> keys, DeleteOption... options) {
+    try (TimedBlock b = time(name + ".deleteAll")) {
+      kvStore.deleteAll(keys, options);
+    }
+  }
+
   /**
    * Basic timed store.
    *
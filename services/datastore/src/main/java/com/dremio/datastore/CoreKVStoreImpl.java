@@ -16,7 +16,9 @@
 package com.dremio.datastore;
 
 import java.util.ConcurrentModificationException;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 import com.dremio.datastore.api.Document;
 import com.dremio.datastore.api.FindByRange;
@@ -89,6 +91,20 @@ public class CoreKVStoreImpl<KEY, VALUE> implements CoreKVStore<KEY, VALUE> {
     return fromDocument(result);
   }
 
+  @Override
+  public Iterable<Document<KVStoreTuple<KEY>, KVStoreTuple<VALUE>>> putAll(Map<KVStoreTuple<KEY>, KVStoreTuple<VALUE>> documents, PutOption... options) {
+    if (VersionOption.getTagInfo(options).hasVersionOption()) {
+      // versions are validated document by document
+      return CoreKVStore.super.putAll(documents, options);
+    }
+
+    final Map<byte[], byte[]> rawDocuments = new LinkedHashMap<>();
+    for (Map.Entry<KVStoreTuple<KEY>, KVStoreTuple<VALUE>> document : documents.entrySet()) {
+      rawDocuments.put(document.getKey().getSerializedBytes(), document.getValue().getSerializedBytes());
+    }
+    return Iterables.transform(rawStore.putAll(rawDocuments, options), this::fromDocument);
+  }
+
   @Override
   public boolean contains(KVStoreTuple<KEY> key, ContainsOption... options) {
     return rawStore.contains(key.getSerializedBytes(), options);
@@ -109,6 +125,16 @@ public class CoreKVStoreImpl<KEY, VALUE> implements CoreKVStore<KEY, VALUE> {
     }
   }
 
+  @Override
+  public void deleteAll(List<KVStoreTuple<KEY>> keys, DeleteOption... options) {
+    if (VersionOption.getTagInfo(options).hasVersionOption()) {
+      // versions are validated document by document
+      CoreKVStore.super.deleteAll(keys, options);
+    } else {
+      rawStore.deleteAll(Lists.transform(keys, keyToBytes), options);
+    }
+  }
+
   @Override
   public Iterable<Document<KVStoreTuple<KEY>, KVStoreTuple<VALUE>>> find(FindByRange<KVStoreTuple<KEY>> find, FindOption... options) {
     final ImmutableFindByRange.Builder<byte[]> rangeBuilder = new ImmutableFindByRange.Builder<>();
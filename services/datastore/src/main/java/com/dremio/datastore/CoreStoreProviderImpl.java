@@ -25,6 +25,7 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.Map;
@@ -145,7 +146,7 @@ public class CoreStoreProviderImpl implements CoreStoreProviderRpcService, Itera
   public void start() throws Exception {
     metaDataFilesDir.mkdirs();
 
-    byteManager.start();
+    byteManager.start(readStoreTunings());
     indexManager.start();
   }
 
@@ -345,7 +346,7 @@ public class CoreStoreProviderImpl implements CoreStoreProviderRpcService, Itera
           createMetaDataFile(kvStoreInfo);
         }
 
-        final ByteStore rawStore = byteManager.getStore(kvStoreInfo.getTablename());
+        final ByteStore rawStore = byteManager.getStore(kvStoreInfo.getTablename(), kvStoreInfo.getTuning());
 
         CoreKVStore<K, V> coreKVStore =
           new CoreKVStoreImpl<>(
@@ -405,6 +406,26 @@ public class CoreStoreProviderImpl implements CoreStoreProviderRpcService, Itera
     }
   }
 
+  /**
+   * Read the tuning of the stores from their definitions, as written when they were last built.
+   */
+  private Map<String, KVStoreTuningInfo> readStoreTunings() throws IOException {
+    final Map<String, KVStoreTuningInfo> tunings = new HashMap<>();
+    if (inMemory) {
+      return tunings;
+    }
+    try (DirectoryStream<Path> metaDataFiles = Files.newDirectoryStream(metaDataFilesDir.toPath(), METADATA_FILES_GLOB)) {
+      for (Path metadataFile : metaDataFiles) {
+        final KVStoreInfo metadata = new KVStoreInfo();
+        ProtostuffUtil.fromJSON(Files.readAllBytes(metadataFile), metadata, KVStoreInfo.getSchema(), false);
+        if (metadata.getTuning() != null) {
+          tunings.put(metadata.getTablename(), metadata.getTuning());
+        }
+      }
+    }
+    return tunings;
+  }
+
   /**
    * Scan dbDirectory to read kvstore definitions and load all stores in memory.
    */
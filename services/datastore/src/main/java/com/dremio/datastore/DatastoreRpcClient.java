@@ -23,6 +23,7 @@ import java.util.List;
 
 import com.dremio.datastore.RemoteDataStoreProtobuf.ContainsRequest;
 import com.dremio.datastore.RemoteDataStoreProtobuf.ContainsResponse;
+import com.dremio.datastore.RemoteDataStoreProtobuf.DeleteAllRequest;
 import com.dremio.datastore.RemoteDataStoreProtobuf.DeleteRequest;
 import com.dremio.datastore.RemoteDataStoreProtobuf.DeleteResponse;
 import com.dremio.datastore.RemoteDataStoreProtobuf.DocumentResponse;
@@ -34,6 +35,8 @@ import com.dremio.datastore.RemoteDataStoreProtobuf.GetRequest;
 import com.dremio.datastore.RemoteDataStoreProtobuf.GetResponse;
 import com.dremio.datastore.RemoteDataStoreProtobuf.GetStoreRequest;
 import com.dremio.datastore.RemoteDataStoreProtobuf.GetStoreResponse;
+import com.dremio.datastore.RemoteDataStoreProtobuf.PutAllRequest;
+import com.dremio.datastore.RemoteDataStoreProtobuf.PutAllResponse;
 import com.dremio.datastore.RemoteDataStoreProtobuf.PutRequest;
 import com.dremio.datastore.RemoteDataStoreProtobuf.PutResponse;
 import com.dremio.datastore.RemoteDataStoreProtobuf.SearchRequest;
@@ -225,6 +228,43 @@ public class DatastoreRpcClient {
       .build());
   }
 
+  /**
+   * PutAll method to store the provided entries to the store in a single batch.
+   *
+   * @param storeId the store ID.
+   * @param puts the entries to be stored, without option.
+   * @return the new tags of the key-value store entries, in the same order as the entries. A tag is empty if the
+   *         store does not version its entries.
+   * @throws RpcException when RPC related errors are encountered.
+   */
+  public List<String> putAll(String storeId, List<PutRequest> puts) throws RpcException {
+    final PutAllRequest request = PutAllRequest.newBuilder()
+      .setStoreId(storeId)
+      .addAllPuts(puts)
+      .build();
+    final ReceivedResponseMessage<PutAllResponse> response = rpcService.getPutAllEndpoint().send(request);
+    if (response.getBody().hasErrorMessage()) {
+      throw new RpcException(response.getBody().getErrorMessage());
+    }
+    return response.getBody().getTagsList();
+  }
+
+  /**
+   * DeleteAll method to remove the key-value store entries corresponding to the provided keys from the store in a
+   * single batch.
+   *
+   * @param storeId the store ID.
+   * @param keys the keys of the key-value store entries to remove.
+   * @throws RpcException when RPC related errors are encountered.
+   */
+  public void deleteAll(String storeId, List<ByteString> keys) throws RpcException {
+    final DeleteAllRequest request = DeleteAllRequest.newBuilder()
+      .setStoreId(storeId)
+      .addAllKeys(keys)
+      .build();
+    rpcService.getDeleteAllEndpoint().send(request);
+  }
+
   /**
    * Delete method to removed key-value store entry corresponding to the provided key from the store. Tag can be
    * {@code null} if no validation is required.
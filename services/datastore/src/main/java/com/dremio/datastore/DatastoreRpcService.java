@@ -22,6 +22,8 @@ import org.apache.arrow.memory.BufferAllocator;
 
 import com.dremio.datastore.RemoteDataStoreProtobuf.ContainsRequest;
 import com.dremio.datastore.RemoteDataStoreProtobuf.ContainsResponse;
+import com.dremio.datastore.RemoteDataStoreProtobuf.DeleteAllRequest;
+import com.dremio.datastore.RemoteDataStoreProtobuf.DeleteAllResponse;
 import com.dremio.datastore.RemoteDataStoreProtobuf.DeleteRequest;
 import com.dremio.datastore.RemoteDataStoreProtobuf.DeleteResponse;
 import com.dremio.datastore.RemoteDataStoreProtobuf.FindRequest;
@@ -32,6 +34,8 @@ import com.dremio.datastore.RemoteDataStoreProtobuf.GetRequest;
 import com.dremio.datastore.RemoteDataStoreProtobuf.GetResponse;
 import com.dremio.datastore.RemoteDataStoreProtobuf.GetStoreRequest;
 import com.dremio.datastore.RemoteDataStoreProtobuf.GetStoreResponse;
+import com.dremio.datastore.RemoteDataStoreProtobuf.PutAllRequest;
+import com.dremio.datastore.RemoteDataStoreProtobuf.PutAllResponse;
 import com.dremio.datastore.RemoteDataStoreProtobuf.PutRequest;
 import com.dremio.datastore.RemoteDataStoreProtobuf.PutResponse;
 import com.dremio.datastore.RemoteDataStoreProtobuf.SearchRequest;
@@ -58,6 +62,8 @@ public class DatastoreRpcService {
   private static final int TYPE_PUT = 6;
   private static final int TYPE_DELETE = 7;
   private static final int TYPE_GET_STORE = 10;
+  private static final int TYPE_PUT_ALL = 11;
+  private static final int TYPE_DELETE_ALL = 12;
 
   private final Provider<NodeEndpoint> master;
 
@@ -69,6 +75,8 @@ public class DatastoreRpcService {
   private SendEndpointCreator<PutRequest, PutResponse> putEndpointCreator;
   private SendEndpointCreator<DeleteRequest, DeleteResponse> deleteEndpointCreator;
   private SendEndpointCreator<GetStoreRequest, GetStoreResponse> getStoreEndpointCreator;
+  private SendEndpointCreator<PutAllRequest, PutAllResponse> putAllEndpointCreator;
+  private SendEndpointCreator<DeleteAllRequest, DeleteAllResponse> deleteAllEndpointCreator;
 
   public DatastoreRpcService(Provider<NodeEndpoint> masterNode,
                              FabricService fabricService, BufferAllocator allocator,
@@ -142,6 +150,22 @@ public class DatastoreRpcService {
         }
       });
 
+    putAllEndpointCreator = builder.register(TYPE_PUT_ALL,
+      new AbstractReceiveHandler<PutAllRequest, PutAllResponse>(PutAllRequest.getDefaultInstance(), PutAllResponse.getDefaultInstance()) {
+        @Override
+        public SentResponseMessage<PutAllResponse> handle(PutAllRequest request, ArrowBuf dBody) throws RpcException {
+          return new SentResponseMessage<>(handler.putAll(request));
+        }
+      });
+
+    deleteAllEndpointCreator = builder.register(TYPE_DELETE_ALL,
+      new AbstractReceiveHandler<DeleteAllRequest, DeleteAllResponse>(DeleteAllRequest.getDefaultInstance(), DeleteAllResponse.getDefaultInstance()) {
+        @Override
+        public SentResponseMessage<DeleteAllResponse> handle(DeleteAllRequest request, ArrowBuf dBody) throws RpcException {
+          return new SentResponseMessage<>(handler.deleteAll(request));
+        }
+      });
+
     builder.register(fabricService);
   }
 
@@ -186,4 +210,12 @@ public class DatastoreRpcService {
     return newEndpoint(getStoreEndpointCreator);
   }
 
+  public SendEndpoint<PutAllRequest, PutAllResponse> getPutAllEndpoint() throws RpcException {
+    return newEndpoint(putAllEndpointCreator);
+  }
+
+  public SendEndpoint<DeleteAllRequest, DeleteAllResponse> getDeleteAllEndpoint() throws RpcException {
+    return newEndpoint(deleteAllEndpointCreator);
+  }
+
 }
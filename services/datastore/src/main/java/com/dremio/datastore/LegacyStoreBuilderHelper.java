@@ -18,6 +18,7 @@ package com.dremio.datastore;
 import java.util.Arrays;
 
 import com.dremio.datastore.api.DocumentConverter;
+import com.dremio.datastore.api.StoreTuning;
 import com.dremio.datastore.format.Format;
 import com.google.common.base.Preconditions;
 import com.google.protobuf.Message;
@@ -36,6 +37,7 @@ public final class LegacyStoreBuilderHelper<K, V> {
   private Format<V> valueFormat;
   private Class<? extends VersionExtractor<V>> versionExtractorClass;
   private DocumentConverter<K, V> documentConverter;
+  private StoreTuning tuning;
 
   public LegacyStoreBuilderHelper() {
     info.setVersionExtractorClassName("");
@@ -73,6 +75,13 @@ public final class LegacyStoreBuilderHelper<K, V> {
     return this;
   }
 
+  public LegacyStoreBuilderHelper<K, V> tuning(StoreTuning tuning) {
+    Preconditions.checkNotNull(tuning);
+    this.tuning = tuning;
+    this.info.setTuning(tuning.toInfo());
+    return this;
+  }
+
   public boolean hasDocumentConverter() {
     return this.documentConverter != null;
   }
@@ -103,6 +112,10 @@ public final class LegacyStoreBuilderHelper<K, V> {
     return documentConverter;
   }
 
+  public StoreTuning getTuning() {
+    return tuning;
+  }
+
   public VersionExtractor<V> tryGetVersionExtractor() {
     return versionExtractorClass == null ? null : DataStoreUtils.getInstance(versionExtractorClass);
   }
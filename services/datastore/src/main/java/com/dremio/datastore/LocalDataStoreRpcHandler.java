@@ -16,10 +16,14 @@
 package com.dremio.datastore;
 
 import java.util.ConcurrentModificationException;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 import com.dremio.datastore.RemoteDataStoreProtobuf.ContainsRequest;
 import com.dremio.datastore.RemoteDataStoreProtobuf.ContainsResponse;
+import com.dremio.datastore.RemoteDataStoreProtobuf.DeleteAllRequest;
+import com.dremio.datastore.RemoteDataStoreProtobuf.DeleteAllResponse;
 import com.dremio.datastore.RemoteDataStoreProtobuf.DeleteRequest;
 import com.dremio.datastore.RemoteDataStoreProtobuf.DeleteResponse;
 import com.dremio.datastore.RemoteDataStoreProtobuf.DocumentResponse;
@@ -31,6 +35,8 @@ import com.dremio.datastore.RemoteDataStoreProtobuf.GetRequest;
 import com.dremio.datastore.RemoteDataStoreProtobuf.GetResponse;
 import com.dremio.datastore.RemoteDataStoreProtobuf.GetStoreRequest;
 import com.dremio.datastore.RemoteDataStoreProtobuf.GetStoreResponse;
+import com.dremio.datastore.RemoteDataStoreProtobuf.PutAllRequest;
+import com.dremio.datastore.RemoteDataStoreProtobuf.PutAllResponse;
 import com.dremio.datastore.RemoteDataStoreProtobuf.PutRequest;
 import com.dremio.datastore.RemoteDataStoreProtobuf.PutResponse;
 import com.dremio.datastore.RemoteDataStoreProtobuf.SearchRequest;
@@ -167,6 +173,36 @@ public class LocalDataStoreRpcHandler extends DefaultDataStoreRpcHandler {
     return DeleteResponse.getDefaultInstance();
   }
 
+  @Override
+  public PutAllResponse putAll(PutAllRequest request) {
+    final CoreKVStore store = coreStoreProvider.getStore(request.getStoreId());
+    final Map<KVStoreTuple<?>, KVStoreTuple<?>> documents = new LinkedHashMap<>();
+    for (PutRequest put : request.getPutsList()) {
+      documents.put(store.newKey().setSerializedBytes(put.getKey().toByteArray()),
+        store.newValue().setSerializedBytes(put.getValue().toByteArray()));
+    }
+
+    final PutAllResponse.Builder builder = PutAllResponse.newBuilder();
+    try {
+      final Iterable<Document<KVStoreTuple<?>, KVStoreTuple<?>>> results = store.putAll(documents);
+      for (Document<KVStoreTuple<?>, KVStoreTuple<?>> result : results) {
+        builder.addTags(Strings.nullToEmpty(result.getTag()));
+      }
+    } catch (DatastoreException e) {
+      builder.clearTags().setErrorMessage(e.getMessage());
+    }
+    return builder.build();
+  }
+
+  @Override
+  public DeleteAllResponse deleteAll(DeleteAllRequest request) {
+    final CoreKVStore store = coreStoreProvider.getStore(request.getStoreId());
+    final List<KVStoreTuple<?>> keys = Lists.transform(request.getKeysList(),
+      key -> store.newKey().setSerializedBytes(key.toByteArray()));
+    store.deleteAll(keys);
+    return DeleteAllResponse.getDefaultInstance();
+  }
+
   @Override
   public GetStoreResponse getStore(GetStoreRequest request) {
     String storeId = coreStoreProvider.getStoreID(request.getName());
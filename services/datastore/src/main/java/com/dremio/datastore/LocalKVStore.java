@@ -15,7 +15,9 @@
  */
 package com.dremio.datastore;
 
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 import com.dremio.datastore.api.Document;
@@ -78,6 +80,15 @@ public class LocalKVStore<K, V> implements KVStore<K, V> {
     return fromDocument(coreKVStore.put(buildKey(key), buildValue(value), options));
   }
 
+  @Override
+  public Iterable<Document<K, V>> putAll(Map<K, V> documents, PutOption... options) {
+    final Map<KVStoreTuple<K>, KVStoreTuple<V>> convertedDocuments = new LinkedHashMap<>();
+    for (Map.Entry<K, V> document : documents.entrySet()) {
+      convertedDocuments.put(buildKey(document.getKey()), buildValue(document.getValue()));
+    }
+    return Iterables.transform(coreKVStore.putAll(convertedDocuments, options), this::fromDocument);
+  }
+
   @Override
   public boolean contains(K key, ContainsOption... options) {
     return coreKVStore.contains(buildKey(key), options);
@@ -88,6 +99,14 @@ public class LocalKVStore<K, V> implements KVStore<K, V> {
     coreKVStore.delete(buildKey(key), options);
   }
 
+  @Override
+  public void deleteAll(List<K> keys, DeleteOption... options) {
+    final List<KVStoreTuple<K>> convertedKeys = keys.stream()
+      .map(this::buildKey)
+      .collect(Collectors.toList());
+    coreKVStore.deleteAll(convertedKeys, options);
+  }
+
   @Override
   public Iterable<Document<K, V>> find(FindByRange<K> find, FindOption... options) {
     final FindByRange<KVStoreTuple<K>> convertedRange = new ImmutableFindByRange.Builder<KVStoreTuple<K>>()
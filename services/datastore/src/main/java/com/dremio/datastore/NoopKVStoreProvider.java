@@ -29,6 +29,7 @@ import com.dremio.datastore.api.KVStore;
 import com.dremio.datastore.api.KVStoreProvider;
 import com.dremio.datastore.api.StoreBuildingFactory;
 import com.dremio.datastore.api.StoreCreationFunction;
+import com.dremio.datastore.api.StoreTuning;
 import com.dremio.datastore.format.Format;
 import com.dremio.datastore.utility.StoreLoader;
 import com.dremio.exec.proto.CoordinationProtos.NodeEndpoint;
@@ -118,6 +119,11 @@ public class NoopKVStoreProvider implements KVStoreProvider {
       return this;
     }
 
+    @Override
+    public StoreBuilder<K, V> tuning(StoreTuning tuning) {
+      return this;
+    }
+
     @Override
     public KVStore<K, V> build() {
       return new NoopKVStore<>();
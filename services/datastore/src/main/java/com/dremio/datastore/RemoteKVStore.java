@@ -17,6 +17,7 @@ package com.dremio.datastore;
 
 import static java.lang.String.format;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -51,9 +52,11 @@ public class RemoteKVStore <K, V> implements KVStore<K, V> {
     GET,
     GET_LIST,
     PUT,
+    PUT_ALL,
     CHECK_AND_PUT,
     CONTAINS,
     DELETE,
+    DELETE_ALL,
     CHECK_AND_DELETE,
     DELETE_VERSION,
     FIND_BY_RANGE,
@@ -176,6 +179,44 @@ public class RemoteKVStore <K, V> implements KVStore<K, V> {
     return createDocument(key, value, tag);
   }
 
+  @Override
+  public Iterable<Document<K, V>> putAll(Map<K, V> documents, PutOption... options) {
+    KVStoreOptionUtility.checkIndexPutOptionIsNotUsed(options);
+    if (documents.isEmpty() || KVStoreOptionUtility.getCreateOrVersionOption(options).isPresent()) {
+      // versions are validated document by document
+      return KVStore.super.putAll(documents, options);
+    }
+
+    final List<RemoteDataStoreProtobuf.PutRequest> puts = new ArrayList<>(documents.size());
+    for (Map.Entry<K, V> document : documents.entrySet()) {
+      final PutRequestDocumentWriter putRequestDocumentWriter = new PutRequestDocumentWriter();
+      if (helper.hasDocumentConverter()) {
+        helper.getDocumentConverter().doConvert(putRequestDocumentWriter, document.getKey(), document.getValue());
+      }
+      final RemoteDataStoreProtobuf.PutRequest.Builder put = RemoteDataStoreProtobuf.PutRequest.newBuilder();
+      putRequestDocumentWriter.toPutRequest(put);
+      puts.add(put
+        .setStoreId(storeId)
+        .setKey(convertKey(document.getKey()))
+        .setValue(convertValue(document.getValue()))
+        .build());
+    }
+
+    final List<String> tags;
+    try (TimerContext timer = time(Stats.PUT_ALL)) {
+      tags = client.putAll(storeId, puts);
+    } catch (RpcException e) {
+      throw new DatastoreException(format("Failed to put multiple values in store id: %s", getStoreId()), e);
+    }
+
+    final List<Document<K, V>> results = new ArrayList<>(documents.size());
+    int i = 0;
+    for (Map.Entry<K, V> document : documents.entrySet()) {
+      results.add(createDocument(document.getKey(), document.getValue(), tags.get(i++)));
+    }
+    return results;
+  }
+
   @Override
   public boolean contains(K key, ContainsOption... options) {
     try (TimerContext timer = time(Stats.CONTAINS)) {
@@ -195,6 +236,21 @@ public class RemoteKVStore <K, V> implements KVStore<K, V> {
     }
   }
 
+  @Override
+  public void deleteAll(List<K> keys, DeleteOption... options) {
+    if (keys.isEmpty() || VersionOption.getTagInfo(options).hasVersionOption()) {
+      // versions are validated document by document
+      KVStore.super.deleteAll(keys, options);
+      return;
+    }
+
+    try (TimerContext timer = time(Stats.DELETE_ALL)) {
+      client.deleteAll(storeId, Lists.transform(keys, this::convertKey));
+    } catch (RpcException e) {
+      throw new DatastoreException(format("Failed to delete multiple values from store id: %s", getStoreId()), e);
+    }
+  }
+
   @Override
   public Iterable<Document<K, V>> find(FindByRange<K> find, FindOption... options) {
     final RemoteDataStoreProtobuf.FindRequest.Builder request = RemoteDataStoreProtobuf.FindRequest.newBuilder()
@@ -27,8 +27,10 @@ import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.TimeUnit;
@@ -42,9 +44,12 @@ import org.apache.commons.math3.stat.descriptive.DescriptiveStatistics;
 import org.rocksdb.ColumnFamilyDescriptor;
 import org.rocksdb.ColumnFamilyHandle;
 import org.rocksdb.FlushOptions;
+import org.rocksdb.ReadOptions;
 import org.rocksdb.RocksDB;
 import org.rocksdb.RocksDBException;
 import org.rocksdb.RocksIterator;
+import org.rocksdb.WriteBatch;
+import org.rocksdb.WriteOptions;
 import org.xerial.snappy.SnappyInputStream;
 import org.xerial.snappy.SnappyOutputStream;
 
@@ -77,7 +82,8 @@ import com.google.common.primitives.UnsignedBytes;
  * operations and need to ensure a consistent viewpoint of data. As such, we grab an
  * exclusive lock for the desired key range for the life of the set of operations. We
  * use the AutoCloseableLock pattern with try-with-resources to ensure that we avoid any
- * lock leaking.
+ * lock leaking. Batched operations (multi gets and write batches) hold the shared locks of
+ * the stripes of all their keys, acquired in stripe order to avoid deadlocks.
  *
  * Since the RocksDB interface is native, we need to manage native memory
  * cautiously. To this end, we manage the range iterator through the use of a
@@ -172,6 +178,10 @@ class RocksDBStore implements ByteStore {
   private final int parallel;
   private final String name;
   private final MetaManager metaManager;
+  // length of the keys prefixes of the column family, 0 if it has no prefix extractor
+  private final int prefixLength;
+  private final ReadOptions totalOrderReadOptions;
+  private final ReadOptions prefixReadOptions;
 
   private final ReferenceQueue<FindByRangeIterator> iteratorQueue = new ReferenceQueue<>();
   private final Set<IteratorReference> iteratorSet = Sets.newConcurrentHashSet();
@@ -188,6 +198,11 @@ class RocksDBStore implements ByteStore {
 
   public RocksDBStore(String name, ColumnFamilyDescriptor family, ColumnFamilyHandle handle, RocksDB db, int stripes,
                       MetaManager metaManager) {
+    this(name, family, handle, db, stripes, metaManager, 0);
+  }
+
+  public RocksDBStore(String name, ColumnFamilyDescriptor family, ColumnFamilyHandle handle, RocksDB db, int stripes,
+                      MetaManager metaManager, int prefixLength) {
     super();
     this.family = family;
     this.name = name;
@@ -197,6 +212,16 @@ class RocksDBStore implements ByteStore {
     this.sharedLocks = new AutoCloseableLock[stripes];
     this.exclusiveLocks = new AutoCloseableLock[stripes];
     this.metaManager = metaManager;
+    this.prefixLength = prefixLength;
+    if (prefixLength > 0) {
+      // with a prefix extractor, iterators only see the keys sharing the prefix of the first key they seek to,
+      // unless asked for a total order
+      this.totalOrderReadOptions = new ReadOptions().setTotalOrderSeek(true);
+      this.prefixReadOptions = new ReadOptions().setPrefixSameAsStart(true);
+    } else {
+      this.totalOrderReadOptions = null;
+      this.prefixReadOptions = null;
+    }
 
     for (int i = 0; i < stripes; i++) {
       ReadWriteLock core = new ReentrantReadWriteLock();
@@ -303,22 +328,56 @@ class RocksDBStore implements ByteStore {
 
   }
 
-  private AutoCloseableLock sharedLock(byte[] key) {
+  private int stripe(byte[] key) {
     Preconditions.checkNotNull(key);
     final int hash = Arrays.hashCode(key);
-    AutoCloseableLock lock = sharedLocks[Math.abs(hash % parallel)];
+    return Math.abs(hash % parallel);
+  }
+
+  private AutoCloseableLock sharedLock(byte[] key) {
+    AutoCloseableLock lock = sharedLocks[stripe(key)];
     lock.open();
     return lock;
   }
 
   private AutoCloseableLock exclusiveLock(byte[] key) {
-    Preconditions.checkNotNull(key);
-    final int hash = Arrays.hashCode(key);
-    AutoCloseableLock lock = exclusiveLocks[Math.abs(hash % parallel)];
+    AutoCloseableLock lock = exclusiveLocks[stripe(key)];
     lock.open();
     return lock;
   }
 
+  /**
+   * Opens the shared locks of the stripes of all the given keys. Locks are always acquired in stripe order, so that
+   * concurrent multiple key operations can not deadlock with each other or with exclusive operations.
+   */
+  private AutoCloseable sharedLocks(Iterable<byte[]> keys) {
+    final boolean[] stripes = new boolean[parallel];
+    for (byte[] key : keys) {
+      stripes[stripe(key)] = true;
+    }
+
+    final List<AutoCloseableLock> locks = new ArrayList<>();
+    for (int i = 0; i < parallel; i++) {
+      if (stripes[i]) {
+        locks.add(sharedLocks[i].open());
+      }
+    }
+    return () -> {
+      // release in reverse order of acquisition
+      Collections.reverse(locks);
+      AutoCloseables.close(locks);
+    };
+  }
+
+  /**
+   * Reads the raw values of the given keys with a single multi get.
+   *
+   * @return the raw values, by key instance. Keys without value are absent from the map.
+   */
+  private Map<byte[], byte[]> multiGet(List<byte[]> keys) throws RocksDBException {
+    return db.multiGet(Collections.nCopies(keys.size(), handle), keys);
+  }
+
   /**
    * Delete all values. Deletes only values inside the store, leaving behind any leftover blobs that have been placed
    * directly in the file system.
@@ -420,9 +479,31 @@ class RocksDBStore implements ByteStore {
         deferred.addException(ex);
       }
       deferred.suppressingClose(handle);
+      deferred.suppressingClose(totalOrderReadOptions);
+      deferred.suppressingClose(prefixReadOptions);
     });
   }
 
+  /**
+   * @return the read options of an iterator over the given range, or null for the default options
+   */
+  private ReadOptions getIteratorReadOptions(FindByRange<byte[]> range) {
+    if (prefixLength == 0) {
+      return null;
+    }
+    if (range == null || range.getStart() == null || range.getEnd() == null
+      || range.getStart().length < prefixLength || range.getEnd().length < prefixLength) {
+      return totalOrderReadOptions;
+    }
+    for (int i = 0; i < prefixLength; i++) {
+      if (range.getStart()[i] != range.getEnd()[i]) {
+        return totalOrderReadOptions;
+      }
+    }
+    // all keys of the range share the prefix of its start key
+    return prefixReadOptions;
+  }
+
   private void exclusively(ExclusiveOperation operation) throws IOException {
     // Attempt to acquire all exclusive locks to limit concurrent writes occurring.
     ArrayList<AutoCloseableLock> acquiredLocks = new ArrayList<>(exclusiveLocks.length);
@@ -483,13 +564,121 @@ class RocksDBStore implements ByteStore {
 
   @Override
   public Iterable<Document<byte[], byte[]>> get(List<byte[]> keys, GetOption... options) {
-    final List<Document<byte[], byte[]>> results = new ArrayList<>();
+    if (keys.size() <= 1) {
+      final List<Document<byte[], byte[]>> results = new ArrayList<>();
+      for (byte[] key : keys) {
+        results.add(get(key, options));
+      }
+      return results;
+    }
+
+    // values are returned by key instance, so make sure keys are only materialized once
+    final List<byte[]> keyList = new ArrayList<>(keys);
+    try (AutoCloseable locks = sharedLocks(keyList)) {
+      throwIfClosed();
+      final Map<byte[], byte[]> values = multiGet(keyList);
+      final List<Document<byte[], byte[]>> results = new ArrayList<>(keyList.size());
+      for (byte[] key : keyList) {
+        final RocksEntry result = resolvePtrOrValue(values.get(key));
+        if (result == null) {
+          results.add(null);
+        } else {
+          final byte[] value = result.getData();
+          results.add(toDocument(key, value, toTag(result.getMeta(), value)));
+        }
+      }
+      return results;
+    } catch (RuntimeException e) {
+      throw e;
+    } catch (Exception e) {
+      throw new RuntimeException(e);
+    }
+  }
+
+  @Override
+  public Iterable<Document<byte[], byte[]>> putAll(Map<byte[], byte[]> documents, PutOption... options) {
+    if (documents.isEmpty()) {
+      return Collections.emptyList();
+    }
+    final List<byte[]> keys = new ArrayList<>(documents.keySet());
     for (byte[] key : keys) {
-      results.add(get(key, options));
+      if (documents.get(key) == null) {
+        throw new NullPointerException("null values are not allowed in kvstore");
+      }
+    }
+
+    final List<Document<byte[], byte[]>> results = new ArrayList<>(keys.size());
+    final List<BlobHolder> blobs = new ArrayList<>(keys.size());
+    try (AutoCloseable locks = sharedLocks(keys);
+         WriteBatch batch = new WriteBatch();
+         WriteOptions writeOptions = new WriteOptions()) {
+      throwIfClosed();
+
+      final Map<byte[], byte[]> oldValuesOrPtrs = multiGet(keys);
+      try {
+        for (byte[] key : keys) {
+          final byte[] newValue = documents.get(key);
+          final String newTag = ByteStore.generateTagFromBytes(newValue);
+          final BlobHolder blob = metaManager.filterPut(newValue, newTag);
+          blobs.add(blob);
+          batch.put(handle, key, blob.ptrOrValue());
+          results.add(toDocument(key, newValue, newTag));
+        }
+        db.write(writeOptions, batch);
+        for (byte[] oldValueOrPtr : oldValuesOrPtrs.values()) {
+          metaManager.deleteTranslation(meta(oldValueOrPtr));
+        }
+        blobs.forEach(BlobHolder::commit);
+      } finally {
+        blobs.forEach(BlobHolder::close);
+      }
+    } catch (RuntimeException e) {
+      throw e;
+    } catch (Exception e) {
+      throw new RuntimeException(e);
     }
     return results;
   }
 
+  @Override
+  public void deleteAll(List<byte[]> keys, DeleteOption... options) {
+    if (keys.isEmpty()) {
+      return;
+    }
+
+    final List<byte[]> keyList = new ArrayList<>(keys);
+    try (AutoCloseable locks = sharedLocks(keyList);
+         WriteBatch batch = new WriteBatch();
+         WriteOptions writeOptions = new WriteOptions()) {
+      throwIfClosed();
+
+      final Map<byte[], byte[]> oldValuesOrPtrs;
+      if (KVStoreOptionUtility.canSkipMeta(options)) {
+        oldValuesOrPtrs = Collections.emptyMap();
+        for (byte[] key : keyList) {
+          batch.delete(handle, key);
+        }
+      } else {
+        oldValuesOrPtrs = multiGet(keyList);
+        if (oldValuesOrPtrs.isEmpty()) {
+          return;
+        }
+        for (byte[] key : oldValuesOrPtrs.keySet()) {
+          batch.delete(handle, key);
+        }
+      }
+
+      db.write(writeOptions, batch);
+      for (byte[] oldValueOrPtr : oldValuesOrPtrs.values()) {
+        metaManager.deleteTranslation(meta(oldValueOrPtr));
+      }
+    } catch (RuntimeException e) {
+      throw e;
+    } catch (Exception e) {
+      throw new RuntimeException(e);
+    }
+  }
+
   @Override
   public Document<byte[], byte[]> validateAndPut(byte[] key, byte[] newValue, VersionOption.TagInfo versionInfo, PutOption... options) {
     Preconditions.checkNotNull(newValue);
@@ -704,7 +893,8 @@ class RocksDBStore implements ByteStore {
     private byte[] nextValue;
 
     public FindByRangeIterator(RocksDB db, ColumnFamilyHandle handle, FindByRange<byte[]> range, MetaManager blob) {
-      this.iter = db.newIterator(handle);
+      final ReadOptions readOptions = getIteratorReadOptions(range);
+      this.iter = readOptions == null ? db.newIterator(handle) : db.newIterator(handle, readOptions);
       this.end = range == null ? null : range.getEnd();
       this.endInclusive = range == null ? false : range.isEndInclusive();
       this.blob = blob;
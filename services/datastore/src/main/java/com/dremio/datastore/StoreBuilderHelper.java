@@ -18,6 +18,7 @@ package com.dremio.datastore;
 import java.util.Arrays;
 
 import com.dremio.datastore.api.DocumentConverter;
+import com.dremio.datastore.api.StoreTuning;
 import com.dremio.datastore.format.Format;
 import com.google.common.base.Preconditions;
 import com.google.protobuf.Message;
@@ -34,6 +35,7 @@ public final class StoreBuilderHelper<K, V> {
   private Format<K> keyFormat;
   private Format<V> valueFormat;
   private DocumentConverter<K, V> documentConverter;
+  private StoreTuning tuning;
 
   public StoreBuilderHelper() {
     info.setVersionExtractorClassName("");
@@ -64,6 +66,13 @@ public final class StoreBuilderHelper<K, V> {
     return this;
   }
 
+  public StoreBuilderHelper<K, V> tuning(StoreTuning tuning) {
+    Preconditions.checkNotNull(tuning);
+    this.tuning = tuning;
+    this.info.setTuning(tuning.toInfo());
+    return this;
+  }
+
   public boolean hasDocumentConverter() {
     return this.documentConverter != null;
   }
@@ -89,6 +98,10 @@ public final class StoreBuilderHelper<K, V> {
     return documentConverter;
   }
 
+  public StoreTuning getTuning() {
+    return tuning;
+  }
+
   public KVStoreInfo getKVStoreInfo() {
     return info;
   }
@@ -47,8 +47,10 @@ public class TimedKVStore<K, V> implements KVStore<K, V> {
     get,
     getList,
     put,
+    putAll,
     contains,
     delete,
+    deleteAll,
     findByRange,
     findAll,
     applyForAllTenants,
@@ -106,6 +108,13 @@ public class TimedKVStore<K, V> implements KVStore<K, V> {
     }
   }
 
+  @Override
+  public Iterable<Document<K, V>> putAll(Map<K, V> documents, PutOption... options) {
+    try(final OpTimer ctx = time(Ops.putAll)) {
+      return delegate.putAll(documents, options);
+    }
+  }
+
   @Override
   public void delete(K key, DeleteOption... options) {
     try(final OpTimer ctx = time(Ops.delete)) {
@@ -113,6 +122,13 @@ public class TimedKVStore<K, V> implements KVStore<K, V> {
     }
   }
 
+  @Override
+  public void deleteAll(List<K> keys, DeleteOption... options) {
+    try(final OpTimer ctx = time(Ops.deleteAll)) {
+      delegate.deleteAll(keys, options);
+    }
+  }
+
   @Override
   public boolean contains(K key, ContainsOption... options) {
     try(final OpTimer ctx = time(Ops.contains)) {
@@ -24,6 +24,7 @@ import com.dremio.datastore.api.IndexedStore;
 import com.dremio.datastore.api.KVStore;
 import com.dremio.datastore.api.KVStoreProvider;
 import com.dremio.datastore.api.StoreCreationFunction;
+import com.dremio.datastore.api.StoreTuning;
 import com.dremio.datastore.format.Format;
 import com.dremio.datastore.utility.StoreLoader;
 import com.google.common.base.Preconditions;
@@ -90,6 +91,12 @@ public class TimedKVStoreProvider implements KVStoreProvider {
       return this;
     }
 
+    @Override
+    public KVStoreProvider.StoreBuilder<K, V> tuning(StoreTuning tuning) {
+      delegate.tuning(tuning);
+      return this;
+    }
+
     @Override
     public KVStore<K, V> build() {
       return TimedKVStore.of(delegate.build());
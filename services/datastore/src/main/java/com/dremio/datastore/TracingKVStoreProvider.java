@@ -23,6 +23,7 @@ import com.dremio.datastore.api.IndexedStore;
 import com.dremio.datastore.api.KVStore;
 import com.dremio.datastore.api.KVStoreProvider;
 import com.dremio.datastore.api.StoreCreationFunction;
+import com.dremio.datastore.api.StoreTuning;
 import com.dremio.datastore.format.Format;
 
 import io.opentracing.Tracer;
@@ -91,6 +92,12 @@ public class TracingKVStoreProvider implements KVStoreProvider {
       return this;
     }
 
+    @Override
+    public StoreBuilder<K, V> tuning(StoreTuning tuning) {
+      delegate.tuning(tuning);
+      return this;
+    }
+
     @Override
     public KVStore<K, V> build() {
       return TracingKVStore.of(name, tracer, delegate.build());
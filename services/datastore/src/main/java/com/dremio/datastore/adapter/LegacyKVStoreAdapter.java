@@ -97,6 +97,16 @@ public class LegacyKVStoreAdapter<K, V> implements LegacyKVStore<K, V> {
     }
   }
 
+  @Override
+  public void putAll(Map<K, V> entries) {
+    if (versionExtractor != null) {
+      // each value carries its own version
+      LegacyKVStore.super.putAll(entries);
+    } else {
+      underlyingStore.putAll(entries);
+    }
+  }
+
   @Override
   public boolean contains(K key) {
     return underlyingStore.contains(key);
@@ -107,6 +117,11 @@ public class LegacyKVStoreAdapter<K, V> implements LegacyKVStore<K, V> {
     underlyingStore.delete(key);
   }
 
+  @Override
+  public void deleteAll(List<K> keys) {
+    underlyingStore.deleteAll(keys);
+  }
+
   @Override
   @SuppressWarnings("unchecked")
   public Iterable<Map.Entry<K, V>> find(LegacyFindByRange<K> find) {
@@ -192,6 +192,9 @@ public class LegacyKVStoreProviderAdapter implements LegacyKVStoreProvider {
         .keyFormat(legacyStoreBuilderHelper.getKeyFormat())
         .valueFormat(legacyStoreBuilderHelper.getValueFormat())
         .permitCompoundKeys(permitCompoundKeys);
+      if (legacyStoreBuilderHelper.getTuning() != null) {
+        builder.tuning(legacyStoreBuilderHelper.getTuning());
+      }
     }
   }
 }
@@ -59,6 +59,12 @@ public abstract class AbstractStoreBuilder<K, V> implements KVStoreProvider.Stor
     return this;
   }
 
+  @Override
+  public KVStoreProvider.StoreBuilder<K, V> tuning(StoreTuning tuning) {
+    helper.tuning(tuning);
+    return this;
+  }
+
   @Override
   public final KVStore<K, V> build() {
     checkCompoundKeyUsage();
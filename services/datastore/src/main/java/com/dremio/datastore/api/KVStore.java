@@ -15,7 +15,9 @@
  */
 package com.dremio.datastore.api;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.ExecutorService;
 import java.util.function.BiConsumer;
 import java.util.function.BiFunction;
@@ -135,6 +137,44 @@ public interface KVStore<K, V> {
    */
   void delete(K key, DeleteOption ... options);
 
+  /**
+   * Saves documents to the KV Store. If the store already contains values associated with some of the keys, the
+   * old values are discarded and replaced by the new values. Stores save all the documents in a single batch where
+   * they can, which is atomic for local stores and much cheaper than saving the documents one by one.
+   *
+   * CREATE and VersionOption are validated for each document, and the documents are then saved one by one.
+   *
+   * @param documents the keys and values to save, in the order they are saved.
+   * @param options extra options for PUT operations, applied to all the documents.
+   * @return the documents updated or created, with their latest version tag, in the same order.
+   * @throws com.dremio.datastore.DatastoreException when one or more runtime failures are encountered.
+   * @throws java.util.ConcurrentModificationException when VersionOption is passed in as a PutOption and that the
+   *         version tag of one of the documents is outdated. Documents before it may have been saved.
+   */
+  default Iterable<Document<K, V>> putAll(Map<K, V> documents, PutOption ... options) {
+    final List<Document<K, V>> results = new ArrayList<>(documents.size());
+    for (Map.Entry<K, V> document : documents.entrySet()) {
+      results.add(put(document.getKey(), document.getValue(), options));
+    }
+    return results;
+  }
+
+  /**
+   * Removes the documents with the provided keys. Stores remove all the documents in a single batch where they
+   * can, which is atomic for local stores.
+   *
+   * @param keys the keys of the documents to be removed from the KV Store.
+   * @param options extra options for DELETE operations, applied to all the documents.
+   * @throws com.dremio.datastore.DatastoreException when one or more runtime failures are encountered.
+   * @throws java.util.ConcurrentModificationException when VersionOption is passed in as a DeleteOption and that
+   *         the version tag provided by VersionOption is outdated.
+   */
+  default void deleteAll(List<K> keys, DeleteOption ... options) {
+    for (K key : keys) {
+      delete(key, options);
+    }
+  }
+
   /**
    * Checks if the KV Store contains a document corresponding to the provided key.
    *
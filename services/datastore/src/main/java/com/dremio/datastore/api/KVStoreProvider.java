@@ -87,6 +87,14 @@ public interface KVStoreProvider extends Service {
      */
     StoreBuilder<K, V> permitCompoundKeys(boolean permitCompoundKeys);
 
+    /**
+     * Sets the storage tuning of the store. Store implementations that do not support tuning ignore it.
+     *
+     * @param tuning the store tuning.
+     * @return a StoreBuilder implementation with the tuning configured.
+     */
+    StoreBuilder<K, V> tuning(StoreTuning tuning);
+
     /**
      * Builds a KVStore implementation.
      *
@@ -61,6 +61,20 @@ public interface LegacyKVStore<K, V> {
    */
   void put(K key, V v);
 
+  /**
+   * Save the provided values under their keys. Possibly more efficient than looping
+   * over the entries in application code depending on the underlying storage system,
+   * which may save all the entries in a single batch.
+   *
+   * @param entries the keys and values to save, values can not be null.
+   * @throws NullPointerException when a value is null.
+   */
+  default void putAll(Map<K, V> entries) {
+    for (Map.Entry<K, V> entry : entries.entrySet()) {
+      put(entry.getKey(), entry.getValue());
+    }
+  }
+
   /**
    * Indicate if the store contains an entry associated with the key. Return {@code true}
    * if such a key exist, {@code false} otherwise.
@@ -78,6 +92,19 @@ public interface LegacyKVStore<K, V> {
    */
   void delete(K key);
 
+  /**
+   * Remove the keys, and the associated values from the store. Keys that do not exist
+   * are ignored. Possibly more efficient than looping over the keys in application code
+   * depending on the underlying storage system.
+   *
+   * @param keys the keys to remove.
+   */
+  default void deleteAll(List<K> keys) {
+    for (K key : keys) {
+      delete(key);
+    }
+  }
+
 
   /**
    * Return a iterable of keys & values for any key within the provided Range
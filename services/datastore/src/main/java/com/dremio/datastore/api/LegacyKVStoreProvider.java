@@ -48,6 +48,7 @@ public interface LegacyKVStoreProvider extends Service {
     LegacyStoreBuilder<K, V> valueFormat(Format<V> format);
     LegacyStoreBuilder<K, V> versionExtractor(Class<? extends VersionExtractor<V>> versionExtractorClass);
     LegacyStoreBuilder<K, V> permitCompoundKeys(boolean permitCompoundKeys);
+    LegacyStoreBuilder<K, V> tuning(StoreTuning tuning);
     LegacyKVStore<K, V> build();
     LegacyIndexedStore<K, V> buildIndexed(DocumentConverter<K, V> documentConverter);
   }
@@ -87,6 +88,12 @@ public interface LegacyKVStoreProvider extends Service {
       return this;
     }
 
+    @Override
+    public LegacyStoreBuilder<K, V> tuning(StoreTuning tuning) {
+      helper.tuning(tuning);
+      return this;
+    }
+
     protected LegacyStoreBuilderHelper<K, V> getStoreBuilderHelper() {
       return helper;
     }
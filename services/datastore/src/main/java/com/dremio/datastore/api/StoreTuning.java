@@ -0,0 +1,189 @@
+/*
+ * Copyright (C) 2017-2019 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.datastore.api;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+import com.dremio.datastore.KVStoreTuningInfo;
+import com.google.common.base.Preconditions;
+
+/**
+ * Storage tuning of a key-value store, declared by its creator. Only used by stores backed by RocksDB, other store
+ * implementations ignore it.
+ *
+ * Tuning is applied when the store is opened: changes to the tuning of an existing store take effect on the next
+ * restart.
+ */
+public final class StoreTuning {
+
+  /**
+   * Compression of the store files.
+   */
+  public enum Compression {
+    NONE(KVStoreTuningInfo.Compression.NONE),
+    SNAPPY(KVStoreTuningInfo.Compression.SNAPPY),
+    LZ4(KVStoreTuningInfo.Compression.LZ4),
+    ZSTD(KVStoreTuningInfo.Compression.ZSTD);
+
+    private final KVStoreTuningInfo.Compression info;
+
+    Compression(KVStoreTuningInfo.Compression info) {
+      this.info = info;
+    }
+  }
+
+  /**
+   * Tuning for stores mostly accessed with point lookups, e.g. by id.
+   */
+  public static final StoreTuning POINT_LOOKUPS = builder()
+    .bloomFilterBitsPerKey(10)
+    .build();
+
+  private final Integer bloomFilterBitsPerKey;
+  private final Integer prefixLength;
+  private final List<Compression> compressionPerLevel;
+
+  private StoreTuning(Integer bloomFilterBitsPerKey, Integer prefixLength, List<Compression> compressionPerLevel) {
+    this.bloomFilterBitsPerKey = bloomFilterBitsPerKey;
+    this.prefixLength = prefixLength;
+    this.compressionPerLevel = Collections.unmodifiableList(new ArrayList<>(compressionPerLevel));
+  }
+
+  /**
+   * @return number of bits per key of the bloom filters of the store, 0 if disabled, or null to use the node default
+   */
+  public Integer getBloomFilterBitsPerKey() {
+    return bloomFilterBitsPerKey;
+  }
+
+  /**
+   * @return length of the key prefixes range scans are usually restricted to, or null if none
+   */
+  public Integer getPrefixLength() {
+    return prefixLength;
+  }
+
+  /**
+   * @return compression of each level of the store, or an empty list to use the default compression
+   */
+  public List<Compression> getCompressionPerLevel() {
+    return compressionPerLevel;
+  }
+
+  public KVStoreTuningInfo toInfo() {
+    final KVStoreTuningInfo info = new KVStoreTuningInfo()
+      .setBloomFilterBitsPerKey(bloomFilterBitsPerKey)
+      .setPrefixLength(prefixLength);
+    if (!compressionPerLevel.isEmpty()) {
+      final List<KVStoreTuningInfo.Compression> compressions = new ArrayList<>(compressionPerLevel.size());
+      for (Compression compression : compressionPerLevel) {
+        compressions.add(compression.info);
+      }
+      info.setCompressionPerLevelList(compressions);
+    }
+    return info;
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (o == null || getClass() != o.getClass()) {
+      return false;
+    }
+    final StoreTuning that = (StoreTuning) o;
+    return Objects.equals(bloomFilterBitsPerKey, that.bloomFilterBitsPerKey)
+      && Objects.equals(prefixLength, that.prefixLength)
+      && compressionPerLevel.equals(that.compressionPerLevel);
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(bloomFilterBitsPerKey, prefixLength, compressionPerLevel);
+  }
+
+  @Override
+  public String toString() {
+    return String.format("StoreTuning{bloomFilterBitsPerKey=%s, prefixLength=%s, compressionPerLevel=%s}",
+      bloomFilterBitsPerKey, prefixLength, compressionPerLevel);
+  }
+
+  public static Builder builder() {
+    return new Builder();
+  }
+
+  /**
+   * Builder for {@link StoreTuning}.
+   */
+  public static final class Builder {
+    private Integer bloomFilterBitsPerKey;
+    private Integer prefixLength;
+    private List<Compression> compressionPerLevel = Collections.emptyList();
+
+    private Builder() {
+    }
+
+    /**
+     * Sets the number of bits per key of bloom filters, 0 to disable them. Bloom filters avoid reading files that
+     * do not contain a key on point lookups. 10 bits per key give a 1% false positive rate.
+     */
+    public Builder bloomFilterBitsPerKey(int bitsPerKey) {
+      Preconditions.checkArgument(bitsPerKey >= 0, "bits per key must be positive");
+      this.bloomFilterBitsPerKey = bitsPerKey;
+      return this;
+    }
+
+    /**
+     * Sets the length of the key prefixes that range scans of the store are usually restricted to. Scans whose
+     * start and end keys share such a prefix only read files that contain keys with that prefix. Keys shorter than
+     * the prefix are used as a whole.
+     */
+    public Builder prefixLength(int prefixLength) {
+      Preconditions.checkArgument(prefixLength > 0, "prefix length must be strictly positive");
+      this.prefixLength = prefixLength;
+      return this;
+    }
+
+    /**
+     * Sets the prefix to the serialized first key of {@link com.dremio.datastore.format.compound.KeyPair} or
+     * {@link com.dremio.datastore.format.compound.KeyTriple} keys, for a first key of the given length.
+     */
+    public Builder compoundKeyPrefix(int firstKeyLength) {
+      Preconditions.checkArgument(firstKeyLength > 0 && firstKeyLength < 128,
+        "first key length must be between 1 and 127");
+      // compound keys are serialized as protobuf messages: the first key is preceded by its tag and length,
+      // one byte each for keys shorter than 128 bytes
+      return prefixLength(firstKeyLength + 2);
+    }
+
+    /**
+     * Sets the compression of each level of the store. Levels after the last one use the last compression.
+     */
+    public Builder compressionPerLevel(Compression... compressions) {
+      this.compressionPerLevel = Arrays.asList(compressions);
+      return this;
+    }
+
+    public StoreTuning build() {
+      return new StoreTuning(bloomFilterBitsPerKey, prefixLength, compressionPerLevel);
+    }
+  }
+}
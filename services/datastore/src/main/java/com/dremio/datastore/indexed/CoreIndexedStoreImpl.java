@@ -19,6 +19,7 @@ import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 import org.apache.lucene.document.Document;
@@ -239,6 +240,21 @@ public class CoreIndexedStoreImpl<K, V> implements CoreIndexedStore<K, V> {
     return doc;
   }
 
+  @Override
+  public Iterable<com.dremio.datastore.api.Document<KVStoreTuple<K>, KVStoreTuple<V>>> putAll(Map<KVStoreTuple<K>, KVStoreTuple<V>> documents, PutOption... options) {
+    if (indexesViaPutOption) {
+      // index fields are provided by a put option for each document
+      return CoreIndexedStore.super.putAll(documents, options);
+    }
+
+    KVStoreOptionUtility.checkIndexPutOptionIsNotUsed(options);
+    final Iterable<com.dremio.datastore.api.Document<KVStoreTuple<K>, KVStoreTuple<V>>> docs = base.putAll(documents, options);
+    for (Map.Entry<KVStoreTuple<K>, KVStoreTuple<V>> document : documents.entrySet()) {
+      index(document.getKey(), document.getValue());
+    }
+    return docs;
+  }
+
   private void index(KVStoreTuple<K> key, PutOption... options) {
     for (PutOption option : options) {
       switch (option.getPutOptionInfo().getType()) {
@@ -339,6 +355,14 @@ public class CoreIndexedStoreImpl<K, V> implements CoreIndexedStore<K, V> {
     index.deleteDocuments(keyAsTerm(key));
   }
 
+  @Override
+  public void deleteAll(List<KVStoreTuple<K>> keys, DeleteOption... options) {
+    base.deleteAll(keys, options);
+    for (KVStoreTuple<K> key : keys) {
+      index.deleteDocuments(keyAsTerm(key));
+    }
+  }
+
   @Override
   public Iterable<com.dremio.datastore.api.Document<KVStoreTuple<K>, KVStoreTuple<V>>> get(List<KVStoreTuple<K>> keys, GetOption... options) {
     final Iterable<com.dremio.datastore.api.Document<KVStoreTuple<K>, KVStoreTuple<V>>> documents = base.get(keys, options);
@@ -28,6 +28,8 @@ import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
@@ -318,6 +320,53 @@ public abstract class AbstractTestKVStore<K, V> {
     assertNull(kvStore.get(key));
   }
 
+  @Test
+  public void testPutAll() {
+    final Map<K, V> documents = new LinkedHashMap<>();
+    for (int i = 0; i < SAMPLING_SIZE; i++) {
+      documents.put(gen.newKey(), gen.newVal());
+    }
+
+    final Iterable<Document<K, V>> results = kvStore.putAll(documents);
+
+    assertEquals(SAMPLING_SIZE, Iterables.size(results));
+    final Iterator<Document<K, V>> iterator = results.iterator();
+    for (Map.Entry<K, V> document : documents.entrySet()) {
+      final Document<K, V> result = iterator.next();
+      gen.assertKeyEquals(document.getKey(), result.getKey());
+      gen.assertValueEquals(document.getValue(), result.getValue());
+      assertFalse(TAG_ASSERT_FAILURE_MSG, Strings.isNullOrEmpty(result.getTag()));
+
+      final Document<K, V> stored = kvStore.get(document.getKey());
+      gen.assertValueEquals(document.getValue(), stored.getValue());
+      assertEquals(result.getTag(), stored.getTag());
+    }
+  }
+
+  @Test
+  public void testDeleteAll() {
+    final DocumentDataset<K, V> data = generateDataAndPopulateKVStore(SAMPLING_SIZE);
+    final List<K> keys = data.getKeys();
+    final int deleted = keys.size() / 2;
+
+    // missing keys are ignored
+    kvStore.deleteAll(ImmutableList.<K>builder()
+      .addAll(keys.subList(0, deleted))
+      .add(gen.newKey())
+      .build());
+
+    final Iterable<Document<K, V>> result = kvStore.get(keys);
+    assertEquals(keys.size(), Iterables.size(result));
+    for (int i = 0; i < keys.size(); i++) {
+      final Document<K, V> document = Iterables.get(result, i);
+      if (i < deleted) {
+        assertNull(document);
+      } else {
+        gen.assertValueEquals(data.getDocument(i).getValue(), document.getValue());
+      }
+    }
+  }
+
   @Test
   public void testFindByExclusiveStartEndRange() {
     ignoreIfFindNotSupported();
@@ -43,6 +43,10 @@ import org.rocksdb.RocksDB;
 import org.rocksdb.RocksDBException;
 import org.rocksdb.Status;
 
+import com.dremio.datastore.api.Document;
+import com.dremio.datastore.api.ImmutableFindByRange;
+import com.dremio.datastore.api.StoreTuning;
+import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.Lists;
 
 /**
@@ -306,4 +310,50 @@ public class TestByteStoreManager {
     assertTrue(!f.exists());
     bsm.close();
   }
+
+  @Test
+  public void testStoreTuning() throws Exception {
+    String dbPath = temporaryFolder.newFolder().getAbsolutePath();
+    final String storeName = "tuned";
+    final KVStoreTuningInfo tuning = StoreTuning.builder()
+      .prefixLength(4)
+      .compressionPerLevel(StoreTuning.Compression.NONE, StoreTuning.Compression.LZ4)
+      .build()
+      .toInfo();
+
+    try (ByteStoreManager bsm = new ByteStoreManager(dbPath, false)) {
+      bsm.start();
+      ByteStore bs = bsm.getStore(storeName, tuning);
+      for (String key : new String[] {"aaaa1", "aaaa2", "aaab1", "bbbb1"}) {
+        bs.put(getBytes(key), getBytes(key));
+      }
+      bs.getAdmin().compactKeyValues();
+
+      // within a prefix, and across prefixes
+      assertEquals(2, count(bs, "aaaa0", "aaaa9"));
+      assertEquals(4, count(bs, "aaaa1", "bbbb1"));
+    }
+
+    // re-opening the store with its tuning
+    try (ByteStoreManager bsm = new ByteStoreManager(dbPath, false)) {
+      bsm.start(ImmutableMap.of(storeName, tuning));
+      ByteStore bs = bsm.getStore(storeName, tuning);
+      assertArrayEquals(getBytes("aaab1"), bs.get(getBytes("aaab1")).getValue());
+      assertEquals(1, count(bs, "aaab0", "aaab9"));
+      assertEquals(3, count(bs, "aaaa2", "bbbb1"));
+    }
+  }
+
+  private static int count(ByteStore bs, String start, String end) {
+    int count = 0;
+    for (Document<byte[], byte[]> ignored : bs.find(new ImmutableFindByRange.Builder<byte[]>()
+      .setStart(getBytes(start))
+      .setIsStartInclusive(true)
+      .setEnd(getBytes(end))
+      .setIsEndInclusive(true)
+      .build())) {
+      count++;
+    }
+    return count;
+  }
 }
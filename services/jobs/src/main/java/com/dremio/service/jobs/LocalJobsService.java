@@ -115,6 +115,7 @@ import com.dremio.datastore.api.LegacyIndexedStore.LegacyFindByCondition;
 import com.dremio.datastore.api.LegacyIndexedStoreCreationFunction;
 import com.dremio.datastore.api.LegacyKVStoreProvider;
 import com.dremio.datastore.api.LegacyStoreBuildingFactory;
+import com.dremio.datastore.api.StoreTuning;
 import com.dremio.datastore.format.Format;
 import com.dremio.datastore.indexed.IndexKey;
 import com.dremio.exec.ExecConstants;
@@ -2669,6 +2670,7 @@ public class LocalJobsService implements Service, JobResultInfoProvider, SimpleJ
         .name(JOBS_NAME)
         .keyFormat(Format.wrapped(JobId.class, JobId::getId, JobId::new, Format.ofString()))
         .valueFormat(Format.ofProtostuff(JobResult.class))
+        .tuning(StoreTuning.POINT_LOOKUPS)
         .buildIndexed(new JobConverter());
     }
   }
@@ -44,6 +44,7 @@ import java.util.Deque;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Locale;
@@ -75,6 +76,8 @@ import com.dremio.datastore.api.LegacyKVStore.LegacyFindByRange;
 import com.dremio.datastore.api.LegacyKVStoreCreationFunction;
 import com.dremio.datastore.api.LegacyKVStoreProvider;
 import com.dremio.datastore.api.LegacyStoreBuildingFactory;
+import com.dremio.datastore.api.StoreTuning;
+import com.dremio.datastore.api.StoreTuning.Compression;
 import com.dremio.datastore.format.Format;
 import com.dremio.datastore.indexed.IndexKey;
 import com.dremio.service.namespace.dataset.proto.DatasetConfig;
@@ -112,6 +115,8 @@ public class NamespaceServiceImpl implements NamespaceService {
   public static final String PARTITION_CHUNKS = "metadata-dataset-splits";
   public static final String MULTI_SPLITS = "metadata-multi-splits";
   private static final int LOG_BATCH = 99;
+  // number of partition chunks or multi splits written to the store in a single batch
+  private static final int WRITE_BATCH = 1000;
   public static final int LATEST_VERSION = 1;
   public static final int MAX_ENTITIES_PER_QUERY = 1000;
 
@@ -176,6 +181,7 @@ public class NamespaceServiceImpl implements NamespaceService {
           NameSpaceContainer::new,
           Format.ofProtostuff(com.dremio.service.namespace.protostuff.NameSpaceContainer.class)))
         .versionExtractor(NameSpaceContainerVersionExtractor.class)
+        .tuning(StoreTuning.POINT_LOOKUPS)
         .buildIndexed(getConverter());
     }
 
@@ -188,6 +194,17 @@ public class NamespaceServiceImpl implements NamespaceService {
   private static final Format<PartitionChunkId> PARTITION_CHUNK_ID_FORMAT =
     Format.wrapped(PartitionChunkId.class, PartitionChunkId::getSplitId, PartitionChunkId::of, Format.ofString());
 
+  /**
+   * Splits are read by dataset, and their keys start with the dataset id, usually a 36 characters UUID. They are
+   * rarely read once written, so older levels are compressed more.
+   */
+  private static final StoreTuning PARTITION_CHUNK_TUNING = StoreTuning.builder()
+    .bloomFilterBitsPerKey(10)
+    .prefixLength(36)
+    .compressionPerLevel(Compression.NONE, Compression.NONE, Compression.LZ4, Compression.LZ4, Compression.LZ4,
+      Compression.LZ4, Compression.ZSTD)
+    .build();
+
   /**
    * KVStore creator for partition chunks table
    */
@@ -200,6 +217,7 @@ public class NamespaceServiceImpl implements NamespaceService {
         .name(PARTITION_CHUNKS)
         .keyFormat(PARTITION_CHUNK_ID_FORMAT)
         .valueFormat(Format.ofProtobuf(PartitionChunk.class))
+        .tuning(PARTITION_CHUNK_TUNING)
         .buildIndexed(new PartitionChunkConverter());
     }
   }
@@ -221,6 +239,7 @@ public class NamespaceServiceImpl implements NamespaceService {
         .name(MULTI_SPLITS)
         .keyFormat(PARTITION_CHUNK_ID_FORMAT)
         .valueFormat(Format.ofProtobuf(MultiSplit.class))
+        .tuning(PARTITION_CHUNK_TUNING)
         .build();
     }
   }
@@ -317,6 +336,7 @@ public class NamespaceServiceImpl implements NamespaceService {
     int elementCount = 0;
     int count = 0;
     final StringBuilder sb = new StringBuilder();
+    final List<PartitionChunkId> toDelete = new ArrayList<>(WRITE_BATCH);
     for (Map.Entry<PartitionChunkId, PartitionChunk> e : partitionChunkStore.find()) {
       PartitionChunkId id = e.getKey();
       final int item = Collections.binarySearch(ranges, Range.singleton(id), PARTITION_CHUNK_RANGE_COMPARATOR);
@@ -340,10 +360,16 @@ public class NamespaceServiceImpl implements NamespaceService {
         } else {
           logger.debug("Deleting partition chunk associated with key {} from the partition chunk store.", e.getKey());
         }
-        partitionChunkStore.delete(e.getKey());
+        toDelete.add(e.getKey());
+        if (toDelete.size() >= WRITE_BATCH) {
+          partitionChunkStore.deleteAll(toDelete);
+          toDelete.clear();
+        }
         ++elementCount;
       }
     }
+    partitionChunkStore.deleteAll(toDelete);
+    toDelete.clear();
 
     if (datasetMetadataConsistencyValidate && (count > 0)) {
       logger.info("Deleting partition chunk associated with keys {}.", sb);
@@ -377,9 +403,14 @@ public class NamespaceServiceImpl implements NamespaceService {
         } else {
           logger.debug("Deleting multi split associated with key {} from the multi split store.", e.getKey());
         }
-        multiSplitStore.delete(e.getKey());
+        toDelete.add(e.getKey());
+        if (toDelete.size() >= WRITE_BATCH) {
+          multiSplitStore.deleteAll(toDelete);
+          toDelete.clear();
+        }
       }
     }
+    multiSplitStore.deleteAll(toDelete);
     if (datasetMetadataConsistencyValidate && (count > 0)) {
       logger.info("Deleting multi splits associated with keys {}.", sb);
     }
@@ -563,6 +594,9 @@ public class NamespaceServiceImpl implements NamespaceService {
     private long partitionChunkCount;
     private long partitionChunkWithSingleSplitCount;
     private List<PartitionChunkId> createdPartitionChunks;
+    // partition chunks and multi splits not written to the stores yet, in the order they were saved
+    private final Map<PartitionChunkId, PartitionChunk> pendingPartitionChunks = new LinkedHashMap<>();
+    private final Map<PartitionChunkId, MultiSplit> pendingMultiSplits = new LinkedHashMap<>();
     private long accumulatedSizeInBytes;
     private long accumulatedRecordCount;
     private List<DatasetSplit> accumulatedSplits;
@@ -631,18 +665,37 @@ public class NamespaceServiceImpl implements NamespaceService {
         partitionChunkWithSingleSplitCount++;
       }
       PartitionChunkId chunkId = PartitionChunkId.of(datasetId, nextDatasetVersion, splitKey);
-      NamespaceServiceImpl.this.partitionChunkStore.put(chunkId, builder.build());
-      createdPartitionChunks.add(chunkId);
-      // Intentionally creating any potential multi-splits after creating the partition chunk.
-      // This makes orphan cleaning simpler, as we can key only on the existing partitionChunk(s), and remove
-      // any matching multi-splits
+      pendingPartitionChunks.put(chunkId, builder.build());
       if (accumulatedSplits.size() > 1 || !singleSplitPartitionAllowed) {
-        NamespaceServiceImpl.this.multiSplitStore.put(chunkId, createMultiSplitFromAccumulated(splitKey));
+        pendingMultiSplits.put(chunkId, createMultiSplitFromAccumulated(splitKey));
+      }
+      if (pendingPartitionChunks.size() >= WRITE_BATCH) {
+        flush();
       }
       totalNumSplits += accumulatedSplits.size();
       resetSplitAccumulation();
     }
 
+    /**
+     * Writes the pending partition chunks and multi splits to the stores, a batch for each store.
+     */
+    private void flush() {
+      if (pendingPartitionChunks.isEmpty()) {
+        return;
+      }
+      // recorded before writing, so that partially written batches are cleaned up on close
+      createdPartitionChunks.addAll(pendingPartitionChunks.keySet());
+      NamespaceServiceImpl.this.partitionChunkStore.putAll(pendingPartitionChunks);
+      // Intentionally creating any potential multi-splits after creating the partition chunks.
+      // This makes orphan cleaning simpler, as we can key only on the existing partitionChunk(s), and remove
+      // any matching multi-splits
+      if (!pendingMultiSplits.isEmpty()) {
+        NamespaceServiceImpl.this.multiSplitStore.putAll(pendingMultiSplits);
+      }
+      pendingPartitionChunks.clear();
+      pendingMultiSplits.clear();
+    }
+
     private OutputStream wrapIfNeeded(OutputStream o) throws IOException {
       switch (splitCompression) {
         case UNCOMPRESSED:
@@ -690,6 +743,7 @@ public class NamespaceServiceImpl implements NamespaceService {
       Preconditions.checkState(!isClosed, "Attempting to save a partition chunk after the whole dataset was saved");
       Objects.requireNonNull(datasetConfig.getId(), "ID is required");
       Objects.requireNonNull(datasetConfig.getReadDefinition(), "read_definition is required");
+      flush();
       datasetConfig.getReadDefinition().setSplitVersion(nextDatasetVersion);
       datasetConfig.setTotalNumSplits(totalNumSplits);
       while (true) {
@@ -740,6 +794,8 @@ public class NamespaceServiceImpl implements NamespaceService {
     @Override
     public void close() {
       if (!isClosed) {
+        pendingPartitionChunks.clear();
+        pendingMultiSplits.clear();
         deleteSplits(createdPartitionChunks);
       }
     }
@@ -801,9 +857,9 @@ public class NamespaceServiceImpl implements NamespaceService {
 
   @Override
   public void deleteSplits(Iterable<PartitionChunkId> splits) {
-    for (PartitionChunkId split: splits) {
-      partitionChunkStore.delete(split);
-      multiSplitStore.delete(split);
+    for (List<PartitionChunkId> batch : Iterables.partition(splits, WRITE_BATCH)) {
+      partitionChunkStore.deleteAll(batch);
+      multiSplitStore.deleteAll(batch);
     }
   }
 
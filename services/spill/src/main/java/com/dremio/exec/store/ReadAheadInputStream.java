@@ -0,0 +1,272 @@
+/*
+ * Copyright (C) 2017-2019 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.exec.store;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.util.ArrayDeque;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+import com.google.common.base.Preconditions;
+import com.google.common.base.Stopwatch;
+
+/**
+ * An input stream that reads ahead of the caller on an executor, so that the next buffers are already read
+ * (and decompressed) while the caller deserializes the current one.
+ *
+ * At most {@code maxBuffers} buffers are read ahead. The caller only blocks when none of them is ready yet;
+ * that time is reported by {@link #getStallNanos()}. The underlying stream is read sequentially by at most
+ * one executor thread. A failed read is rethrown once the caller has consumed the data read before it.
+ */
+public class ReadAheadInputStream extends InputStream {
+
+  private final InputStream in;
+  private final Executor executor;
+  private final int bufferSize;
+  private final int maxBuffers;
+  private final Stopwatch stall = Stopwatch.createUnstarted();
+
+  // guarded by lock
+  private final Object lock = new Object();
+  private final ArrayDeque<Chunk> filled = new ArrayDeque<>();
+  private final ArrayDeque<byte[]> freeBuffers = new ArrayDeque<>();
+  private int allocatedBuffers;
+  private boolean reading;
+  private boolean eof;
+  private boolean closed;
+  private IOException failure;
+
+  private volatile long readNanos;
+  private Chunk current;
+  private int position;
+
+  public ReadAheadInputStream(InputStream in, Executor executor, int bufferSize, int maxBuffers) throws IOException {
+    Preconditions.checkArgument(bufferSize > 0, "Invalid buffer size %s", bufferSize);
+    Preconditions.checkArgument(maxBuffers > 0, "Invalid number of buffers %s", maxBuffers);
+    this.in = Preconditions.checkNotNull(in);
+    this.executor = Preconditions.checkNotNull(executor);
+    this.bufferSize = bufferSize;
+    this.maxBuffers = maxBuffers;
+    // start reading right away, callers usually open a stream shortly before consuming it
+    scheduleReadAhead();
+  }
+
+  @Override
+  public int read() throws IOException {
+    if (!ensureData()) {
+      return -1;
+    }
+    return current.data[position++] & 0xff;
+  }
+
+  @Override
+  public int read(byte[] b, int off, int len) throws IOException {
+    if (off < 0 || len < 0 || off + len > b.length) {
+      throw new IndexOutOfBoundsException();
+    }
+    if (len == 0) {
+      return 0;
+    }
+    if (!ensureData()) {
+      return -1;
+    }
+
+    final int toCopy = Math.min(len, current.length - position);
+    System.arraycopy(current.data, position, b, off, toCopy);
+    position += toCopy;
+    return toCopy;
+  }
+
+  @Override
+  public int available() {
+    return current == null ? 0 : current.length - position;
+  }
+
+  @Override
+  public void close() throws IOException {
+    synchronized (lock) {
+      if (closed) {
+        return;
+      }
+      closed = true;
+      // let an in-flight read finish before closing the underlying stream
+      boolean interrupted = false;
+      while (reading) {
+        try {
+          lock.wait();
+        } catch (InterruptedException e) {
+          interrupted = true;
+        }
+      }
+      if (interrupted) {
+        Thread.currentThread().interrupt();
+      }
+      filled.clear();
+      freeBuffers.clear();
+    }
+    current = null;
+    in.close();
+  }
+
+  /**
+   * @return time, in nanoseconds, the caller was blocked waiting for data to be read
+   */
+  public long getStallNanos() {
+    return stall.elapsed(TimeUnit.NANOSECONDS);
+  }
+
+  /**
+   * @return time, in nanoseconds, spent reading from the underlying stream
+   */
+  public long getReadNanos() {
+    return readNanos;
+  }
+
+  private boolean ensureData() throws IOException {
+    while (current == null || position == current.length) {
+      if (!nextChunk()) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private boolean nextChunk() throws IOException {
+    synchronized (lock) {
+      if (closed) {
+        throw new IOException("Stream is closed");
+      }
+      if (current != null) {
+        freeBuffers.add(current.data);
+        current = null;
+      }
+    }
+    scheduleReadAhead();
+
+    synchronized (lock) {
+      if (filled.isEmpty() && failure == null && !eof) {
+        stall.start();
+        try {
+          while (filled.isEmpty() && failure == null && !eof) {
+            lock.wait();
+          }
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+          throw new InterruptedIOException("Interrupted while waiting for spill reads");
+        } finally {
+          stall.stop();
+        }
+      }
+
+      if (!filled.isEmpty()) {
+        current = filled.poll();
+        position = 0;
+        return true;
+      }
+      if (failure != null) {
+        throw failure;
+      }
+      return false;
+    }
+  }
+
+  private void scheduleReadAhead() {
+    synchronized (lock) {
+      if (reading || eof || closed || failure != null || !hasBufferToFill()) {
+        return;
+      }
+      reading = true;
+    }
+
+    try {
+      executor.execute(this::readAhead);
+    } catch (RuntimeException e) {
+      synchronized (lock) {
+        reading = false;
+        lock.notifyAll();
+      }
+      throw e;
+    }
+  }
+
+  // must be called with the lock held
+  private boolean hasBufferToFill() {
+    return !freeBuffers.isEmpty() || allocatedBuffers < maxBuffers;
+  }
+
+  private void readAhead() {
+    while (true) {
+      byte[] buffer;
+      synchronized (lock) {
+        if (eof || closed || failure != null || !hasBufferToFill()) {
+          reading = false;
+          lock.notifyAll();
+          return;
+        }
+        buffer = freeBuffers.poll();
+        if (buffer == null) {
+          allocatedBuffers++;
+        }
+      }
+      if (buffer == null) {
+        buffer = new byte[bufferSize];
+      }
+
+      int length = 0;
+      boolean reachedEnd = false;
+      IOException error = null;
+      try {
+        final long start = System.nanoTime();
+        while (length < bufferSize) {
+          final int read = in.read(buffer, length, bufferSize - length);
+          if (read < 0) {
+            reachedEnd = true;
+            break;
+          }
+          length += read;
+        }
+        readNanos += System.nanoTime() - start;
+      } catch (IOException e) {
+        error = e;
+      } catch (RuntimeException e) {
+        error = new IOException(e);
+      }
+
+      synchronized (lock) {
+        if (length > 0) {
+          filled.add(new Chunk(buffer, length));
+        } else {
+          freeBuffers.add(buffer);
+        }
+        eof = reachedEnd;
+        failure = error;
+        lock.notifyAll();
+      }
+    }
+  }
+
+  private static final class Chunk {
+    private final byte[] data;
+    private final int length;
+
+    private Chunk(byte[] data, int length) {
+      this.data = data;
+      this.length = length;
+    }
+  }
+}
@@ -0,0 +1,266 @@
+/*
+ * Copyright (C) 2017-2019 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.exec.store;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.util.ArrayDeque;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+import com.google.common.base.Preconditions;
+import com.google.common.base.Stopwatch;
+
+/**
+ * An output stream that hands filled buffers to an executor for writing, so that the caller can keep
+ * serializing data while earlier buffers are (compressed and) written to the underlying stream.
+ *
+ * At most {@code maxBuffers} buffers are in use at any time. The caller only blocks when all of them are
+ * waiting to be written; that time is reported by {@link #getStallNanos()}. Buffers are written in order,
+ * one at a time, by at most one executor thread.
+ *
+ * {@link #flush()} hands the buffered bytes off without waiting for them to be written. {@link #close()}
+ * waits for all pending writes and then closes the underlying stream. A failed write is rethrown by the
+ * next call on this stream.
+ */
+public class WriteBehindOutputStream extends OutputStream {
+
+  private final OutputStream out;
+  private final Executor executor;
+  private final int bufferSize;
+  private final int maxBuffers;
+  private final BlockingQueue<byte[]> freeBuffers;
+  private final Stopwatch stall = Stopwatch.createUnstarted();
+
+  // guarded by lock
+  private final Object lock = new Object();
+  private final ArrayDeque<Chunk> pending = new ArrayDeque<>();
+  private boolean writing;
+
+  private volatile IOException failure;
+  private volatile long writeNanos;
+  private int allocatedBuffers;
+  private byte[] buffer;
+  private int position;
+  private boolean closed;
+
+  public WriteBehindOutputStream(OutputStream out, Executor executor, int bufferSize, int maxBuffers) {
+    Preconditions.checkArgument(bufferSize > 0, "Invalid buffer size %s", bufferSize);
+    Preconditions.checkArgument(maxBuffers > 0, "Invalid number of buffers %s", maxBuffers);
+    this.out = Preconditions.checkNotNull(out);
+    this.executor = Preconditions.checkNotNull(executor);
+    this.bufferSize = bufferSize;
+    this.maxBuffers = maxBuffers;
+    this.freeBuffers = new ArrayBlockingQueue<>(maxBuffers);
+  }
+
+  @Override
+  public void write(int b) throws IOException {
+    ensureBuffer();
+    buffer[position++] = (byte) b;
+    if (position == bufferSize) {
+      submit();
+    }
+  }
+
+  @Override
+  public void write(byte[] b, int off, int len) throws IOException {
+    if (off < 0 || len < 0 || off + len > b.length) {
+      throw new IndexOutOfBoundsException();
+    }
+
+    while (len > 0) {
+      ensureBuffer();
+      final int toCopy = Math.min(len, bufferSize - position);
+      System.arraycopy(b, off, buffer, position, toCopy);
+      position += toCopy;
+      off += toCopy;
+      len -= toCopy;
+      if (position == bufferSize) {
+        submit();
+      }
+    }
+  }
+
+  /**
+   * Hands the buffered bytes to the executor, without waiting for them to be written.
+   */
+  @Override
+  public void flush() throws IOException {
+    checkState();
+    if (position > 0) {
+      submit();
+    }
+  }
+
+  @Override
+  public void close() throws IOException {
+    if (closed) {
+      return;
+    }
+
+    try {
+      if (position > 0 && failure == null) {
+        submit();
+      }
+      awaitPendingWrites();
+      if (failure != null) {
+        throw failure;
+      }
+    } finally {
+      closed = true;
+      buffer = null;
+      freeBuffers.clear();
+      out.close();
+    }
+  }
+
+  /**
+   * @return time, in nanoseconds, the caller was blocked waiting for buffers to be written
+   */
+  public long getStallNanos() {
+    return stall.elapsed(TimeUnit.NANOSECONDS);
+  }
+
+  /**
+   * @return time, in nanoseconds, spent writing to the underlying stream
+   */
+  public long getWriteNanos() {
+    return writeNanos;
+  }
+
+  private void checkState() throws IOException {
+    if (closed) {
+      throw new IOException("Stream is closed");
+    }
+    if (failure != null) {
+      throw failure;
+    }
+  }
+
+  private void ensureBuffer() throws IOException {
+    checkState();
+    if (buffer != null) {
+      return;
+    }
+
+    byte[] next = freeBuffers.poll();
+    if (next == null) {
+      if (allocatedBuffers < maxBuffers) {
+        allocatedBuffers++;
+        next = new byte[bufferSize];
+      } else {
+        stall.start();
+        try {
+          next = freeBuffers.take();
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+          throw new InterruptedIOException("Interrupted while waiting for spill writes");
+        } finally {
+          stall.stop();
+        }
+        checkState();
+      }
+    }
+    buffer = next;
+    position = 0;
+  }
+
+  private void submit() {
+    final Chunk chunk = new Chunk(buffer, position);
+    buffer = null;
+    position = 0;
+
+    synchronized (lock) {
+      pending.add(chunk);
+      if (writing) {
+        return;
+      }
+      writing = true;
+    }
+
+    try {
+      executor.execute(this::writePending);
+    } catch (RuntimeException e) {
+      synchronized (lock) {
+        writing = false;
+        pending.remove(chunk);
+      }
+      freeBuffers.add(chunk.data);
+      throw e;
+    }
+  }
+
+  private void writePending() {
+    while (true) {
+      final Chunk chunk;
+      synchronized (lock) {
+        chunk = pending.poll();
+        if (chunk == null) {
+          writing = false;
+          lock.notifyAll();
+          return;
+        }
+      }
+
+      try {
+        if (failure == null) {
+          final long start = System.nanoTime();
+          out.write(chunk.data, 0, chunk.length);
+          writeNanos += System.nanoTime() - start;
+        }
+      } catch (IOException e) {
+        failure = e;
+      } catch (RuntimeException e) {
+        failure = new IOException(e);
+      } finally {
+        freeBuffers.add(chunk.data);
+      }
+    }
+  }
+
+  private void awaitPendingWrites() throws IOException {
+    synchronized (lock) {
+      if (!writing) {
+        return;
+      }
+      stall.start();
+      try {
+        while (writing) {
+          lock.wait();
+        }
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new InterruptedIOException("Interrupted while waiting for spill writes");
+      } finally {
+        stall.stop();
+      }
+    }
+  }
+
+  private static final class Chunk {
+    private final byte[] data;
+    private final int length;
+
+    private Chunk(byte[] data, int length) {
+      this.data = data;
+      this.length = length;
+    }
+  }
+}
@@ -16,6 +16,7 @@
 package com.dremio.service.spill;
 
 import java.io.IOException;
+import java.util.concurrent.Executor;
 
 import com.dremio.common.exceptions.UserException;
 import com.dremio.service.Service;
@@ -59,4 +60,11 @@ public interface SpillService extends Service {
    * @throws IOException
    */
   boolean isEmpty() throws IOException;
+
+  /**
+   * Returns the executor used for asynchronous spill I/O (write-behind and read-ahead of spill files)
+   *
+   * @return the executor, or null if the service has not been started
+   */
+  Executor getIOExecutor();
 }
@@ -24,7 +24,12 @@ import java.util.ArrayList;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Supplier;
 import java.util.stream.Collectors;
 import java.util.stream.StreamSupport;
@@ -39,6 +44,8 @@ import org.apache.hadoop.fs.RemoteIterator;
 import org.apache.hadoop.fs.permission.FsAction;
 import org.apache.hadoop.fs.permission.FsPermission;
 
+import com.dremio.common.concurrent.CloseableSchedulerThreadPool;
+import com.dremio.common.concurrent.NamedThreadFactory;
 import com.dremio.common.exceptions.UserException;
 import com.dremio.common.io.DefaultTemporaryFolderManager;
 import com.dremio.common.io.ExecutorId;
@@ -88,6 +95,7 @@ public class SpillServiceImpl implements SpillService {
   // NB: healthySpillDirs set by a background task, and used by users fo SpillServiceImpl
   private volatile ArrayList<String> healthySpillDirs;
   private Cancellable healthCheckTask;
+  private ExecutorService ioExecutor;
 
   public SpillServiceImpl(DremioConfig config, SpillServiceOptions options,
                           final Provider<SchedulerService> schedulerService) {
@@ -136,14 +144,18 @@ public class SpillServiceImpl implements SpillService {
   public void start() throws Exception {
     // TODO: Implement the following:
     // TODO: 1. global pool of compression buffers
-    // TODO: 2. pool of I/O completion threads (Note: for local FS only)
-    // TODO: 3. create the spill filesystem adapter
+    // TODO: 2. create the spill filesystem adapter
     minDiskSpace = options.minDiskSpace();
     minDiskSpacePercentage = options.minDiskSpacePercentage();
     healthCheckInterval = options.healthCheckInterval();
     healthCheckEnabled = healthCheckEnabled && options.enableHealthCheck();
     spillSweepInterval = options.spillSweepInterval();
     spillSweepThreshold = options.spillSweepThreshold();
+    final ThreadPoolExecutor pool = new ThreadPoolExecutor(options.ioThreads(), options.ioThreads(), 60L, TimeUnit.SECONDS,
+      new LinkedBlockingQueue<>(), new NamedThreadFactory("spill-io-"));
+    // the pool is only busy while operators spill
+    pool.allowCoreThreadTimeOut(true);
+    ioExecutor = pool;
 
     folderManager.startMonitoring();
 
@@ -180,9 +192,18 @@ public class SpillServiceImpl implements SpillService {
 
   @Override
   public void close() throws Exception {
+    if (ioExecutor != null) {
+      CloseableSchedulerThreadPool.close(ioExecutor, logger);
+      ioExecutor = null;
+    }
     folderManager.close();
   }
 
+  @Override
+  public Executor getIOExecutor() {
+    return ioExecutor;
+  }
+
   @Override
   public void makeSpillSubdirs(String id) throws UserException {
     //TODO: use only the healthy spill directories, once health checks implemented (shortly!). Reviewer: if you see this code, ask Vanco to fix it!
@@ -55,4 +55,9 @@ public interface SpillServiceOptions {
    * will be erased. This is useful for limiting the detritus remaining from unresponsive spill drives.
    */
   long spillSweepThreshold();
+
+  /**
+   * Number of threads used for asynchronous spill I/O. Read once, when the spill service starts
+   */
+  int ioThreads();
 }
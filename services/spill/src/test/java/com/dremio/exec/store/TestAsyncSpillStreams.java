@@ -0,0 +1,151 @@
+/*
+ * Copyright (C) 2017-2019 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.exec.store;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests for {@link WriteBehindOutputStream} and {@link ReadAheadInputStream}
+ */
+public class TestAsyncSpillStreams {
+  private static final int BUFFER_SIZE = 1024;
+
+  private ExecutorService executor;
+
+  @Before
+  public void setup() {
+    executor = Executors.newFixedThreadPool(2);
+  }
+
+  @After
+  public void cleanup() {
+    executor.shutdownNow();
+  }
+
+  @Test
+  public void testWriteBehind() throws Exception {
+    final byte[] data = randomBytes(100_000);
+    final ByteArrayOutputStream sink = new ByteArrayOutputStream();
+    try (WriteBehindOutputStream out = new WriteBehindOutputStream(sink, executor, BUFFER_SIZE, 2)) {
+      int pos = 0;
+      final Random random = new Random(1);
+      while (pos < data.length) {
+        // mix single byte writes with writes smaller and larger than the buffers
+        if (random.nextInt(10) == 0) {
+          out.write(data[pos++]);
+        } else {
+          final int len = Math.min(random.nextInt(3 * BUFFER_SIZE), data.length - pos);
+          out.write(data, pos, len);
+          pos += len;
+        }
+        if (random.nextInt(20) == 0) {
+          out.flush();
+        }
+      }
+    }
+    assertArrayEquals(data, sink.toByteArray());
+  }
+
+  @Test
+  public void testWriteBehindFailure() throws Exception {
+    final OutputStream failing = new OutputStream() {
+      @Override
+      public void write(int b) throws IOException {
+        throw new IOException("disk full");
+      }
+    };
+
+    final WriteBehindOutputStream out = new WriteBehindOutputStream(failing, executor, BUFFER_SIZE, 2);
+    try {
+      for (int i = 0; i < 10; i++) {
+        out.write(new byte[BUFFER_SIZE]);
+      }
+      out.close();
+      fail("expected the write failure to be rethrown");
+    } catch (IOException e) {
+      assertEquals("disk full", e.getMessage());
+    }
+  }
+
+  @Test
+  public void testReadAhead() throws Exception {
+    final byte[] data = randomBytes(100_000);
+    final byte[] read = new byte[data.length];
+    try (ReadAheadInputStream in = new ReadAheadInputStream(new ByteArrayInputStream(data), executor, BUFFER_SIZE, 3)) {
+      int pos = 0;
+      final Random random = new Random(2);
+      while (pos < data.length) {
+        if (random.nextInt(10) == 0) {
+          read[pos++] = (byte) in.read();
+        } else {
+          final int n = in.read(read, pos, Math.min(1 + random.nextInt(3 * BUFFER_SIZE), data.length - pos));
+          assertTrue(n > 0);
+          pos += n;
+        }
+      }
+      assertEquals(-1, in.read());
+      assertEquals(-1, in.read(new byte[10], 0, 10));
+    }
+    assertArrayEquals(data, read);
+  }
+
+  @Test
+  public void testReadAheadFailure() throws Exception {
+    final InputStream failing = new InputStream() {
+      private int remaining = BUFFER_SIZE;
+
+      @Override
+      public int read() throws IOException {
+        if (remaining-- > 0) {
+          return 1;
+        }
+        throw new IOException("bad sector");
+      }
+    };
+
+    try (ReadAheadInputStream in = new ReadAheadInputStream(failing, executor, BUFFER_SIZE, 2)) {
+      // data read before the failure is returned first
+      final byte[] buffer = new byte[BUFFER_SIZE];
+      assertEquals(BUFFER_SIZE, in.read(buffer, 0, BUFFER_SIZE));
+      in.read(buffer, 0, BUFFER_SIZE);
+      fail("expected the read failure to be rethrown");
+    } catch (IOException e) {
+      assertEquals("bad sector", e.getMessage());
+    }
+  }
+
+  private static byte[] randomBytes(int length) {
+    final byte[] data = new byte[length];
+    new Random(0).nextBytes(data);
+    return data;
+  }
+}